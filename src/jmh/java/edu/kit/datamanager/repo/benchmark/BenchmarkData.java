@@ -0,0 +1,136 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.benchmark;
+
+import edu.kit.datamanager.entities.Identifier;
+import edu.kit.datamanager.entities.PERMISSION;
+import edu.kit.datamanager.repo.domain.Agent;
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.Contributor;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Date;
+import edu.kit.datamanager.repo.domain.Description;
+import edu.kit.datamanager.repo.domain.GeoLocation;
+import edu.kit.datamanager.repo.domain.Point;
+import edu.kit.datamanager.repo.domain.RelatedIdentifier;
+import edu.kit.datamanager.repo.domain.ResourceType;
+import edu.kit.datamanager.repo.domain.Scheme;
+import edu.kit.datamanager.repo.domain.Subject;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.domain.acl.AclEntry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test data shared by all benchmarks.
+ *
+ * @author jejkal
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Create a resource with the provided number of elements in each
+     * collection, e.g., titles, creators and alternate identifiers. Titles and
+     * geo locations have ids assigned.
+     *
+     * @param id The resource id.
+     * @param elements The number of elements per collection.
+     *
+     * @return The resource.
+     */
+    public static DataResource createResource(String id, int elements) {
+        DataResource resource = DataResource.factoryNewDataResource(id);
+        resource.setState(DataResource.State.VOLATILE);
+        resource.setResourceType(ResourceType.createResourceType("dataset", ResourceType.TYPE_GENERAL.DATASET));
+        resource.getResourceType().setId(1l);
+        resource.setPublisher("Karlsruhe Institute of Technology");
+        resource.setPublicationYear("2025");
+        resource.setLanguage("en");
+        resource.getDates().add(Date.factoryDate(Instant.parse("2025-01-01T00:00:00Z"), Date.DATE_TYPE.CREATED));
+        resource.getAcls().add(new AclEntry("admin", PERMISSION.ADMINISTRATE));
+        long nextId = 2;
+        for (int i = 0; i < elements; i++) {
+            Title title = Title.factoryTitle("Title " + i, Title.TYPE.OTHER);
+            title.setId(nextId++);
+            resource.getTitles().add(title);
+            Agent creator = Agent.factoryAgent("Given" + i, "Family" + i, new String[]{"KIT"});
+            resource.getCreators().add(creator);
+            Contributor contributor = Contributor.factoryContributor(Agent.factoryAgent("Contributor" + i, "Family" + i, new String[]{"KIT"}), Contributor.TYPE.DATA_MANAGER);
+            resource.getContributors().add(contributor);
+            Description description = Description.factoryDescription("Description " + i, Description.TYPE.ABSTRACT, "en");
+            resource.getDescriptions().add(description);
+            Identifier identifier = Identifier.factoryIdentifier("identifier-" + i, Identifier.IDENTIFIER_TYPE.OTHER);
+            resource.getAlternateIdentifiers().add(identifier);
+            RelatedIdentifier related = RelatedIdentifier.factoryRelatedIdentifier(RelatedIdentifier.RELATION_TYPES.IS_DOCUMENTED_BY, "related-" + i, Scheme.factoryScheme("id", "uri"), "scheme");
+            resource.getRelatedIdentifiers().add(related);
+            Subject subject = Subject.factorySubject("subject " + i, "uri", "en", Scheme.factoryScheme("id", "uri"));
+            resource.getSubjects().add(subject);
+            Point point = Point.factoryPoint(i, i);
+            point.setId(nextId++);
+            GeoLocation location = GeoLocation.factoryGeoLocation(point);
+            location.setId(nextId++);
+            resource.getGeoLocations().add(location);
+            resource.getAcls().add(new AclEntry("user" + i, PERMISSION.READ));
+        }
+        return resource;
+    }
+
+    /**
+     * Create content information elements of the provided resource, which
+     * refer to local files.
+     *
+     * @param parent The parent resource.
+     * @param count The number of elements.
+     *
+     * @return The content information elements.
+     */
+    public static List<ContentInformation> createContent(DataResource parent, int count) {
+        List<ContentInformation> content = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ContentInformation info = ContentInformation.createContentInformation("folder/file_" + i + ".txt");
+            info.setId((long) i);
+            info.setParentResource(parent);
+            info.setContentUri("file:///data/" + parent.getId() + "/folder/file_" + i + ".txt");
+            content.add(info);
+        }
+        return content;
+    }
+
+    /**
+     * Read a resource of the benchmark classpath.
+     *
+     * @param name The resource name.
+     *
+     * @return The content.
+     */
+    public static byte[] readClasspathResource(String name) {
+        try (InputStream in = BenchmarkData.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Resource " + name + " not found.");
+            }
+            return in.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
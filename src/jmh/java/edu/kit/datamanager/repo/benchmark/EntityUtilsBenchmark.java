@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.benchmark;
+
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.util.EntityUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Removal of user-provided ids from submitted resources via EntityUtils,
+ * which accesses fields via var handles cached per class, and via the former
+ * implementation inspecting all fields via reflection on every invocation.
+ * Ids are only removed by the first invocation, afterwards the benchmark
+ * measures the traversal of the object graph, which dominates the costs.
+ *
+ * @author jejkal
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EntityUtilsBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int elements;
+
+    private DataResource resource;
+
+    @Setup
+    public void setUp() {
+        resource = BenchmarkData.createResource("benchmarkResource", elements);
+    }
+
+    @Benchmark
+    public DataResource removeIds() {
+        EntityUtils.removeIds(resource);
+        return resource;
+    }
+
+    @Benchmark
+    public DataResource removeIdsReflective() {
+        ReflectiveEntityUtils.removeIds(resource);
+        return resource;
+    }
+}
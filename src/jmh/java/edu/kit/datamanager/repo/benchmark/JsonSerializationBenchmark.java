@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.kit.datamanager.repo.Application;
+import edu.kit.datamanager.repo.domain.DataResource;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON serialization and deserialization of DataResources using the mapper
+ * configured as bean 'OBJECT_MAPPER_BEAN'.
+ *
+ * @author jejkal
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "100"})
+    private int elements;
+
+    private ObjectMapper mapper;
+    private DataResource resource;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = new Application().jsonObjectMapper();
+        resource = BenchmarkData.createResource("benchmarkResource", elements);
+        json = mapper.writeValueAsBytes(resource);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(resource);
+    }
+
+    @Benchmark
+    public DataResource deserialize() throws IOException {
+        return mapper.readValue(json, DataResource.class);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.benchmark;
+
+import edu.kit.datamanager.repo.util.LinkTemplate;
+import edu.kit.datamanager.repo.web.impl.DataResourceController;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Creation of content links as done for each entry of a content listing,
+ * either via WebMvcLinkBuilder.linkTo(methodOn(...)) or via a precompiled
+ * LinkTemplate.
+ *
+ * @author jejkal
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LinkTemplateBenchmark {
+
+    private static final LinkTemplate CONTENT_LINK = LinkTemplate.forMethod(DataResourceController.class, "getContentMetadata");
+
+    @Param({"1", "1000"})
+    private int entries;
+
+    private String id;
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/dataresources/");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        id = UUID.randomUUID().toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public void webMvcLinkBuilder(Blackhole blackhole) {
+        for (int i = 0; i < entries; i++) {
+            String link = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(DataResourceController.class).getContentMetadata(id, null, 1l, null, null, null, null)).toString();
+            blackhole.consume(link.replace("**", "file_" + i + ".txt"));
+        }
+    }
+
+    @Benchmark
+    public void linkTemplate(Blackhole blackhole) {
+        String baseUri = LinkTemplate.getBaseUri();
+        for (int i = 0; i < entries; i++) {
+            String link = LinkTemplate.appendQueryParameter(CONTENT_LINK.expand(baseUri, id), "version", 1l);
+            blackhole.consume(link.replace("**", "file_" + i + ".txt"));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.benchmark;
+
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.web.converter.DataCiteMessageConverter;
+import edu.kit.datamanager.repo.web.converter.ZenodoMessageConverter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+/**
+ * Parsing of DataCite and Zenodo records into DataResources.
+ *
+ * @author jejkal
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MessageConverterBenchmark {
+
+    private DataCiteMessageConverter dataCiteConverter;
+    private ZenodoMessageConverter zenodoConverter;
+    private byte[] dataCiteRecord;
+    private byte[] zenodoRecord;
+
+    @Setup
+    public void setUp() {
+        dataCiteConverter = new DataCiteMessageConverter();
+        zenodoConverter = new ZenodoMessageConverter();
+        dataCiteRecord = BenchmarkData.readClasspathResource("/datacite.json");
+        zenodoRecord = BenchmarkData.readClasspathResource("/zenodo.json");
+    }
+
+    @Benchmark
+    public Object readDataCite() throws IOException {
+        return dataCiteConverter.read(DataResource.class, new MockHttpInputMessage(dataCiteRecord));
+    }
+
+    @Benchmark
+    public Object readZenodo() throws IOException {
+        return zenodoConverter.read(DataResource.class, new MockHttpInputMessage(zenodoRecord));
+    }
+}
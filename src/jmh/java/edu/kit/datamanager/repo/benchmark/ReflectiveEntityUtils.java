@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.benchmark;
+
+import jakarta.persistence.Id;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.util.Set;
+
+/**
+ * Former implementation of EntityUtils.removeIds() inspecting all fields via
+ * reflection on every invocation, kept as baseline for EntityUtilsBenchmark.
+ *
+ * @author jejkal
+ */
+public final class ReflectiveEntityUtils {
+
+    private ReflectiveEntityUtils() {
+    }
+
+    public static void removeIds(Object originalObj) {
+        if (originalObj == null) {
+            return;
+        }
+        for (Field field : originalObj.getClass().getDeclaredFields()) {
+            Id idField = field.getAnnotation(Id.class);
+            if (idField != null) {
+                field.setAccessible(true);
+                try {
+                    if (field.get(originalObj) != null) {
+                        field.set(originalObj, null);
+                    }
+                } catch (IllegalArgumentException | IllegalAccessException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            } else if (Set.class.isAssignableFrom(field.getType())) {
+                field.setAccessible(true);
+                try {
+                    Object val = field.get(originalObj);
+                    if (val != null) {
+                        for (Object v : (Set) val) {
+                            removeIds(v);
+                        }
+                    }
+                } catch (IllegalArgumentException | IllegalAccessException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            } else if (!field.getType().isPrimitive() && !field.getType().isEnum() && field.getType().getPackageName().startsWith("edu.kit.datamanager")) {
+                try {
+                    field.setAccessible(true);
+                    Object val = field.get(originalObj);
+                    if (val != null) {
+                        removeIds(val);
+                    }
+                } catch (IllegalArgumentException | IllegalAccessException | InaccessibleObjectException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        }
+    }
+}
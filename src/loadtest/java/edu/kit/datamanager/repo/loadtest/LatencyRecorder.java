@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the latencies of all successful requests of one operation and the
+ * number of failed requests. All latencies are kept, which is feasible for
+ * the number of requests issued by a single load test and allows to compute
+ * exact percentiles.
+ *
+ * @author jejkal
+ */
+public class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count = 0;
+    private int errors = 0;
+
+    /**
+     * Record the latency of a successful request.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public synchronized void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    /**
+     * Record a failed request.
+     */
+    public synchronized void recordError() {
+        errors++;
+    }
+
+    /**
+     * Summarize all recorded requests.
+     *
+     * @param durationSeconds The duration of the measurement used to compute
+     * the throughput.
+     *
+     * @return The summary with the keys 'count', 'errors', 'throughput' (per
+     * second), 'p50', 'p90', 'p99' and 'max' (milliseconds).
+     */
+    public synchronized Map<String, Number> summarize(double durationSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        Map<String, Number> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("errors", errors);
+        summary.put("throughput", (durationSeconds > 0) ? count / durationSeconds : 0);
+        summary.put("p50", toMillis(percentile(sorted, 0.5)));
+        summary.put("p90", toMillis(percentile(sorted, 0.9)));
+        summary.put("p99", toMillis(percentile(sorted, 0.99)));
+        summary.put("max", toMillis((count > 0) ? sorted[count - 1] : 0));
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.kit.datamanager.repo.Application;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+/**
+ * End-to-end load test booting base-repo on a random port. At first,
+ * 'loadtest.resources' resources with 'loadtest.files' files each are seeded.
+ * Afterwards, 'loadtest.concurrency' clients issue requests chosen randomly
+ * according to 'loadtest.mix' for 'loadtest.warmupSeconds' without and for
+ * 'loadtest.durationSeconds' with measurement. Finally, count, errors,
+ * throughput and latency percentiles of each operation are reported.
+ *
+ * By default, an in-memory H2 database and a temporary storage folder are
+ * used, authentication and messaging are disabled. All other settings are
+ * taken from 'config/application-default.properties' and can be overwritten
+ * via system properties, e.g., '-Drepo.audit.enabled=false' or
+ * '-Dspring.datasource.url=jdbc:postgresql://localhost:5432/loadtest', which
+ * allows to compare different configurations with the same workload.
+ *
+ * @author jejkal
+ */
+public class LoadTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final LoadTestConfiguration configuration;
+    private final RepositoryClient client;
+    private final byte[] content;
+    //resources available for patch and content operations, only appended
+    private final List<SeededResource> resources = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    public LoadTest(LoadTestConfiguration configuration, RepositoryClient client) {
+        this.configuration = configuration;
+        this.client = client;
+        this.content = new byte[configuration.getFileSize()];
+        ThreadLocalRandom.current().nextBytes(content);
+        List<Operation> ops = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int sum = 0;
+        for (Map.Entry<Operation, Integer> entry : configuration.getMix().entrySet()) {
+            if (entry.getValue() > 0) {
+                sum += entry.getValue();
+                ops.add(entry.getKey());
+                weights.add(sum);
+            }
+        }
+        this.operations = ops.toArray(Operation[]::new);
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("org.apache.tomcat.util.buf.UDecoder.ALLOW_ENCODED_SLASH", "true");
+        LoadTestConfiguration configuration = LoadTestConfiguration.fromSystemProperties();
+        Path storage = Files.createTempDirectory("base-repo-loadtest");
+
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("server.port", "0");
+        defaults.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=LEGACY;NON_KEYWORDS=VALUE");
+        defaults.put("repo.basepath", storage.toUri().toString());
+        defaults.put("repo.auth.enabled", "false");
+        defaults.put("repo.messaging.enabled", "false");
+        defaults.put("spring.cloud.config.enabled", "false");
+        defaults.put("eureka.client.enabled", "false");
+        defaults.put("logging.level.root", "WARN");
+        List<String> arguments = new ArrayList<>(List.of(args));
+        //command line arguments take precedence over system properties, thus only pass defaults not set otherwise
+        defaults.forEach((key, value) -> {
+            if (System.getProperty(key) == null) {
+                arguments.add("--" + key + "=" + value);
+            }
+        });
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(Application.class, arguments.toArray(String[]::new))) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            LoadTest test = new LoadTest(configuration, new RepositoryClient("http://localhost:" + port));
+            test.seed();
+            test.run(configuration.getWarmupSeconds(), null);
+            Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+            for (Operation operation : test.operations) {
+                recorders.put(operation, new LatencyRecorder());
+            }
+            test.run(configuration.getDurationSeconds(), recorders);
+            test.report(context.getEnvironment(), recorders);
+        } finally {
+            deleteRecursively(storage.toFile());
+        }
+    }
+
+    /**
+     * Create all resources and files used by the workload.
+     *
+     * @throws Exception If seeding fails.
+     */
+    void seed() throws Exception {
+        System.out.println("Seeding " + configuration.getResources() + " resource(s) with " + configuration.getFiles() + " file(s) each...");
+        ExecutorService executor = Executors.newFixedThreadPool(configuration.getConcurrency());
+        try {
+            List<Future<SeededResource>> futures = new ArrayList<>();
+            for (int i = 0; i < configuration.getResources(); i++) {
+                futures.add(executor.submit(() -> {
+                    SeededResource resource = new SeededResource(client.createResource("Seeded resource " + sequence.incrementAndGet()));
+                    for (int j = 0; j < configuration.getFiles(); j++) {
+                        String path = "seed/file_" + j + ".bin";
+                        client.createContent(resource.id, path, content);
+                        resource.files.add(path);
+                    }
+                    return resource;
+                }));
+            }
+            for (Future<SeededResource> future : futures) {
+                resources.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Execute the workload for the provided duration.
+     *
+     * @param seconds The duration in seconds.
+     * @param recorders The recorders of all operations or null for warmup.
+     *
+     * @throws InterruptedException If interrupted while waiting for the
+     * clients.
+     */
+    void run(int seconds, Map<Operation, LatencyRecorder> recorders) throws InterruptedException {
+        if (seconds <= 0) {
+            return;
+        }
+        System.out.println(((recorders == null) ? "Warming up" : "Measuring") + " for " + seconds + " second(s) with " + configuration.getConcurrency() + " client(s)...");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(configuration.getConcurrency());
+        for (int i = 0; i < configuration.getConcurrency(); i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    Operation operation = nextOperation();
+                    LatencyRecorder recorder = (recorders != null) ? recorders.get(operation) : null;
+                    try {
+                        long nanos = execute(operation);
+                        if (recorder != null) {
+                            recorder.record(nanos);
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (IOException | RuntimeException ex) {
+                        if (recorder != null) {
+                            recorder.recordError();
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(seconds + 60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Execute a single operation. Requests needed to prepare the operation,
+     * e.g., obtaining the ETag before patching, are not measured.
+     *
+     * @param operation The operation.
+     *
+     * @return The latency of the measured request in nanoseconds.
+     */
+    private long execute(Operation operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        SeededResource resource = resources.get(random.nextInt(resources.size()));
+        long start;
+        switch (operation) {
+            case create -> {
+                start = System.nanoTime();
+                String id = client.createResource("Created resource " + sequence.incrementAndGet());
+                long nanos = System.nanoTime() - start;
+                resources.add(new SeededResource(id));
+                return nanos;
+            }
+            case patch -> {
+                String etag = client.getETag(resource.id);
+                start = System.nanoTime();
+                client.patchResource(resource.id, etag, 1900 + random.nextInt(200));
+            }
+            case findByExample -> {
+                start = System.nanoTime();
+                client.findByExample(random.nextInt(Math.max(1, resources.size() / PAGE_SIZE)), PAGE_SIZE);
+            }
+            case getContent -> {
+                String path = resource.randomFile(random);
+                if (path == null) {
+                    //resource has no files yet, pick a seeded one
+                    resource = resources.get(random.nextInt(configuration.getResources()));
+                    path = resource.randomFile(random);
+                    if (path == null) {
+                        throw new IllegalStateException("No content available for download.");
+                    }
+                }
+                start = System.nanoTime();
+                client.getContent(resource.id, path);
+            }
+            case createContent -> {
+                String path = "upload/file_" + sequence.incrementAndGet() + ".bin";
+                start = System.nanoTime();
+                client.createContent(resource.id, path, content);
+                long nanos = System.nanoTime() - start;
+                resource.files.add(path);
+                return nanos;
+            }
+            default ->
+                throw new IllegalArgumentException("Unsupported operation " + operation + ".");
+        }
+        return System.nanoTime() - start;
+    }
+
+    private Operation nextOperation() {
+        int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Print the results and the configuration relevant for comparisons and
+     * write them as JSON to 'loadtest.report' if set.
+     */
+    private void report(Environment environment, Map<Operation, LatencyRecorder> recorders) throws IOException {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        for (String key : new String[]{"spring.datasource.url", "repo.audit.enabled", "repo.plugin.versioning", "repo.plugin.storage",
+            "repo.search.enabled", "spring.threads.virtual.enabled", "repo.download.async.enabled"}) {
+            settings.put(key, environment.getProperty(key));
+        }
+        settings.put("loadtest.resources", configuration.getResources());
+        settings.put("loadtest.files", configuration.getFiles());
+        settings.put("loadtest.fileSize", configuration.getFileSize());
+        settings.put("loadtest.concurrency", configuration.getConcurrency());
+        settings.put("loadtest.durationSeconds", configuration.getDurationSeconds());
+        settings.put("loadtest.mix", configuration.getMix());
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        System.out.println();
+        settings.forEach((key, value) -> System.out.println(key + ": " + value));
+        System.out.println();
+        System.out.println(String.format("%-15s %9s %7s %10s %9s %9s %9s %9s", "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        recorders.forEach((operation, recorder) -> {
+            Map<String, Number> summary = recorder.summarize(configuration.getDurationSeconds());
+            results.put(operation.name(), summary);
+            System.out.println(String.format("%-15s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f", operation, summary.get("count"), summary.get("errors"),
+                    summary.get("throughput"), summary.get("p50"), summary.get("p90"), summary.get("p99"), summary.get("max")));
+        });
+
+        if (configuration.getReport() != null) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("settings", settings);
+            report.put("results", results);
+            File file = new File(configuration.getReport());
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+            System.out.println("Report written to " + file.getAbsolutePath());
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Resource created by the load test and the paths of its files.
+     */
+    private static final class SeededResource {
+
+        private final String id;
+        private final List<String> files = Collections.synchronizedList(new ArrayList<>());
+
+        SeededResource(String id) {
+            this.id = id;
+        }
+
+        String randomFile(ThreadLocalRandom random) {
+            synchronized (files) {
+                return files.isEmpty() ? null : files.get(random.nextInt(files.size()));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.Data;
+
+/**
+ * Configuration of a load test read from system properties starting with
+ * 'loadtest.'.
+ *
+ * <ul>
+ * <li>loadtest.resources: Number of resources seeded before the test
+ * (default: 100)</li>
+ * <li>loadtest.files: Number of files seeded per resource (default: 5)</li>
+ * <li>loadtest.fileSize: Size of seeded and uploaded files in bytes (default:
+ * 4096)</li>
+ * <li>loadtest.concurrency: Number of concurrent clients (default: 16)</li>
+ * <li>loadtest.warmupSeconds: Duration of the unmeasured warmup (default:
+ * 10)</li>
+ * <li>loadtest.durationSeconds: Duration of the measurement (default:
+ * 60)</li>
+ * <li>loadtest.mix: Relative weights of all operations (default:
+ * create:1,patch:1,findByExample:2,getContent:5,createContent:1)</li>
+ * <li>loadtest.report: Optional file the report is written to as JSON</li>
+ * </ul>
+ *
+ * @author jejkal
+ */
+@Data
+public class LoadTestConfiguration {
+
+    public static final String DEFAULT_MIX = "create:1,patch:1,findByExample:2,getContent:5,createContent:1";
+
+    private int resources;
+    private int files;
+    private int fileSize;
+    private int concurrency;
+    private int warmupSeconds;
+    private int durationSeconds;
+    private Map<Operation, Integer> mix;
+    private String report;
+
+    /**
+     * Create the configuration from the current system properties.
+     *
+     * @return The configuration.
+     *
+     * @throws IllegalArgumentException If a value is invalid.
+     */
+    public static LoadTestConfiguration fromSystemProperties() {
+        LoadTestConfiguration configuration = new LoadTestConfiguration();
+        configuration.setResources(getInt("loadtest.resources", 100, 1));
+        configuration.setFiles(getInt("loadtest.files", 5, 0));
+        configuration.setFileSize(getInt("loadtest.fileSize", 4096, 0));
+        configuration.setConcurrency(getInt("loadtest.concurrency", 16, 1));
+        configuration.setWarmupSeconds(getInt("loadtest.warmupSeconds", 10, 0));
+        configuration.setDurationSeconds(getInt("loadtest.durationSeconds", 60, 1));
+        configuration.setMix(parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)));
+        configuration.setReport(System.getProperty("loadtest.report"));
+        return configuration;
+    }
+
+    /**
+     * Parse a workload mix of the form 'operation:weight,...'. Operations not
+     * contained in the mix are not executed.
+     *
+     * @param value The mix.
+     *
+     * @return The weight of each operation.
+     *
+     * @throws IllegalArgumentException If an operation is unknown, a weight is
+     * invalid or all weights are zero.
+     */
+    public static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String element : value.split(",")) {
+            if (element.isBlank()) {
+                continue;
+            }
+            String[] parts = element.trim().split(":");
+            int weight = (parts.length > 1) ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of operation " + parts[0] + " must not be negative.");
+            }
+            mix.put(Operation.valueOf(parts[0].trim()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Workload mix " + value + " contains no operation.");
+        }
+        return mix;
+    }
+
+    private static int getInt(String key, int defaultValue, int minValue) {
+        int value = Integer.parseInt(System.getProperty(key, Integer.toString(defaultValue)));
+        if (value < minValue) {
+            throw new IllegalArgumentException("Value of " + key + " must be at least " + minValue + ".");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.loadtest;
+
+/**
+ * Operations executed during a load test. The names are used in the workload
+ * mix, e.g., 'create:1,getContent:5', and in the report.
+ *
+ * @author jejkal
+ */
+public enum Operation {
+    /**
+     * POST /api/v1/dataresources/
+     */
+    create,
+    /**
+     * PATCH /api/v1/dataresources/{id}
+     */
+    patch,
+    /**
+     * POST /api/v1/dataresources/search
+     */
+    findByExample,
+    /**
+     * GET /api/v1/dataresources/{id}/data/{path}
+     */
+    getContent,
+    /**
+     * POST /api/v1/dataresources/{id}/data/{path}
+     */
+    createContent;
+}
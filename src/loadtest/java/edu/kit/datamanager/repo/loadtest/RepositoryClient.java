@@ -0,0 +1,207 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Year;
+import java.util.UUID;
+
+/**
+ * Minimal HTTP client for the DataResource endpoints used in load tests.
+ * Each method issues exactly one request and throws an IOException if the
+ * response status differs from the expected one, such that callers can
+ * measure single requests.
+ *
+ * @author jejkal
+ */
+public class RepositoryClient {
+
+    public static final String PUBLISHER = "loadtest";
+
+    private final HttpClient client;
+    private final String resourcesUri;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Create a client for the instance at the provided base URI.
+     *
+     * @param baseUri The base URI, e.g., http://localhost:8080
+     */
+    public RepositoryClient(String baseUri) {
+        this.resourcesUri = baseUri + "/api/v1/dataresources/";
+        this.client = HttpClient.newBuilder().
+                version(HttpClient.Version.HTTP_1_1).
+                connectTimeout(Duration.ofSeconds(10)).
+                build();
+    }
+
+    /**
+     * Create a new resource.
+     *
+     * @param title The title of the resource.
+     *
+     * @return The id of the created resource.
+     *
+     * @throws IOException If the request fails.
+     * @throws InterruptedException If interrupted while waiting for the
+     * response.
+     */
+    public String createResource(String title) throws IOException, InterruptedException {
+        ObjectNode resource = mapper.createObjectNode();
+        resource.putArray("titles").addObject().put("value", title);
+        resource.putObject("resourceType").put("value", "dataset").put("typeGeneral", "DATASET");
+        resource.put("publisher", PUBLISHER);
+        resource.put("publicationYear", Integer.toString(Year.now().getValue()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(resourcesUri)).
+                header("Content-Type", "application/json").
+                POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(resource))).
+                build();
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString(), 201);
+        return mapper.readTree(response.body()).get("id").asText();
+    }
+
+    /**
+     * Get the current ETag of a resource, which is required for patching.
+     *
+     * @param id The resource id.
+     *
+     * @return The ETag.
+     *
+     * @throws IOException If the request fails.
+     * @throws InterruptedException If interrupted while waiting for the
+     * response.
+     */
+    public String getETag(String id) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(resourceUri(id)).
+                header("Accept", "application/json").
+                GET().
+                build();
+        HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding(), 200);
+        return response.headers().firstValue("ETag").orElseThrow(() -> new IOException("No ETag returned for resource " + id + "."));
+    }
+
+    /**
+     * Patch the publication year of a resource.
+     *
+     * @param id The resource id.
+     * @param etag The current ETag of the resource.
+     * @param year The new publication year.
+     *
+     * @throws IOException If the request fails, e.g., due to a concurrent
+     * modification of the resource.
+     * @throws InterruptedException If interrupted while waiting for the
+     * response.
+     */
+    public void patchResource(String id, String etag, int year) throws IOException, InterruptedException {
+        String patch = "[{\"op\": \"replace\",\"path\": \"/publicationYear\",\"value\": \"" + year + "\"}]";
+        HttpRequest request = HttpRequest.newBuilder(resourceUri(id)).
+                header("Content-Type", "application/json-patch+json").
+                header("If-Match", etag).
+                method("PATCH", HttpRequest.BodyPublishers.ofString(patch)).
+                build();
+        send(request, HttpResponse.BodyHandlers.discarding(), 204);
+    }
+
+    /**
+     * Search for resources of the load test by example.
+     *
+     * @param page The page to return.
+     * @param size The page size.
+     *
+     * @throws IOException If the request fails.
+     * @throws InterruptedException If interrupted while waiting for the
+     * response.
+     */
+    public void findByExample(int page, int size) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(resourcesUri + "search?page=" + page + "&size=" + size)).
+                header("Content-Type", "application/json").
+                header("Accept", "application/json").
+                POST(HttpRequest.BodyPublishers.ofString("{\"publisher\":\"" + PUBLISHER + "\"}")).
+                build();
+        send(request, HttpResponse.BodyHandlers.ofByteArray(), 200);
+    }
+
+    /**
+     * Download a file of a resource.
+     *
+     * @param id The resource id.
+     * @param path The relative path of the file.
+     *
+     * @return The number of bytes received.
+     *
+     * @throws IOException If the request fails.
+     * @throws InterruptedException If interrupted while waiting for the
+     * response.
+     */
+    public int getContent(String id, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(contentUri(id, path)).
+                header("Accept", "application/octet-stream").
+                GET().
+                build();
+        return send(request, HttpResponse.BodyHandlers.ofByteArray(), 200).body().length;
+    }
+
+    /**
+     * Upload a file to a resource as multipart request.
+     *
+     * @param id The resource id.
+     * @param path The relative path of the file, which must not exist.
+     * @param content The file content.
+     *
+     * @throws IOException If the request fails.
+     * @throws InterruptedException If interrupted while waiting for the
+     * response.
+     */
+    public void createContent(String id, String path, byte[] content) throws IOException, InterruptedException {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 256);
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + path.substring(path.lastIndexOf('/') + 1) + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(contentUri(id, path)).
+                header("Content-Type", "multipart/form-data; boundary=" + boundary).
+                POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())).
+                build();
+        send(request, HttpResponse.BodyHandlers.discarding(), 201);
+    }
+
+    private URI resourceUri(String id) {
+        return URI.create(resourcesUri + id);
+    }
+
+    private URI contentUri(String id, String path) {
+        return URI.create(resourcesUri + id + "/data/" + path);
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<T> response = client.send(request, handler);
+        if (response.statusCode() != expectedStatus) {
+            throw new IOException(request.method() + " " + request.uri() + " returned status " + response.statusCode() + ", expected " + expectedStatus + ".");
+        }
+        return response;
+    }
+}
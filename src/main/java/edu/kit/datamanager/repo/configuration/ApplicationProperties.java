@@ -62,5 +62,97 @@ public class ApplicationProperties extends GenericApplicationProperties {
     private String[] exposedHeaders;
     @Value("${repo.security.allowedHeaders:*}")
     private String[] allowedHeaders;
-    
+
+    @Value("${repo.search.indexing.async:true}")
+    private boolean indexingAsync;
+    @Value("${repo.search.indexing.queueCapacity:10000}")
+    private int indexingQueueCapacity;
+    @Value("${repo.search.indexing.batchSize:100}")
+    private int indexingBatchSize;
+    @Value("${repo.search.indexing.flushIntervalMs:1000}")
+    private long indexingFlushInterval;
+    @Value("${repo.search.indexing.maxRetries:5}")
+    private int indexingMaxRetries;
+    @Value("${repo.search.indexing.retryBackoffMs:1000}")
+    private long indexingRetryBackoff;
+    @Value("${repo.search.indexing.contentPageSize:1000}")
+    private int indexingContentPageSize;
+    @Value("${repo.search.indexing.maxEmbeddedContent:10000}")
+    private int indexingMaxEmbeddedContent;
+    @Value("${repo.search.indexing.contentDocuments:false}")
+    private boolean indexingContentDocuments;
+    @Value("${repo.search.local.path:}")
+    private String localSearchPath;
+    @Value("${repo.search.reindex.workers:4}")
+    private int reindexWorkers;
+    @Value("${repo.search.reindex.batchSize:500}")
+    private int reindexBatchSize;
+
+    @Value("${repo.export.fetchSize:500}")
+    private int exportFetchSize;
+    @Value("${repo.export.timeoutMs:3600000}")
+    private long exportTimeout;
+    @Value("${repo.bulk.batchSize:100}")
+    private int bulkBatchSize;
+    @Value("${repo.bulk.maxItems:10000}")
+    private int bulkMaxItems;
+
+    @Value("${repo.upload.maxParts:10000}")
+    private int uploadMaxParts;
+    @Value("${repo.upload.expirationHours:24}")
+    private int uploadExpirationHours;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${repo.download.async.enabled:false}")
+    private boolean downloadAsyncEnabled;
+    @Value("${repo.download.async.maxTransfers:1000}")
+    private int downloadMaxTransfers;
+    @Value("${repo.download.async.chunkSize:65536}")
+    private int downloadChunkSize;
+    @Value("${repo.download.async.bandwidthLimit:0}")
+    private long downloadBandwidthLimit;
+    @Value("${repo.download.async.timeoutMs:0}")
+    private long downloadTimeout;
+
+    @Value("${repo.http.publicMaxAge:0}")
+    private long httpPublicMaxAge;
+    @Value("${repo.http.validators.cacheSize:10000}")
+    private int validatorCacheSize;
+    @Value("${repo.http.validators.contentTtlSeconds:60}")
+    private long contentValidatorTtl;
+
+    @Value("${repo.cache.resources.maxEntries:10000}")
+    private long resourceCacheSize;
+    @Value("${repo.cache.resources.ttlSeconds:60}")
+    private long resourceCacheTtl;
+    @Value("${repo.cache.invalidation.exchange:repository_cache_invalidation}")
+    private String cacheInvalidationExchange;
+    @Value("${repo.cache.hibernate.enabled:false}")
+    private boolean hibernateCacheEnabled;
+    @Value("${repo.cache.hibernate.entities:}")
+    private String[] hibernateCacheEntities;
+    @Value("${repo.cache.hibernate.collections:}")
+    private String[] hibernateCacheCollections;
+    @Value("${repo.cache.hibernate.strategy:read-write}")
+    private String hibernateCacheStrategy;
+    @Value("${repo.cache.hibernate.maxEntries:10000}")
+    private long hibernateCacheSize;
+    @Value("${repo.cache.hibernate.ttlSeconds:600}")
+    private long hibernateCacheTtl;
+    @Value("${repo.cache.counts.maxEntries:1000}")
+    private long countCacheSize;
+    @Value("${repo.cache.counts.ttlSeconds:30}")
+    private long countCacheTtl;
+
+    @Value("${repo.outbox.enabled:false}")
+    private boolean outboxEnabled;
+    @Value("${repo.outbox.batchSize:100}")
+    private int outboxBatchSize;
+    @Value("${repo.outbox.retryBackoffMs:1000}")
+    private long outboxRetryBackoff;
+    @Value("${repo.outbox.maxAttempts:20}")
+    private int outboxMaxAttempts;
+
     }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import edu.kit.datamanager.repo.domain.Agent;
+import edu.kit.datamanager.repo.domain.Contributor;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Date;
+import edu.kit.datamanager.repo.domain.Description;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.domain.acl.AclEntry;
+import edu.kit.datamanager.repo.service.impl.ConditionalRequestService;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Opt-in configuration of the Hibernate second-level cache and query cache
+ * based on a Caffeine JCache provider. As the entities are provided by
+ * repo-core, caching is configured externally via 'hibernate.classcache.*' and
+ * 'hibernate.collectioncache.*' settings rather than annotations. By default,
+ * the child entities of a DataResource and the collections of a DataResource
+ * referencing them are cached. ContentInformation is not cached, as it is
+ * modified frequently and the number of elements is unbounded.
+ *
+ * Each region is created with at most 'repo.cache.hibernate.maxEntries'
+ * elements expiring after 'repo.cache.hibernate.ttlSeconds', which can be
+ * overwritten per region via 'repo.cache.hibernate.region.&lt;region&gt;.maxEntries'
+ * and 'repo.cache.hibernate.region.&lt;region&gt;.ttlSeconds'. Cache statistics
+ * are enabled and published via actuator as 'hibernate.*' metrics.
+ *
+ * @author jejkal
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "repo.cache.hibernate", name = "enabled", havingValue = "true")
+public class HibernateCacheConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HibernateCacheConfiguration.class);
+
+    /**
+     * Entities cached by default. All of them are only referenced by
+     * DataResource and do not reference uncached entities.
+     */
+    public static final List<String> DEFAULT_ENTITIES = List.of(
+            Title.class.getName(),
+            Agent.class.getName(),
+            Date.class.getName(),
+            Description.class.getName(),
+            Contributor.class.getName(),
+            AclEntry.class.getName());
+    /**
+     * Collections cached by default. Only collections of cached entities are
+     * included, as cached collections of uncached entities cause each element
+     * to be loaded separately.
+     */
+    public static final List<String> DEFAULT_COLLECTIONS = List.of(
+            DataResource.class.getName() + ".titles",
+            DataResource.class.getName() + ".creators",
+            DataResource.class.getName() + ".dates",
+            DataResource.class.getName() + ".descriptions",
+            DataResource.class.getName() + ".contributors",
+            DataResource.class.getName() + ".acls");
+
+    private static final String DEFAULT_QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    private static final String DEFAULT_UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    /**
+     * Get the names of all cached entities.
+     *
+     * @param applicationProperties The application properties.
+     *
+     * @return The configured entities or the default entities if none are
+     * configured.
+     */
+    public static List<String> getCachedEntities(ApplicationProperties applicationProperties) {
+        String[] entities = applicationProperties.getHibernateCacheEntities();
+        return (entities == null || entities.length == 0) ? DEFAULT_ENTITIES : Arrays.asList(entities);
+    }
+
+    /**
+     * Get the roles of all cached collections.
+     *
+     * @param applicationProperties The application properties.
+     *
+     * @return The configured collection roles or the default roles if none are
+     * configured.
+     */
+    public static List<String> getCachedCollections(ApplicationProperties applicationProperties) {
+        String[] collections = applicationProperties.getHibernateCacheCollections();
+        return (collections == null || collections.length == 0) ? DEFAULT_COLLECTIONS : Arrays.asList(collections);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(ApplicationProperties applicationProperties, Environment environment) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        for (String region : getCachedEntities(applicationProperties)) {
+            createRegion(cacheManager, region, applicationProperties, environment);
+        }
+        for (String region : getCachedCollections(applicationProperties)) {
+            createRegion(cacheManager, region, applicationProperties, environment);
+        }
+        createRegion(cacheManager, DEFAULT_QUERY_RESULTS_REGION, applicationProperties, environment);
+        createRegion(cacheManager, ConditionalRequestService.LOOKUP_CACHE_REGION, applicationProperties, environment);
+        //update timestamps must neither be evicted nor expire, otherwise stale query results may be returned
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(DEFAULT_UPDATE_TIMESTAMPS_REGION, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager, ApplicationProperties applicationProperties) {
+        return (properties) -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            //explicitly configured strategies via spring.jpa.properties.* take precedence
+            String strategy = applicationProperties.getHibernateCacheStrategy();
+            for (String entity : getCachedEntities(applicationProperties)) {
+                properties.putIfAbsent(AvailableSettings.CLASS_CACHE_PREFIX + "." + entity, strategy);
+            }
+            for (String collection : getCachedCollections(applicationProperties)) {
+                properties.putIfAbsent(AvailableSettings.COLLECTION_CACHE_PREFIX + "." + collection, strategy);
+            }
+        };
+    }
+
+    private void createRegion(CacheManager cacheManager, String region, ApplicationProperties applicationProperties, Environment environment) {
+        long maxEntries = environment.getProperty("repo.cache.hibernate.region." + region + ".maxEntries", Long.class, applicationProperties.getHibernateCacheSize());
+        long ttl = environment.getProperty("repo.cache.hibernate.region." + region + ".ttlSeconds", Long.class, applicationProperties.getHibernateCacheTtl());
+        LOGGER.debug("Creating second-level cache region {} with at most {} entries expiring after {} seconds.", region, maxEntries, ttl);
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttl)));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
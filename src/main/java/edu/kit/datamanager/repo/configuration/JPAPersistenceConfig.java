@@ -15,7 +15,13 @@
  */
 package edu.kit.datamanager.repo.configuration;
 
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
@@ -30,4 +36,41 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @EntityScan(basePackages = {"edu.kit.datamanager.repo.domain", "edu.kit.datamanager.entities"})
 public class JPAPersistenceConfig{
 
+    /**
+     * Default number of lazily or subsequently loaded associations and
+     * collections initialized by a single select.
+     */
+    public static final int DEFAULT_BATCH_FETCH_SIZE = 100;
+
+    /**
+     * Load the associations and collections of all DataResources read by one
+     * query in batches instead of one select per resource and collection,
+     * e.g., while listing resources. The batch size can be changed via
+     * 'spring.jpa.properties.hibernate.default_batch_fetch_size'.
+     *
+     * @return The customizer.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer fetchPlanCustomizer(){
+        return (properties) -> properties.putIfAbsent(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE, DEFAULT_BATCH_FETCH_SIZE);
+    }
+
+    /**
+     * If requests are executed on virtual threads, the number of concurrent
+     * requests is no longer limited by the request thread pool. As the
+     * persistence context stays open for the entire request, the database
+     * connection would be held by default until the request is finished,
+     * e.g., while streaming a large download, such that the connection pool
+     * would limit the number of concurrent requests instead. Therefore,
+     * connections are released after each transaction. The behavior can be
+     * changed via 'spring.jpa.properties.hibernate.connection.handling_mode'.
+     *
+     * @return The customizer.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public HibernatePropertiesCustomizer connectionReleaseCustomizer(){
+        return (properties) -> properties.putIfAbsent(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
 }
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.dao;
+
+import edu.kit.datamanager.entities.PERMISSION;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.acl.AclEntry;
+import edu.kit.datamanager.repo.util.KeysetCursor;
+import edu.kit.datamanager.repo.util.TabulatorQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Specifications for querying DataResources directly via JPA, e.g., for
+ * streaming large result sets.
+ *
+ * @author jejkal
+ */
+public final class DataResourceSpecifications {
+
+    private DataResourceSpecifications() {
+    }
+
+    /**
+     * Restrict results to resources visible to the caller. Administrators see
+     * all resources. Other callers see resources in state VOLATILE or FIXED
+     * they have at least READ permissions for and resources in any state they
+     * have ADMINISTRATE permissions for.
+     *
+     * @param sids The authorization identities of the caller.
+     * @param isAdministrator TRUE if the caller has the role ADMINISTRATOR.
+     *
+     * @return The specification.
+     */
+    public static Specification<DataResource> isVisibleTo(List<String> sids, boolean isAdministrator) {
+        return (root, query, builder) -> {
+            if (isAdministrator) {
+                return null;
+            }
+            if (sids == null || sids.isEmpty()) {
+                return builder.disjunction();
+            }
+            Predicate readable = builder.and(
+                    root.get("state").in(DataResource.State.VOLATILE, DataResource.State.FIXED),
+                    hasPermission(root, query, builder, sids, PERMISSION.READ));
+            return builder.or(readable, hasPermission(root, query, builder, sids, PERMISSION.ADMINISTRATE));
+        };
+    }
+
+    /**
+     * Restrict results to the resource with the provided internal identifier.
+     *
+     * @param id The internal identifier.
+     *
+     * @return The specification.
+     */
+    public static Specification<DataResource> hasId(String id) {
+        return (root, query, builder) -> builder.equal(root.get("id"), id);
+    }
+
+    /**
+     * Restrict results to resources last updated within the provided time
+     * frame.
+     *
+     * @param from The earliest update or null.
+     * @param until The latest update or null.
+     *
+     * @return The specification.
+     */
+    public static Specification<DataResource> lastUpdateBetween(Instant from, Instant until) {
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (from != null) {
+                predicates.add(builder.greaterThanOrEqualTo(root.get("lastUpdate"), from));
+            }
+            if (until != null) {
+                predicates.add(builder.lessThanOrEqualTo(root.get("lastUpdate"), until));
+            }
+            return predicates.isEmpty() ? null : builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Restrict results to resources sorted after the provided cursor when
+     * ordering by last update time and id.
+     *
+     * @param cursor The cursor or null for the first page.
+     *
+     * @return The specification.
+     */
+    public static Specification<DataResource> isAfter(KeysetCursor cursor) {
+        return (root, query, builder) -> {
+            if (cursor == null) {
+                return null;
+            }
+            if (cursor.getLastUpdate() == null) {
+                return builder.greaterThan(root.get("id"), cursor.getId());
+            }
+            return builder.or(builder.greaterThan(root.get("lastUpdate"), cursor.getLastUpdate()),
+                    builder.and(builder.equal(root.get("lastUpdate"), cursor.getLastUpdate()), builder.greaterThan(root.get("id"), cursor.getId())));
+        };
+    }
+
+    /**
+     * Restrict results to resources matching the provided example, e.g., for
+     * searching by example using keyset pagination. Single-valued attributes
+     * must be equal, the resource type value and titles are matched ignoring
+     * their case and may be contained in longer values. For collections, at
+     * least one of the provided elements must match. Creators match if given
+     * name and family name, as far as provided, are equal for the same
+     * creator. Attributes which are not set in the example are not evaluated.
+     *
+     * The result is intended to be the same as for search by example using
+     * offset pagination, except for the following differences:
+     * <ul>
+     * <li>Affiliations of creators are not evaluated.</li>
+     * <li>Attributes not listed above, e.g., contributors, are ignored instead
+     * of being rejected with HTTP 501.</li>
+     * <li>Results are ordered by last update and id as required by keyset
+     * pagination and not by the requested sort.</li>
+     * </ul>
+     *
+     * @param example The example or null to match all resources.
+     *
+     * @return The specification.
+     */
+    public static Specification<DataResource> matchesExample(DataResource example) {
+        List<Specification<DataResource>> specifications = new ArrayList<>();
+        if (example != null) {
+            addIfPresent(specifications, null, "state", TabulatorQuery.Operator.EQUAL, example.getState());
+            addIfPresent(specifications, null, "publisher", TabulatorQuery.Operator.EQUAL, example.getPublisher());
+            addIfPresent(specifications, null, "publicationYear", TabulatorQuery.Operator.EQUAL, example.getPublicationYear());
+            addIfPresent(specifications, null, "language", TabulatorQuery.Operator.EQUAL, example.getLanguage());
+            if (example.getIdentifier() != null) {
+                addIfPresent(specifications, "identifier", "value", TabulatorQuery.Operator.EQUAL, example.getIdentifier().getValue());
+            }
+            if (example.getResourceType() != null) {
+                addIfPresent(specifications, "resourceType", "value", TabulatorQuery.Operator.LIKE, example.getResourceType().getValue());
+                addIfPresent(specifications, "resourceType", "typeGeneral", TabulatorQuery.Operator.EQUAL, example.getResourceType().getTypeGeneral());
+            }
+            if (example.getTitles() != null) {
+                addAnyOf(specifications, "titles", "value", TabulatorQuery.Operator.LIKE, example.getTitles().stream().map(t -> t.getValue()).toList());
+            }
+            if (example.getCreators() != null) {
+                addAnyOf(specifications, example.getCreators().stream().
+                        filter(c -> c != null && (c.getGivenName() != null || c.getFamilyName() != null)).
+                        map(c -> hasCreator(c.getGivenName(), c.getFamilyName())).toList());
+            }
+            if (example.getAlternateIdentifiers() != null) {
+                addAnyOf(specifications, "alternateIdentifiers", "value", TabulatorQuery.Operator.EQUAL, example.getAlternateIdentifiers().stream().map(i -> i.getValue()).toList());
+            }
+            if (example.getRelatedIdentifiers() != null) {
+                addAnyOf(specifications, "relatedIdentifiers", "value", TabulatorQuery.Operator.EQUAL, example.getRelatedIdentifiers().stream().map(i -> i.getValue()).toList());
+            }
+        }
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            specifications.forEach(specification -> predicates.add(specification.toPredicate(root, query, builder)));
+            return predicates.isEmpty() ? null : builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static void addIfPresent(List<Specification<DataResource>> specifications, String collection, String attribute, TabulatorQuery.Operator operator, Comparable<?> value) {
+        if (value != null) {
+            specifications.add(matches(collection, attribute, operator, value));
+        }
+    }
+
+    private static void addAnyOf(List<Specification<DataResource>> specifications, String collection, String attribute, TabulatorQuery.Operator operator, List<? extends Comparable<?>> values) {
+        addAnyOf(specifications, values.stream().filter(value -> value != null).map(value -> matches(collection, attribute, operator, value)).toList());
+    }
+
+    private static void addAnyOf(List<Specification<DataResource>> specifications, List<Specification<DataResource>> alternatives) {
+        if (!alternatives.isEmpty()) {
+            specifications.add((root, query, builder) -> builder.or(alternatives.stream().
+                    map(specification -> specification.toPredicate(root, query, builder)).
+                    toArray(Predicate[]::new)));
+        }
+    }
+
+    /**
+     * Restrict results to resources having a creator with the provided given
+     * name and family name. Names which are null are not evaluated.
+     *
+     * @param givenName The given name or null.
+     * @param familyName The family name or null.
+     *
+     * @return The specification.
+     */
+    private static Specification<DataResource> hasCreator(String givenName, String familyName) {
+        return (root, query, builder) -> {
+            Subquery<String> subquery = query.subquery(String.class);
+            Root<DataResource> subRoot = subquery.from(DataResource.class);
+            Join<DataResource, ?> creator = subRoot.join("creators");
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(builder.equal(subRoot.get("id"), root.get("id")));
+            if (givenName != null) {
+                predicates.add(builder.equal(creator.get("givenName"), givenName));
+            }
+            if (familyName != null) {
+                predicates.add(builder.equal(creator.get("familyName"), familyName));
+            }
+            subquery.select(subRoot.get("id")).where(predicates.toArray(Predicate[]::new));
+            return builder.exists(subquery);
+        };
+    }
+
+    /**
+     * Restrict results to resources with an attribute matching the provided
+     * value. If a collection is provided, at least one element of the
+     * collection must match. Comparisons of single-valued attributes are
+     * applied directly to the according column, such that indexes can be
+     * used, except for the case-insensitive operator LIKE.
+     *
+     * @param collection The collection attribute or null for single-valued
+     * attributes.
+     * @param attribute The attribute of the resource or collection element.
+     * @param operator The comparison operator.
+     * @param value The value to compare with, which must be a String for the
+     * operators STARTS and LIKE.
+     *
+     * @return The specification.
+     */
+    public static Specification<DataResource> matches(String collection, String attribute, TabulatorQuery.Operator operator, Comparable<?> value) {
+        return (root, query, builder) -> {
+            if (collection == null) {
+                return compare(builder, root.get(attribute), operator, value);
+            }
+            Subquery<String> subquery = query.subquery(String.class);
+            Root<DataResource> subRoot = subquery.from(DataResource.class);
+            Join<DataResource, ?> element = subRoot.join(collection);
+            subquery.select(subRoot.get("id")).where(
+                    builder.equal(subRoot.get("id"), root.get("id")),
+                    compare(builder, element.get(attribute), operator, value));
+            return builder.exists(subquery);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder builder, Path path, TabulatorQuery.Operator operator, Comparable value) {
+        return switch (operator) {
+            case EQUAL ->
+                builder.equal(path, value);
+            case NOT_EQUAL ->
+                builder.notEqual(path, value);
+            case LESS ->
+                builder.lessThan(path, value);
+            case LESS_OR_EQUAL ->
+                builder.lessThanOrEqualTo(path, value);
+            case GREATER ->
+                builder.greaterThan(path, value);
+            case GREATER_OR_EQUAL ->
+                builder.greaterThanOrEqualTo(path, value);
+            case STARTS ->
+                builder.like(path, escapeLike((String) value) + "%", '\\');
+            case LIKE ->
+                builder.like(builder.lower(path), "%" + escapeLike(((String) value).toLowerCase(Locale.ROOT)) + "%", '\\');
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static Predicate hasPermission(Root<DataResource> root, CriteriaQuery<?> query, CriteriaBuilder builder, List<String> sids, PERMISSION minimum) {
+        List<PERMISSION> permissions = Arrays.stream(PERMISSION.values()).filter(p -> p.atLeast(minimum)).toList();
+        Subquery<String> subquery = query.subquery(String.class);
+        Root<DataResource> subRoot = subquery.from(DataResource.class);
+        Join<DataResource, AclEntry> acl = subRoot.join("acls");
+        subquery.select(subRoot.get("id")).where(
+                builder.equal(subRoot.get("id"), root.get("id")),
+                acl.get("sid").in(sids),
+                acl.get("permission").in(permissions));
+        return builder.exists(subquery);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.dao;
+
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Dao for reading the content information of a single resource in pages
+ * without loading all elements at once. Pages are obtained via keyset
+ * pagination on the content information id, which avoids offset scans and
+ * count queries for resources with many files.
+ *
+ * @author jejkal
+ */
+public interface IContentInformationLookupDao extends Repository<ContentInformation, Long> {
+
+    /**
+     * Get the next page of content information elements of a resource.
+     *
+     * @param resourceId The id of the parent resource.
+     * @param lastId The id of the last element of the previous page or -1 for
+     * the first page.
+     * @param pageable The page size. The page number is ignored.
+     *
+     * @return A list of content information elements ordered by id.
+     */
+    @Query("SELECT c FROM ContentInformation c WHERE c.parentResource.id = :resourceId AND c.id > :lastId ORDER BY c.id ASC")
+    List<ContentInformation> findNextPage(@Param("resourceId") String resourceId, @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Get the next page of content information elements of a resource whose
+     * relative path starts with the provided prefix.
+     *
+     * @param resourceId The id of the parent resource.
+     * @param pathPattern The LIKE pattern for the relative path, using '\' as
+     * escape character.
+     * @param lastId The id of the last element of the previous page or -1 for
+     * the first page.
+     * @param pageable The page size. The page number is ignored.
+     *
+     * @return A list of content information elements ordered by id.
+     */
+    @Query("SELECT c FROM ContentInformation c WHERE c.parentResource.id = :resourceId AND c.relativePath LIKE :pathPattern ESCAPE '\\' AND c.id > :lastId ORDER BY c.id ASC")
+    List<ContentInformation> findNextPageByPath(@Param("resourceId") String resourceId, @Param("pathPattern") String pathPattern, @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Get the next page of content information elements of a resource whose
+     * relative path starts with the provided prefix and which have the
+     * provided tag.
+     *
+     * @param resourceId The id of the parent resource.
+     * @param pathPattern The LIKE pattern for the relative path, using '\' as
+     * escape character.
+     * @param tag The tag.
+     * @param lastId The id of the last element of the previous page or -1 for
+     * the first page.
+     * @param pageable The page size. The page number is ignored.
+     *
+     * @return A list of content information elements ordered by id.
+     */
+    @Query("SELECT c FROM ContentInformation c WHERE c.parentResource.id = :resourceId AND c.relativePath LIKE :pathPattern ESCAPE '\\' AND :tag MEMBER OF c.tags AND c.id > :lastId ORDER BY c.id ASC")
+    List<ContentInformation> findNextPageByPathAndTag(@Param("resourceId") String resourceId, @Param("pathPattern") String pathPattern, @Param("tag") String tag, @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Count the content information elements of a resource whose relative
+     * path starts with the provided prefix.
+     *
+     * @param resourceId The id of the parent resource.
+     * @param pathPattern The LIKE pattern for the relative path.
+     *
+     * @return The number of matching elements.
+     */
+    @Query("SELECT COUNT(c) FROM ContentInformation c WHERE c.parentResource.id = :resourceId AND c.relativePath LIKE :pathPattern ESCAPE '\\'")
+    long countByResourceIdAndPath(@Param("resourceId") String resourceId, @Param("pathPattern") String pathPattern);
+
+    /**
+     * Get the next page of ids and relative paths of the content information
+     * elements of a resource.
+     *
+     * @param resourceId The id of the parent resource.
+     * @param lastId The id of the last element of the previous page or -1 for
+     * the first page.
+     * @param pageable The page size. The page number is ignored.
+     *
+     * @return A list of arrays containing id and relative path ordered by id.
+     */
+    @Query("SELECT c.id, c.relativePath FROM ContentInformation c WHERE c.parentResource.id = :resourceId AND c.id > :lastId ORDER BY c.id ASC")
+    List<Object[]> findNextRelativePaths(@Param("resourceId") String resourceId, @Param("lastId") Long lastId, Pageable pageable);
+
+    /**
+     * Get the content information element of a resource with the provided
+     * relative path.
+     *
+     * @param resourceId The id of the parent resource.
+     * @param relativePath The relative path.
+     *
+     * @return A list containing the matching element or an empty list.
+     */
+    @Query("SELECT c FROM ContentInformation c WHERE c.parentResource.id = :resourceId AND c.relativePath = :relativePath ORDER BY c.id ASC")
+    List<ContentInformation> findByResourceIdAndRelativePath(@Param("resourceId") String resourceId, @Param("relativePath") String relativePath);
+
+    /**
+     * Count the content information elements of a resource.
+     *
+     * @param resourceId The id of the parent resource.
+     *
+     * @return The number of content information elements.
+     */
+    @Query("SELECT COUNT(c) FROM ContentInformation c WHERE c.parentResource.id = :resourceId")
+    long countByResourceId(@Param("resourceId") String resourceId);
+}
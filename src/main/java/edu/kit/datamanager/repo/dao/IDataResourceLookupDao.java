@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.dao;
+
+import edu.kit.datamanager.repo.domain.DataResource;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Dao for scanning all DataResource ids using keyset pagination.
+ *
+ * @author jejkal
+ */
+public interface IDataResourceLookupDao extends Repository<DataResource, String> {
+
+    /**
+     * Get the next page of resource ids.
+     *
+     * @param lastId The last id of the previous page or an empty string for
+     * the first page.
+     * @param pageable The page size. The page number is ignored.
+     *
+     * @return A list of resource ids in ascending order.
+     */
+    @Query("SELECT r.id FROM DataResource r WHERE r.id > :lastId ORDER BY r.id ASC")
+    List<String> findNextIds(@Param("lastId") String lastId, Pageable pageable);
+
+    @Query("SELECT COUNT(r) FROM DataResource r")
+    long countAll();
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.dao;
+
+import edu.kit.datamanager.repo.domain.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Dao for accessing the transactional outbox.
+ *
+ * @author jejkal
+ */
+public interface IOutboxEventDao extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Obtain the oldest deliverable outbox events and lock them for delivery.
+     * Events are deliverable if they are not in backoff and if no earlier
+     * event of the same resource is in backoff, such that events of each
+     * resource are delivered in order. Dead-lettered events are neither
+     * delivered nor do they hold back later events. Events already locked by
+     * another dispatcher are skipped.
+     *
+     * @param now The current time.
+     * @param pageable The page defining the batch size.
+     *
+     * @return A list of events ordered by their id.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.deadLetter = false AND (e.nextAttempt IS NULL OR e.nextAttempt <= :now) "
+            + "AND NOT EXISTS (SELECT p.id FROM OutboxEvent p WHERE p.resourceId = e.resourceId AND p.id < e.id AND p.deadLetter = false AND p.nextAttempt > :now) "
+            + "ORDER BY e.id ASC")
+    List<OutboxEvent> findNextBatch(@Param("now") Instant now, Pageable pageable);
+}
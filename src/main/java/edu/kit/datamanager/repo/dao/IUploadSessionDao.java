@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.dao;
+
+import edu.kit.datamanager.repo.domain.UploadSession;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Dao for persisting chunked upload sessions.
+ *
+ * @author jejkal
+ */
+public interface IUploadSessionDao extends JpaRepository<UploadSession, String> {
+
+    List<UploadSession> findByLastUpdateBefore(Instant threshold);
+
+    /**
+     * Update the last update timestamp of a session without loading it, which
+     * allows concurrent part uploads without conflicting entity updates.
+     *
+     * @param id The session id.
+     * @param lastUpdate The new timestamp.
+     *
+     * @return The number of updated sessions.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UploadSession s SET s.lastUpdate = :lastUpdate WHERE s.id = :id")
+    int touch(@Param("id") String id, @Param("lastUpdate") Instant lastUpdate);
+}
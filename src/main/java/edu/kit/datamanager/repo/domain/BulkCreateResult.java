@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result for a single item of a bulk creation request. The index refers to
+ * the position of the item within the request, the status is the HTTP status
+ * code the item would have received if created via the single-item endpoint.
+ *
+ * @author jejkal
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkCreateResult {
+
+    private int index;
+    private int status;
+    private String id;
+    private String etag;
+    private String message;
+
+    public static BulkCreateResult created(int index, String id, String etag) {
+        return new BulkCreateResult(index, 201, id, etag, null);
+    }
+
+    public static BulkCreateResult failed(int index, int status, String message) {
+        return new BulkCreateResult(index, status, null, null, message);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Outbox entry describing a change of a DataResource which has to be delivered
+ * to external systems, i.e., the search index and the messaging broker. The
+ * entry is persisted in the same transaction as the change itself and removed
+ * after successful delivery. Entries which could not be delivered within the
+ * maximum number of attempts are kept as dead letter for manual inspection.
+ *
+ * @author jejkal
+ */
+@Entity
+@Table(name = "outbox_event", indexes = {
+    @Index(name = "idx_outbox_resource", columnList = "resourceId")})
+@Getter
+@Setter
+@ToString
+public class OutboxEvent {
+
+    public enum ACTION {
+        CREATE,
+        UPDATE,
+        DELETE;
+    }
+
+    public enum SCOPE {
+        FULL,
+        METADATA,
+        CONTENT;
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private String resourceId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ACTION action;
+    private boolean includeContent;
+    @Enumerated(EnumType.STRING)
+    private SCOPE scope = SCOPE.FULL;
+    @Column(length = 1024)
+    private String relativePath;
+    private String principal;
+    private Instant created;
+    private boolean indexPending;
+    private boolean messagePending;
+    private int attempts;
+    private Instant nextAttempt;
+    @Column(length = 1024)
+    private String lastError;
+    private boolean deadLetter;
+
+    /**
+     * Create a new outbox event.
+     *
+     * @param resourceId The id of the changed resource.
+     * @param action The kind of change.
+     * @param includeContent TRUE if content information was changed.
+     * @param principal The principal who performed the change.
+     *
+     * @return The event.
+     */
+    public static OutboxEvent factoryOutboxEvent(String resourceId, ACTION action, boolean includeContent, String principal) {
+        OutboxEvent event = new OutboxEvent();
+        event.setResourceId(resourceId);
+        event.setAction(action);
+        event.setIncludeContent(includeContent);
+        event.setPrincipal(principal);
+        event.setCreated(Instant.now());
+        event.setNextAttempt(event.getCreated());
+        event.setIndexPending(true);
+        event.setMessagePending(true);
+        return event;
+    }
+
+    /**
+     * Create a new outbox event for a partial update of a resource.
+     *
+     * @param resourceId The id of the changed resource.
+     * @param scope The changed part of the resource.
+     * @param relativePath The relative path of the changed content, if scope
+     * is CONTENT.
+     * @param principal The principal who performed the change.
+     *
+     * @return The event.
+     */
+    public static OutboxEvent factoryPartialOutboxEvent(String resourceId, SCOPE scope, String relativePath, String principal) {
+        OutboxEvent event = factoryOutboxEvent(resourceId, ACTION.UPDATE, SCOPE.CONTENT.equals(scope), principal);
+        event.setScope(scope);
+        event.setRelativePath(relativePath);
+        return event;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * State of a full reindex job. The job state is persisted regularly, such that
+ * an interrupted job can be resumed from the last checkpoint after a restart.
+ * This includes the ids of all resources which failed to be indexed so far,
+ * such that they are retried at the end of a resumed job, too.
+ *
+ * @author jejkal
+ */
+@Entity
+@Table(name = "reindex_job")
+@Getter
+@Setter
+@ToString
+public class ReindexJob {
+
+    public enum STATUS {
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED;
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private String aliasName;
+    @Column(nullable = false)
+    private String targetIndex;
+    private String contentTargetIndex;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private STATUS status;
+    private String lastResourceId;
+    private long total;
+    private long processed;
+    private long failed;
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "reindex_job_failed", joinColumns = @JoinColumn(name = "job_id"))
+    @Column(name = "resource_id")
+    @ToString.Exclude
+    private Set<String> failedIds = new LinkedHashSet<>();
+    private Instant started;
+    private Instant finished;
+    @Column(length = 1024)
+    private String lastError;
+
+    /**
+     * Create a new running reindex job.
+     *
+     * @param aliasName The alias to swap when the job is completed.
+     * @param targetIndex The versioned index to fill.
+     * @param total The number of resources to index.
+     *
+     * @return The job.
+     */
+    public static ReindexJob factoryReindexJob(String aliasName, String targetIndex, long total) {
+        ReindexJob job = new ReindexJob();
+        job.setAliasName(aliasName);
+        job.setTargetIndex(targetIndex);
+        job.setTotal(total);
+        job.setStatus(STATUS.RUNNING);
+        job.setStarted(Instant.now());
+        return job;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Information about a single staged part of a chunked upload.
+ *
+ * @author jejkal
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadPart {
+
+    private int partNumber;
+    private long size;
+    /**
+     * Hex-encoded SHA-256 checksum of the part.
+     */
+    private String checksum;
+}
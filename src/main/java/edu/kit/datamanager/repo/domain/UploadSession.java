@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * State of a resumable, chunked content upload. An upload session is created
+ * for a single relative path of a data resource. The actual parts are staged
+ * in the file system until the upload is completed and all parts are
+ * assembled into a single content information element.
+ *
+ * @author jejkal
+ */
+@Entity
+@Table(name = "upload_session")
+@Getter
+@Setter
+@ToString
+public class UploadSession {
+
+    @Id
+    private String id;
+    @Column(nullable = false)
+    private String resourceId;
+    @Column(nullable = false, length = 1024)
+    private String relativePath;
+    private String contentType;
+    private boolean force;
+    private String owner;
+    private Instant created;
+    private Instant lastUpdate;
+    @Transient
+    private List<UploadPart> parts = new ArrayList<>();
+
+    /**
+     * Create a new upload session with a random identifier.
+     *
+     * @param resourceId The id of the resource the content belongs to.
+     * @param relativePath The relative path of the content.
+     * @param contentType The content type of the assembled content.
+     * @param force TRUE if existing content at the same path should be
+     * overwritten.
+     * @param owner The principal who started the upload.
+     *
+     * @return The session.
+     */
+    public static UploadSession factoryUploadSession(String resourceId, String relativePath, String contentType, boolean force, String owner) {
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setResourceId(resourceId);
+        session.setRelativePath(relativePath);
+        session.setContentType(contentType);
+        session.setForce(force);
+        session.setOwner(owner);
+        session.setCreated(Instant.now());
+        session.setLastUpdate(session.getCreated());
+        return session;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic;
+
+import edu.kit.datamanager.repo.configuration.ElasticConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Elastic repository for indexing content information of large resources as
+ * separate documents.
+ *
+ * @author jejkal
+ */
+@Repository
+@ConditionalOnBean(ElasticConfiguration.class)
+public interface ContentInformationRepository extends ElasticsearchRepository<ElasticContentWrapper, String> {
+
+    long countByResourceId(String resourceId);
+
+    void deleteByResourceId(String resourceId);
+
+    void deleteByResourceIdAndRelativePath(String resourceId, String relativePath);
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic;
+
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+/**
+ * Wrapper for indexing single content information elements of large resources
+ * in Elastic. Each document references its parent resource by id and carries
+ * the read permissions of the parent resource.
+ *
+ * @author jejkal
+ */
+@Document(indexName = "baserepocontent")
+public class ElasticContentWrapper {
+
+    @Id
+    private String id;
+
+    @Field(type = FieldType.Keyword)
+    private String resourceId;
+
+    @Field(type = FieldType.Keyword)
+    private String relativePath;
+
+    @Field(type = FieldType.Text)
+    private String pid;
+
+    @Field(type = FieldType.Object)
+    private ContentInformation content;
+
+    @Field(type = FieldType.Text)
+    private List<String> read = new ArrayList<>();
+
+    @Field(type = FieldType.Date, format = DateFormat.date_time_no_millis)
+    private Date lastUpdate;
+
+    public ElasticContentWrapper(ElasticWrapper parent, ContentInformation content) {
+        id = parent.getId() + "_" + content.getId();
+        resourceId = parent.getId();
+        relativePath = content.getRelativePath();
+        pid = parent.getPid();
+        this.content = content;
+        read = parent.getRead();
+        lastUpdate = parent.getLastUpdate();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getResourceId() {
+        return resourceId;
+    }
+
+    public String getPid() {
+        return pid;
+    }
+
+    public List<String> getRead() {
+        return read;
+    }
+}
@@ -0,0 +1,540 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.dao.IReindexJobDao;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.ReindexJob;
+import edu.kit.datamanager.repo.util.ThreadFactories;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Background indexing pipeline for DataResources. Index and delete requests are
+ * collected in a bounded queue, coalesced per resource identifier and written
+ * to Elastic in bulk, either if the configured batch size is reached or if the
+ * flush interval has elapsed. Failed operations are retried with exponential
+ * backoff until the maximum number of retries is reached.
+ *
+ * If no Elastic repository is available, i.e., if search is disabled, all
+ * requests are ignored.
+ *
+ * While a reindex job is running, all operations are additionally written to
+ * the shadow indices filled by the job, such that changes applied to already
+ * processed resources are not lost when the index aliases are swapped. The
+ * shadow indices are obtained from the persisted job before each batch, such
+ * that all instances sharing the database write to them, not only the
+ * instance executing the job.
+ *
+ * Separate content documents of large resources are written alongside the
+ * resource document. Existing content documents of a resource are only
+ * removed if the resource was indexed with separate content documents before,
+ * as they may have become stale, e.g., if content was deleted.
+ *
+ * @author jejkal
+ */
+@Component
+public class ElasticIndexer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElasticIndexer.class);
+    private static final long MAX_BACKOFF_MS = 60000;
+
+    private final Optional<DataResourceRepository> dataResourceRepository;
+    private final Optional<ElasticsearchOperations> elasticsearchOperations;
+    private final IDataResourceDao dataResourceDao;
+    private final IReindexJobDao reindexJobDao;
+    private final ElasticWrapperBuilder wrapperBuilder;
+    private final ApplicationProperties applicationProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, IndexOperation> pending = new LinkedHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private ScheduledExecutorService executor;
+
+    private final Timer indexingLag;
+    private final Counter indexedDocuments;
+    private final Counter deletedDocuments;
+    private final Counter updatedDocuments;
+    private final Counter retriedOperations;
+    private final Counter failedOperations;
+
+    /**
+     * Default constructor.
+     *
+     * @param dataResourceRepository The Elastic repository, if search is
+     * enabled.
+     * @param elasticsearchOperations The Elastic operations used for writing
+     * to the shadow index, if search is enabled.
+     * @param dataResourceDao The data resource dao.
+     * @param reindexJobDao The dao for obtaining the running reindex job.
+     * @param wrapperBuilder The builder for creating indexed documents.
+     * @param applicationProperties The application properties.
+     * @param transactionManager The transaction manager used to read resources
+     * in background threads.
+     * @param meterRegistry The registry for publishing indexing metrics.
+     */
+    public ElasticIndexer(Optional<DataResourceRepository> dataResourceRepository,
+            Optional<ElasticsearchOperations> elasticsearchOperations,
+            IDataResourceDao dataResourceDao,
+            IReindexJobDao reindexJobDao,
+            ElasticWrapperBuilder wrapperBuilder,
+            ApplicationProperties applicationProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.dataResourceRepository = dataResourceRepository;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.dataResourceDao = dataResourceDao;
+        this.reindexJobDao = reindexJobDao;
+        this.wrapperBuilder = wrapperBuilder;
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        meterRegistry.gauge("repo.indexing.queue.size", pending, Map::size);
+        indexingLag = Timer.builder("repo.indexing.lag").description("Time between submitting an indexing request and writing it to Elastic.").register(meterRegistry);
+        indexedDocuments = meterRegistry.counter("repo.indexing.documents", "operation", "index");
+        deletedDocuments = meterRegistry.counter("repo.indexing.documents", "operation", "delete");
+        updatedDocuments = meterRegistry.counter("repo.indexing.documents", "operation", "update");
+        retriedOperations = meterRegistry.counter("repo.indexing.retries");
+        failedOperations = meterRegistry.counter("repo.indexing.failures");
+
+        if (dataResourceRepository.isPresent() && applicationProperties.isIndexingAsync()) {
+            LOGGER.info("Starting asynchronous indexing with flush interval of {} ms and batch size {}.", applicationProperties.getIndexingFlushInterval(), applicationProperties.getIndexingBatchSize());
+            executor = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("elastic-indexer", applicationProperties.isVirtualThreads()));
+            executor.scheduleWithFixedDelay(this::flushSafely, applicationProperties.getIndexingFlushInterval(), applicationProperties.getIndexingFlushInterval(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Request (re-)indexing of a data resource.
+     *
+     * @param resourceId The id of the resource.
+     * @param includeContent TRUE if the content information of the resource
+     * should be part of the indexed document.
+     */
+    public void index(String resourceId, boolean includeContent) {
+        submit(new IndexOperation(resourceId, IndexOperation.Type.INDEX, includeContent));
+    }
+
+    /**
+     * Request removal of a data resource from the index.
+     *
+     * @param resourceId The id of the resource.
+     */
+    public void unindex(String resourceId) {
+        submit(new IndexOperation(resourceId, IndexOperation.Type.DELETE, false));
+    }
+
+    /**
+     * Request a partial update of the metadata of an indexed data resource.
+     *
+     * @param resourceId The id of the resource.
+     */
+    public void updateMetadata(String resourceId) {
+        submit(IndexOperation.metadataUpdate(resourceId));
+    }
+
+    /**
+     * Request a partial update of a single content information element of an
+     * indexed data resource.
+     *
+     * @param resourceId The id of the resource.
+     * @param relativePath The relative path of the changed content.
+     */
+    public void updateContent(String resourceId, String relativePath) {
+        submit(IndexOperation.contentUpdate(resourceId, relativePath));
+    }
+
+    /**
+     * Get the number of operations currently waiting for being flushed.
+     *
+     * @return The number of pending operations.
+     */
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void submit(IndexOperation operation) {
+        if (dataResourceRepository.isEmpty()) {
+            LOGGER.trace("No Elastic repository found. Skipping indexing of resource {}.", operation.getResourceId());
+            return;
+        }
+
+        if (executor == null) {
+            LOGGER.trace("Asynchronous indexing disabled. Processing operation for resource {} immediately.", operation.getResourceId());
+            if (!process(List.of(operation)).isEmpty()) {
+                LOGGER.error("Failed to index resource {}.", operation.getResourceId());
+                failedOperations.increment();
+            }
+            return;
+        }
+
+        boolean accepted;
+        int queueSize;
+        lock.lock();
+        try {
+            IndexOperation existing = pending.get(operation.getResourceId());
+            if (existing != null) {
+                LOGGER.trace("Coalescing indexing operation for resource {}.", operation.getResourceId());
+                existing.merge(operation);
+                accepted = true;
+            } else if (pending.size() < applicationProperties.getIndexingQueueCapacity()) {
+                pending.put(operation.getResourceId(), operation);
+                accepted = true;
+            } else {
+                accepted = false;
+            }
+            queueSize = pending.size();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!accepted) {
+            //queue is full, apply backpressure by processing the operation in the caller thread
+            LOGGER.warn("Indexing queue capacity of {} reached. Processing operation for resource {} in caller thread.", applicationProperties.getIndexingQueueCapacity(), operation.getResourceId());
+            failed(process(List.of(operation)));
+        } else if (queueSize >= applicationProperties.getIndexingBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            LOGGER.trace("Batch size reached. Triggering flush.");
+            executor.execute(this::flushSafely);
+        }
+    }
+
+    private void flushSafely() {
+        flushScheduled.set(false);
+        try {
+            while (flush() >= applicationProperties.getIndexingBatchSize()) {
+                LOGGER.trace("Full batch flushed, continuing with next batch.");
+            }
+        } catch (RuntimeException ex) {
+            LOGGER.error("Unexpected error while flushing indexing queue.", ex);
+        }
+    }
+
+    /**
+     * Flush the next batch of ready operations.
+     *
+     * @return The number of processed operations.
+     */
+    int flush() {
+        List<IndexOperation> batch = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Iterator<IndexOperation> it = pending.values().iterator();
+            while (it.hasNext() && batch.size() < applicationProperties.getIndexingBatchSize()) {
+                IndexOperation op = it.next();
+                if (op.getNotBefore() <= now) {
+                    batch.add(op);
+                    it.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!batch.isEmpty()) {
+            LOGGER.trace("Flushing {} indexing operation(s).", batch.size());
+            failed(process(batch));
+        }
+        return batch.size();
+    }
+
+    /**
+     * Process the provided operations immediately in the caller thread
+     * without queueing and without retries. This is used by callers which
+     * implement their own delivery guarantees, e.g., the outbox dispatcher.
+     *
+     * @param operations The operations to process.
+     *
+     * @return The ids of all resources for which the operation has failed.
+     */
+    public Set<String> processImmediately(List<IndexOperation> operations) {
+        if (dataResourceRepository.isEmpty()) {
+            LOGGER.trace("No Elastic repository found. Skipping {} indexing operation(s).", operations.size());
+            return Set.of();
+        }
+        Set<String> failedIds = new HashSet<>();
+        process(operations).forEach(op -> failedIds.add(op.getResourceId()));
+        return failedIds;
+    }
+
+    private List<IndexOperation> process(List<IndexOperation> batch) {
+        List<IndexOperation> toIndex = new ArrayList<>();
+        List<IndexOperation> toDelete = new ArrayList<>();
+        List<IndexOperation> toUpdate = new ArrayList<>();
+        List<IndexOperation> failed = new ArrayList<>();
+        Optional<ReindexJob> reindexJob;
+        try {
+            //the job may run on any instance, so it is looked up for each batch
+            reindexJob = elasticsearchOperations.isPresent() ? reindexJobDao.findFirstByStatusOrderByIdDesc(ReindexJob.STATUS.RUNNING) : Optional.empty();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to obtain running reindex job. Skipping {} operation(s). Reason: {}", batch.size(), ex.getMessage());
+            return new ArrayList<>(batch);
+        }
+        IndexCoordinates shadow = reindexJob.map(job -> IndexCoordinates.of(job.getTargetIndex())).orElse(null);
+        IndexCoordinates shadowContent = reindexJob.map(ReindexJob::getContentTargetIndex).map(IndexCoordinates::of).orElse(null);
+        boolean partialUpdatesPossible = elasticsearchOperations.isPresent() && shadow == null;
+        batch.forEach(op -> {
+            if (IndexOperation.Type.DELETE.equals(op.getType())) {
+                toDelete.add(op);
+            } else if (op.isPartial() && partialUpdatesPossible) {
+                toUpdate.add(op);
+            } else {
+                if (op.isPartial()) {
+                    //partial updates cannot be mirrored to a shadow index
+                    op.toFullOperation(true);
+                }
+                toIndex.add(op);
+            }
+        });
+
+        if (!toUpdate.isEmpty()) {
+            toIndex.addAll(processPartial(toUpdate));
+        }
+
+        if (!toIndex.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<ElasticWrapper> wrappers = new ArrayList<>();
+                    toIndex.forEach(op -> {
+                        Optional<DataResource> resource = dataResourceDao.findById(op.getResourceId());
+                        if (resource.isPresent()) {
+                            wrappers.add(build(resource.get(), op.isIncludeContent(), shadowContent));
+                        } else {
+                            LOGGER.debug("Resource {} not found. Skipping indexing.", op.getResourceId());
+                        }
+                    });
+                    LOGGER.trace("Indexing {} Elastic wrapper(s).", wrappers.size());
+                    dataResourceRepository.get().saveAll(wrappers);
+                    if (shadow != null && elasticsearchOperations.isPresent() && !wrappers.isEmpty()) {
+                        elasticsearchOperations.get().save(wrappers, shadow);
+                    }
+                });
+                completed(toIndex, indexedDocuments);
+            } catch (BulkFailureException ex) {
+                Set<String> failedIds = ex.getFailedDocuments().keySet();
+                LOGGER.warn("Failed to index {} of {} document(s). Reason: {}", failedIds.size(), toIndex.size(), ex.getMessage());
+                List<IndexOperation> succeeded = new ArrayList<>();
+                toIndex.forEach(op -> (failedIds.contains(op.getResourceId()) ? failed : succeeded).add(op));
+                completed(succeeded, indexedDocuments);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Failed to index {} document(s). Reason: {}", toIndex.size(), ex.getMessage());
+                failed.addAll(toIndex);
+            }
+        }
+
+        if (!toDelete.isEmpty()) {
+            try {
+                dataResourceRepository.get().deleteAllById(toDelete.stream().map(IndexOperation::getResourceId).toList());
+                toDelete.forEach(op -> deleteContentDocuments(op.getResourceId(), shadowContent));
+                if (shadow != null && elasticsearchOperations.isPresent()) {
+                    toDelete.forEach(op -> elasticsearchOperations.get().delete(op.getResourceId(), shadow));
+                }
+                completed(toDelete, deletedDocuments);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Failed to delete {} document(s). Reason: {}", toDelete.size(), ex.getMessage());
+                failed.addAll(toDelete);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Build the wrapper of a resource and write its separate content
+     * documents, if any, to the content index and to the shadow content index.
+     * Content documents of a previous run are removed before, as elements may
+     * have been deleted meanwhile or the resource may have been shrunk.
+     *
+     * @param resource The resource.
+     * @param includeContent TRUE if content information should be included.
+     * @param shadowContent The shadow content index or null.
+     *
+     * @return The wrapper.
+     */
+    private ElasticWrapper build(DataResource resource, boolean includeContent, IndexCoordinates shadowContent) {
+        if (includeContent && wrapperBuilder.isContentDocumentsEnabled()) {
+            if (wrapperBuilder.hasContentDocuments(resource.getId())) {
+                wrapperBuilder.deleteContentDocuments(resource.getId());
+            }
+            if (shadowContent != null) {
+                deleteShadowContentDocuments(resource.getId(), shadowContent);
+            }
+        }
+        return wrapperBuilder.build(resource, includeContent, documents -> {
+            elasticsearchOperations.get().save(documents, wrapperBuilder.getContentIndexCoordinates());
+            if (shadowContent != null) {
+                elasticsearchOperations.get().save(documents, shadowContent);
+            }
+        });
+    }
+
+    private void deleteContentDocuments(String resourceId, IndexCoordinates shadowContent) {
+        wrapperBuilder.deleteContentDocuments(resourceId);
+        if (shadowContent != null) {
+            deleteShadowContentDocuments(resourceId, shadowContent);
+        }
+    }
+
+    private void deleteShadowContentDocuments(String resourceId, IndexCoordinates shadowContent) {
+        Query query = new CriteriaQuery(new Criteria("resourceId").is(resourceId));
+        elasticsearchOperations.get().delete(DeleteQuery.builder(query).build(), ElasticContentWrapper.class, shadowContent);
+    }
+
+    /**
+     * Apply partial operations via scripted bulk updates. Operations which
+     * cannot be applied partially, e.g., because the document does not exist
+     * in the index, are converted into full operations and returned.
+     *
+     * @param operations The partial operations.
+     *
+     * @return All operations which have to be processed as full operations.
+     */
+    private List<IndexOperation> processPartial(List<IndexOperation> operations) {
+        List<IndexOperation> fullOperations = new ArrayList<>();
+        List<IndexOperation> updated = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<UpdateQuery> queries = new ArrayList<>();
+                operations.forEach(op -> {
+                    Optional<DataResource> resource = dataResourceDao.findById(op.getResourceId());
+                    if (resource.isEmpty()) {
+                        LOGGER.debug("Resource {} not found. Skipping partial update.", op.getResourceId());
+                        return;
+                    }
+                    Optional<UpdateQuery> query = wrapperBuilder.buildPartialUpdate(resource.get(), op.isMetadataChanged(), op.getContentPaths());
+                    if (query.isPresent()) {
+                        queries.add(query.get());
+                        updated.add(op);
+                    } else {
+                        fullOperations.add(op);
+                    }
+                });
+                if (!queries.isEmpty()) {
+                    LOGGER.trace("Applying {} partial update(s).", queries.size());
+                    elasticsearchOperations.get().bulkUpdate(queries, wrapperBuilder.getIndexCoordinates());
+                }
+            });
+            completed(updated, updatedDocuments);
+        } catch (BulkFailureException ex) {
+            Set<String> failedIds = ex.getFailedDocuments().keySet();
+            LOGGER.debug("Partial update of {} document(s) failed, falling back to full indexing. Reason: {}", failedIds.size(), ex.getMessage());
+            List<IndexOperation> succeeded = new ArrayList<>();
+            updated.forEach(op -> (failedIds.contains(op.getResourceId()) ? fullOperations : succeeded).add(op));
+            completed(succeeded, updatedDocuments);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to apply {} partial update(s), falling back to full indexing. Reason: {}", operations.size(), ex.getMessage());
+            fullOperations.clear();
+            fullOperations.addAll(operations);
+        }
+        fullOperations.forEach(op -> op.toFullOperation(true));
+        return fullOperations;
+    }
+
+    private void completed(List<IndexOperation> operations, Counter counter) {
+        long now = System.currentTimeMillis();
+        operations.forEach(op -> {
+            indexingLag.record(Duration.ofMillis(now - op.getSubmitted()));
+            counter.increment();
+        });
+    }
+
+    private void failed(List<IndexOperation> operations) {
+        operations.forEach(op -> {
+            op.setAttempts(op.getAttempts() + 1);
+            if (op.getAttempts() > applicationProperties.getIndexingMaxRetries()) {
+                LOGGER.error("Giving up indexing operation {} after {} retries.", op, applicationProperties.getIndexingMaxRetries());
+                failedOperations.increment();
+                return;
+            }
+            long backoff = Math.min(MAX_BACKOFF_MS, applicationProperties.getIndexingRetryBackoff() << (op.getAttempts() - 1));
+            LOGGER.debug("Retrying indexing operation {} in {} ms.", op, backoff);
+            op.setNotBefore(System.currentTimeMillis() + backoff);
+            retriedOperations.increment();
+            lock.lock();
+            try {
+                IndexOperation newer = pending.get(op.getResourceId());
+                if (newer != null) {
+                    //a newer operation was submitted meanwhile, merge it into the failed one such that the changes of both are applied
+                    op.merge(newer);
+                }
+                pending.put(op.getResourceId(), op);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            LOGGER.info("Shutting down indexer. Flushing {} pending operation(s).", getQueueSize());
+            executor.shutdown();
+            try {
+                if (executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    lock.lock();
+                    try {
+                        pending.values().forEach(op -> op.setNotBefore(0));
+                    } finally {
+                        lock.unlock();
+                    }
+                    while (flush() > 0) {
+                        LOGGER.trace("Flushed batch during shutdown.");
+                    }
+                }
+            } catch (InterruptedException ex) {
+                LOGGER.warn("Interrupted while waiting for indexer shutdown.");
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -52,6 +52,9 @@ public class ElasticWrapper {
     @Field(type = FieldType.Nested, includeInParent = true)
     private List<ContentInformation> content = new ArrayList<>();
 
+    @Field(type = FieldType.Long)
+    private long contentCount;
+
     @Field(type = FieldType.Text)
     private List<String> read = new ArrayList<>();
 
@@ -68,10 +71,23 @@ public class ElasticWrapper {
     }
 
     public ElasticWrapper(DataResource resource, List<ContentInformation> content) {
+        this(resource, content, content.size());
+    }
+
+    /**
+     * Create a wrapper for a resource with a total of contentCount content
+     * information elements, of which only the provided elements are embedded.
+     *
+     * @param resource The resource.
+     * @param content The embedded content information elements.
+     * @param contentCount The total number of content information elements.
+     */
+    public ElasticWrapper(DataResource resource, List<ContentInformation> content, long contentCount) {
         id = resource.getId();
         pid = (resource.getIdentifier() != null) ? resource.getIdentifier().getValue() : null;
         metadata = resource;
         this.content = content;
+        this.contentCount = contentCount;
         resource.getAcls().forEach(entry -> {
             String sid = entry.getSid();
             if (entry.getPermission().atLeast(PERMISSION.READ)) {
@@ -86,4 +102,20 @@ public class ElasticWrapper {
         lastUpdate = Date.from(Instant.now());
     }
 
+    public String getId() {
+        return id;
+    }
+
+    public String getPid() {
+        return pid;
+    }
+
+    public List<String> getRead() {
+        return read;
+    }
+
+    public Date getLastUpdate() {
+        return lastUpdate;
+    }
+
 }
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IContentInformationLookupDao;
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.DataResource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builder for ElasticWrapper documents. Content information elements are read
+ * page-wise and are detached from the persistence context before being
+ * shortened, such that managed entities are never modified and memory
+ * consumption is bounded by the page size. Resources having more content
+ * information elements than 'repo.search.indexing.maxEmbeddedContent' are
+ * either indexed with a truncated content list or, if
+ * 'repo.search.indexing.contentDocuments' is enabled, each content information
+ * element is indexed as separate ElasticContentWrapper document.
+ *
+ * For partial index operations, the builder creates scripted updates replacing
+ * the metadata and/or single elements of the nested content list of an
+ * indexed document.
+ *
+ * The builder must be used within a transaction.
+ *
+ * @author jejkal
+ */
+@Component
+public class ElasticWrapperBuilder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ElasticWrapperBuilder.class);
+
+    private static final String PARTIAL_UPDATE_SCRIPT = ""
+            + "if (params.updateMetadata) {"
+            + "  ctx._source.metadata = params.metadata;"
+            + "  ctx._source.pid = params.pid;"
+            + "  ctx._source.read = params.read;"
+            + "  ctx._source.created = params.created;"
+            + "}"
+            + "if (!params.paths.isEmpty()) {"
+            + "  if (ctx._source.content == null) { ctx._source.content = new ArrayList(); }"
+            + "  def paths = params.paths;"
+            + "  ctx._source.content.removeIf(c -> paths.contains(c.relativePath));"
+            + "  ctx._source.content.addAll(params.upserts);"
+            + "}"
+            + "ctx._source.contentCount = params.contentCount;"
+            + "ctx._source.lastUpdate = params.lastUpdate;";
+
+    private final IContentInformationLookupDao contentInformationLookupDao;
+    private final Optional<ContentInformationRepository> contentInformationRepository;
+    private final ApplicationProperties applicationProperties;
+    private final Optional<ElasticsearchOperations> elasticsearchOperations;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ElasticWrapperBuilder(IContentInformationLookupDao contentInformationLookupDao,
+            Optional<ContentInformationRepository> contentInformationRepository,
+            ApplicationProperties applicationProperties,
+            Optional<ElasticsearchOperations> elasticsearchOperations) {
+        this.contentInformationLookupDao = contentInformationLookupDao;
+        this.contentInformationRepository = contentInformationRepository;
+        this.applicationProperties = applicationProperties;
+        this.elasticsearchOperations = elasticsearchOperations;
+    }
+
+    /**
+     * Create the Elastic wrapper for the provided resource. If content
+     * documents are enabled and the resource exceeds the maximum number of
+     * embedded content information elements, the content is not embedded but
+     * passed page-wise as separate content documents to the provided
+     * consumer. Nothing is written by the builder itself, the caller decides
+     * into which index the wrapper and the content documents are written, and
+     * whether content documents of previous runs have to be removed.
+     *
+     * @param resource The resource.
+     * @param includeContent TRUE if content information should be included.
+     * @param contentDocuments Consumer receiving pages of separate content
+     * documents.
+     *
+     * @return The wrapper.
+     */
+    public ElasticWrapper build(DataResource resource, boolean includeContent, Consumer<List<ElasticContentWrapper>> contentDocuments) {
+        if (!includeContent) {
+            LOGGER.trace("Creating Elastic wrapper with data resource {}.", resource.getId());
+            return new ElasticWrapper(resource);
+        }
+
+        long contentCount = contentInformationLookupDao.countByResourceId(resource.getId());
+        int maxEmbedded = applicationProperties.getIndexingMaxEmbeddedContent();
+        boolean separateDocuments = contentCount > maxEmbedded && isContentDocumentsEnabled();
+        LOGGER.trace("Resource {} has {} content information element(s). Using {} content.", resource.getId(), contentCount, (separateDocuments ? "separate documents for" : "embedded"));
+
+        if (separateDocuments) {
+            ElasticWrapper wrapper = new ElasticWrapper(resource, new ArrayList<>(), contentCount);
+            forEachPage(resource.getId(), Long.MAX_VALUE, page -> {
+                List<ElasticContentWrapper> documents = new ArrayList<>();
+                page.forEach(info -> documents.add(new ElasticContentWrapper(wrapper, info)));
+                contentDocuments.accept(documents);
+            });
+            return wrapper;
+        }
+
+        if (contentCount > maxEmbedded) {
+            LOGGER.warn("Resource {} has {} content information element(s). Only the first {} element(s) are indexed.", resource.getId(), contentCount, maxEmbedded);
+        }
+        List<ContentInformation> content = new ArrayList<>();
+        forEachPage(resource.getId(), maxEmbedded, content::addAll);
+        LOGGER.trace("Creating Elastic wrapper with data resource and {} content information element(s).", content.size());
+        return new ElasticWrapper(resource, content, contentCount);
+    }
+
+    /**
+     * Create a scripted update applying a partial index operation to the
+     * indexed document of the provided resource. Changed content information
+     * elements are replaced in or removed from the nested content list or, if
+     * the resource uses separate content documents, the according content
+     * documents are written or removed immediately.
+     *
+     * If a partial update is not possible, e.g., because the resource was
+     * indexed with a truncated content list, because the resource may just
+     * have switched from embedded content to separate content documents or
+     * because the metadata of a resource with separate content documents has
+     * changed, an empty optional is returned and a full index operation is
+     * needed. In the latter case, the content documents carry copies of the
+     * read permissions and the PID, which must be rewritten as well.
+     *
+     * @param resource The resource.
+     * @param metadataChanged TRUE if the resource metadata has changed.
+     * @param contentPaths The relative paths of all changed content
+     * information elements.
+     *
+     * @return The update query or an empty optional.
+     */
+    public Optional<UpdateQuery> buildPartialUpdate(DataResource resource, boolean metadataChanged, Set<String> contentPaths) {
+        if (elasticsearchOperations.isEmpty()) {
+            return Optional.empty();
+        }
+        int maxEmbedded = applicationProperties.getIndexingMaxEmbeddedContent();
+        long contentCount = contentInformationLookupDao.countByResourceId(resource.getId());
+        boolean separateDocuments = contentCount > maxEmbedded && isContentDocumentsEnabled();
+        if (metadataChanged && separateDocuments) {
+            LOGGER.trace("Metadata of resource {} with separate content documents has changed. Partial update not possible.", resource.getId());
+            return Optional.empty();
+        }
+        if (!contentPaths.isEmpty()) {
+            if (contentCount > maxEmbedded && !separateDocuments) {
+                LOGGER.trace("Content of resource {} is truncated. Partial update not possible.", resource.getId());
+                return Optional.empty();
+            }
+            if (Math.abs(contentCount - maxEmbedded) <= contentPaths.size()) {
+                LOGGER.trace("Resource {} may have crossed the maximum number of embedded content elements. Partial update not possible.", resource.getId());
+                return Optional.empty();
+            }
+        }
+
+        ElasticWrapper wrapper = new ElasticWrapper(resource, new ArrayList<>(), contentCount);
+        Document source = elasticsearchOperations.get().getElasticsearchConverter().mapObject(wrapper);
+        Map<String, Object> params = new HashMap<>();
+        params.put("updateMetadata", metadataChanged);
+        if (metadataChanged) {
+            params.put("metadata", source.get("metadata"));
+            params.put("pid", source.get("pid"));
+            params.put("read", source.get("read"));
+            params.put("created", source.get("created"));
+        }
+        params.put("contentCount", contentCount);
+        params.put("lastUpdate", source.get("lastUpdate"));
+
+        List<Object> upserts = new ArrayList<>();
+        contentPaths.forEach(path -> {
+            Optional<ContentInformation> info = loadContent(resource.getId(), path);
+            if (separateDocuments) {
+                contentInformationRepository.get().deleteByResourceIdAndRelativePath(resource.getId(), path);
+                info.ifPresent(i -> contentInformationRepository.get().save(new ElasticContentWrapper(wrapper, i)));
+            } else {
+                info.ifPresent(i -> upserts.add(elasticsearchOperations.get().getElasticsearchConverter().mapObject(i)));
+            }
+        });
+        params.put("paths", separateDocuments ? new ArrayList<>() : new ArrayList<>(contentPaths));
+        params.put("upserts", upserts);
+
+        LOGGER.trace("Creating partial update for resource {} with {} changed content path(s).", resource.getId(), contentPaths.size());
+        return Optional.of(UpdateQuery.builder(resource.getId())
+                .withScript(PARTIAL_UPDATE_SCRIPT)
+                .withLang("painless")
+                .withScriptType(ScriptType.INLINE)
+                .withParams(params)
+                .build());
+    }
+
+    /**
+     * Get the coordinates of the index holding the documents created by this
+     * builder.
+     *
+     * @return The index coordinates.
+     */
+    public IndexCoordinates getIndexCoordinates() {
+        return elasticsearchOperations.get().getIndexCoordinatesFor(ElasticWrapper.class);
+    }
+
+    /**
+     * Get the coordinates of the index holding the separate content documents
+     * of large resources.
+     *
+     * @return The index coordinates.
+     */
+    public IndexCoordinates getContentIndexCoordinates() {
+        return elasticsearchOperations.get().getIndexCoordinatesFor(ElasticContentWrapper.class);
+    }
+
+    /**
+     * Check if a resource is currently indexed with separate content
+     * documents, e.g., before removing documents which may have become stale.
+     *
+     * @param resourceId The resource id.
+     *
+     * @return TRUE if at least one content document of the resource exists.
+     */
+    public boolean hasContentDocuments(String resourceId) {
+        return isContentDocumentsEnabled() && contentInformationRepository.get().countByResourceId(resourceId) > 0;
+    }
+
+    /**
+     * Remove all separate content documents of a resource, if content
+     * documents are enabled.
+     *
+     * @param resourceId The resource id.
+     */
+    public void deleteContentDocuments(String resourceId) {
+        if (isContentDocumentsEnabled()) {
+            contentInformationRepository.get().deleteByResourceId(resourceId);
+        }
+    }
+
+    /**
+     * Check if content information of large resources is indexed as separate
+     * content documents.
+     *
+     * @return TRUE if content documents are enabled.
+     */
+    public boolean isContentDocumentsEnabled() {
+        return applicationProperties.isIndexingContentDocuments() && contentInformationRepository.isPresent();
+    }
+
+    private Optional<ContentInformation> loadContent(String resourceId, String relativePath) {
+        List<ContentInformation> result = contentInformationLookupDao.findByResourceIdAndRelativePath(resourceId, relativePath);
+        if (result.isEmpty()) {
+            return Optional.empty();
+        }
+        ContentInformation info = result.get(0);
+        entityManager.detach(info);
+        info.setParentResource(DataResource.factoryNewDataResource(resourceId));
+        return Optional.of(info);
+    }
+
+    private void forEachPage(String resourceId, long limit, Consumer<List<ContentInformation>> consumer) {
+        int pageSize = applicationProperties.getIndexingContentPageSize();
+        long remaining = limit;
+        Long lastId = -1l;
+        while (remaining > 0) {
+            List<ContentInformation> page = contentInformationLookupDao.findNextPage(resourceId, lastId, PageRequest.of(0, (int) Math.min(pageSize, remaining)));
+            if (page.isEmpty()) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+            remaining -= page.size();
+            page.forEach(info -> {
+                //detach before shortening the parent resource to avoid modifying managed entities
+                entityManager.detach(info);
+                info.setParentResource(DataResource.factoryNewDataResource(resourceId));
+            });
+            consumer.accept(page);
+            if (page.size() < pageSize) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Pending indexing operation for a single resource. Multiple operations for
+ * the same resource are merged into one operation before being flushed.
+ *
+ * An operation is either a full operation, re-creating the entire indexed
+ * document, or a partial operation, updating only the resource metadata and/or
+ * single content information elements identified by their relative path.
+ * Partial operations are converted into full operations as soon as they are
+ * merged with a full operation or if too many content paths have changed.
+ *
+ * @author jejkal
+ */
+@Getter
+@Setter
+@ToString
+public class IndexOperation {
+
+    /**
+     * Maximum number of changed content paths before a partial operation is
+     * converted into a full operation.
+     */
+    public static final int MAX_CONTENT_PATHS = 100;
+
+    public enum Type {
+        INDEX,
+        DELETE;
+    }
+
+    private final String resourceId;
+    private Type type;
+    private boolean includeContent;
+    private boolean partial;
+    private boolean metadataChanged;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Set<String> contentPaths = new LinkedHashSet<>();
+    private long submitted;
+    private long notBefore;
+    private int attempts;
+
+    public IndexOperation(String resourceId, Type type, boolean includeContent) {
+        this.resourceId = resourceId;
+        this.type = type;
+        this.includeContent = includeContent;
+        this.submitted = System.currentTimeMillis();
+    }
+
+    /**
+     * Create a partial operation updating the metadata of a resource.
+     *
+     * @param resourceId The id of the resource.
+     *
+     * @return The operation.
+     */
+    public static IndexOperation metadataUpdate(String resourceId) {
+        IndexOperation op = new IndexOperation(resourceId, Type.INDEX, false);
+        op.setPartial(true);
+        op.setMetadataChanged(true);
+        return op;
+    }
+
+    /**
+     * Create a partial operation updating a single content information
+     * element of a resource. Depending on whether the element still exists or
+     * not, the indexed element is replaced or removed.
+     *
+     * @param resourceId The id of the resource.
+     * @param relativePath The relative path of the changed content.
+     *
+     * @return The operation.
+     */
+    public static IndexOperation contentUpdate(String resourceId, String relativePath) {
+        IndexOperation op = new IndexOperation(resourceId, Type.INDEX, false);
+        op.setPartial(true);
+        op.contentPaths.add(relativePath);
+        return op;
+    }
+
+    /**
+     * Get the relative paths of all changed content information elements of
+     * a partial operation.
+     *
+     * @return An unmodifiable set of relative paths.
+     */
+    public Set<String> getContentPaths() {
+        return Collections.unmodifiableSet(contentPaths);
+    }
+
+    /**
+     * Convert this operation into a full operation.
+     *
+     * @param withContent TRUE if content information should be included.
+     */
+    public void toFullOperation(boolean withContent) {
+        includeContent = withContent;
+        partial = false;
+        metadataChanged = false;
+        contentPaths.clear();
+    }
+
+    /**
+     * Merge a newer operation for the same resource into this operation. The
+     * type of the newer operation wins, content is included if any of both
+     * operations includes content. Two partial operations are combined, a
+     * partial and a full operation result in a full operation. The submission
+     * time of this operation is kept in order to measure the overall lag. The
+     * retry state of both operations is kept as well, i.e., the higher number
+     * of attempts and the later retry time, such that a resource changing
+     * while indexing keeps failing still reaches the retry limit.
+     *
+     * @param newer The newer operation.
+     */
+    public void merge(IndexOperation newer) {
+        if (Type.INDEX.equals(type) && Type.INDEX.equals(newer.getType())) {
+            if (partial && newer.isPartial()) {
+                metadataChanged = metadataChanged || newer.isMetadataChanged();
+                contentPaths.addAll(newer.contentPaths);
+                if (contentPaths.size() > MAX_CONTENT_PATHS) {
+                    toFullOperation(true);
+                }
+            } else {
+                toFullOperation(requiresContent() || newer.requiresContent());
+            }
+        } else {
+            includeContent = newer.isIncludeContent();
+            partial = newer.isPartial();
+            metadataChanged = newer.isMetadataChanged();
+            contentPaths.clear();
+            contentPaths.addAll(newer.contentPaths);
+        }
+        type = newer.getType();
+        notBefore = Math.max(notBefore, newer.getNotBefore());
+        attempts = Math.max(attempts, newer.getAttempts());
+    }
+
+    private boolean requiresContent() {
+        return partial ? !contentPaths.isEmpty() : includeContent;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic;
+
+import edu.kit.datamanager.entities.RepoUserRole;
+import edu.kit.datamanager.repo.domain.ReindexJob;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint for triggering and monitoring full reindex jobs. Reading
+ * the job state is allowed for everyone having access to the actuator
+ * endpoints, starting or cancelling a job requires the role ADMINISTRATOR.
+ *
+ * @author jejkal
+ */
+@Component
+@Endpoint(id = "reindex")
+@ConditionalOnProperty(prefix = "repo.search", name = "enabled", havingValue = "true")
+public class ReindexEndpoint {
+
+    private final ReindexService reindexService;
+
+    public ReindexEndpoint(ReindexService reindexService) {
+        this.reindexService = reindexService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Optional<ReindexJob> job = reindexService.getJob();
+        if (job.isEmpty()) {
+            return Map.of("status", "NONE");
+        }
+        return toMap(job.get());
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start() {
+        if (!AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.toString())) {
+            return new WebEndpointResponse<>(Map.of("message", "Starting a reindex job requires role ADMINISTRATOR."), 403);
+        }
+        Optional<ReindexJob> job = reindexService.start();
+        if (job.isEmpty()) {
+            return new WebEndpointResponse<>(status(), 409);
+        }
+        return new WebEndpointResponse<>(toMap(job.get()), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Map<String, Object>> cancel() {
+        if (!AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.toString())) {
+            return new WebEndpointResponse<>(Map.of("message", "Cancelling a reindex job requires role ADMINISTRATOR."), 403);
+        }
+        if (!reindexService.cancel()) {
+            return new WebEndpointResponse<>(Map.of("message", "No reindex job running."), WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_OK);
+    }
+
+    private Map<String, Object> toMap(ReindexJob job) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", job.getId());
+        result.put("status", job.getStatus());
+        result.put("targetIndex", job.getTargetIndex());
+        result.put("alias", job.getAliasName());
+        result.put("total", job.getTotal());
+        result.put("processed", job.getProcessed());
+        result.put("failed", job.getFailed());
+        result.put("progress", (job.getTotal() > 0) ? Math.min(1d, (double) (job.getProcessed() + job.getFailed()) / job.getTotal()) : 1d);
+        result.put("throughput", reindexService.getThroughput(job));
+        result.put("lastResourceId", job.getLastResourceId());
+        result.put("started", job.getStarted());
+        result.put("finished", job.getFinished());
+        result.put("lastError", job.getLastError());
+        return result;
+    }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.dao.IDataResourceLookupDao;
+import edu.kit.datamanager.repo.dao.IReindexJobDao;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.ReindexJob;
+import edu.kit.datamanager.repo.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for rebuilding the search index from scratch. A reindex job scans
+ * all DataResource ids using keyset pagination and builds the indexed
+ * documents in parallel worker threads. The documents are written using bulk
+ * requests into a new versioned index, e.g., baserepo-20250101120000. While the
+ * job is running, the ElasticIndexer of each instance writes all changes to the
+ * new index, too, as the target indices are part of the persisted job. Only
+ * one job can be running at a time.
+ * As soon as all resources are processed, the alias 'baserepo' is atomically
+ * swapped to the new index. If 'baserepo' is a concrete index, e.g., created
+ * automatically by a previous version, it is removed as part of the swap.
+ * If separate content documents are enabled, they are written into a new
+ * versioned content index with the same suffix, whose alias 'baserepocontent'
+ * is swapped together with the resource index.
+ *
+ * Resources which failed to be indexed are retried once after all batches are
+ * processed. If they still fail, the job is marked as FAILED, the new indices
+ * are removed and the aliases are left untouched, such that searches continue
+ * to use the previous, complete index.
+ *
+ * The job state, the id of the last completely processed resource and the ids
+ * of all failed resources are persisted after each batch, such that a job
+ * interrupted by a restart is resumed automatically.
+ *
+ * @author jejkal
+ */
+@Component
+@ConditionalOnProperty(prefix = "repo.search", name = "enabled", havingValue = "true")
+public class ReindexService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReindexService.class);
+    private static final DateTimeFormatter INDEX_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticWrapperBuilder wrapperBuilder;
+    private final IDataResourceDao dataResourceDao;
+    private final IDataResourceLookupDao dataResourceLookupDao;
+    private final IReindexJobDao reindexJobDao;
+    private final ApplicationProperties applicationProperties;
+    private final TransactionTemplate readTransaction;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile ReindexJob currentJob;
+    private volatile boolean cancelled;
+    private Thread jobThread;
+
+    public ReindexService(ElasticsearchOperations elasticsearchOperations,
+            ElasticWrapperBuilder wrapperBuilder,
+            IDataResourceDao dataResourceDao,
+            IDataResourceLookupDao dataResourceLookupDao,
+            IReindexJobDao reindexJobDao,
+            ApplicationProperties applicationProperties,
+            PlatformTransactionManager transactionManager) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.wrapperBuilder = wrapperBuilder;
+        this.dataResourceDao = dataResourceDao;
+        this.dataResourceLookupDao = dataResourceLookupDao;
+        this.reindexJobDao = reindexJobDao;
+        this.applicationProperties = applicationProperties;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Resume a job which was running when the application was stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJob() {
+        reindexJobDao.findFirstByStatusOrderByIdDesc(ReindexJob.STATUS.RUNNING).ifPresent(job -> {
+            LOGGER.info("Resuming interrupted reindex job {} into index {} after resource {}.", job.getId(), job.getTargetIndex(), job.getLastResourceId());
+            launch(job);
+        });
+    }
+
+    /**
+     * Start a new reindex job.
+     *
+     * @return The new job or an empty optional if a job is already running on
+     * this or on another instance.
+     */
+    public Optional<ReindexJob> start() {
+        lock.lock();
+        try {
+            if (isRunning()) {
+                LOGGER.debug("Reindex job {} is already running.", currentJob.getId());
+                return Optional.empty();
+            }
+            Optional<ReindexJob> running = reindexJobDao.findFirstByStatusOrderByIdDesc(ReindexJob.STATUS.RUNNING);
+            if (running.isPresent()) {
+                LOGGER.debug("Reindex job {} is already running on another instance.", running.get().getId());
+                return Optional.empty();
+            }
+            String alias = elasticsearchOperations.getIndexCoordinatesFor(ElasticWrapper.class).getIndexName();
+            String targetIndex = alias + "-" + INDEX_SUFFIX.format(Instant.now());
+            LOGGER.info("Creating index {} for reindex job.", targetIndex);
+            createIndex(targetIndex, ElasticWrapper.class);
+            ReindexJob job = ReindexJob.factoryReindexJob(alias, targetIndex, dataResourceLookupDao.countAll());
+            if (wrapperBuilder.isContentDocumentsEnabled()) {
+                String contentIndex = getContentTargetIndex(job);
+                LOGGER.info("Creating content index {} for reindex job.", contentIndex);
+                createIndex(contentIndex, ElasticContentWrapper.class);
+                job.setContentTargetIndex(contentIndex);
+            }
+
+            job = reindexJobDao.save(job);
+            launch(job);
+            return Optional.of(job);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancel the running job, if any. The partially filled index is removed.
+     *
+     * @return TRUE if a running job was cancelled.
+     */
+    public boolean cancel() {
+        lock.lock();
+        try {
+            if (!isRunning()) {
+                return false;
+            }
+            LOGGER.info("Cancelling reindex job {}.", currentJob.getId());
+            cancelled = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the state of the current or of the last job.
+     *
+     * @return The job state or an empty optional if no job was executed, yet.
+     */
+    public Optional<ReindexJob> getJob() {
+        ReindexJob job = currentJob;
+        return (job != null) ? Optional.of(job) : reindexJobDao.findFirstByOrderByIdDesc();
+    }
+
+    /**
+     * Get the throughput of a job in resources per second.
+     *
+     * @param job The job.
+     *
+     * @return The throughput.
+     */
+    public double getThroughput(ReindexJob job) {
+        Instant end = (job.getFinished() != null) ? job.getFinished() : Instant.now();
+        long millis = Math.max(1, Duration.between(job.getStarted(), end).toMillis());
+        return (job.getProcessed() * 1000d) / millis;
+    }
+
+    public boolean isRunning() {
+        return jobThread != null && jobThread.isAlive();
+    }
+
+    private void launch(ReindexJob job) {
+        currentJob = job;
+        cancelled = false;
+        jobThread = ThreadFactories.named("reindex-job-" + job.getId(), applicationProperties.isVirtualThreads()).newThread(() -> run(job));
+        jobThread.start();
+    }
+
+    private void run(ReindexJob job) {
+        ExecutorService workers = Executors.newFixedThreadPool(applicationProperties.getReindexWorkers(),
+                ThreadFactories.numbered("reindex-worker-", applicationProperties.isVirtualThreads()));
+        IndexCoordinates target = IndexCoordinates.of(job.getTargetIndex());
+        String contentIndex = getContentTargetIndex(job);
+        IndexCoordinates contentTarget = (contentIndex != null) ? IndexCoordinates.of(contentIndex) : null;
+        int maxInFlight = applicationProperties.getReindexWorkers() * 2;
+        Deque<Batch> inFlight = new ArrayDeque<>();
+        try {
+            if (contentTarget != null && !elasticsearchOperations.indexOps(contentTarget).exists()) {
+                //content documents were enabled after the job was started
+                createIndex(contentIndex, ElasticContentWrapper.class);
+            }
+            if (contentIndex != null && !contentIndex.equals(job.getContentTargetIndex())) {
+                //publish the content index to all instances before the first resource is read
+                job.setContentTargetIndex(contentIndex);
+                reindexJobDao.save(job);
+            }
+            String lastId = (job.getLastResourceId() != null) ? job.getLastResourceId() : "";
+            while (!cancelled) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                List<String> ids = dataResourceLookupDao.findNextIds(lastId, PageRequest.of(0, applicationProperties.getReindexBatchSize()));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                lastId = ids.get(ids.size() - 1);
+                inFlight.add(new Batch(lastId, workers.submit(() -> indexBatch(ids, target, contentTarget))));
+                while (!inFlight.isEmpty() && (inFlight.size() >= maxInFlight || inFlight.peek().result.isDone())) {
+                    complete(job, inFlight.poll());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                complete(job, inFlight.poll());
+            }
+            if (!cancelled && !job.getFailedIds().isEmpty()) {
+                retry(job, target, contentTarget);
+            }
+            if (cancelled) {
+                job.setStatus(ReindexJob.STATUS.CANCELLED);
+                deleteIndices(job, target, contentTarget);
+            } else if (job.getFailed() > 0) {
+                //never swap to an incomplete index, the previous index stays in use
+                LOGGER.error("Reindex job {} failed to index {} resource(s). Keeping alias {} unchanged.", job.getId(), job.getFailed(), job.getAliasName());
+                job.setStatus(ReindexJob.STATUS.FAILED);
+                String reason = (job.getLastError() != null) ? " Last error: " + job.getLastError() : "";
+                job.setLastError(abbreviate(job.getFailed() + " resource(s) could not be indexed." + reason));
+                deleteIndices(job, target, contentTarget);
+            } else {
+                swapAlias(job);
+                job.setStatus(ReindexJob.STATUS.COMPLETED);
+            }
+        } catch (InterruptedException ex) {
+            //job stays in state RUNNING and is resumed from the last checkpoint
+            LOGGER.info("Reindex job {} interrupted after resource {}.", job.getId(), job.getLastResourceId());
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | ExecutionException ex) {
+            LOGGER.error("Reindex job " + job.getId() + " failed.", ex);
+            job.setStatus(ReindexJob.STATUS.FAILED);
+            job.setLastError(abbreviate(ex.getMessage()));
+            try {
+                deleteIndices(job, target, contentTarget);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to remove index {} of failed reindex job {}. Reason: {}", job.getTargetIndex(), job.getId(), e.getMessage());
+            }
+        } finally {
+            workers.shutdownNow();
+            if (!ReindexJob.STATUS.RUNNING.equals(job.getStatus())) {
+                job.setFinished(Instant.now());
+                reindexJobDao.save(job);
+                LOGGER.info("Reindex job {} finished with status {}. Processed {} of {} resource(s), {} failed.", job.getId(), job.getStatus(), job.getProcessed(), job.getTotal(), job.getFailed());
+            }
+        }
+    }
+
+    private void complete(ReindexJob job, Batch batch) throws InterruptedException, ExecutionException {
+        BatchResult result = batch.result.get();
+        job.setProcessed(job.getProcessed() + result.processed);
+        //failed ids are persisted with the checkpoint to be retried after a restart, too
+        job.getFailedIds().addAll(result.failedIds);
+        job.setFailed(job.getFailedIds().size());
+        if (result.error != null) {
+            job.setLastError(abbreviate(result.error));
+        }
+        //batches are completed in order, so all resources up to this id are processed
+        job.setLastResourceId(batch.lastId);
+        reindexJobDao.save(job);
+    }
+
+    /**
+     * Index all resources which failed before once again. Resources indexed
+     * successfully are removed from the failed resources of the job and are
+     * counted as processed. As failed resources were never counted as
+     * processed before, each resource is counted at most once.
+     *
+     * @param job The job.
+     * @param target The target index.
+     * @param contentTarget The target content index or null.
+     */
+    private void retry(ReindexJob job, IndexCoordinates target, IndexCoordinates contentTarget) {
+        List<String> failedIds = new ArrayList<>(job.getFailedIds());
+        LOGGER.info("Retrying {} failed resource(s) of reindex job {}.", failedIds.size(), job.getId());
+        int batchSize = applicationProperties.getReindexBatchSize();
+        for (int i = 0; i < failedIds.size() && !cancelled; i += batchSize) {
+            List<String> ids = failedIds.subList(i, Math.min(failedIds.size(), i + batchSize));
+            BatchResult result = indexBatch(ids, target, contentTarget);
+            long recovered = 0;
+            for (String id : ids) {
+                if (!result.failedIds.contains(id) && job.getFailedIds().remove(id)) {
+                    recovered++;
+                }
+            }
+            job.setProcessed(job.getProcessed() + recovered);
+            job.setFailed(job.getFailedIds().size());
+            if (result.error != null) {
+                job.setLastError(abbreviate(result.error));
+            }
+        }
+        reindexJobDao.save(job);
+    }
+
+    /**
+     * Remove the indices of a job which is not completed. The job state is
+     * persisted before, such that other instances stop writing to the
+     * indices.
+     *
+     * @param job The job.
+     * @param target The target index.
+     * @param contentTarget The target content index or null.
+     */
+    private void deleteIndices(ReindexJob job, IndexCoordinates target, IndexCoordinates contentTarget) {
+        reindexJobDao.save(job);
+        elasticsearchOperations.indexOps(target).delete();
+        if (contentTarget != null) {
+            elasticsearchOperations.indexOps(contentTarget).delete();
+        }
+    }
+
+    private BatchResult indexBatch(List<String> ids, IndexCoordinates target, IndexCoordinates contentTarget) {
+        BatchResult result = new BatchResult();
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                List<ElasticWrapper> wrappers = new ArrayList<>();
+                ids.forEach(id -> {
+                    Optional<DataResource> resource = dataResourceDao.findById(id);
+                    //the target indices are new, so there are no stale content documents to remove
+                    resource.ifPresent(r -> wrappers.add(wrapperBuilder.build(r, true, documents -> elasticsearchOperations.save(documents, contentTarget))));
+                });
+                if (!wrappers.isEmpty()) {
+                    elasticsearchOperations.save(wrappers, target);
+                }
+                result.processed = wrappers.size();
+            });
+        } catch (BulkFailureException ex) {
+            List<String> failedIds = ids.stream().filter(ex.getFailedDocuments()::containsKey).toList();
+            if (failedIds.size() < ex.getFailedDocuments().size()) {
+                //writing content documents failed, the batch was aborted before writing any resource
+                failedIds = ids;
+            }
+            LOGGER.warn("Failed to index {} of {} document(s). Reason: {}", failedIds.size(), ids.size(), ex.getMessage());
+            result.failedIds = failedIds;
+            result.processed = ids.size() - failedIds.size();
+            result.error = ex.getMessage();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to index batch of {} document(s). Reason: {}", ids.size(), ex.getMessage());
+            result.failedIds = ids;
+            result.processed = 0;
+            result.error = ex.getMessage();
+        }
+        return result;
+    }
+
+    private void swapAlias(ReindexJob job) {
+        AliasActions actions = new AliasActions();
+        addSwapActions(actions, job.getAliasName(), job.getTargetIndex());
+        String contentIndex = getContentTargetIndex(job);
+        if (contentIndex != null) {
+            addSwapActions(actions, getContentAlias(), contentIndex);
+        }
+        //all actions are applied atomically in a single request
+        elasticsearchOperations.indexOps(IndexCoordinates.of(job.getAliasName())).alias(actions);
+    }
+
+    private void addSwapActions(AliasActions actions, String alias, String targetIndex) {
+        IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(alias));
+        Map<String, Set<AliasData>> aliased = new LinkedHashMap<>();
+        if (aliasOps.exists()) {
+            aliased.putAll(aliasOps.getAliases(alias));
+            if (aliased.isEmpty()) {
+                LOGGER.info("Removing concrete index {} in favour of an alias.", alias);
+                actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(alias).build()));
+            }
+        }
+        aliased.keySet().forEach(index -> {
+            LOGGER.trace("Removing alias {} from index {}.", alias, index);
+            actions.add(new AliasAction.Remove(AliasActionParameters.builder().withIndices(index).withAliases(alias).build()));
+        });
+        actions.add(new AliasAction.Add(AliasActionParameters.builder().withIndices(targetIndex).withAliases(alias).build()));
+        LOGGER.info("Swapping alias {} to index {}.", alias, targetIndex);
+    }
+
+    private void createIndex(String indexName, Class<?> template) {
+        IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(indexName));
+        IndexOperations templateOps = elasticsearchOperations.indexOps(template);
+        indexOps.create(templateOps.createSettings(), templateOps.createMapping());
+    }
+
+    /**
+     * Get the name of the content index filled by a job, which has the same
+     * version suffix as the resource index.
+     *
+     * @param job The job.
+     *
+     * @return The index name or null if content documents are disabled.
+     */
+    private String getContentTargetIndex(ReindexJob job) {
+        if (!wrapperBuilder.isContentDocumentsEnabled()) {
+            return null;
+        }
+        return getContentAlias() + job.getTargetIndex().substring(job.getAliasName().length());
+    }
+
+    private String getContentAlias() {
+        return wrapperBuilder.getContentIndexCoordinates().getIndexName();
+    }
+
+    private String abbreviate(String message) {
+        if (message == null || message.length() <= 1024) {
+            return message;
+        }
+        return message.substring(0, 1021) + "...";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (isRunning()) {
+            //the job remains in state RUNNING and is resumed at next startup
+            LOGGER.info("Stopping reindex job {}. It will be resumed after restart.", currentJob.getId());
+            jobThread.interrupt();
+        }
+    }
+
+    private static final class Batch {
+
+        private final String lastId;
+        private final Future<BatchResult> result;
+
+        Batch(String lastId, Future<BatchResult> result) {
+            this.lastId = lastId;
+            this.result = result;
+        }
+    }
+
+    private static final class BatchResult {
+
+        private long processed;
+        private List<String> failedIds = List.of();
+        private String error;
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.search;
+
+import edu.kit.datamanager.entities.PERMISSION;
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import edu.kit.datamanager.exceptions.CustomInternalServerError;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IContentInformationLookupDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.dao.IDataResourceLookupDao;
+import edu.kit.datamanager.repo.domain.DataResource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Embedded Lucene index of DataResources, which can be used for searching
+ * if no Elastic instance is available. The index is stored on local disk, by
+ * default in a folder 'search-index' next to 'repo.basepath', and is fed by
+ * the same change events as the Elastic index. Titles, descriptions, subjects
+ * and relative content paths are indexed for full-text search. Furthermore,
+ * the sids having at least READ and ADMINISTRATE permissions are indexed for
+ * filtering search results according to the caller's identities.
+ *
+ * If the index is empty at startup, it is populated from the database in the
+ * background.
+ *
+ * @author jejkal
+ */
+@Component
+@ConditionalOnProperty(prefix = "repo.search.local", name = "enabled", havingValue = "true")
+public class LocalSearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalSearchIndex.class);
+
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_TITLE = "title";
+    public static final String FIELD_DESCRIPTION = "description";
+    public static final String FIELD_SUBJECT = "subject";
+    public static final String FIELD_PATH = "path";
+    public static final String FIELD_STATE = "state";
+    public static final String FIELD_READ = "read";
+    public static final String FIELD_ADMINISTRATE = "administrate";
+
+    private static final String[] SEARCH_FIELDS = {FIELD_TITLE, FIELD_DESCRIPTION, FIELD_SUBJECT, FIELD_PATH};
+    private static final int PAGE_SIZE = 1000;
+
+    private final ApplicationProperties applicationProperties;
+    private final IDataResourceDao dataResourceDao;
+    private final IDataResourceLookupDao dataResourceLookupDao;
+    private final IContentInformationLookupDao contentInformationLookupDao;
+    private final TransactionTemplate transactionTemplate;
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ScheduledExecutorService executor;
+
+    public LocalSearchIndex(ApplicationProperties applicationProperties,
+            IDataResourceDao dataResourceDao,
+            IDataResourceLookupDao dataResourceLookupDao,
+            IContentInformationLookupDao contentInformationLookupDao,
+            PlatformTransactionManager transactionManager) {
+        this.applicationProperties = applicationProperties;
+        this.dataResourceDao = dataResourceDao;
+        this.dataResourceLookupDao = dataResourceLookupDao;
+        this.contentInformationLookupDao = contentInformationLookupDao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path indexPath = getIndexPath();
+        LOGGER.info("Opening local search index at {}.", indexPath);
+        directory = FSDirectory.open(indexPath);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "local-search-indexer");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::commit, 10, 10, TimeUnit.SECONDS);
+        if (writer.getDocStats().numDocs == 0) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Receive change events and apply them asynchronously to the index.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onResourceIndexEvent(ResourceIndexEvent event) {
+        LOGGER.trace("Received {}.", event);
+        executor.execute(() -> apply(event));
+    }
+
+    /**
+     * Search for resources matching the provided query. If the caller is no
+     * administrator, only resources readable by one of the provided sids are
+     * returned. Revoked and gone resources are only returned to callers having
+     * ADMINISTRATE permissions.
+     *
+     * @param queryString The query in Lucene query syntax. If null or empty,
+     * all accessible resources are returned.
+     * @param sids The sids of the caller.
+     * @param isAdministrator TRUE if the caller has the role ADMINISTRATOR.
+     * @param page The page number starting at 0.
+     * @param size The page size.
+     *
+     * @return The search result.
+     */
+    public LocalSearchResult search(String queryString, List<String> sids, boolean isAdministrator, int page, int size) {
+        Query query = parse(queryString);
+        if (!isAdministrator) {
+            BooleanQuery.Builder readable = new BooleanQuery.Builder()
+                    .add(new TermQuery(new Term(FIELD_STATE, DataResource.State.VOLATILE.toString())), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(FIELD_STATE, DataResource.State.FIXED.toString())), BooleanClause.Occur.SHOULD);
+            BooleanQuery.Builder readSids = new BooleanQuery.Builder();
+            BooleanQuery.Builder administrateSids = new BooleanQuery.Builder();
+            sids.forEach(sid -> {
+                readSids.add(new TermQuery(new Term(FIELD_READ, sid)), BooleanClause.Occur.SHOULD);
+                administrateSids.add(new TermQuery(new Term(FIELD_ADMINISTRATE, sid)), BooleanClause.Occur.SHOULD);
+            });
+            BooleanQuery.Builder accessible = new BooleanQuery.Builder()
+                    .add(new BooleanQuery.Builder()
+                            .add(readable.build(), BooleanClause.Occur.FILTER)
+                            .add(readSids.build(), BooleanClause.Occur.FILTER).build(), BooleanClause.Occur.SHOULD)
+                    .add(administrateSids.build(), BooleanClause.Occur.SHOULD);
+            query = new BooleanQuery.Builder()
+                    .add(query, BooleanClause.Occur.MUST)
+                    .add(accessible.build(), BooleanClause.Occur.FILTER)
+                    .build();
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(query, (page + 1) * size);
+            List<String> ids = new ArrayList<>();
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            for (int i = page * size; i < hits.length; i++) {
+                ids.add(searcher.storedFields().document(hits[i].doc).get(FIELD_ID));
+            }
+            return new LocalSearchResult(ids, topDocs.totalHits.value);
+        } catch (IOException ex) {
+            LOGGER.error("Failed to search local index.", ex);
+            throw new CustomInternalServerError("Failed to search local index.");
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException ex) {
+                    LOGGER.warn("Failed to release index searcher.", ex);
+                }
+            }
+        }
+    }
+
+    private Query parse(String queryString) {
+        if (queryString == null || queryString.isBlank()) {
+            return new MatchAllDocsQuery();
+        }
+        try {
+            return new MultiFieldQueryParser(SEARCH_FIELDS, analyzer).parse(queryString);
+        } catch (ParseException ex) {
+            LOGGER.debug("Invalid query '{}'.", queryString, ex);
+            throw new BadArgumentException("Invalid query. " + ex.getMessage());
+        }
+    }
+
+    private void apply(ResourceIndexEvent event) {
+        try {
+            if (event.isDeleted()) {
+                writer.deleteDocuments(new Term(FIELD_ID, event.getResourceId()));
+            } else {
+                Optional<Document> document = transactionTemplate.execute(status -> dataResourceDao.findById(event.getResourceId()).map(this::createDocument));
+                if (document != null && document.isPresent()) {
+                    writer.updateDocument(new Term(FIELD_ID, event.getResourceId()), document.get());
+                } else {
+                    writer.deleteDocuments(new Term(FIELD_ID, event.getResourceId()));
+                }
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.error("Failed to apply " + event + " to local search index.", ex);
+        }
+    }
+
+    private Document createDocument(DataResource resource) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, resource.getId(), Field.Store.YES));
+        if (resource.getState() != null) {
+            doc.add(new StringField(FIELD_STATE, resource.getState().toString(), Field.Store.NO));
+        }
+        resource.getTitles().forEach(title -> addText(doc, FIELD_TITLE, title.getValue()));
+        resource.getDescriptions().forEach(description -> addText(doc, FIELD_DESCRIPTION, description.getDescription()));
+        resource.getSubjects().forEach(subject -> addText(doc, FIELD_SUBJECT, subject.getValue()));
+        resource.getAcls().forEach(entry -> {
+            if (entry.getPermission().atLeast(PERMISSION.READ)) {
+                doc.add(new StringField(FIELD_READ, entry.getSid(), Field.Store.NO));
+            }
+            if (entry.getPermission().atLeast(PERMISSION.ADMINISTRATE)) {
+                doc.add(new StringField(FIELD_ADMINISTRATE, entry.getSid(), Field.Store.NO));
+            }
+        });
+        Long lastId = -1l;
+        List<Object[]> paths;
+        do {
+            paths = contentInformationLookupDao.findNextRelativePaths(resource.getId(), lastId, PageRequest.of(0, PAGE_SIZE));
+            for (Object[] path : paths) {
+                addText(doc, FIELD_PATH, (String) path[1]);
+                lastId = (Long) path[0];
+            }
+        } while (paths.size() == PAGE_SIZE);
+        return doc;
+    }
+
+    private void addText(Document doc, String field, String value) {
+        if (value != null) {
+            doc.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private void rebuild() {
+        LOGGER.info("Local search index is empty. Indexing all resources.");
+        String lastId = "";
+        List<String> ids;
+        long count = 0;
+        do {
+            ids = dataResourceLookupDao.findNextIds(lastId, PageRequest.of(0, PAGE_SIZE));
+            for (String id : ids) {
+                apply(new ResourceIndexEvent(id, false));
+                lastId = id;
+            }
+            count += ids.size();
+        } while (ids.size() == PAGE_SIZE);
+        commit();
+        LOGGER.info("Added {} resource(s) to local search index.", count);
+    }
+
+    private void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException ex) {
+            LOGGER.error("Failed to commit local search index.", ex);
+        }
+    }
+
+    private Path getIndexPath() {
+        String configuredPath = applicationProperties.getLocalSearchPath();
+        if (configuredPath != null && !configuredPath.isBlank()) {
+            return Paths.get(configuredPath);
+        }
+        try {
+            return Paths.get(applicationProperties.getBasepath().toURI()).resolveSibling("search-index");
+        } catch (URISyntaxException ex) {
+            throw new IllegalStateException("Failed to determine local search index path from basepath " + applicationProperties.getBasepath() + ".", ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        LOGGER.info("Closing local search index.");
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            if (searcherManager != null) {
+                searcherManager.close();
+            }
+            if (writer != null) {
+                writer.close();
+            }
+            if (directory != null) {
+                directory.close();
+            }
+        } catch (IOException ex) {
+            LOGGER.error("Failed to close local search index.", ex);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.search;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Result of a local search containing the ids of all matching resources of
+ * the requested page and the total number of hits.
+ *
+ * @author jejkal
+ */
+@Getter
+public class LocalSearchResult {
+
+    private final List<String> resourceIds;
+    private final long totalHits;
+
+    public LocalSearchResult(List<String> resourceIds, long totalHits) {
+        this.resourceIds = resourceIds;
+        this.totalHits = totalHits;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.search;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Event published whenever the indexed representation of a DataResource has to
+ * be updated or removed. The event is published after the change was
+ * committed, either directly or by the outbox dispatcher.
+ *
+ * @author jejkal
+ */
+@Getter
+@ToString
+public class ResourceIndexEvent {
+
+    private final String resourceId;
+    private final boolean deleted;
+
+    public ResourceIndexEvent(String resourceId, boolean deleted) {
+        this.resourceId = resourceId;
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Bus for distributing cache invalidations between all instances of a
+ * repository sharing the same database. Whenever a resource is modified by one
+ * instance, the ids of modified resources are published and all subscribed
+ * instances remove the affected elements from their node-local caches.
+ *
+ * @author jejkal
+ */
+public interface ICacheInvalidationBus {
+
+    /**
+     * Publish the invalidation of the provided resources. Implementations
+     * should not throw exceptions if the invalidation cannot be delivered, as
+     * node-local caches expire anyway.
+     *
+     * @param resourceIds The ids of the modified resources.
+     */
+    void publish(Collection<String> resourceIds);
+
+    /**
+     * Subscribe for invalidations published by other instances.
+     * Implementations may also deliver invalidations published by the local
+     * instance.
+     *
+     * @param listener The listener receiving the ids of modified resources.
+     */
+    void subscribe(Consumer<Collection<String>> listener);
+
+    /**
+     * Check whether invalidations are distributed to other instances. If not,
+     * all invalidations received by subscribers originate from the local
+     * instance.
+     *
+     * @return TRUE if invalidations are distributed to other instances.
+     */
+    default boolean isDistributed() {
+        return true;
+    }
+}
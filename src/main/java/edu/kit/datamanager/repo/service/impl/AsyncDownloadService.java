@@ -0,0 +1,346 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.util.ContentRangeUtils;
+import edu.kit.datamanager.repo.util.ThreadFactories;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Non-blocking transfer of local files using asynchronous request processing
+ * and a servlet WriteListener. After the transfer has been started, the
+ * request thread is returned to the container and file chunks are written
+ * whenever the connection becomes writable, such that slow clients do not
+ * occupy request threads. The number of concurrent transfers is limited by
+ * 'repo.download.async.maxTransfers', further downloads are answered with
+ * status 503. Optionally, the bandwidth of each transfer is limited to
+ * 'repo.download.async.bandwidthLimit' bytes per second. Transfers are not
+ * aborted unless 'repo.download.async.timeoutMs' is set. The number of
+ * active transfers, rejected transfers and transferred bytes are published
+ * as metrics 'repo.downloads.active', 'repo.downloads.rejected' and
+ * 'repo.downloads.bytes'.
+ *
+ * @author jejkal
+ */
+@Component
+public class AsyncDownloadService {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(AsyncDownloadService.class);
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_THROTTLE_DELAY = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final ApplicationProperties applicationProperties;
+    //null if the number of concurrent transfers is unlimited
+    private final Semaphore permits;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger activeTransfers = new AtomicInteger();
+    private final Counter rejectedTransfers;
+    private final Counter transferredBytes;
+
+    public AsyncDownloadService(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.applicationProperties = applicationProperties;
+        this.permits = (applicationProperties.getDownloadMaxTransfers() > 0) ? new Semaphore(applicationProperties.getDownloadMaxTransfers()) : null;
+        //throttled transfers are only resumed by this thread, writing is non-blocking
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("download-throttle", false));
+        meterRegistry.gauge("repo.downloads.active", activeTransfers);
+        rejectedTransfers = meterRegistry.counter("repo.downloads.rejected");
+        transferredBytes = meterRegistry.counter("repo.downloads.bytes");
+    }
+
+    /**
+     * Check whether non-blocking transfers are enabled via
+     * 'repo.download.async.enabled'.
+     *
+     * @return TRUE if enabled.
+     */
+    public boolean isEnabled() {
+        return applicationProperties.isDownloadAsyncEnabled();
+    }
+
+    /**
+     * Get the number of transfers currently in progress.
+     *
+     * @return The number of active transfers.
+     */
+    public int getActiveTransfers() {
+        return activeTransfers.get();
+    }
+
+    /**
+     * Start the non-blocking transfer of 'count' bytes of the provided file
+     * starting at 'start'. Status and headers must have been set before. If
+     * the request does not support asynchronous processing, the file is
+     * transferred via {@link ContentRangeUtils#transfer}. If the maximum
+     * number of concurrent transfers is reached, the response is reset and
+     * status 503 is returned.
+     *
+     * @param file The file.
+     * @param start The first byte to transfer.
+     * @param count The number of bytes to transfer.
+     * @param request The request.
+     * @param response The response.
+     *
+     * @throws IOException If the file cannot be opened.
+     */
+    public void transfer(Path file, long start, long count, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (count == 0 || !request.isAsyncSupported()) {
+            ContentRangeUtils.transfer(file, start, count, request, response);
+            return;
+        }
+        if (permits != null && !permits.tryAcquire()) {
+            LOGGER.debug("Maximum number of {} concurrent transfers reached. Rejecting download of file {}.", applicationProperties.getDownloadMaxTransfers(), file);
+            rejectedTransfers.increment();
+            response.reset();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            return;
+        }
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (IOException ex) {
+            releasePermit();
+            throw ex;
+        }
+        activeTransfers.incrementAndGet();
+        AsyncContext context = request.startAsync(request, response);
+        context.setTimeout(getTimeout(count));
+        FileWriter writer = new FileWriter(context, channel, start, count);
+        context.addListener(writer);
+        try {
+            LOGGER.trace("Starting non-blocking transfer of {} byte(s) of file {}.", count, file);
+            writer.start(response.getOutputStream());
+        } catch (IOException | RuntimeException ex) {
+            writer.finish();
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Get the timeout of a transfer of 'count' bytes. The configured timeout
+     * is extended by the minimum duration of the transfer at the configured
+     * bandwidth limit, such that throttled transfers of large files are not
+     * aborted.
+     *
+     * @param count The number of bytes to transfer.
+     *
+     * @return The timeout in milliseconds or 0 for no timeout.
+     */
+    private long getTimeout(long count) {
+        long timeout = applicationProperties.getDownloadTimeout();
+        long bandwidthLimit = applicationProperties.getDownloadBandwidthLimit();
+        if (timeout <= 0) {
+            return 0;
+        }
+        if (bandwidthLimit > 0) {
+            timeout += (long) Math.ceil(count * 1000d / bandwidthLimit);
+        }
+        return timeout;
+    }
+
+    private void releasePermit() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    /**
+     * Writer of a single transfer. Chunks are written from container threads
+     * via onWritePossible() or, for throttled transfers, from the scheduler
+     * thread. The container only calls onWritePossible() after isReady()
+     * returned false and a transfer is only scheduled for resumption while
+     * isReady() returned true, such that both never write concurrently.
+     */
+    private final class FileWriter implements WriteListener, AsyncListener {
+
+        private final AsyncContext context;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final long bandwidthLimit;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final ReentrantLock lock = new ReentrantLock();
+        private ServletOutputStream out;
+        private long position;
+        private long remaining;
+        private long sent = 0;
+        private long started;
+
+        FileWriter(AsyncContext context, FileChannel channel, long start, long count) {
+            this.context = context;
+            this.channel = channel;
+            this.position = start;
+            this.remaining = count;
+            this.bandwidthLimit = applicationProperties.getDownloadBandwidthLimit();
+            int chunkSize = Math.max(1, applicationProperties.getDownloadChunkSize());
+            if (bandwidthLimit > 0) {
+                //do not send more than one second worth of data at once
+                chunkSize = (int) Math.min(chunkSize, bandwidthLimit);
+            }
+            this.buffer = ByteBuffer.allocate((int) Math.min(chunkSize, count));
+        }
+
+        void start(ServletOutputStream out) {
+            this.out = out;
+            this.started = System.nanoTime();
+            //the container calls onWritePossible() as soon as the listener is registered
+            out.setWriteListener(this);
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            lock.lock();
+            try {
+                while (!finished.get() && out.isReady()) {
+                    if (remaining == 0) {
+                        complete();
+                        return;
+                    }
+                    long delay = getThrottleDelay();
+                    if (delay > 0) {
+                        scheduler.schedule(this::resume, delay, TimeUnit.NANOSECONDS);
+                        return;
+                    }
+                    buffer.clear();
+                    if (remaining < buffer.capacity()) {
+                        buffer.limit((int) remaining);
+                    }
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new IOException("File was truncated while being transferred.");
+                    }
+                    out.write(buffer.array(), 0, read);
+                    position += read;
+                    remaining -= read;
+                    sent += read;
+                    transferredBytes.increment(read);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOGGER.debug("Transfer aborted after {} byte(s).", sent, t);
+            complete();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            LOGGER.debug("Transfer timed out after {} byte(s). {} byte(s) remaining.", sent, remaining);
+            complete();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            LOGGER.debug("Transfer failed after {} byte(s).", sent, event.getThrowable());
+            finish();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            //not used
+        }
+
+        private void resume() {
+            try {
+                onWritePossible();
+            } catch (IOException | RuntimeException ex) {
+                onError(ex);
+            }
+        }
+
+        /**
+         * Get the time in nanoseconds to wait before the next chunk can be
+         * sent without exceeding the bandwidth limit.
+         */
+        private long getThrottleDelay() {
+            if (bandwidthLimit <= 0) {
+                return 0;
+            }
+            double allowed = (double) (System.nanoTime() - started) * bandwidthLimit / NANOS_PER_SECOND;
+            double excess = sent + buffer.capacity() - bandwidthLimit - allowed;
+            if (sent == 0 || excess <= 0) {
+                return 0;
+            }
+            return Math.max(MIN_THROTTLE_DELAY, (long) (excess * NANOS_PER_SECOND / bandwidthLimit));
+        }
+
+        private void complete() {
+            if (finish()) {
+                context.complete();
+            }
+        }
+
+        /**
+         * Release all resources of this transfer.
+         *
+         * @return TRUE if the transfer was not finished before.
+         */
+        private boolean finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                LOGGER.debug("Failed to close file channel.", ex);
+            }
+            activeTransfers.decrementAndGet();
+            releasePermit();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.domain.BulkCreateResult;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.OutboxEvent;
+import edu.kit.datamanager.repo.util.DataResourceUtils;
+import edu.kit.datamanager.repo.util.EntityUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Service for creating many DataResources at once. Resources are created in
+ * batches of 'repo.bulk.batchSize' resources, each batch within a single
+ * transaction, which allows Hibernate to group inserts into JDBC batches if
+ * 'hibernate.jdbc.batch_size' is configured. Index events of a batch are
+ * recorded together. If a batch fails, it is rolled back and all resources of
+ * the batch are created one by one in order to determine the failing items.
+ *
+ * @author jejkal
+ */
+@Component
+public class BulkResourceService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkResourceService.class);
+
+    private final RepoBaseConfiguration repositoryConfig;
+    private final ApplicationProperties applicationProperties;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BulkResourceService(RepoBaseConfiguration repositoryConfig,
+            ApplicationProperties applicationProperties,
+            OutboxService outboxService,
+            PlatformTransactionManager transactionManager) {
+        this.repositoryConfig = repositoryConfig;
+        this.applicationProperties = applicationProperties;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create all provided resources. The iterator is consumed batch-wise and
+     * each batch is committed before the next one is read. The results of all
+     * resources are collected and returned at the end, hence, callers should
+     * limit the number of resources per call.
+     *
+     * @param resources The resources to create.
+     *
+     * @return One result per resource in the order of the input.
+     */
+    public List<BulkCreateResult> createAll(Iterator<DataResource> resources) {
+        int batchSize = Math.max(1, applicationProperties.getBulkBatchSize());
+        List<BulkCreateResult> results = new ArrayList<>();
+        List<DataResource> batch = new ArrayList<>(batchSize);
+        while (resources.hasNext()) {
+            batch.add(resources.next());
+            if (batch.size() == batchSize) {
+                results.addAll(createBatch(batch, results.size()));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            results.addAll(createBatch(batch, results.size()));
+        }
+        LOGGER.debug("Bulk creation of {} resource(s) finished.", results.size());
+        return results;
+    }
+
+    private List<BulkCreateResult> createBatch(List<DataResource> batch, int offset) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<BulkCreateResult> results = new ArrayList<>(batch.size());
+                List<String> ids = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    DataResource created = create(batch.get(i));
+                    results.add(BulkCreateResult.created(offset + i, created.getId(), created.getEtag()));
+                    ids.add(created.getId());
+                }
+                outboxService.recordAll(ids, OutboxEvent.ACTION.CREATE);
+                //keep the persistence context small for large requests
+                entityManager.flush();
+                entityManager.clear();
+                return results;
+            });
+        } catch (RuntimeException ex) {
+            LOGGER.debug("Failed to create batch of {} resource(s) starting at index {}. Creating resources one by one.", batch.size(), offset, ex);
+            entityManager.clear();
+        }
+
+        List<BulkCreateResult> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            DataResource resource = batch.get(i);
+            int index = offset + i;
+            try {
+                results.add(transactionTemplate.execute(status -> {
+                    DataResource created = create(resource);
+                    outboxService.recordAll(List.of(created.getId()), OutboxEvent.ACTION.CREATE);
+                    return BulkCreateResult.created(index, created.getId(), created.getEtag());
+                }));
+            } catch (RuntimeException ex) {
+                LOGGER.trace("Failed to create resource at index {}.", index, ex);
+                entityManager.clear();
+                results.add(BulkCreateResult.failed(index, getStatus(ex), ex.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private DataResource create(DataResource resource) {
+        //remove ids assigned by user or by a previous, rolled back attempt
+        EntityUtils.removeIds(resource);
+        return DataResourceUtils.createResource(repositoryConfig, resource);
+    }
+
+    private int getStatus(Throwable ex) {
+        if (ex instanceof ResponseStatusException responseStatusException) {
+            return responseStatusException.getStatusCode().value();
+        }
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(ex.getClass(), ResponseStatus.class);
+        return status != null ? status.code().value() : HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+}
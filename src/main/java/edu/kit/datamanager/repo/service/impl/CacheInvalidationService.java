@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.service.ICacheInvalidationBus;
+import java.util.Collection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Central entry point for invalidating all node-local caches holding
+ * DataResource state, i.e., resource snapshots and validators for conditional
+ * requests. Local caches are invalidated immediately, other instances are
+ * notified via the configured ICacheInvalidationBus as soon as the current
+ * transaction has been committed.
+ *
+ * @author jejkal
+ */
+@Component
+public class CacheInvalidationService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    private final ConditionalRequestService conditionalRequestService;
+    private final DataResourceCache dataResourceCache;
+    private final ICacheInvalidationBus invalidationBus;
+
+    public CacheInvalidationService(ConditionalRequestService conditionalRequestService,
+            DataResourceCache dataResourceCache,
+            ICacheInvalidationBus invalidationBus) {
+        this.conditionalRequestService = conditionalRequestService;
+        this.dataResourceCache = dataResourceCache;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(this::invalidateLocally);
+    }
+
+    /**
+     * Invalidate all cached state of the provided resource on all instances.
+     *
+     * @param resourceId The id of the modified resource.
+     */
+    public void invalidate(String resourceId) {
+        invalidateAll(List.of(resourceId));
+    }
+
+    /**
+     * Invalidate all cached state of the provided resources on all instances.
+     *
+     * @param resourceIds The ids of the modified resources.
+     */
+    public void invalidateAll(Collection<String> resourceIds) {
+        List<String> ids = List.copyOf(resourceIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+        invalidateLocally(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidationBus.publish(ids);
+                }
+            });
+        } else {
+            invalidationBus.publish(ids);
+        }
+    }
+
+    /**
+     * Invalidate all cached state of the provided resources on this instance
+     * only, e.g., after receiving an invalidation from another instance.
+     *
+     * @param resourceIds The ids of the modified resources.
+     */
+    public void invalidateLocally(Collection<String> resourceIds) {
+        LOGGER.trace("Invalidating cached state of {} resource(s).", resourceIds.size());
+        for (String resourceId : resourceIds) {
+            conditionalRequestService.invalidate(resourceId);
+            dataResourceCache.invalidate(resourceId);
+        }
+    }
+}
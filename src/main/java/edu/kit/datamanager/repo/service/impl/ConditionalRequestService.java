@@ -0,0 +1,289 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.entities.PERMISSION;
+import edu.kit.datamanager.entities.RepoUserRole;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.DataResourceSpecifications;
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service for answering conditional GET requests without loading entire
+ * resources. For each resource delivered to a client, the ETag is kept in a
+ * bounded cache together with the last update time of the resource. A
+ * conditional request is answered by obtaining only the last update time of
+ * the resource from the database, restricted to resources visible to the
+ * caller, and by comparing it to the cached value. If both are equal, the
+ * cached ETag is still valid and can be compared to the ETag provided by the
+ * client.
+ *
+ * ETags of single content information elements are cached per resource.
+ * Cached resources are invalidated locally whenever a change is recorded via
+ * the OutboxService. As content changes do not necessarily affect the last
+ * update time of the parent resource, content ETags additionally expire after
+ * a configurable time.
+ *
+ * @author jejkal
+ */
+@Component
+public class ConditionalRequestService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConditionalRequestService.class);
+    /**
+     * Query cache region of last update lookups.
+     */
+    public static final String LOOKUP_CACHE_REGION = "dataresource-lookups";
+
+    private final ApplicationProperties applicationProperties;
+    private final Map<String, ResourceValidator> validators;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ConditionalRequestService(ApplicationProperties applicationProperties) {
+        this.applicationProperties = applicationProperties;
+        final int maxEntries = Math.max(1, applicationProperties.getValidatorCacheSize());
+        this.validators = Collections.synchronizedMap(new LinkedHashMap<String, ResourceValidator>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ResourceValidator> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Validators of a single resource.
+     */
+    @Getter
+    public static class ResourceValidator {
+
+        private final String etag;
+        private final Instant lastUpdate;
+        private final boolean publicResource;
+        @Getter(AccessLevel.NONE)
+        private final Map<String, ContentValidator> contentEtags = new ConcurrentHashMap<>();
+
+        public ResourceValidator(String etag, Instant lastUpdate, boolean publicResource) {
+            this.etag = etag;
+            this.lastUpdate = lastUpdate;
+            this.publicResource = publicResource;
+        }
+    }
+
+    private record ContentValidator(String etag, long created) {
+
+    }
+
+    /**
+     * Get the validators of the resource with the provided internal
+     * identifier if the resource exists and is visible to the caller. Only the
+     * last update time of the resource is read from the database. If no
+     * up-to-date ETag is cached, the returned validator contains only the last
+     * update time.
+     *
+     * @param resourceId The internal identifier of the resource.
+     *
+     * @return The validator or null if the resource was not found, is not
+     * visible to the caller or has no last update time.
+     */
+    public ResourceValidator getValidator(String resourceId) {
+        Instant lastUpdate = lookupLastUpdate(resourceId);
+        if (lastUpdate == null) {
+            LOGGER.trace("No visible resource with id {} found.", resourceId);
+            return null;
+        }
+        return validate(resourceId, lastUpdate);
+    }
+
+    /**
+     * Compare the cached validator of a resource with the current last update
+     * time of the resource. Outdated validators are removed.
+     *
+     * @param resourceId The internal identifier of the resource.
+     * @param lastUpdate The current last update time of the resource.
+     *
+     * @return The cached validator if it is up-to-date or a validator only
+     * containing the last update time.
+     */
+    public ResourceValidator validate(String resourceId, Instant lastUpdate) {
+        ResourceValidator cached = validators.get(resourceId);
+        if (cached != null && lastUpdate.equals(cached.getLastUpdate())) {
+            return cached;
+        }
+        if (cached != null) {
+            validators.remove(resourceId, cached);
+        }
+        return new ResourceValidator(null, lastUpdate, false);
+    }
+
+    /**
+     * Keep the validators of a resource which has just been delivered to a
+     * client.
+     *
+     * @param resource The resource.
+     *
+     * @return The validator.
+     */
+    public ResourceValidator remember(DataResource resource) {
+        ResourceValidator current = validators.get(resource.getId());
+        if (current != null && Objects.equals(current.getEtag(), resource.getEtag()) && Objects.equals(current.getLastUpdate(), resource.getLastUpdate())) {
+            return current;
+        }
+        ResourceValidator validator = new ResourceValidator(resource.getEtag(), resource.getLastUpdate(), isPublic(resource));
+        if (resource.getLastUpdate() != null) {
+            if (current != null && resource.getLastUpdate().equals(current.getLastUpdate())) {
+                //resource unchanged, keep content validators
+                validator.contentEtags.putAll(current.contentEtags);
+            }
+            validators.put(resource.getId(), validator);
+        }
+        return validator;
+    }
+
+    /**
+     * Get the cached ETag of a content information element if it has not
+     * expired yet.
+     *
+     * @param validator The validator of the parent resource.
+     * @param relativePath The relative path of the content element.
+     *
+     * @return The ETag or null.
+     */
+    public String getContentEtag(ResourceValidator validator, String relativePath) {
+        ContentValidator content = validator.contentEtags.get(relativePath);
+        if (content == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - content.created() > applicationProperties.getContentValidatorTtl() * 1000) {
+            validator.contentEtags.remove(relativePath, content);
+            return null;
+        }
+        return content.etag();
+    }
+
+    /**
+     * Keep the ETag of a content information element which has just been
+     * delivered to a client. If no validator of the parent resource is cached
+     * yet, a validator without resource ETag is created.
+     *
+     * @param resource The parent resource.
+     * @param contentInformation The content information element.
+     *
+     * @return The validator of the parent resource.
+     */
+    public ResourceValidator rememberContent(DataResource resource, ContentInformation contentInformation) {
+        ResourceValidator validator;
+        if (resource.getLastUpdate() == null) {
+            validator = new ResourceValidator(null, null, isPublic(resource));
+        } else {
+            validator = validators.compute(resource.getId(), (id, current) -> (current != null && resource.getLastUpdate().equals(current.getLastUpdate()))
+                    ? current : new ResourceValidator(null, resource.getLastUpdate(), isPublic(resource)));
+        }
+        validator.contentEtags.put(contentInformation.getRelativePath(), new ContentValidator(contentInformation.getEtag(), System.currentTimeMillis()));
+        return validator;
+    }
+
+    /**
+     * Remove all validators of a resource. If a transaction is active, the
+     * validators are removed again after commit as concurrent requests may
+     * have cached the old state in the meantime.
+     *
+     * @param resourceId The internal identifier of the resource.
+     */
+    public void invalidate(String resourceId) {
+        validators.remove(resourceId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    validators.remove(resourceId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Get the Cache-Control directives for a resource or its content metadata.
+     * Publicly readable resources may be cached by shared caches for the
+     * configured time, all other resources may only be cached privately and
+     * must be revalidated.
+     *
+     * @param publicResource TRUE if the resource is publicly readable.
+     *
+     * @return The directives.
+     */
+    public CacheControl getCacheControl(boolean publicResource) {
+        if (publicResource) {
+            return CacheControl.maxAge(Duration.ofSeconds(Math.max(0, applicationProperties.getHttpPublicMaxAge()))).cachePublic();
+        }
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * Check whether a resource can be read by anonymous users.
+     *
+     * @param resource The resource.
+     *
+     * @return TRUE if the resource is in state VOLATILE or FIXED and
+     * anonymous users have at least READ permissions.
+     */
+    public static boolean isPublic(DataResource resource) {
+        if (!DataResource.State.VOLATILE.equals(resource.getState()) && !DataResource.State.FIXED.equals(resource.getState())) {
+            return false;
+        }
+        return resource.getAcls().stream().anyMatch(acl -> AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL.equals(acl.getSid())
+                && acl.getPermission() != null && acl.getPermission().atLeast(PERMISSION.READ));
+    }
+
+    private Instant lookupLastUpdate(String resourceId) {
+        Specification<DataResource> specification = DataResourceSpecifications.hasId(resourceId).and(DataResourceSpecifications.isVisibleTo(AuthenticationHelper.getAuthorizationIdentities(),
+                AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.toString())));
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Instant> query = builder.createQuery(Instant.class);
+        Root<DataResource> root = query.from(DataResource.class);
+        query.select(root.get("lastUpdate")).where(specification.toPredicate(root, query, builder));
+        //only cached if the query cache is enabled via repo.cache.hibernate.enabled
+        List<Instant> result = entityManager.createQuery(query).setMaxResults(1).
+                setHint(HibernateHints.HINT_CACHEABLE, true).
+                setHint(HibernateHints.HINT_CACHE_REGION, LOOKUP_CACHE_REGION).getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.domain.DataResource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through cache for resolving DataResources while accessing their
+ * content. Cached elements are detached snapshots obtained by copying the
+ * resolved resource, such that they can be shared between requests without
+ * being attached to any persistence context. Snapshots are only meant to be
+ * used for read access, i.e., for checking existence and permissions.
+ *
+ * Snapshots are stored by resource id. Other identifiers resolving to a
+ * resource without redirect, i.e., the primary identifier, are mapped to the
+ * resource id. Snapshots are invalidated whenever a change of the resource is
+ * recorded via the OutboxService or if a resource with a different ETag is
+ * loaded, and expire after a configurable time. Hits, misses and evictions are
+ * published as metrics with name 'cache.*' and tag 'cache=dataresources'.
+ *
+ * @author jejkal
+ */
+@Component
+public class DataResourceCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataResourceCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Snapshot> snapshots;
+    private final Cache<String, String> aliases;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final boolean enabled;
+
+    private record Snapshot(DataResource resource, String etag) {
+
+    }
+
+    public DataResourceCache(ApplicationProperties applicationProperties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.enabled = applicationProperties.getResourceCacheSize() > 0;
+        long size = Math.max(1, applicationProperties.getResourceCacheSize());
+        Duration ttl = Duration.ofSeconds(Math.max(1, applicationProperties.getResourceCacheTtl()));
+        this.snapshots = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(ttl).recordStats().build();
+        this.aliases = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(ttl).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "dataresources");
+    }
+
+    /**
+     * Get the snapshot of the resource with the provided identifier. If no
+     * snapshot is cached, the resource is obtained from the provided loader
+     * and a snapshot is cached afterwards. Exceptions thrown by the loader,
+     * e.g., if the resource does not exist, are passed through and are not
+     * cached.
+     *
+     * @param identifier The identifier of the resource.
+     * @param loader The loader resolving the resource from the database.
+     *
+     * @return The resource snapshot or the loaded resource if caching is
+     * disabled.
+     */
+    public DataResource get(String identifier, Supplier<DataResource> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String id = aliases.getIfPresent(identifier);
+        Snapshot snapshot = snapshots.getIfPresent((id != null) ? id : identifier);
+        if (snapshot != null) {
+            LOGGER.trace("Using cached snapshot of resource {}.", snapshot.resource().getId());
+            return snapshot.resource();
+        }
+        long generation = invalidations.get();
+        DataResource resource = loader.get();
+        String etag = resource.getEtag();
+        DataResource copy = objectMapper.convertValue(resource, DataResource.class);
+        //do not cache resources which may have changed while being loaded
+        if (generation == invalidations.get()) {
+            snapshots.put(resource.getId(), new Snapshot(copy, etag));
+            if (!identifier.equals(resource.getId())) {
+                aliases.put(identifier, resource.getId());
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Compare the ETag of a freshly loaded resource with the ETag of the
+     * cached snapshot and invalidate the snapshot if both differ, e.g., if
+     * the resource was modified by another instance.
+     *
+     * @param resource The loaded resource.
+     */
+    public void refresh(DataResource resource) {
+        Snapshot snapshot = snapshots.getIfPresent(resource.getId());
+        if (snapshot != null && !snapshot.etag().equals(resource.getEtag())) {
+            LOGGER.trace("Snapshot of resource {} is outdated.", resource.getId());
+            invalidate(resource.getId());
+        }
+    }
+
+    /**
+     * Invalidate the snapshot of a resource. If a transaction is active, the
+     * snapshot is invalidated again after commit as concurrent requests may
+     * have cached the old state in the meantime.
+     *
+     * @param resourceId The internal identifier of the resource.
+     */
+    public void invalidate(String resourceId) {
+        invalidations.incrementAndGet();
+        snapshots.invalidate(resourceId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidations.incrementAndGet();
+                    snapshots.invalidate(resourceId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.DataResourceSpecifications;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for streaming DataResources matching a specification from a
+ * database cursor or for reading them page-wise via keyset pagination. In
+ * contrast to offset-based pagination, results are obtained without counting
+ * them before. While streaming, each resource is detached after being handed
+ * over to the consumer, such that memory consumption is independent of the
+ * number of results.
+ *
+ * @author jejkal
+ */
+@Component
+public class DataResourceStreamService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataResourceStreamService.class);
+
+    private final ApplicationProperties applicationProperties;
+    private final TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public DataResourceStreamService(ApplicationProperties applicationProperties, PlatformTransactionManager transactionManager) {
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Read a single page of resources matching the provided specification
+     * using keyset pagination. Resources are ordered by last update time and
+     * id and the page starts after the element the cursor points to. No
+     * count query is issued.
+     *
+     * @param specification The specification.
+     * @param cursor The cursor pointing to the last element of the previous
+     * page or null for the first page.
+     * @param size The page size.
+     *
+     * @return The resources of the page.
+     */
+    public List<DataResource> readPage(Specification<DataResource> specification, KeysetCursor cursor, int size) {
+        Specification<DataResource> keyset = specification.and(DataResourceSpecifications.isAfter(cursor));
+        return transactionTemplate.execute(status -> {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<DataResource> query = builder.createQuery(DataResource.class);
+            Root<DataResource> root = query.from(DataResource.class);
+            Predicate predicate = keyset.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.select(root).orderBy(builder.asc(root.get("lastUpdate")), builder.asc(root.get("id")));
+            return entityManager.createQuery(query).setMaxResults(size).getResultList();
+        });
+    }
+
+    /**
+     * Read a single page of resources matching the provided specification
+     * using offset pagination. No count query is issued. Resources are
+     * ordered by the sort of the provided page request and by id, such that
+     * the order is stable across pages.
+     *
+     * @param specification The specification.
+     * @param pageable The page request.
+     *
+     * @return The resources of the page.
+     */
+    public List<DataResource> readPage(Specification<DataResource> specification, Pageable pageable) {
+        return transactionTemplate.execute(status -> {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<DataResource> query = builder.createQuery(DataResource.class);
+            Root<DataResource> root = query.from(DataResource.class);
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            Sort sort = pageable.getSort().getOrderFor("id") == null ? pageable.getSort().and(Sort.by("id")) : pageable.getSort();
+            query.select(root).orderBy(QueryUtils.toOrders(sort, root, builder));
+            return entityManager.createQuery(query).
+                    setFirstResult((int) pageable.getOffset()).
+                    setMaxResults(pageable.getPageSize()).getResultList();
+        });
+    }
+
+    /**
+     * Count all resources matching the provided specification.
+     *
+     * @param specification The specification.
+     *
+     * @return The number of matching resources.
+     */
+    public long count(Specification<DataResource> specification) {
+        return transactionTemplate.execute(status -> {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> query = builder.createQuery(Long.class);
+            Root<DataResource> root = query.from(DataResource.class);
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.select(builder.count(root));
+            return entityManager.createQuery(query).getSingleResult();
+        });
+    }
+
+    /**
+     * Stream all resources matching the provided specification ordered by
+     * their id.
+     *
+     * @param specification The specification.
+     * @param consumer The consumer receiving each resource.
+     *
+     * @return The number of streamed resources.
+     */
+    public long stream(Specification<DataResource> specification, Consumer<DataResource> consumer) {
+        return transactionTemplate.execute(status -> {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<DataResource> query = builder.createQuery(DataResource.class);
+            Root<DataResource> root = query.from(DataResource.class);
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.select(root).orderBy(builder.asc(root.get("id")));
+
+            long count = 0;
+            try (Stream<DataResource> results = entityManager.createQuery(query)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, applicationProperties.getExportFetchSize())
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream()) {
+                Iterator<DataResource> iterator = results.iterator();
+                while (iterator.hasNext()) {
+                    DataResource resource = iterator.next();
+                    consumer.accept(resource);
+                    entityManager.detach(resource);
+                    count++;
+                }
+            }
+            LOGGER.debug("Streamed {} resource(s).", count);
+            return count;
+        });
+    }
+}
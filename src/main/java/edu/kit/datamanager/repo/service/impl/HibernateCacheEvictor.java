@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.configuration.HibernateCacheConfiguration;
+import edu.kit.datamanager.repo.service.ICacheInvalidationBus;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts second-level cache entries after resources have been modified by
+ * other instances. Locally, Hibernate keeps the second-level cache consistent
+ * by itself. Modifications performed by other instances sharing the same
+ * database are only noticed via the ICacheInvalidationBus. As the ids of
+ * modified child entities are not part of an invalidation, the cached
+ * collections of the modified resources and the entire entity and query
+ * regions are evicted. Therefore, evictions are only subscribed if the bus is
+ * distributing invalidations to other instances.
+ *
+ * @author jejkal
+ */
+@Component
+@ConditionalOnProperty(prefix = "repo.cache.hibernate", name = "enabled", havingValue = "true")
+public class HibernateCacheEvictor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HibernateCacheEvictor.class);
+
+    private final Cache cache;
+    private final List<String> entities;
+    private final List<String> collections;
+
+    public HibernateCacheEvictor(EntityManagerFactory entityManagerFactory,
+            ApplicationProperties applicationProperties,
+            ICacheInvalidationBus invalidationBus) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.entities = HibernateCacheConfiguration.getCachedEntities(applicationProperties);
+        this.collections = HibernateCacheConfiguration.getCachedCollections(applicationProperties);
+        if (invalidationBus.isDistributed()) {
+            invalidationBus.subscribe(this::evict);
+        }
+    }
+
+    /**
+     * Evict all cached data possibly affected by modifications of the
+     * provided resources.
+     *
+     * @param resourceIds The ids of the modified resources.
+     */
+    public void evict(Collection<String> resourceIds) {
+        LOGGER.trace("Evicting second-level cache entries of {} resource(s).", resourceIds.size());
+        for (String resourceId : resourceIds) {
+            for (String collection : collections) {
+                cache.evictCollectionData(collection, resourceId);
+            }
+        }
+        for (String entity : entities) {
+            cache.evictEntityData(entity);
+        }
+        cache.evictQueryRegion(ConditionalRequestService.LOOKUP_CACHE_REGION);
+        cache.evictQueryRegion(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+    }
+}
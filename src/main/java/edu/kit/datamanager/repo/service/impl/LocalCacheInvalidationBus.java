@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.service.ICacheInvalidationBus;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process cache invalidation bus delivering all invalidations synchronously
+ * to all subscribers. It is used for single-instance deployments and can be
+ * shared by multiple subscribers in order to simulate multiple instances in
+ * tests.
+ *
+ * @author jejkal
+ */
+@Component
+@ConditionalOnProperty(prefix = "repo.cache.invalidation", name = "bus", havingValue = "local", matchIfMissing = true)
+public class LocalCacheInvalidationBus implements ICacheInvalidationBus {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalCacheInvalidationBus.class);
+
+    private final List<Consumer<Collection<String>>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Collection<String> resourceIds) {
+        LOGGER.trace("Delivering invalidation of {} resource(s) to {} listener(s).", resourceIds.size(), listeners.size());
+        listeners.forEach(listener -> listener.accept(resourceIds));
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<String>> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public boolean isDistributed() {
+        return false;
+    }
+}
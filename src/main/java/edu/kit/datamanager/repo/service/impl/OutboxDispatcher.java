@@ -0,0 +1,213 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.entities.messaging.DataResourceMessage;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IOutboxEventDao;
+import edu.kit.datamanager.repo.domain.OutboxEvent;
+import edu.kit.datamanager.repo.elastic.ElasticIndexer;
+import edu.kit.datamanager.repo.elastic.IndexOperation;
+import edu.kit.datamanager.repo.search.ResourceIndexEvent;
+import edu.kit.datamanager.service.IMessagingService;
+import edu.kit.datamanager.util.ControllerUtils;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Dispatcher delivering recorded outbox events in batches to the search index
+ * and the messaging broker. Events are delivered at least once. For each
+ * resource, events are delivered in the order they were recorded. If the
+ * delivery of an event fails, all subsequent events of the same resource are
+ * held back until the failed event could be delivered, while events of other
+ * resources are not affected. Failed events are retried with exponential
+ * backoff, such that all changes are replayed after an outage of an external
+ * system. Events still failing after 'repo.outbox.maxAttempts' attempts are
+ * marked as dead letter, which releases subsequent events of the resource.
+ *
+ * Batches are locked while being dispatched, such that multiple repository
+ * instances may run a dispatcher concurrently. In that case, the delivery
+ * order across instances is only guaranteed for the search index, which always
+ * reflects the latest database state of a resource.
+ *
+ * @author jejkal
+ */
+@Component
+@ConditionalOnProperty(prefix = "repo.outbox", name = "enabled", havingValue = "true")
+public class OutboxDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxDispatcher.class);
+    private static final long MAX_BACKOFF_MS = 300000;
+
+    private final IOutboxEventDao outboxEventDao;
+    private final ElasticIndexer elasticIndexer;
+    private final Optional<IMessagingService> messagingService;
+    private final ApplicationProperties applicationProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OutboxDispatcher(IOutboxEventDao outboxEventDao,
+            ElasticIndexer elasticIndexer,
+            Optional<IMessagingService> messagingService,
+            ApplicationProperties applicationProperties,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher) {
+        this.outboxEventDao = outboxEventDao;
+        this.elasticIndexer = elasticIndexer;
+        this.messagingService = messagingService;
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Dispatch all currently deliverable outbox events.
+     */
+    @Scheduled(fixedDelayString = "${repo.outbox.dispatchIntervalMs:1000}")
+    public void dispatch() {
+        try {
+            Integer claimed;
+            do {
+                claimed = transactionTemplate.execute(status -> dispatchBatch());
+            } while (claimed != null && claimed >= applicationProperties.getOutboxBatchSize());
+        } catch (RuntimeException ex) {
+            LOGGER.error("Failed to dispatch outbox events.", ex);
+        }
+    }
+
+    /**
+     * Claim and dispatch the next batch of deliverable events. Events in
+     * backoff and events held back by an earlier event of the same resource
+     * are already excluded by the query.
+     *
+     * @return The number of claimed events.
+     */
+    private int dispatchBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> ready = outboxEventDao.findNextBatch(now, PageRequest.of(0, applicationProperties.getOutboxBatchSize()));
+        if (ready.isEmpty()) {
+            return 0;
+        }
+
+        //index all changed resources once using their latest state
+        Map<String, IndexOperation> operations = new LinkedHashMap<>();
+        ready.stream().filter(OutboxEvent::isIndexPending).forEach(event -> {
+            IndexOperation op = createOperation(event);
+            operations.merge(event.getResourceId(), op, (existing, newer) -> {
+                existing.merge(newer);
+                return existing;
+            });
+        });
+        Set<String> indexingFailed = operations.isEmpty() ? Set.of() : elasticIndexer.processImmediately(new ArrayList<>(operations.values()));
+        operations.values().stream().filter(op -> !indexingFailed.contains(op.getResourceId())).forEach(op -> {
+            eventPublisher.publishEvent(new ResourceIndexEvent(op.getResourceId(), IndexOperation.Type.DELETE.equals(op.getType())));
+        });
+
+        //send messages in order, stop sending for a resource after the first failure
+        Set<String> messagingFailed = new HashSet<>();
+        for (OutboxEvent event : ready) {
+            if (event.isIndexPending() && !indexingFailed.contains(event.getResourceId())) {
+                event.setIndexPending(false);
+            }
+            if (!event.isMessagePending() || messagingFailed.contains(event.getResourceId())) {
+                continue;
+            }
+            if (messagingService.isEmpty()) {
+                event.setMessagePending(false);
+                continue;
+            }
+            try {
+                messagingService.get().send(createMessage(event));
+                event.setMessagePending(false);
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Failed to send message for outbox event {}. Reason: {}", event.getId(), ex.getMessage());
+                event.setLastError(abbreviate(ex.getMessage()));
+                messagingFailed.add(event.getResourceId());
+            }
+        }
+
+        List<OutboxEvent> delivered = new ArrayList<>();
+        for (OutboxEvent event : ready) {
+            if (!event.isIndexPending() && !event.isMessagePending()) {
+                delivered.add(event);
+            } else {
+                event.setAttempts(event.getAttempts() + 1);
+                long backoff = Math.min(MAX_BACKOFF_MS, applicationProperties.getOutboxRetryBackoff() << Math.min(event.getAttempts() - 1, 20));
+                event.setNextAttempt(now.plusMillis(backoff));
+                if (event.isIndexPending()) {
+                    event.setLastError("Indexing failed.");
+                }
+                int maxAttempts = applicationProperties.getOutboxMaxAttempts();
+                if (maxAttempts > 0 && event.getAttempts() >= maxAttempts) {
+                    LOGGER.error("Giving up delivery of outbox event {} for resource {} after {} attempt(s). Marking event as dead letter. Last error: {}", event.getId(), event.getResourceId(), event.getAttempts(), event.getLastError());
+                    event.setDeadLetter(true);
+                } else {
+                    LOGGER.debug("Delivery of outbox event {} failed {} time(s). Next attempt at {}.", event.getId(), event.getAttempts(), event.getNextAttempt());
+                }
+            }
+        }
+        outboxEventDao.deleteAll(delivered);
+        LOGGER.trace("Delivered {} of {} outbox event(s).", delivered.size(), ready.size());
+        return ready.size();
+    }
+
+    private IndexOperation createOperation(OutboxEvent event) {
+        if (OutboxEvent.ACTION.DELETE.equals(event.getAction())) {
+            return new IndexOperation(event.getResourceId(), IndexOperation.Type.DELETE, false);
+        }
+        if (OutboxEvent.SCOPE.METADATA.equals(event.getScope())) {
+            return IndexOperation.metadataUpdate(event.getResourceId());
+        }
+        if (OutboxEvent.SCOPE.CONTENT.equals(event.getScope()) && event.getRelativePath() != null) {
+            return IndexOperation.contentUpdate(event.getResourceId(), event.getRelativePath());
+        }
+        return new IndexOperation(event.getResourceId(), IndexOperation.Type.INDEX, event.isIncludeContent());
+    }
+
+    private DataResourceMessage createMessage(OutboxEvent event) {
+        String sender = ControllerUtils.getLocalHostname();
+        switch (event.getAction()) {
+            case CREATE:
+                return DataResourceMessage.factoryCreateMessage(event.getResourceId(), event.getPrincipal(), sender);
+            case DELETE:
+                return DataResourceMessage.factoryDeleteMessage(event.getResourceId(), event.getPrincipal(), sender);
+            default:
+                return DataResourceMessage.factoryUpdateMessage(event.getResourceId(), event.getPrincipal(), sender);
+        }
+    }
+
+    private String abbreviate(String message) {
+        if (message == null || message.length() <= 1024) {
+            return message;
+        }
+        return message.substring(0, 1021) + "...";
+    }
+}
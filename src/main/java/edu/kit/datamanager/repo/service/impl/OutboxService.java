@@ -0,0 +1,181 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IOutboxEventDao;
+import edu.kit.datamanager.repo.domain.OutboxEvent;
+import edu.kit.datamanager.repo.elastic.ElasticIndexer;
+import edu.kit.datamanager.repo.search.ResourceIndexEvent;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.util.List;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Entry point for propagating DataResource changes to external systems. If
+ * the transactional outbox is enabled, changes are recorded as OutboxEvent in
+ * the same transaction as the change itself and delivered later by the
+ * OutboxDispatcher. Otherwise, changes are directly handed over to the
+ * indexer and a ResourceIndexEvent is published for other indices, e.g., the
+ * local search index. In both cases, cached state of changed resources is
+ * invalidated on all instances via the CacheInvalidationService.
+ *
+ * @author jejkal
+ */
+@Component
+public class OutboxService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxService.class);
+
+    private final IOutboxEventDao outboxEventDao;
+    private final ElasticIndexer elasticIndexer;
+    private final ApplicationProperties applicationProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidationService cacheInvalidationService;
+
+    public OutboxService(IOutboxEventDao outboxEventDao,
+            ElasticIndexer elasticIndexer,
+            ApplicationProperties applicationProperties,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            CacheInvalidationService cacheInvalidationService) {
+        this.outboxEventDao = outboxEventDao;
+        this.elasticIndexer = elasticIndexer;
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    /**
+     * Execute the provided write operation. If the outbox is enabled, the
+     * operation is executed within a transaction, such that all changes and
+     * all events recorded via {@link #record(String, OutboxEvent.ACTION, boolean)}
+     * are committed or rolled back together.
+     *
+     * @param <T> The result type.
+     * @param operation The write operation.
+     *
+     * @return The result of the operation.
+     */
+    public <T> T execute(Supplier<T> operation) {
+        if (!applicationProperties.isOutboxEnabled()) {
+            return operation.get();
+        }
+        return transactionTemplate.execute(status -> operation.get());
+    }
+
+    /**
+     * Record a change of a resource.
+     *
+     * @param resourceId The id of the changed resource.
+     * @param action The kind of change.
+     * @param includeContent TRUE if the content of the resource was changed
+     * and should be part of the index.
+     */
+    public void record(String resourceId, OutboxEvent.ACTION action, boolean includeContent) {
+        cacheInvalidationService.invalidate(resourceId);
+        if (applicationProperties.isOutboxEnabled()) {
+            LOGGER.trace("Recording outbox event {} for resource {}.", action, resourceId);
+            outboxEventDao.save(OutboxEvent.factoryOutboxEvent(resourceId, action, includeContent, AuthenticationHelper.getPrincipal()));
+        } else {
+            deliver(resourceId, action, includeContent);
+        }
+    }
+
+    /**
+     * Record the same change for multiple resources at once. If the outbox is
+     * enabled, all events are stored together. Otherwise, the resources are
+     * handed over to the indexer after the current transaction has been
+     * committed, or immediately if no transaction is active.
+     *
+     * @param resourceIds The ids of the changed resources.
+     * @param action The kind of change.
+     */
+    public void recordAll(List<String> resourceIds, OutboxEvent.ACTION action) {
+        List<String> ids = List.copyOf(resourceIds);
+        cacheInvalidationService.invalidateAll(ids);
+        if (applicationProperties.isOutboxEnabled()) {
+            LOGGER.trace("Recording {} outbox event(s) {}.", ids.size(), action);
+            String principal = AuthenticationHelper.getPrincipal();
+            outboxEventDao.saveAll(ids.stream().map(id -> OutboxEvent.factoryOutboxEvent(id, action, false, principal)).toList());
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(id -> deliver(id, action, false));
+                }
+            });
+        } else {
+            ids.forEach(id -> deliver(id, action, false));
+        }
+    }
+
+    /**
+     * Record a change of the metadata of a resource, which can be applied as
+     * partial update to the search index.
+     *
+     * @param resourceId The id of the changed resource.
+     */
+    public void recordMetadataChange(String resourceId) {
+        recordPartialChange(resourceId, OutboxEvent.SCOPE.METADATA, null);
+    }
+
+    /**
+     * Record a change of a single content information element of a resource,
+     * i.e., the element was added, modified or removed.
+     *
+     * @param resourceId The id of the parent resource.
+     * @param relativePath The relative path of the changed element.
+     */
+    public void recordContentChange(String resourceId, String relativePath) {
+        recordPartialChange(resourceId, OutboxEvent.SCOPE.CONTENT, relativePath);
+    }
+
+    private void recordPartialChange(String resourceId, OutboxEvent.SCOPE scope, String relativePath) {
+        cacheInvalidationService.invalidate(resourceId);
+        if (applicationProperties.isOutboxEnabled()) {
+            LOGGER.trace("Recording outbox event {} for resource {}.", scope, resourceId);
+            outboxEventDao.save(OutboxEvent.factoryPartialOutboxEvent(resourceId, scope, relativePath, AuthenticationHelper.getPrincipal()));
+        } else {
+            if (OutboxEvent.SCOPE.METADATA.equals(scope)) {
+                elasticIndexer.updateMetadata(resourceId);
+            } else {
+                elasticIndexer.updateContent(resourceId, relativePath);
+            }
+            eventPublisher.publishEvent(new ResourceIndexEvent(resourceId, false));
+        }
+    }
+
+    private void deliver(String resourceId, OutboxEvent.ACTION action, boolean includeContent) {
+        if (OutboxEvent.ACTION.DELETE.equals(action)) {
+            elasticIndexer.unindex(resourceId);
+            eventPublisher.publishEvent(new ResourceIndexEvent(resourceId, true));
+        } else {
+            elasticIndexer.index(resourceId, includeContent);
+            eventPublisher.publishEvent(new ResourceIndexEvent(resourceId, false));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.BuiltinExchangeType;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.Delivery;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.service.ICacheInvalidationBus;
+import edu.kit.datamanager.repo.util.ThreadFactories;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache invalidation bus based on a RabbitMQ fanout exchange. Each instance
+ * binds an exclusive, server-named queue to the exchange, such that each
+ * invalidation is delivered to all instances. Invalidations published by the
+ * local instance are ignored on receipt.
+ *
+ * The connection settings of the messaging configuration (repo.messaging.*)
+ * are reused. If the broker is not available, the connection is retried
+ * periodically and invalidations are dropped in the meantime. Connecting
+ * happens in a dedicated thread of the bus and outside of the publishing lock,
+ * such that neither scheduled tasks of the application nor requests publishing
+ * invalidations are blocked by a slow or unavailable broker. Once
+ * connected, the exchange, the queue and the consumer are recovered
+ * automatically after connection failures.
+ *
+ * @author jejkal
+ */
+@Component
+@ConditionalOnProperty(prefix = "repo.cache.invalidation", name = "bus", havingValue = "rabbitmq")
+public class RabbitMQCacheInvalidationBus implements ICacheInvalidationBus {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RabbitMQCacheInvalidationBus.class);
+    private static final String ORIGIN_HEADER = "origin";
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<Consumer<Collection<String>>> listeners = new CopyOnWriteArrayList<>();
+    private final ConnectionFactory connectionFactory;
+    private final String exchange;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService connector;
+    //channels must not be used concurrently, a lock instead of synchronized avoids pinning virtual threads during network I/O
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Connection connection;
+    private volatile Channel channel;
+    private volatile boolean closed = false;
+
+    public RabbitMQCacheInvalidationBus(ApplicationProperties applicationProperties,
+            ObjectMapper objectMapper,
+            @Value("${repo.messaging.hostname:localhost}") String hostname,
+            @Value("${repo.messaging.port:5672}") int port,
+            @Value("${repo.messaging.username:guest}") String username,
+            @Value("${repo.messaging.password:guest}") String password,
+            @Value("${repo.cache.invalidation.reconnectIntervalMs:10000}") long reconnectInterval) {
+        this.objectMapper = objectMapper;
+        this.exchange = applicationProperties.getCacheInvalidationExchange();
+        this.connectionFactory = new ConnectionFactory();
+        connectionFactory.setHost(hostname);
+        connectionFactory.setPort(port);
+        connectionFactory.setUsername(username);
+        connectionFactory.setPassword(password);
+        connectionFactory.setAutomaticRecoveryEnabled(true);
+        connectionFactory.setTopologyRecoveryEnabled(true);
+        //connecting may block until the connection timeout, so it must not occupy the shared task scheduler
+        this.connector = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("cache-invalidation-connector", false));
+        connector.scheduleWithFixedDelay(this::connect, 0, reconnectInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Connect to the broker if not connected yet. This method is called
+     * periodically by the connector thread in order to connect as soon as the
+     * broker is available.
+     */
+    private void connect() {
+        if (closed || channel != null) {
+            return;
+        }
+        //establishing the connection may take until the connection timeout, hence, it is done without holding the lock
+        Connection newConnection = null;
+        try {
+            newConnection = connectionFactory.newConnection("base-repo-cache-invalidation");
+            Channel newChannel = newConnection.createChannel();
+            newChannel.exchangeDeclare(exchange, BuiltinExchangeType.FANOUT, true);
+            String queue = newChannel.queueDeclare().getQueue();
+            newChannel.queueBind(queue, exchange, "");
+            newChannel.basicConsume(queue, true, (consumerTag, delivery) -> receive(delivery), consumerTag -> {
+            });
+            lock.lock();
+            try {
+                if (closed) {
+                    closeConnection(newConnection);
+                    return;
+                }
+                connection = newConnection;
+                channel = newChannel;
+            } finally {
+                lock.unlock();
+            }
+            LOGGER.info("Receiving cache invalidations via exchange {} and queue {}.", exchange, queue);
+        } catch (IOException | TimeoutException | RuntimeException ex) {
+            //runtime exceptions must be caught as well, otherwise, no further attempt is scheduled
+            LOGGER.warn("Failed to connect cache invalidation bus to RabbitMQ. Retrying later.", ex);
+            closeConnection(newConnection);
+        }
+    }
+
+    @Override
+    public void publish(Collection<String> resourceIds) {
+        if (channel == null) {
+            LOGGER.warn("Cache invalidation bus not connected. Dropping invalidation of {} resource(s).", resourceIds.size());
+            return;
+        }
+        //the lock is only held while publishing, which never waits for (re-)connecting to the broker
+        lock.lock();
+        try {
+            Channel current = channel;
+            if (current == null) {
+                LOGGER.warn("Cache invalidation bus closed. Dropping invalidation of {} resource(s).", resourceIds.size());
+                return;
+            }
+            AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder().
+                    contentType("application/json").
+                    headers(Map.of(ORIGIN_HEADER, instanceId)).build();
+            current.basicPublish(exchange, "", properties, objectMapper.writeValueAsBytes(resourceIds));
+        } catch (IOException | RuntimeException ex) {
+            //e.g., AlreadyClosedException while the connection is being recovered
+            LOGGER.warn("Failed to publish invalidation of " + resourceIds.size() + " resource(s).", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<String>> listener) {
+        listeners.add(listener);
+    }
+
+    private void receive(Delivery delivery) {
+        Map<String, Object> headers = delivery.getProperties().getHeaders();
+        Object origin = (headers != null) ? headers.get(ORIGIN_HEADER) : null;
+        if (origin != null && instanceId.equals(origin.toString())) {
+            return;
+        }
+        try {
+            List<String> resourceIds = objectMapper.readValue(delivery.getBody(), new TypeReference<List<String>>() {
+            });
+            LOGGER.trace("Received invalidation of {} resource(s).", resourceIds.size());
+            listeners.forEach(listener -> listener.accept(resourceIds));
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.error("Failed to process cache invalidation message.", ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        connector.shutdownNow();
+        Connection current;
+        lock.lock();
+        try {
+            closed = true;
+            channel = null;
+            current = connection;
+            connection = null;
+        } finally {
+            lock.unlock();
+        }
+        closeConnection(current);
+    }
+
+    private void closeConnection(Connection current) {
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException | RuntimeException ex) {
+                LOGGER.debug("Failed to close connection of cache invalidation bus.", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-living cache of result counts, e.g., for paging through a filtered
+ * table of resources without counting all matching resources for each page.
+ * Counts are not invalidated on modifications but expire after a configurable
+ * time, i.e., reported totals may be outdated for at most this time. Hits and
+ * misses are published as metrics with name 'cache.*' and tag
+ * 'cache=dataresourcecounts'.
+ *
+ * @author jejkal
+ */
+@Component
+public class ResourceCountCache {
+
+    private final Cache<String, Long> counts;
+    private final boolean enabled;
+
+    public ResourceCountCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.enabled = applicationProperties.getCountCacheTtl() > 0;
+        Duration ttl = Duration.ofSeconds(Math.max(1, applicationProperties.getCountCacheTtl()));
+        this.counts = Caffeine.newBuilder().maximumSize(Math.max(1, applicationProperties.getCountCacheSize())).
+                expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "dataresourcecounts");
+    }
+
+    /**
+     * Get the cached count for the provided key or obtain it from the
+     * provided counter if no count is cached.
+     *
+     * @param key The key identifying the query, including all information
+     * restricting the result, e.g., filters and caller identities.
+     * @param counter The counter querying the database.
+     *
+     * @return The count.
+     */
+    public long count(String key, LongSupplier counter) {
+        if (!enabled) {
+            return counter.getAsLong();
+        }
+        return counts.get(key, k -> counter.getAsLong());
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.impl;
+
+import edu.kit.datamanager.entities.RepoUserRole;
+import edu.kit.datamanager.exceptions.AccessForbiddenException;
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import edu.kit.datamanager.exceptions.CustomInternalServerError;
+import edu.kit.datamanager.exceptions.ResourceNotFoundException;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IUploadSessionDao;
+import edu.kit.datamanager.repo.domain.UploadPart;
+import edu.kit.datamanager.repo.domain.UploadSession;
+import edu.kit.datamanager.repo.util.StreamingMultipartFile;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Service managing resumable, chunked content uploads. Parts of an upload are
+ * staged below 'repo.basepath/.uploads/{uploadId}' and may be uploaded in
+ * parallel and in arbitrary order. Each part is stored together with its
+ * SHA-256 checksum. Both are written to temporary files first and are moved
+ * into place together while holding a lock, such that a part and its checksum
+ * always belong to the same upload of the part. When completing an upload, all parts are streamed in
+ * ascending order into the storage backend, i.e., the content is assembled
+ * without writing it another time. Sessions not updated within
+ * 'repo.upload.expirationHours' are removed periodically.
+ *
+ * @author jejkal
+ */
+@Component
+public class UploadSessionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadSessionService.class);
+
+    public static final String STAGING_FOLDER = ".uploads";
+    private static final String PART_SUFFIX = ".part";
+    private static final String CHECKSUM_SUFFIX = ".sha256";
+
+    private final IUploadSessionDao uploadSessionDao;
+    private final ApplicationProperties applicationProperties;
+    //guards moving staged parts and checksums into place and reading them
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public UploadSessionService(IUploadSessionDao uploadSessionDao, ApplicationProperties applicationProperties) {
+        this.uploadSessionDao = uploadSessionDao;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Start a new upload session.
+     *
+     * @param resourceId The id of the resource.
+     * @param relativePath The relative path of the content.
+     * @param contentType The content type of the assembled content.
+     * @param force TRUE if existing content should be overwritten.
+     *
+     * @return The persisted session.
+     */
+    public UploadSession initiate(String resourceId, String relativePath, String contentType, boolean force) {
+        UploadSession session = UploadSession.factoryUploadSession(resourceId, relativePath, contentType, force, AuthenticationHelper.getPrincipal());
+        try {
+            Files.createDirectories(getStagingPath(session));
+        } catch (IOException ex) {
+            LOGGER.error("Failed to create staging folder for upload " + session.getId() + ".", ex);
+            throw new CustomInternalServerError("Failed to create staging folder for upload.");
+        }
+        LOGGER.debug("Initiated upload {} for path {} of resource {}.", session.getId(), relativePath, resourceId);
+        return uploadSessionDao.save(session);
+    }
+
+    /**
+     * Obtain an upload session and check whether it belongs to the provided
+     * resource and path and whether the caller is allowed to access it.
+     * Sessions can only be accessed by the principal who started them or by
+     * administrators.
+     *
+     * @param uploadId The id of the session.
+     * @param resourceId The id of the resource.
+     * @param relativePath The relative path of the content.
+     *
+     * @return The session.
+     *
+     * @throws ResourceNotFoundException If no matching session exists.
+     * @throws AccessForbiddenException If the caller does not own the session.
+     */
+    public UploadSession getSession(String uploadId, String resourceId, String relativePath) {
+        UploadSession session = uploadSessionDao.findById(uploadId).orElseThrow(()
+                -> new ResourceNotFoundException("Upload with id " + uploadId + " not found."));
+        if (!session.getResourceId().equals(resourceId) || !session.getRelativePath().equals(relativePath)) {
+            throw new ResourceNotFoundException("Upload with id " + uploadId + " not found for path " + relativePath + ".");
+        }
+        if (!Objects.equals(session.getOwner(), AuthenticationHelper.getPrincipal())
+                && !AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.toString())) {
+            throw new AccessForbiddenException("Upload with id " + uploadId + " was started by another user.");
+        }
+        return session;
+    }
+
+    /**
+     * Stage a single part. An existing part with the same number is
+     * replaced. If the part is provided with a Content-Digest header, the
+     * digest is verified before the part is accepted.
+     *
+     * @param session The upload session.
+     * @param partNumber The part number, starting at 1.
+     * @param file The streamed part.
+     *
+     * @return Information about the staged part.
+     */
+    public UploadPart uploadPart(UploadSession session, int partNumber, StreamingMultipartFile file) {
+        if (partNumber < 1 || partNumber > applicationProperties.getUploadMaxParts()) {
+            throw new BadArgumentException("Part number must be between 1 and " + applicationProperties.getUploadMaxParts() + ".");
+        }
+        Path staging = getStagingPath(session);
+        String tmpName = UUID.randomUUID().toString();
+        Path tmp = staging.resolve(tmpName + ".tmp");
+        Path tmpChecksum = staging.resolve(tmpName + CHECKSUM_SUFFIX + ".tmp");
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), md)) {
+                Files.copy(in, tmp);
+            } catch (IOException ex) {
+                if (file.isDigestMismatch()) {
+                    Files.deleteIfExists(tmp);
+                    throw new BadArgumentException("Content digest mismatch for part " + partNumber + ".");
+                }
+                throw ex;
+            }
+            String checksum = HexFormat.of().formatHex(md.digest());
+            long size = Files.size(tmp);
+            Files.writeString(tmpChecksum, checksum);
+            //concurrent uploads of the same part must not mix up parts and checksums
+            lock.lock();
+            try {
+                Files.move(tmp, staging.resolve(getPartName(partNumber) + PART_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Files.move(tmpChecksum, staging.resolve(getPartName(partNumber) + CHECKSUM_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                lock.unlock();
+            }
+            uploadSessionDao.touch(session.getId(), Instant.now());
+            LOGGER.trace("Staged part {} of upload {} with {} bytes.", partNumber, session.getId(), size);
+            return new UploadPart(partNumber, size, checksum);
+        } catch (IOException ex) {
+            LOGGER.error("Failed to stage part " + partNumber + " of upload " + session.getId() + ".", ex);
+            try {
+                Files.deleteIfExists(tmp);
+                Files.deleteIfExists(tmpChecksum);
+            } catch (IOException ignored) {
+                //ignored, tmp file will be removed with the session
+            }
+            throw new CustomInternalServerError("Failed to stage part " + partNumber + ".");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new CustomInternalServerError("SHA-256 is not supported.");
+        }
+    }
+
+    /**
+     * List all staged parts of a session in ascending order.
+     *
+     * @param session The upload session.
+     *
+     * @return The list of parts.
+     */
+    public List<UploadPart> listParts(UploadSession session) {
+        Path staging = getStagingPath(session);
+        if (!Files.isDirectory(staging)) {
+            return Collections.emptyList();
+        }
+        List<UploadPart> parts = new ArrayList<>();
+        lock.lock();
+        try (Stream<Path> files = Files.list(staging)) {
+            List<Path> partFiles = files.filter(p -> p.getFileName().toString().endsWith(PART_SUFFIX)).toList();
+            for (Path part : partFiles) {
+                String name = part.getFileName().toString();
+                String baseName = name.substring(0, name.length() - PART_SUFFIX.length());
+                Path checksumFile = staging.resolve(baseName + CHECKSUM_SUFFIX);
+                String checksum = Files.exists(checksumFile) ? Files.readString(checksumFile).trim() : null;
+                parts.add(new UploadPart(Integer.parseInt(baseName), Files.size(part), checksum));
+            }
+        } catch (IOException ex) {
+            LOGGER.error("Failed to list parts of upload " + session.getId() + ".", ex);
+            throw new CustomInternalServerError("Failed to list parts of upload.");
+        } finally {
+            lock.unlock();
+        }
+        parts.sort(Comparator.comparingInt(UploadPart::getPartNumber));
+        return parts;
+    }
+
+    /**
+     * Check the staged parts of a session before completion. Parts must be
+     * numbered consecutively starting at 1. If the client provides a list of
+     * expected parts, the staged parts must match this list including their
+     * checksums.
+     *
+     * @param session The upload session.
+     * @param expected The parts expected by the client or null.
+     *
+     * @return The staged parts in ascending order.
+     */
+    public List<UploadPart> validateParts(UploadSession session, List<UploadPart> expected) {
+        List<UploadPart> parts = listParts(session);
+        if (parts.isEmpty()) {
+            throw new BadArgumentException("Upload " + session.getId() + " contains no parts.");
+        }
+        for (int i = 0; i < parts.size(); i++) {
+            if (parts.get(i).getPartNumber() != i + 1) {
+                throw new BadArgumentException("Part " + (i + 1) + " of upload " + session.getId() + " is missing.");
+            }
+        }
+        if (expected != null && !expected.isEmpty()) {
+            if (expected.size() != parts.size()) {
+                throw new BadArgumentException("Expected " + expected.size() + " parts, but " + parts.size() + " parts are staged.");
+            }
+            for (UploadPart part : expected) {
+                if (part.getPartNumber() < 1 || part.getPartNumber() > parts.size()) {
+                    throw new BadArgumentException("Part " + part.getPartNumber() + " is not staged.");
+                }
+                UploadPart staged = parts.get(part.getPartNumber() - 1);
+                if (part.getChecksum() != null && !part.getChecksum().equalsIgnoreCase(staged.getChecksum())) {
+                    throw new BadArgumentException("Checksum mismatch for part " + part.getPartNumber() + ".");
+                }
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Open a stream reading all provided parts in the provided order. Part
+     * files are opened lazily one after another.
+     *
+     * @param session The upload session.
+     * @param parts The parts to read.
+     *
+     * @return The assembled stream.
+     */
+    public InputStream openAssembledStream(UploadSession session, List<UploadPart> parts) {
+        Path staging = getStagingPath(session);
+        Iterator<UploadPart> iterator = parts.iterator();
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return Files.newInputStream(staging.resolve(getPartName(iterator.next().getPartNumber()) + PART_SUFFIX));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove a session and all staged parts.
+     *
+     * @param session The session to remove.
+     */
+    public void remove(UploadSession session) {
+        Path staging = getStagingPath(session);
+        try (Stream<Path> files = Files.walk(staging)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ex) {
+                    LOGGER.warn("Failed to remove staged file {}.", p);
+                }
+            });
+        } catch (IOException ex) {
+            LOGGER.warn("Failed to remove staging folder of upload {}.", session.getId());
+        }
+        uploadSessionDao.deleteById(session.getId());
+        LOGGER.debug("Removed upload {}.", session.getId());
+    }
+
+    /**
+     * Remove all sessions which have not been updated within the configured
+     * expiration time.
+     */
+    @Scheduled(fixedDelayString = "${repo.upload.cleanupIntervalMs:3600000}")
+    public void removeExpiredSessions() {
+        Instant threshold = Instant.now().minus(applicationProperties.getUploadExpirationHours(), ChronoUnit.HOURS);
+        List<UploadSession> expired = uploadSessionDao.findByLastUpdateBefore(threshold);
+        if (!expired.isEmpty()) {
+            LOGGER.info("Removing {} expired upload(s).", expired.size());
+        }
+        expired.forEach(this::remove);
+    }
+
+    private Path getStagingPath(UploadSession session) {
+        try {
+            return Paths.get(applicationProperties.getBasepath().toURI()).resolve(STAGING_FOLDER).resolve(session.getId());
+        } catch (URISyntaxException ex) {
+            throw new CustomInternalServerError("Invalid basepath " + applicationProperties.getBasepath() + ".");
+        }
+    }
+
+    private String getPartName(int partNumber) {
+        return String.format("%05d", partNumber);
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+/**
+ * Helper class for serving local files with support for HTTP range requests
+ * according to RFC 9110. Single and multiple byte ranges as well as the
+ * If-Range precondition are supported. File content is transferred via
+ * sendfile if supported by the servlet container, otherwise via
+ * FileChannel.transferTo, avoiding to copy the content through intermediate
+ * heap buffers wherever possible. Alternatively, callers may provide their own
+ * FileTransfer for contiguous regions, e.g., for non-blocking transfers.
+ *
+ * @author jejkal
+ */
+public class ContentRangeUtils {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(ContentRangeUtils.class);
+
+    public static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    public static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    public static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    public static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private ContentRangeUtils() {
+    }
+
+    /**
+     * Transfer of a contiguous region of a file into the response body after
+     * status and headers have been set.
+     */
+    @FunctionalInterface
+    public interface FileTransfer {
+
+        /**
+         * Transfer 'count' bytes of the provided file starting at 'start'.
+         *
+         * @param file The file.
+         * @param start The first byte to transfer.
+         * @param count The number of bytes to transfer.
+         * @param request The request.
+         * @param response The response.
+         *
+         * @throws IOException If reading the file or writing the response
+         * fails.
+         */
+        void transfer(Path file, long start, long count, HttpServletRequest request, HttpServletResponse response) throws IOException;
+    }
+
+    /**
+     * Serve the provided local file. If the request contains a satisfiable
+     * Range header and the If-Range precondition, if provided, holds, only the
+     * requested ranges are sent with status 206. If none of the requested
+     * ranges is satisfiable, status 416 is returned. Otherwise, the entire
+     * file is sent with status 200.
+     *
+     * @param file The file to serve.
+     * @param contentType The content type or null to use
+     * application/octet-stream.
+     * @param etag The entity tag of the file without quotes or null.
+     * @param request The request.
+     * @param response The response.
+     *
+     * @throws IOException If reading the file or writing the response fails.
+     */
+    public static void serveFile(Path file, String contentType, String etag, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serveFile(file, contentType, etag, request, response, ContentRangeUtils::transfer);
+    }
+
+    /**
+     * Serve the provided local file as described in
+     * {@link #serveFile(Path, String, String, HttpServletRequest, HttpServletResponse)}
+     * using the provided transfer for the entire file or a single range.
+     * Multiple ranges are always written by the calling thread.
+     *
+     * @param file The file to serve.
+     * @param contentType The content type or null to use
+     * application/octet-stream.
+     * @param etag The entity tag of the file without quotes or null.
+     * @param request The request.
+     * @param response The response.
+     * @param fileTransfer The transfer used for contiguous regions.
+     *
+     * @throws IOException If reading the file or writing the response fails.
+     */
+    public static void serveFile(Path file, String contentType, String etag, HttpServletRequest request, HttpServletResponse response, FileTransfer fileTransfer) throws IOException {
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String type = (contentType != null) ? contentType : DEFAULT_CONTENT_TYPE;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, "\"" + etag + "\"");
+        }
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(request, etag, lastModified)) {
+            serveFull(file, length, type, request, response, fileTransfer);
+            return;
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException ex) {
+            //invalid or unsupported range headers are ignored
+            LOGGER.debug("Ignoring invalid range header '{}'.", rangeHeader);
+            serveFull(file, length, type, request, response, fileTransfer);
+            return;
+        }
+
+        List<long[]> regions = new ArrayList<>();
+        long total = 0;
+        for (HttpRange range : ranges) {
+            try {
+                long start = range.getRangeStart(length);
+                long end = range.getRangeEnd(length);
+                regions.add(new long[]{start, end});
+                total += end - start + 1;
+            } catch (IllegalArgumentException ex) {
+                LOGGER.trace("Skipping unsatisfiable range {}.", range);
+            }
+        }
+
+        if (regions.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+        if (total > length) {
+            //overlapping ranges exceeding the file size are answered by sending the entire file
+            LOGGER.debug("Requested ranges exceed file length. Serving entire file.");
+            serveFull(file, length, type, request, response, fileTransfer);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (regions.size() == 1) {
+            long[] region = regions.get(0);
+            response.setContentType(type);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + region[0] + "-" + region[1] + "/" + length);
+            response.setContentLengthLong(region[1] - region[0] + 1);
+            fileTransfer.transfer(file, region[0], region[1] - region[0] + 1, request, response);
+            return;
+        }
+
+        String boundary = UUID.randomUUID().toString();
+        List<byte[]> partHeaders = new ArrayList<>();
+        long contentLength = 0;
+        for (long[] region : regions) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + type + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + region[0] + "-" + region[1] + "/" + length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + region[1] - region[0] + 1;
+        }
+        byte[] trailer = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += trailer.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        OutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            for (int i = 0; i < regions.size(); i++) {
+                out.write(partHeaders.get(i));
+                long[] region = regions.get(i);
+                transferTo(channel, region[0], region[1] - region[0] + 1, target);
+            }
+        }
+        out.write(trailer);
+        out.flush();
+    }
+
+    /**
+     * Check the If-Range precondition. The precondition holds if no If-Range
+     * header is provided, if the header contains a strong entity tag matching
+     * the provided etag or if it contains a date matching the last
+     * modification of the file.
+     *
+     * @param request The request.
+     * @param etag The current entity tag without quotes or null.
+     * @param lastModified The last modification in milliseconds.
+     *
+     * @return TRUE if the requested ranges should be served.
+     */
+    public static boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            //weak entity tags never match
+            return etag != null && ifRange.equals("\"" + etag + "\"");
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date >= 0 && (lastModified / 1000) == (date / 1000);
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private static void serveFull(Path file, long length, String type, HttpServletRequest request, HttpServletResponse response, FileTransfer fileTransfer) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(type);
+        response.setContentLengthLong(length);
+        fileTransfer.transfer(file, 0, length, request, response);
+    }
+
+    /**
+     * Default transfer of a file region, either via sendfile, if supported by
+     * the servlet container, or via FileChannel.transferTo within the calling
+     * thread.
+     *
+     * @param file The file.
+     * @param start The first byte to transfer.
+     * @param count The number of bytes to transfer.
+     * @param request The request.
+     * @param response The response.
+     *
+     * @throws IOException If reading the file or writing the response fails.
+     */
+    public static void transfer(Path file, long start, long count, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            LOGGER.trace("Using sendfile for transferring {} byte(s) of file {}.", count, file);
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            transferTo(channel, start, count, target);
+        }
+        response.getOutputStream().flush();
+    }
+
+    private static void transferTo(FileChannel channel, long start, long count, WritableByteChannel target) throws IOException {
+        long position = start;
+        long remaining = count;
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                if (position >= channel.size()) {
+                    throw new IOException("File was truncated while being transferred.");
+                }
+                continue;
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+}
@@ -15,13 +15,16 @@
  */
 package edu.kit.datamanager.repo.util;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import edu.kit.datamanager.repo.domain.TabulatorLocalPagination;
 import jakarta.persistence.Id;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
-import java.lang.reflect.InaccessibleObjectException;
-import java.util.LinkedList;
-import java.util.Set;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,59 +37,127 @@ public class EntityUtils {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(EntityUtils.class);
 
+    /**
+     * Fields relevant for removing ids, determined once per class.
+     */
+    private static final ClassValue<EntityMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected EntityMetadata computeValue(Class<?> type) {
+            return EntityMetadata.create(type);
+        }
+    };
+
     /**
      * Remove user-provided ids from the provided object. This is required at
      * creation time as fields annotated as jakarta.persistence.Id are assigned
      * by the database and conflicts with existing entities is not checked at
      * inititial persisting. This method will check the provided object
-     * recursively, such that also child entities are processed.
+     * recursively, such that also child entities are processed. Child entities
+     * are fields of a type located in package 'edu.kit.datamanager' and
+     * elements of collections and values of maps. The fields of each class are
+     * inspected only once, afterwards they are accessed via cached var
+     * handles.
      *
-     * @param originalObj The object to check.
+     * @param originalObj The object to check, which may also be a collection
+     * or map of objects.
      */
     public static void removeIds(Object originalObj) {
         if (originalObj == null) {
             return;
         }
-        for (Field field : originalObj.getClass().getDeclaredFields()) {
-            Id idField = field.getAnnotation(Id.class);
-            if (idField != null) {
-                //field is id field
-                field.setAccessible(true);
-                try {
-                    if (field.get(originalObj) != null) {
-                        //id field is set
-                        LOGGER.trace("Removing user-provided id from field {}.", field);
-                        field.set(originalObj, null);
-                    }
-                } catch (IllegalArgumentException | IllegalAccessException ex) {
-                    //update failed
-                    LOGGER.error("Failed to enable access to field " + field + ".", ex);
+        if (originalObj instanceof Collection<?> collection) {
+            if (collection instanceof List<?> list && list instanceof RandomAccess) {
+                for (int i = 0; i < list.size(); i++) {
+                    removeIds(list.get(i));
+                }
+            } else {
+                for (Object element : collection) {
+                    removeIds(element);
                 }
-            } else if (Set.class.isAssignableFrom(field.getType())) {
-                field.setAccessible(true);
-                try {
-                    Object val = field.get(originalObj);
-                    if (val != null) {
-                        for (Object v : (Set) val) {
-                            removeIds(v);
+            }
+        } else if (originalObj instanceof Map<?, ?> map) {
+            for (Object value : map.values()) {
+                removeIds(value);
+            }
+        } else {
+            METADATA.get(originalObj.getClass()).removeIds(originalObj);
+        }
+    }
+
+    /**
+     * Id fields and child fields of a single class including its
+     * superclasses.
+     */
+    private static final class EntityMetadata {
+
+        private static final EntityMetadata EMPTY = new EntityMetadata(new VarHandle[0], new String[0], new VarHandle[0]);
+
+        private final VarHandle[] ids;
+        //names of the id fields for logging
+        private final String[] idNames;
+        private final VarHandle[] children;
+
+        private EntityMetadata(VarHandle[] ids, String[] idNames, VarHandle[] children) {
+            this.ids = ids;
+            this.idNames = idNames;
+            this.children = children;
+        }
+
+        static EntityMetadata create(Class<?> type) {
+            List<VarHandle> ids = new ArrayList<>();
+            List<String> idNames = new ArrayList<>();
+            List<VarHandle> children = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                MethodHandles.Lookup lookup = null;
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    boolean isId = field.isAnnotationPresent(Id.class) && !field.getType().isPrimitive() && !Modifier.isFinal(field.getModifiers());
+                    if (!isId && !isChild(field.getType())) {
+                        continue;
+                    }
+                    try {
+                        if (lookup == null) {
+                            lookup = MethodHandles.privateLookupIn(current, MethodHandles.lookup());
+                        }
+                        VarHandle handle = lookup.unreflectVarHandle(field);
+                        if (isId) {
+                            ids.add(handle);
+                            idNames.add(field.toString());
+                        } else {
+                            children.add(handle);
                         }
+                    } catch (IllegalAccessException | RuntimeException ex) {
+                        //field will be ignored
+                        LOGGER.error("Failed to enable access to field " + field + ".", ex);
                     }
-                } catch (IllegalArgumentException | IllegalAccessException ex) {
-                    //update failed
-                    LOGGER.error("Failed to enable access to field " + field + ".", ex);
                 }
-            } else if (!field.getType().isPrimitive() && !field.getType().isEnum() && field.getType().getPackageName().startsWith("edu.kit.datamanager")) {
-                try {
-                    field.setAccessible(true);
-                    Object val = field.get(originalObj);
-                    if (val != null) {
-                        removeIds(val);
-                    }
-                } catch (IllegalArgumentException | IllegalAccessException | InaccessibleObjectException ex) {
-                    //update failed
-                    LOGGER.error("Failed to enable access to field " + field + ".", ex);
+            }
+            if (ids.isEmpty() && children.isEmpty()) {
+                return EMPTY;
+            }
+            return new EntityMetadata(ids.toArray(VarHandle[]::new), idNames.toArray(String[]::new), children.toArray(VarHandle[]::new));
+        }
+
+        private static boolean isChild(Class<?> type) {
+            if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+                return true;
+            }
+            return !type.isPrimitive() && !type.isEnum() && !type.isArray() && type.getPackageName().startsWith("edu.kit.datamanager");
+        }
+
+        void removeIds(Object obj) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i].get(obj) != null) {
+                    //id field is set
+                    LOGGER.trace("Removing user-provided id from field {}.", idNames[i]);
+                    ids[i].set(obj, (Object) null);
                 }
             }
+            for (VarHandle child : children) {
+                EntityUtils.removeIds(child.get(obj));
+            }
         }
     }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import lombok.Value;
+
+/**
+ * Opaque cursor for keyset pagination. A cursor points to the last element
+ * of the previous page, identified by its last update time (optional) and its
+ * id. The next page contains all elements sorted after this element. Cursors
+ * are exchanged with clients as URL-safe Base64 strings.
+ *
+ * @author jejkal
+ */
+@Value
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    Instant lastUpdate;
+    String id;
+
+    /**
+     * Encode this cursor.
+     *
+     * @return The opaque cursor string.
+     */
+    public String encode() {
+        String timestamp = lastUpdate == null ? "" : lastUpdate.getEpochSecond() + "." + lastUpdate.getNano();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((timestamp + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque cursor string.
+     *
+     * @param cursor The cursor string. An empty or null cursor refers to the
+     * first page.
+     *
+     * @return The decoded cursor or null for the first page.
+     *
+     * @throws BadArgumentException If the cursor is invalid.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = value.indexOf(SEPARATOR);
+            if (idx < 0 || idx == value.length() - 1) {
+                throw new BadArgumentException("Invalid cursor " + cursor + ".");
+            }
+            Instant timestamp = null;
+            if (idx > 0) {
+                String[] parts = value.substring(0, idx).split("\\.");
+                timestamp = Instant.ofEpochSecond(Long.parseLong(parts[0]), parts.length > 1 ? Long.parseLong(parts[1]) : 0);
+            }
+            return new KeysetCursor(timestamp, value.substring(idx + 1));
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new BadArgumentException("Invalid cursor " + cursor + ".");
+        }
+    }
+
+    /**
+     * Check whether an element with the provided sort keys is located after
+     * this cursor.
+     *
+     * @param elementLastUpdate The last update time of the element.
+     * @param elementId The id of the element.
+     *
+     * @return TRUE if the element belongs to a following page.
+     */
+    public boolean isBefore(Instant elementLastUpdate, String elementId) {
+        if (lastUpdate != null && elementLastUpdate != null) {
+            int cmp = elementLastUpdate.compareTo(lastUpdate);
+            if (cmp != 0) {
+                return cmp > 0;
+            }
+        }
+        return elementId.compareTo(id) > 0;
+    }
+}
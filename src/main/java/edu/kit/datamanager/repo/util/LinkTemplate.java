@@ -0,0 +1,184 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Link to a controller method, which is resolved once from the request
+ * mappings of the controller and expanded by plain string substitution. In
+ * contrast to WebMvcLinkBuilder.linkTo(methodOn(...)), no proxies are created
+ * and no handler metadata is evaluated per link. Path variables are encoded
+ * as path segments, i.e., also slashes contained in identifiers are escaped.
+ * Wildcards, e.g., '**' in content paths, are kept and have to be replaced by
+ * the caller. Query parameters are not part of the template and can be added
+ * via {@link #appendQueryParameter(String, String, Object)}.
+ *
+ * @author jejkal
+ */
+public final class LinkTemplate {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{([^}:]+)(:[^}]*)?\\}");
+
+    private final String template;
+    //literal parts of the template, one more than variables
+    private final String[] literals;
+    private final String[] variables;
+
+    private LinkTemplate(String template) {
+        this.template = template;
+        List<String> literalParts = new ArrayList<>();
+        List<String> variableNames = new ArrayList<>();
+        Matcher matcher = VARIABLE.matcher(template);
+        int last = 0;
+        while (matcher.find()) {
+            literalParts.add(template.substring(last, matcher.start()));
+            variableNames.add(matcher.group(1));
+            last = matcher.end();
+        }
+        literalParts.add(template.substring(last));
+        this.literals = literalParts.toArray(String[]::new);
+        this.variables = variableNames.toArray(String[]::new);
+    }
+
+    /**
+     * Create a template from the provided path relative to the servlet
+     * mapping, e.g., '/api/v1/dataresources/{id}'.
+     *
+     * @param path The path template.
+     *
+     * @return The link template.
+     */
+    public static LinkTemplate of(String path) {
+        return new LinkTemplate(path);
+    }
+
+    /**
+     * Create a template from the request mappings of the provided controller
+     * and its method with the provided name. Mappings may be declared at the
+     * controller class, at implemented interfaces or at their methods. The
+     * first path of each mapping is used.
+     *
+     * @param controller The controller class.
+     * @param methodName The name of the handler method, which must not be
+     * overloaded.
+     *
+     * @return The link template.
+     *
+     * @throws IllegalArgumentException If the method does not exist, is
+     * overloaded or has no request mapping.
+     */
+    public static LinkTemplate forMethod(Class<?> controller, String methodName) {
+        List<Method> methods = Arrays.stream(controller.getMethods()).
+                filter(method -> method.getName().equals(methodName) && !method.isBridge()).
+                collect(Collectors.toList());
+        if (methods.size() != 1) {
+            throw new IllegalArgumentException("Expected exactly one method " + methodName + " in " + controller + " but found " + methods.size() + ".");
+        }
+        RequestMapping methodMapping = AnnotatedElementUtils.findMergedAnnotation(methods.get(0), RequestMapping.class);
+        if (methodMapping == null) {
+            throw new IllegalArgumentException("Method " + methodName + " in " + controller + " has no request mapping.");
+        }
+        RequestMapping typeMapping = AnnotatedElementUtils.findMergedAnnotation(controller, RequestMapping.class);
+        return new LinkTemplate(getPath(typeMapping) + getPath(methodMapping));
+    }
+
+    /**
+     * Expand this template relative to the servlet mapping of the current
+     * request.
+     *
+     * @param values The values of all path variables in order of their
+     * occurrence.
+     *
+     * @return The link.
+     */
+    public String expand(Object... values) {
+        return expand(getBaseUri(), values);
+    }
+
+    /**
+     * Expand this template relative to the provided base URI, e.g., obtained
+     * once via {@link #getBaseUri()} before expanding many links.
+     *
+     * @param baseUri The base URI without trailing slash.
+     * @param values The values of all path variables in order of their
+     * occurrence.
+     *
+     * @return The link.
+     */
+    public String expand(String baseUri, Object... values) {
+        if (values.length != variables.length) {
+            throw new IllegalArgumentException("Template " + template + " requires " + variables.length + " value(s) but got " + values.length + ".");
+        }
+        StringBuilder link = new StringBuilder(baseUri.length() + template.length() + 32 * values.length);
+        link.append(baseUri);
+        for (int i = 0; i < values.length; i++) {
+            link.append(literals[i]);
+            link.append(UriUtils.encodePathSegment(String.valueOf(values[i]), "UTF-8"));
+        }
+        link.append(literals[values.length]);
+        return link.toString();
+    }
+
+    /**
+     * Get the URI of the servlet mapping of the current request, which is the
+     * base of all expanded links.
+     *
+     * @return The base URI.
+     */
+    public static String getBaseUri() {
+        return ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+    }
+
+    /**
+     * Append a query parameter to the provided link if the value is not null.
+     *
+     * @param link The link.
+     * @param name The parameter name.
+     * @param value The parameter value or null.
+     *
+     * @return The link with the appended parameter.
+     */
+    public static String appendQueryParameter(String link, String name, Object value) {
+        if (value == null) {
+            return link;
+        }
+        String separator = (link.indexOf('?') < 0) ? "?" : "&";
+        return link + separator + name + "=" + UriUtils.encodeQueryParam(String.valueOf(value), "UTF-8");
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    private static String getPath(RequestMapping mapping) {
+        if (mapping == null || mapping.path().length == 0) {
+            return "";
+        }
+        return mapping.path()[0];
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.http.MediaType;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * MultipartFile implementation directly backed by the body of a request. In
+ * contrast to multipart uploads handled by the servlet container, the data is
+ * neither buffered in memory nor spooled to a temporary file but is streamed
+ * directly into the storage location while being read. Therefore, no size
+ * limit applies to such uploads.
+ *
+ * Optionally, a client may provide a Content-Digest header according to RFC
+ * 9530, e.g. 'Content-Digest: sha-256=:base64value:'. In that case, the digest
+ * is computed on the fly while the data is streamed and is verified as soon as
+ * the end of the stream is reached. On a mismatch, reading the last chunk
+ * fails with an IOException, such that the consumer aborts before the upload
+ * is committed.
+ *
+ * @author jejkal
+ */
+public class StreamingMultipartFile implements MultipartFile {
+
+    public static final String CONTENT_DIGEST_HEADER = "Content-Digest";
+
+    /**
+     * Supported digest algorithms ordered by preference.
+     */
+    private static final Map<String, String> DIGEST_ALGORITHMS = new LinkedHashMap<>();
+
+    static {
+        DIGEST_ALGORITHMS.put("sha-512", "SHA-512");
+        DIGEST_ALGORITHMS.put("sha-256", "SHA-256");
+    }
+
+    private final String originalFilename;
+    private final String contentType;
+    private final long size;
+    private final InputStream stream;
+    private final MessageDigest digest;
+    private final byte[] expectedDigest;
+    private Boolean digestValid;
+    private boolean consumed = false;
+
+    /**
+     * Default constructor.
+     *
+     * @param originalFilename The filename of the uploaded data.
+     * @param contentType The content type of the uploaded data.
+     * @param size The size of the uploaded data or -1 if unknown.
+     * @param stream The stream providing the data.
+     */
+    public StreamingMultipartFile(String originalFilename, String contentType, long size, InputStream stream) {
+        this(originalFilename, contentType, size, stream, null, null);
+    }
+
+    private StreamingMultipartFile(String originalFilename, String contentType, long size, InputStream stream, MessageDigest digest, byte[] expectedDigest) {
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.size = size;
+        this.digest = digest;
+        this.expectedDigest = expectedDigest;
+        this.stream = (digest != null) ? new VerifyingInputStream(stream, digest) : stream;
+    }
+
+    /**
+     * Create a new instance from the body of the provided request. The
+     * filename is taken from the last element of the provided path. If the
+     * request contains a Content-Digest header, the body stream is wrapped in
+     * order to compute the digest on the fly.
+     *
+     * @param request The request carrying the data in its body.
+     * @param path The relative path of the content.
+     *
+     * @return The instance.
+     *
+     * @throws IOException If the request body cannot be accessed.
+     * @throws BadArgumentException If the Content-Digest header is invalid or
+     * contains no supported algorithm.
+     */
+    public static StreamingMultipartFile fromRequest(HttpServletRequest request, String path) throws IOException {
+        String filename = path.substring(path.lastIndexOf('/') + 1);
+        String contentType = request.getContentType() != null ? request.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        InputStream in = request.getInputStream();
+        String digestHeader = request.getHeader(CONTENT_DIGEST_HEADER);
+        if (digestHeader == null) {
+            return new StreamingMultipartFile(filename, contentType, request.getContentLengthLong(), in);
+        }
+
+        Map<String, byte[]> digests = parseContentDigest(digestHeader);
+        for (Map.Entry<String, String> algorithm : DIGEST_ALGORITHMS.entrySet()) {
+            byte[] expected = digests.get(algorithm.getKey());
+            if (expected != null) {
+                MessageDigest md;
+                try {
+                    md = MessageDigest.getInstance(algorithm.getValue());
+                } catch (NoSuchAlgorithmException ex) {
+                    throw new BadArgumentException("Digest algorithm " + algorithm.getKey() + " is not supported.");
+                }
+                return new StreamingMultipartFile(filename, contentType, request.getContentLengthLong(), in, md, expected);
+            }
+        }
+        throw new BadArgumentException("Content-Digest header contains no supported algorithm. Supported are: " + DIGEST_ALGORITHMS.keySet());
+    }
+
+    /**
+     * Parse a Content-Digest header of the form 'alg1=:base64:, alg2=:base64:'.
+     *
+     * @param header The header value.
+     *
+     * @return A map of lowercase algorithm names and digest bytes.
+     *
+     * @throws BadArgumentException If the header is malformed.
+     */
+    public static Map<String, byte[]> parseContentDigest(String header) {
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        for (String element : header.split(",")) {
+            String trimmed = element.trim();
+            int idx = trimmed.indexOf('=');
+            if (idx <= 0) {
+                throw new BadArgumentException("Invalid Content-Digest header element '" + trimmed + "'.");
+            }
+            String value = trimmed.substring(idx + 1).trim();
+            if (value.length() < 2 || !value.startsWith(":") || !value.endsWith(":")) {
+                throw new BadArgumentException("Invalid Content-Digest header element '" + trimmed + "'.");
+            }
+            try {
+                result.put(trimmed.substring(0, idx).trim().toLowerCase(), Base64.getDecoder().decode(value.substring(1, value.length() - 1)));
+            } catch (IllegalArgumentException ex) {
+                throw new BadArgumentException("Invalid base64 value in Content-Digest header element '" + trimmed + "'.");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check whether the digest computed while streaming matches the digest
+     * provided by the client. This method must only be called after the
+     * stream has been fully consumed.
+     *
+     * @return TRUE if no digest was provided or if both digests are equal.
+     */
+    public boolean isDigestValid() {
+        if (digest == null) {
+            return true;
+        }
+        if (digestValid == null) {
+            digestValid = MessageDigest.isEqual(expectedDigest, digest.digest());
+        }
+        return digestValid;
+    }
+
+    /**
+     * Check whether the stream has been read completely and the verification
+     * of the digest provided by the client has failed. In contrast to
+     * {@link #isDigestValid()}, this method can be called at any time, e.g.,
+     * for finding out why consuming the stream has failed.
+     *
+     * @return TRUE if the digest was verified and did not match.
+     */
+    public boolean isDigestMismatch() {
+        return digestValid != null && !digestValid;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return getInputStream().readAllBytes();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (consumed) {
+            throw new IllegalStateException("Streamed upload can only be read once.");
+        }
+        consumed = true;
+        return stream;
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException, IllegalStateException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException, IllegalStateException {
+        try (InputStream in = getInputStream()) {
+            Files.copy(in, dest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Stream computing the digest of all data read and verifying it against
+     * the expected digest when the end of the stream is reached.
+     */
+    private final class VerifyingInputStream extends DigestInputStream {
+
+        VerifyingInputStream(InputStream in, MessageDigest digest) {
+            super(in, digest);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result < 0) {
+                verify();
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result < 0) {
+                verify();
+            }
+            return result;
+        }
+
+        private void verify() throws IOException {
+            if (!isDigestValid()) {
+                throw new IOException("Content digest mismatch.");
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import edu.kit.datamanager.repo.dao.DataResourceSpecifications;
+import edu.kit.datamanager.repo.domain.DataResource;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Remote filters and sorters sent by the Tabulator.js library, i.e., request
+ * parameters of the form 'filter[0][field]', 'filter[0][type]',
+ * 'filter[0][value]', 'sort[0][field]' and 'sort[0][dir]'. Only whitelisted
+ * fields are accepted. Filters on single-valued fields are translated into
+ * plain comparisons of the according columns, filters on titles and creators
+ * into correlated subqueries. Sorting is only supported for single-valued
+ * fields.
+ *
+ * @author jejkal
+ */
+public class TabulatorQuery {
+
+    private static final Pattern FILTER_PARAMETER = Pattern.compile("filter\\[(\\d+)\\]\\[(field|type|value)\\]");
+    private static final Pattern SORT_PARAMETER = Pattern.compile("sort\\[(\\d+)\\]\\[(field|dir)\\]");
+    private static final int MAX_ELEMENTS = 10;
+
+    /**
+     * Supported filter types using Tabulator's names.
+     */
+    public enum Operator {
+        EQUAL("="),
+        NOT_EQUAL("!="),
+        LESS("<"),
+        LESS_OR_EQUAL("<="),
+        GREATER(">"),
+        GREATER_OR_EQUAL(">="),
+        STARTS("starts"),
+        LIKE("like");
+
+        private final String type;
+
+        Operator(String type) {
+            this.type = type;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        static Operator fromType(String type) {
+            for (Operator operator : values()) {
+                if (operator.type.equals(type)) {
+                    return operator;
+                }
+            }
+            throw new BadArgumentException("Unsupported filter type " + type + ".");
+        }
+    }
+
+    /**
+     * Fields supported for filtering and sorting.
+     */
+    private enum Field {
+        ID("id", null, "id", null),
+        PUBLISHER("publisher", null, "publisher", null),
+        PUBLICATION_YEAR("publicationYear", null, "publicationYear", null),
+        LANGUAGE("language", null, "language", null),
+        STATE("state", null, "state", value -> DataResource.State.valueOf(value.toUpperCase(Locale.ROOT))),
+        LAST_UPDATE("lastUpdate", null, "lastUpdate", Instant::parse),
+        EMBARGO_DATE("embargoDate", null, "embargoDate", Instant::parse),
+        TITLE("title", "titles", "value", null),
+        CREATOR("creator", "creators", "familyName", null);
+
+        private final String name;
+        private final String collection;
+        private final String attribute;
+        //null for text fields
+        private final Function<String, Comparable<?>> converter;
+
+        Field(String name, String collection, String attribute, Function<String, Comparable<?>> converter) {
+            this.name = name;
+            this.collection = collection;
+            this.attribute = attribute;
+            this.converter = converter;
+        }
+
+        Comparable<?> convert(String value) {
+            return (converter == null) ? value : converter.apply(value);
+        }
+
+        static Field fromName(String name) {
+            for (Field field : values()) {
+                if (field.name.equals(name)) {
+                    return field;
+                }
+            }
+            throw new BadArgumentException("Unsupported field " + name + ".");
+        }
+    }
+
+    private record Filter(Field field, Operator operator, Comparable<?> value) {
+
+    }
+
+    private final List<Filter> filters;
+    private final Sort sort;
+
+    private TabulatorQuery(List<Filter> filters, Sort sort) {
+        this.filters = filters;
+        this.sort = sort;
+    }
+
+    /**
+     * Parse filters and sorters from the provided request parameters. Other
+     * parameters are ignored.
+     *
+     * @param parameters The request parameters.
+     *
+     * @return The parsed query.
+     *
+     * @throws BadArgumentException If a filter or sorter is invalid.
+     */
+    public static TabulatorQuery parse(Map<String, String[]> parameters) {
+        SortedMap<Integer, Map<String, String>> filterParameters = collect(parameters, FILTER_PARAMETER);
+        SortedMap<Integer, Map<String, String>> sortParameters = collect(parameters, SORT_PARAMETER);
+
+        List<Filter> filters = new ArrayList<>();
+        for (Map<String, String> filter : filterParameters.values()) {
+            Field field = Field.fromName(filter.get("field"));
+            Operator operator = Operator.fromType(filter.getOrDefault("type", Operator.EQUAL.getType()));
+            String value = filter.get("value");
+            if (value == null || value.isEmpty()) {
+                //Tabulator sends empty header filters, which are meant to match everything
+                continue;
+            }
+            if ((operator == Operator.STARTS || operator == Operator.LIKE) && field.converter != null) {
+                throw new BadArgumentException("Filter type " + operator.getType() + " is not supported for field " + field.name + ".");
+            }
+            try {
+                filters.add(new Filter(field, operator, field.convert(value)));
+            } catch (DateTimeException | IllegalArgumentException ex) {
+                throw new BadArgumentException("Invalid value " + value + " for field " + field.name + ".");
+            }
+        }
+
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Map<String, String> sorter : sortParameters.values()) {
+            Field field = Field.fromName(sorter.get("field"));
+            if (field.collection != null) {
+                throw new BadArgumentException("Sorting by field " + field.name + " is not supported.");
+            }
+            Sort.Direction direction = Sort.Direction.fromOptionalString(sorter.get("dir")).orElse(Sort.Direction.ASC);
+            orders.add(new Sort.Order(direction, field.attribute));
+        }
+        return new TabulatorQuery(filters, Sort.by(orders));
+    }
+
+    /**
+     * Get the specification matching all filters of this query.
+     *
+     * @return The specification.
+     */
+    public Specification<DataResource> toSpecification() {
+        Specification<DataResource> specification = (root, query, builder) -> null;
+        for (Filter filter : filters) {
+            specification = specification.and(DataResourceSpecifications.matches(filter.field().collection, filter.field().attribute,
+                    filter.operator(), filter.value()));
+        }
+        return specification;
+    }
+
+    /**
+     * Get the sort order defined by all sorters of this query.
+     *
+     * @return The sort order, which is unsorted if no sorter was provided.
+     */
+    public Sort getSort() {
+        return sort;
+    }
+
+    /**
+     * Check whether this query contains sorters.
+     *
+     * @return TRUE if at least one sorter was provided.
+     */
+    public boolean isSorted() {
+        return sort.isSorted();
+    }
+
+    /**
+     * Get a canonical representation of all filters, e.g., for caching
+     * results per filter.
+     *
+     * @return The filter key.
+     */
+    public String getFilterKey() {
+        return filters.stream().map(filter -> filter.field().name + filter.operator().getType() + filter.value()).
+                sorted().collect(Collectors.joining("&"));
+    }
+
+    private static SortedMap<Integer, Map<String, String>> collect(Map<String, String[]> parameters, Pattern pattern) {
+        SortedMap<Integer, Map<String, String>> result = new TreeMap<>();
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            Matcher matcher = pattern.matcher(parameter.getKey());
+            if (!matcher.matches() || parameter.getValue() == null || parameter.getValue().length == 0) {
+                continue;
+            }
+            int index;
+            try {
+                index = Integer.parseInt(matcher.group(1));
+            } catch (NumberFormatException ex) {
+                throw new BadArgumentException("Invalid parameter " + parameter.getKey() + ".");
+            }
+            result.computeIfAbsent(index, i -> new TreeMap<>()).put(matcher.group(2), parameter.getValue()[0]);
+            if (result.size() > MAX_ELEMENTS) {
+                throw new BadArgumentException("At most " + MAX_ELEMENTS + " filters and sorters are supported.");
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Factories for background threads of the repository, e.g., for indexing. If
+ * virtual threads are enabled via 'spring.threads.virtual.enabled', virtual
+ * threads are created, otherwise platform daemon threads.
+ *
+ * @author jejkal
+ */
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    /**
+     * Create a factory for threads with the provided name.
+     *
+     * @param name The thread name.
+     * @param virtual TRUE for creating virtual threads.
+     *
+     * @return The thread factory.
+     */
+    public static ThreadFactory named(String name, boolean virtual) {
+        return virtual ? Thread.ofVirtual().name(name).factory() : Thread.ofPlatform().name(name).daemon(true).factory();
+    }
+
+    /**
+     * Create a factory for threads named by the provided prefix followed by a
+     * sequence number starting at 1.
+     *
+     * @param prefix The thread name prefix.
+     * @param virtual TRUE for creating virtual threads.
+     *
+     * @return The thread factory.
+     */
+    public static ThreadFactory numbered(String prefix, boolean virtual) {
+        return virtual ? Thread.ofVirtual().name(prefix, 1).factory() : Thread.ofPlatform().name(prefix, 1).daemon(true).factory();
+    }
+}
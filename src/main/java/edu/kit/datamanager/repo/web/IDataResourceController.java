@@ -16,10 +16,13 @@
 package edu.kit.datamanager.repo.web;
 
 import com.github.fge.jsonpatch.JsonPatch;
+import edu.kit.datamanager.repo.domain.BulkCreateResult;
 import edu.kit.datamanager.repo.domain.DataResource;
 import edu.kit.datamanager.controller.IGenericResourceController;
 import edu.kit.datamanager.repo.domain.ContentInformation;
 import edu.kit.datamanager.repo.domain.TabulatorLocalPagination;
+import edu.kit.datamanager.repo.domain.UploadPart;
+import edu.kit.datamanager.repo.domain.UploadSession;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -39,6 +42,7 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 /**
@@ -57,7 +61,8 @@ public interface IDataResourceController extends IGenericResourceController<Data
             + "the primary identifier or one of the resource's alternate identifiers. The provided identifier must be properly URL-encoded. If enabled, "
             + "older versions of a resource can be accessed by providing the `version` query parameter. By default, the most recent version "
             + "is returned. Versions are numbered sequentially starting at 1 and are returned in the `Resource-Version` header field.<br/>"
-            + "Furthermore, if enabled, authentication and authorization may restrict access to resources.", security = {
+            + "Furthermore, if enabled, authentication and authorization may restrict access to resources. If the `If-None-Match` or `If-Modified-Since` "
+            + "header is provided and the resource has not changed, HTTP NOT_MODIFIED is returned without body.", security = {
                 @SecurityRequirement(name = "bearer-jwt")})
     @RequestMapping(value = "/{id}", method = RequestMethod.GET, produces = "application/json")
     @ResponseBody
@@ -96,10 +101,91 @@ public interface IDataResourceController extends IGenericResourceController<Data
     public ResponseEntity<DataResource> create(@Parameter(description = "Json representation of the resource to create.", required = true)
             @RequestBody DataResource arg0, WebRequest arg1, HttpServletResponse arg2);
 
+    @Operation(operationId = "createResources",
+            summary = "Create multiple resources at once.",
+            description = "Create multiple resources provided either as JSON array or as newline-delimited JSON (Content-Type 'application/x-ndjson'). "
+            + "Each resource is handled in the same way as by the single resource creation endpoint. Resources are persisted in batches, "
+            + "where failing resources do not affect other resources. The response contains one result per resource in the order of the request, "
+            + "each containing the HTTP status the resource creation resulted in, the identifier and ETag of the created resource or an error message. "
+            + "Requests containing more resources than configured by 'repo.bulk.maxItems' are rejected with HTTP 413.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(value = {"/bulk"}, method = {RequestMethod.POST}, consumes = {"application/json", "application/x-ndjson"}, produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<List<BulkCreateResult>> createBulk(final WebRequest request,
+            final HttpServletResponse response);
+
+    @Operation(operationId = "streamResources",
+            summary = "Stream all resources as newline-delimited JSON.",
+            description = "Stream all resources accessible by the caller using a single request by providing 'application/x-ndjson' as `Accept` header. "
+            + "In contrast to paginated listing, resources are read from a database cursor and written one per line as soon as they are read. "
+            + "The results are ordered by resource identifier and can be restricted by the last update time.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(value = {"/"}, method = {RequestMethod.GET}, produces = {"application/x-ndjson"})
+    @ResponseBody
+    public ResponseEntity<StreamingResponseBody> streamAll(
+            @Parameter(description = "The UTC time of the earliest update of a returned resource.", example = "2017-05-10T10:41:00Z", required = false) @RequestParam(name = "from", required = false) final Instant lastUpdateFrom,
+            @Parameter(description = "The UTC time of the latest update of a returned resource.", example = "2017-05-10T10:41:00Z", required = false) @RequestParam(name = "until", required = false) final Instant lastUpdateUntil,
+            final WebRequest request,
+            final HttpServletResponse response);
+
+    @Operation(operationId = "streamResourcesByExample",
+            summary = "Stream all resources matching an example as newline-delimited JSON.",
+            description = "Stream all resources accessible by the caller and matching the provided example using a single request by providing "
+            + "'application/x-ndjson' as `Accept` header. The example is evaluated in the same way as for paginated search. "
+            + "The results are ordered by resource identifier and can be restricted by the last update time.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(value = {"/search"}, method = {RequestMethod.POST}, produces = {"application/x-ndjson"})
+    @ResponseBody
+    public ResponseEntity<StreamingResponseBody> streamByExample(@Parameter(description = "Json representation of the example resource.", required = true) @RequestBody final DataResource example,
+            @Parameter(description = "The UTC time of the earliest update of a returned resource.", example = "2017-05-10T10:41:00Z", required = false) @RequestParam(name = "from", required = false) final Instant lastUpdateFrom,
+            @Parameter(description = "The UTC time of the latest update of a returned resource.", example = "2017-05-10T10:41:00Z", required = false) @RequestParam(name = "until", required = false) final Instant lastUpdateUntil,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder);
+
+    @Operation(operationId = "listResourcesByCursor",
+            summary = "List resources using cursor-based pagination.",
+            description = "List all resources accessible by the caller ordered by last update time and identifier. In contrast to offset-based pagination, "
+            + "the performance does not degrade for deep pages. The first page is obtained by providing an empty `cursor` parameter. "
+            + "If there are further results, the URL of the next page is returned in the `Link` header with relation 'next'. "
+            + "The total number of results is only determined and returned in the `Content-Range` header if `count` is true.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(value = {"/"}, method = {RequestMethod.GET}, params = "cursor", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<List<DataResource>> findAllByCursor(
+            @Parameter(description = "The opaque cursor returned by the previous page or an empty value for the first page.", required = true) @RequestParam(name = "cursor") final String cursor,
+            @Parameter(description = "The UTC time of the earliest update of a returned resource.", example = "2017-05-10T10:41:00Z", required = false) @RequestParam(name = "from", required = false) final Instant lastUpdateFrom,
+            @Parameter(description = "The UTC time of the latest update of a returned resource.", example = "2017-05-10T10:41:00Z", required = false) @RequestParam(name = "until", required = false) final Instant lastUpdateUntil,
+            @Parameter(description = "The page size.", required = false) @RequestParam(name = "size", defaultValue = "20") final int size,
+            @Parameter(description = "Flag to indicate, that the total number of results should be returned.", required = false) @RequestParam(name = "count", defaultValue = "false") final boolean count,
+            final WebRequest request,
+            final HttpServletResponse response);
+
+    @Operation(operationId = "findResourcesByCursor",
+            summary = "Search for resources by example using cursor-based pagination.",
+            description = "Search for resources matching the provided example ordered by last update time and identifier. "
+            + "The example is evaluated in the same way as for offset-based search. Pages are addressed by cursors as described for 'listResourcesByCursor'.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(value = {"/search"}, method = {RequestMethod.POST}, params = "cursor", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<List<DataResource>> findByExampleByCursor(@Parameter(description = "Json representation of the example resource.", required = true) @RequestBody final DataResource example,
+            @Parameter(description = "The opaque cursor returned by the previous page or an empty value for the first page.", required = true) @RequestParam(name = "cursor") final String cursor,
+            @Parameter(description = "The UTC time of the earliest update of a returned resource.", example = "2017-05-10T10:41:00Z", required = false) @RequestParam(name = "from", required = false) final Instant lastUpdateFrom,
+            @Parameter(description = "The UTC time of the latest update of a returned resource.", example = "2017-05-10T10:41:00Z", required = false) @RequestParam(name = "until", required = false) final Instant lastUpdateUntil,
+            @Parameter(description = "The page size.", required = false) @RequestParam(name = "size", defaultValue = "20") final int size,
+            @Parameter(description = "Flag to indicate, that the total number of results should be returned.", required = false) @RequestParam(name = "count", defaultValue = "false") final boolean count,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder);
+
     @Operation(operationId = "listResourcesForTabulator",
             summary = "List all resources and return them in a format supported by the Tabulator.js library.",
             description = "List all resources in a paginated and/or sorted form. Possible queries are: listing with default values (X elements on first page sorted by database), "
             + "listing page wise, sorted query page wise, and combinations of the options above. "
+            + "Tabulator's remote filters and sorters are supported via the parameters 'filter[i][field]', 'filter[i][type]', 'filter[i][value]', 'sort[i][field]' and 'sort[i][dir]'. "
+            + "Supported fields are id, publisher, publicationYear, language, state, lastUpdate and embargoDate as well as title and creator (family name) for filtering only. "
+            + "Supported filter types are =, !=, <, <=, >, >=, starts and like (case-insensitive). "
+            + "The total number of matching resources is cached for a short time and may therefore be slightly outdated. "
             + "The total number of resources may differ between calls if single resources have access restrictions. "
             + "Furthermore, anonymous listing of resources may or may not be supported.", security = {
                 @SecurityRequirement(name = "bearer-jwt")})
@@ -214,6 +300,124 @@ public interface IDataResourceController extends IGenericResourceController<Data
             final HttpServletResponse response,
             final UriComponentsBuilder uriBuilder);
     
+    @Operation(operationId = "streamContent",
+            summary = "Upload content to a resource by streaming the request body.",
+            description = "This endpoint allows to upload data to the resource with the given id by sending the raw data as request body. "
+            + "In contrast to the multipart upload, the data is directly streamed into the configured storage backend without being buffered "
+            + "in memory or in a temporary file. Therefore, the size of uploads is not limited by the configured multipart limits."
+            + "<br/>"
+            + "The relative path of the content is provided within the request URL and must refer to a single file. "
+            + "If a file at a given path already exists, HTTP CONFLICT will be returned unless overwriting is requested by setting the query parameter 'force' to true. "
+            + "Optionally, a 'Content-Digest' header (RFC 9530) using sha-256 or sha-512 can be provided. In that case, the digest is computed during upload. "
+            + "If it does not match, the uploaded content is removed and HTTP BAD_REQUEST is returned.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(path = "/{id}/data/**", method = RequestMethod.PUT, params = "!uploadId")
+    @ResponseBody
+    public ResponseEntity streamContent(@Parameter(description = "The resource identifier.", required = true) @PathVariable(value = "id") final String id,
+            @Parameter(description = "Flag to indicate, that existing content at the same location should be overwritten.", required = false) @RequestParam(name = "force", defaultValue = "false") final boolean force,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder);
+
+    @Operation(operationId = "streamContentPid",
+            summary = "Upload content to a resource by streaming the request body.",
+            description = "This endpoint allows to upload data to the resource with the given pid by sending the raw data as request body. "
+            + "See 'streamContent' for details.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(path = "/{prefix}/{suffix}/data/**", method = RequestMethod.PUT, params = "!uploadId")
+    @ResponseBody
+    public ResponseEntity streamContentPid(@Parameter(description = "The pid prefix.", required = true) @PathVariable(value = "prefix") final String prefix,
+            @Parameter(description = "The pid suffix.", required = true) @PathVariable(value = "suffix") final String suffix,
+            @Parameter(description = "Flag to indicate, that existing content at the same location should be overwritten.", required = false) @RequestParam(name = "force", defaultValue = "false") final boolean force,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder);
+
+    @Operation(operationId = "initiateUpload",
+            summary = "Start a resumable, chunked content upload.",
+            description = "This endpoint starts a resumable upload for the content at the provided relative path. The returned upload id has to be provided "
+            + "for uploading parts, for completing and for aborting the upload. Parts are uploaded via PUT with query parameters 'uploadId' and 'partNumber' "
+            + "and can be uploaded in parallel and in arbitrary order. A part can be uploaded again, e.g., after a connection loss, replacing the previous part. "
+            + "After all parts have been uploaded, the upload is completed via POST with query parameter 'uploadId', which assembles all parts in ascending order "
+            + "into a single content element. Uploads not updated within the configured expiration time are removed automatically.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(path = "/{id}/data/**", method = RequestMethod.POST, params = "uploads", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<UploadSession> initiateUpload(@Parameter(description = "The resource identifier.", required = true) @PathVariable(value = "id") final String id,
+            @Parameter(description = "Flag to indicate, that existing content at the same location should be overwritten.", required = false) @RequestParam(name = "force", defaultValue = "false") final boolean force,
+            @Parameter(description = "The content type of the assembled content.", required = false) @RequestParam(name = "contentType", required = false) final String contentType,
+            final WebRequest request,
+            final HttpServletResponse response);
+
+    @Operation(operationId = "uploadPart",
+            summary = "Upload a single part of a chunked upload.",
+            description = "This endpoint stores the request body as part with the provided number, starting at 1. The SHA-256 checksum of the part is "
+            + "returned as ETag and within the response body. Optionally, a 'Content-Digest' header (RFC 9530) can be provided for verifying the part.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(path = "/{id}/data/**", method = RequestMethod.PUT, params = {"uploadId", "partNumber"}, produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<UploadPart> uploadPart(@Parameter(description = "The resource identifier.", required = true) @PathVariable(value = "id") final String id,
+            @Parameter(description = "The upload id.", required = true) @RequestParam(name = "uploadId") final String uploadId,
+            @Parameter(description = "The part number starting at 1.", required = true) @RequestParam(name = "partNumber") final int partNumber,
+            final WebRequest request,
+            final HttpServletResponse response);
+
+    @Operation(operationId = "listUploadParts",
+            summary = "Get the state of a chunked upload.",
+            description = "This endpoint returns the upload session including all parts uploaded so far. It can be used to determine which parts "
+            + "have to be uploaded again in order to resume an interrupted upload.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(path = "/{id}/data/**", method = RequestMethod.GET, params = "uploadId", produces = "application/json")
+    @ResponseBody
+    public ResponseEntity<UploadSession> listUploadParts(@Parameter(description = "The resource identifier.", required = true) @PathVariable(value = "id") final String id,
+            @Parameter(description = "The upload id.", required = true) @RequestParam(name = "uploadId") final String uploadId,
+            final WebRequest request,
+            final HttpServletResponse response);
+
+    @Operation(operationId = "completeUpload",
+            summary = "Complete a chunked upload.",
+            description = "This endpoint assembles all uploaded parts in ascending order and registers them as single content element at the relative path of the upload. "
+            + "Parts must be numbered consecutively starting at 1. Optionally, the list of expected parts including their checksums can be provided in the request body. "
+            + "In that case, the upload is only completed if the staged parts match the provided list.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(path = "/{id}/data/**", method = RequestMethod.POST, params = "uploadId")
+    @ResponseBody
+    public ResponseEntity completeUpload(@Parameter(description = "The resource identifier.", required = true) @PathVariable(value = "id") final String id,
+            @Parameter(description = "The upload id.", required = true) @RequestParam(name = "uploadId") final String uploadId,
+            @Parameter(description = "The list of expected parts.", required = false) @RequestBody(required = false) final List<UploadPart> parts,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder);
+
+    @Operation(operationId = "abortUpload",
+            summary = "Abort a chunked upload.",
+            description = "This endpoint aborts a chunked upload and removes all parts uploaded so far.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(path = "/{id}/data/**", method = RequestMethod.DELETE, params = "uploadId")
+    @ResponseBody
+    public ResponseEntity abortUpload(@Parameter(description = "The resource identifier.", required = true) @PathVariable(value = "id") final String id,
+            @Parameter(description = "The upload id.", required = true) @RequestParam(name = "uploadId") final String uploadId,
+            final WebRequest request,
+            final HttpServletResponse response);
+
+    @Operation(operationId = "getContentMetadataByCursor",
+            summary = "List content metadata using cursor-based pagination.",
+            description = "List the content metadata of all elements below the provided virtual folder ordered by their internal identifier. "
+            + "The first page is obtained by providing an empty `cursor` parameter. If there are further results, the URL of the next page "
+            + "is returned in the `Link` header with relation 'next'. The total number of results is only determined and returned "
+            + "in the `Content-Range` header if `count` is true.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(path = "/{id}/data/**", method = RequestMethod.GET, params = "cursor", produces = "application/vnd.datamanager.content-information+json")
+    @ResponseBody
+    public ResponseEntity<List<ContentInformation>> getContentMetadataByCursor(
+            @Parameter(description = "The resource identifier.", required = true) @PathVariable(value = "id") final String id,
+            @Parameter(description = "The opaque cursor returned by the previous page or an empty value for the first page.", required = true) @RequestParam(name = "cursor") final String cursor,
+            @Parameter(description = "A single tag assigned to certain content elements.", required = false) @RequestParam(name = "tag", required = false) final String tag,
+            @Parameter(description = "The page size.", required = false) @RequestParam(name = "size", defaultValue = "20") final int size,
+            @Parameter(description = "Flag to indicate, that the total number of results should be returned.", required = false) @RequestParam(name = "count", defaultValue = "false") final boolean count,
+            final WebRequest request,
+            final HttpServletResponse response);
+
     @Operation(operationId = "getContentMetadata",
             summary = "Access content or content metadata.",
             description = "Obtain content metadata or download content, depending on the provided `Accept` header."
@@ -231,7 +435,8 @@ public interface IDataResourceController extends IGenericResourceController<Data
             + "<br/>"
             + "If configured, this endpoint also supports versioning for both, data and metadata. This only applied while accessing single elements. "
             + "By default, the most recent version of a content or content metadata element are returned. To obtain a previous version, the `version` query "
-            + "parameter can be provided. Versions are numbered sequentially starting at 1 and are returned in the `Resource-Version` header field.", security = {
+            + "parameter can be provided. Versions are numbered sequentially starting at 1 and are returned in the `Resource-Version` header field. "
+            + "For single elements, HTTP NOT_MODIFIED is returned if the `If-None-Match` header matches the current ETag.", security = {
                 @SecurityRequirement(name = "bearer-jwt")})
     @RequestMapping(path = "/{id}/data/**", method = RequestMethod.GET, produces = "application/vnd.datamanager.content-information+json")
     @ResponseBody
@@ -346,7 +551,9 @@ public interface IDataResourceController extends IGenericResourceController<Data
             + "HTTP 404 is returned. If the content referes to an externally stored resource accessible via http(s), the service will try if the resource is accessible. If this is the case, the service will return HTTP 303 (SEE_OTHER) together "
             + "with the resource URI in the 'Location' header. Depending on the client, the request is then redirected and the bitstream is returned. If the resource is not accessible or if the protocol is not http(s), the service "
             + "will either return the status received by accessing the resource URI, SERVICE_UNAVAILABLE if the request has failed or NO_CONTENT if not other status applies. In addition, the resource URI is returned in the 'Content-Location' header "
-            + "in case the client wants to try to access the resource URI.", security = {
+            + "in case the client wants to try to access the resource URI. For locally stored files, HTTP range requests are supported, i.e., "
+            + "single or multiple byte ranges can be requested via the 'Range' header, optionally in combination with an 'If-Range' header. In that case, "
+            + "HTTP 206 (PARTIAL_CONTENT) or, if none of the requested ranges can be satisfied, HTTP 416 (RANGE_NOT_SATISFIABLE) is returned.", security = {
                 @SecurityRequirement(name = "bearer-jwt")})
     @RequestMapping(path = "/{id}/data/**", method = RequestMethod.GET)
     @ResponseBody
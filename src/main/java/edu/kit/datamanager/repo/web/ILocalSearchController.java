@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.web;
+
+import edu.kit.datamanager.repo.domain.DataResource;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
+import org.springdoc.core.converters.models.PageableAsQueryParam;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Local search controller interface definition.
+ *
+ * @author jejkal
+ */
+public interface ILocalSearchController {
+
+    @Operation(operationId = "searchLocal",
+            summary = "Search for resources using the local search index.",
+            description = "Full-text search over titles, descriptions, subjects and relative content paths of all resources the caller has access to. "
+            + "The query is provided in Lucene query syntax, fields can be addressed via 'title', 'description', 'subject' and 'path', "
+            + "e.g., 'title:climate AND path:*.nc'. If no query is provided, all accessible resources are returned. The total number of hits "
+            + "is returned in the 'Content-Range' header.", security = {
+                @SecurityRequirement(name = "bearer-jwt")})
+    @RequestMapping(value = "/local", method = RequestMethod.GET, produces = "application/json")
+    @ResponseBody
+    @PageableAsQueryParam
+    public ResponseEntity<List<DataResource>> search(@Parameter(description = "The query in Lucene query syntax.", required = false) @RequestParam(name = "query", required = false) final String query,
+            @Parameter(hidden = true) final Pageable pgbl,
+            final WebRequest request,
+            final HttpServletResponse response);
+}
@@ -15,12 +15,16 @@
  */
 package edu.kit.datamanager.repo.web.converter;
 
-import edu.kit.datamanager.repo.domain.DataResource;
-import com.nimbusds.jose.util.JSONObjectUtils;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import edu.kit.datamanager.entities.Identifier;
 import edu.kit.datamanager.entities.PERMISSION;
 import edu.kit.datamanager.repo.domain.Agent;
 import edu.kit.datamanager.repo.domain.Contributor;
+import edu.kit.datamanager.repo.domain.DataResource;
 import edu.kit.datamanager.repo.domain.Date;
 import edu.kit.datamanager.repo.domain.Description;
 import edu.kit.datamanager.repo.domain.RelatedIdentifier;
@@ -30,18 +34,18 @@ import edu.kit.datamanager.repo.domain.Subject;
 import edu.kit.datamanager.repo.domain.Title;
 import edu.kit.datamanager.repo.domain.acl.AclEntry;
 import edu.kit.datamanager.util.AuthenticationHelper;
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.DateTimeException;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAccessor;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpInputMessage;
@@ -60,7 +64,19 @@ import org.springframework.stereotype.Component;
 @Component
 public class DataCiteMessageConverter implements HttpMessageConverter {
 
-    private Logger LOGGER = LoggerFactory.getLogger(DataCiteMessageConverter.class);
+    private final static Logger LOGGER = LoggerFactory.getLogger(DataCiteMessageConverter.class);
+
+    private static final ObjectReader READER = new ObjectMapper().
+            disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).
+            readerFor(DataCiteRecord.class);
+
+    private static final EnumLookup<ResourceType.TYPE_GENERAL> RESOURCE_TYPES = EnumLookup.of(ResourceType.TYPE_GENERAL.class, ResourceType.TYPE_GENERAL::getValue);
+    private static final EnumLookup<Title.TYPE> TITLE_TYPES = EnumLookup.of(Title.TYPE.class, Title.TYPE::getValue);
+    private static final EnumLookup<Identifier.IDENTIFIER_TYPE> IDENTIFIER_TYPES = EnumLookup.of(Identifier.IDENTIFIER_TYPE.class, Identifier.IDENTIFIER_TYPE::getValue);
+    private static final EnumLookup<RelatedIdentifier.RELATION_TYPES> RELATION_TYPES = EnumLookup.of(RelatedIdentifier.RELATION_TYPES.class, RelatedIdentifier.RELATION_TYPES::getValue);
+    private static final EnumLookup<Description.TYPE> DESCRIPTION_TYPES = EnumLookup.of(Description.TYPE.class, Description.TYPE::getValue);
+    private static final EnumLookup<Date.DATE_TYPE> DATE_TYPES = EnumLookup.of(Date.DATE_TYPE.class, Date.DATE_TYPE::getValue);
+    private static final EnumLookup<Contributor.TYPE> CONTRIBUTOR_TYPES = EnumLookup.of(Contributor.TYPE.class, Contributor.TYPE::getValue);
 
     @Override
     public boolean canRead(Class arg0, MediaType arg1) {
@@ -85,13 +101,10 @@ public class DataCiteMessageConverter implements HttpMessageConverter {
     @Override
     public Object read(Class arg0, HttpInputMessage arg1) throws IOException, HttpMessageNotReadableException {
         LOGGER.trace("Reading HttpInputMessage for transformation.");
-        try (InputStreamReader reader = new InputStreamReader(arg1.getBody(), "UTF-8")) {
-            String data = new BufferedReader(reader).lines().collect(Collectors.joining("\n"));
-            try {
-                return parseDatacite(data);
-            } catch (Exception e) {
-                throw new HttpMessageNotReadableException("Unable to parse DataCite input.");
-            }
+        try (InputStream in = arg1.getBody()) {
+            return parseDatacite(in);
+        } catch (JsonProcessingException | RuntimeException e) {
+            throw new HttpMessageNotReadableException("Unable to parse DataCite input.", e, arg1);
         }
     }
 
@@ -100,181 +113,234 @@ public class DataCiteMessageConverter implements HttpMessageConverter {
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
-    private DataResource parseDatacite(String input) throws Exception {
-        Map<String, Object> result = JSONObjectUtils.parse(input);
-        //String doi = (String) result.get("doi");//doi=10.5445/IR/1000081328 
-        DataResource res = DataResource.factoryDataResourceWithDoi((String) result.get("doi"));
-        //String id = (String) result.get("id");//id=https://doi.org/10.5445/ir/1000081328
-        //res.setIdentifier(PrimaryIdentifier.factoryPrimaryIdentifier((String) result.get("id")));
-        //String url = (String) result.get("url");//url=https://publikationen.bibliothek.kit.edu/1000081328
-        res.getAlternateIdentifiers().add(Identifier.factoryIdentifier((String) result.get("url"), Identifier.IDENTIFIER_TYPE.URL));
-        //String publisher = (String) result.get("publisher");//publisher=Karlsruhe
-        res.setPublisher((String) result.get("publisher"));
-        //Long publicationYear = (Long) result.get("publicationYear");//publicationYear=2008
-        res.setPublicationYear(Long.toString((Long) result.get("publicationYear")));
-        //String language = (String) result.get("language");//language=de
-        res.setLanguage((String) result.get("language"));
-        //String version = (String) result.get("version");//version=1.0
-        res.setVersion((String) result.get("version"));
-        ArrayList<String> sizes = (ArrayList<String>) result.get("sizes");//sizes=[Online-Ressource (163 S., 2,09 MB)]
-        sizes.forEach(size -> {
-            res.getSizes().add(size);
-        });
-
-        ArrayList<String> formats = (ArrayList<String>) result.get("formats");//formats=[application/pdf]
-        formats.forEach(format -> {
-            res.getFormats().add(format);
-        });
-
-        Map<String, Object> types = (Map<String, Object>) result.get("types");//types={ris=RPRT, bibtex=article, citeproc=article-journal, schemaOrg=ScholarlyArticle, resourceType=Miscellaneous, resourceTypeGeneral=Text}
-        String resourceType = (String) types.get("resourceType");
-        ResourceType.TYPE_GENERAL typeGeneral = ResourceType.TYPE_GENERAL.OTHER;
-        for (ResourceType.TYPE_GENERAL type : ResourceType.TYPE_GENERAL.values()) {
-            if (type.getValue().equals((String) types.get("resourceTypeGeneral"))) {
-                typeGeneral = type;
-                break;
-            }
+    /**
+     * Parse a DataCite record from the provided stream. The record is bound
+     * while being parsed, i.e., without reading the entire input first.
+     * Properties which are not mapped are skipped.
+     */
+    private DataResource parseDatacite(InputStream input) throws IOException {
+        DataCiteRecord result = READER.readValue(input);
+        //doi=10.5445/IR/1000081328 
+        DataResource res = DataResource.factoryDataResourceWithDoi(result.doi);
+        //url=https://publikationen.bibliothek.kit.edu/1000081328
+        res.getAlternateIdentifiers().add(Identifier.factoryIdentifier(result.url, Identifier.IDENTIFIER_TYPE.URL));
+        //publisher=Karlsruhe
+        res.setPublisher(result.publisher);
+        //publicationYear=2008
+        res.setPublicationYear(result.publicationYear);
+        //language=de
+        res.setLanguage(result.language);
+        //version=1.0
+        res.setVersion(result.version);
+        //sizes=[Online-Ressource (163 S., 2,09 MB)]
+        res.getSizes().addAll(list(result.sizes));
+        //formats=[application/pdf]
+        res.getFormats().addAll(list(result.formats));
+
+        //types={ris=RPRT, bibtex=article, citeproc=article-journal, schemaOrg=ScholarlyArticle, resourceType=Miscellaneous, resourceTypeGeneral=Text}
+        Types types = (result.types != null) ? result.types : new Types();
+        res.setResourceType(ResourceType.createResourceType(types.resourceType, RESOURCE_TYPES.get(types.resourceTypeGeneral, ResourceType.TYPE_GENERAL.OTHER)));
+
+        //creators=[{name=Karlsruhe, nameType=Organizational, affiliation=[], nameIdentifiers=[{schemeUri=https://d-nb.info/gnd/, nameIdentifier=4029713-5, nameIdentifierScheme=GND}]}]
+        for (Creator creator : list(result.creators)) {
+            res.getCreators().add(creator.toAgent());
         }
-        res.setResourceType(ResourceType.createResourceType(resourceType, typeGeneral));
-
-        ArrayList<Map<String, Object>> creators = (ArrayList<Map<String, Object>>) result.get("creators");//creators=[{name=Karlsruhe, nameType=Organizational, affiliation=[], nameIdentifiers=[{schemeUri=https://d-nb.info/gnd/, nameIdentifier=4029713-5, nameIdentifierScheme=GND}]}]
-        creators.forEach(creator -> {
-            ArrayList<String> affiliationNames = new ArrayList<String>();
-            ArrayList<Map<String, Object>> affiliation = (ArrayList<Map<String, Object>>) creator.get("affiliation");
-            affiliation.forEach(a -> {
-                affiliationNames.add((String) a.get("name"));
-            });
-            res.getCreators().add(Agent.factoryAgent((creator.get("givenName") == null) ? (String) creator.get("name") : (String) creator.get("givenName"), (String) creator.get("familyName"), affiliationNames.toArray(new String[]{})));
-        });
-
-        ArrayList<Map<String, Object>> titles = (ArrayList<Map<String, Object>>) result.get("titles");//titles=[{title=Entwicklung, Erprobung und Demonstration neuer Logistikkonzepte f?r Biobrennstoffe (BIOLOG), Teilvorhaben: Konditionierung gr?ner Biomasse durch elektroporationsunterst?tzte Entw?sserung : Abschlussbericht ; Berichtszeitraum: 01.08.2006 - 31.07.2008}, {title=BIOLOG, titleType=AlternativeTitle}]
-        titles.forEach(title -> {
-            String lang = (String) title.get("lang");
-            String value = (String) title.get("title");
-            Title.TYPE type = Title.TYPE.OTHER;
-            for (Title.TYPE t : Title.TYPE.values()) {
-                if (t.getValue().equals((String) title.get("titleType"))) {
-                    type = t;
-                    break;
-                }
-            }
-            Title titleValue = Title.factoryTitle(value, type);
-            titleValue.setLang(lang);
+
+        //titles=[{title=BIOLOG, titleType=AlternativeTitle}]
+        for (TitleElement title : list(result.titles)) {
+            Title titleValue = Title.factoryTitle(title.title, TITLE_TYPES.get(title.titleType, Title.TYPE.OTHER));
+            titleValue.setLang(title.lang);
             res.getTitles().add(titleValue);
-        });
-
-        ArrayList<Map<String, Object>> identifiers = (ArrayList<Map<String, Object>>) result.get("identifiers");//identifiers=[{identifier=GBV:621034096, identifierType=firstid}, {identifier=TIBKAT:621034096, identifierType=ftx-id}, {identifier=621034096, identifierType=ppn}, {identifier=03KS0089, identifierType=contract}]
-        identifiers.forEach(identifier -> {
-            Identifier.IDENTIFIER_TYPE type = Identifier.IDENTIFIER_TYPE.OTHER;
-            for (Identifier.IDENTIFIER_TYPE t : Identifier.IDENTIFIER_TYPE.values()) {
-                if (t.getValue().equals((String) identifier.get("identifierType"))) {
-                    type = t;
-                    break;
-                }
-            }
-            res.getAlternateIdentifiers().add(Identifier.factoryIdentifier((String) identifier.get("identifier"), type));
-        });
-
-        ArrayList<Map<String, Object>> relatedIdentifiers = (ArrayList<Map<String, Object>>) result.get("relatedIdentifiers");//relatedIdentifiers=[{relationType=IsSupplementTo, relatedIdentifier=https://github.com/Chilipp/de-messaging-python-presentation-20210122/tree/v1.0, relatedIdentifierType=URL}, {relationType=IsVersionOf, relatedIdentifier=10.5281/zenodo.4456786, relatedIdentifierType=DOI}]
-        relatedIdentifiers.forEach(identifier -> {
-            RelatedIdentifier.RELATION_TYPES relationType = null;
-            for (RelatedIdentifier.RELATION_TYPES t : RelatedIdentifier.RELATION_TYPES.values()) {
-                if (t.getValue().equals((String) identifier.get("relationType"))) {
-                    relationType = t;
-                    break;
-                }
-            }
+        }
 
-            Identifier.IDENTIFIER_TYPE identifierType = Identifier.IDENTIFIER_TYPE.OTHER;
-            for (Identifier.IDENTIFIER_TYPE t : Identifier.IDENTIFIER_TYPE.values()) {
-                if (t.getValue().equals((String) identifier.get("identifierType"))) {
-                    identifierType = t;
-                    break;
-                }
-            }
-            RelatedIdentifier relId = RelatedIdentifier.factoryRelatedIdentifier(relationType, (String) identifier.get("relatedIdentifier"), null, null);
-            relId.setIdentifierType(identifierType);
+        //identifiers=[{identifier=GBV:621034096, identifierType=firstid}, {identifier=03KS0089, identifierType=contract}]
+        for (IdentifierElement identifier : list(result.identifiers)) {
+            res.getAlternateIdentifiers().add(Identifier.factoryIdentifier(identifier.identifier, IDENTIFIER_TYPES.get(identifier.identifierType, Identifier.IDENTIFIER_TYPE.OTHER)));
+        }
+
+        //relatedIdentifiers=[{relationType=IsVersionOf, relatedIdentifier=10.5281/zenodo.4456786, relatedIdentifierType=DOI}]
+        for (RelatedIdentifierElement identifier : list(result.relatedIdentifiers)) {
+            RelatedIdentifier relId = RelatedIdentifier.factoryRelatedIdentifier(RELATION_TYPES.get(identifier.relationType, null), identifier.relatedIdentifier, null, null);
+            relId.setIdentifierType(IDENTIFIER_TYPES.get(identifier.relatedIdentifierType, Identifier.IDENTIFIER_TYPE.OTHER));
             res.getRelatedIdentifiers().add(relId);
-        });
-
-        ArrayList<Map<String, Object>> descriptions = (ArrayList<Map<String, Object>>) result.get("descriptions");//descriptions=[{descriptionType=Abstract}, {description=graph. Darst., descriptionType=Other}]
-        descriptions.forEach(description -> {
-            Description.TYPE type = Description.TYPE.OTHER;
-            for (Description.TYPE t : Description.TYPE.values()) {
-                if (t.getValue().equals((String) description.get("descriptionType"))) {
-                    type = t;
-                    break;
-                }
-            }
-            res.getDescriptions().add(Description.factoryDescription((String) description.get("descriptionType"), type, (String) description.get("lang")));
-        });
-
-        ArrayList<Map<String, Object>> dates = (ArrayList<Map<String, Object>>) result.get("dates");//dates=[{date=2008, dateType=Issued}]
-        dates.forEach(date -> {
-            Date.DATE_TYPE type = null;
-            for (Date.DATE_TYPE t : Date.DATE_TYPE.values()) {
-                if (t.getValue().equals((String) date.get("dateType"))) {
-                    type = t;
-                    break;
-                }
-            }
+        }
 
-            String[] patterns = new String[]{"yyyy-MM-dd", "yyyy"};
+        //descriptions=[{descriptionType=Abstract}, {description=graph. Darst., descriptionType=Other}]
+        for (DescriptionElement description : list(result.descriptions)) {
+            res.getDescriptions().add(Description.factoryDescription(description.description, DESCRIPTION_TYPES.get(description.descriptionType, Description.TYPE.OTHER), description.lang));
+        }
 
-            for (String p : patterns) {
-                try {
-                    TemporalAccessor a = DateTimeFormatter.ofPattern(p).parse((String) date.get("date"));
-                    res.getDates().add(Date.factoryDate(Instant.from(a), type));
-                    break;
-                } catch (DateTimeException ex) {
-                    //next attempt
-                }
-            }
-        });
-
-        ArrayList<Map<String, Object>> rights = (ArrayList<Map<String, Object>>) result.get("rightsList");//[{rights=KITopen License, rightsUri=https://publikationen.bibliothek.kit.edu/kitopen-lizenz}]
-        rights.forEach(right -> {
-            /*
-            {
-             "rights": "Creative Commons Attribution 4.0 International",
-             "rightsUri": "https://creativecommons.org/licenses/by/4.0/legalcode",
-             "schemeUri": "https://spdx.org/licenses/",
-             "rightsIdentifier": "cc-by-4.0",
-             "rightsIdentifierScheme": "SPDX"
+        //dates=[{date=2008, dateType=Issued}]
+        for (DateElement date : list(result.dates)) {
+            Date.DATE_TYPE type = DATE_TYPES.get(date.dateType, null);
+            Instant instant = parseDate(date.date);
+            if (type != null && instant != null) {
+                res.getDates().add(Date.factoryDate(instant, type));
             }
-             */
-            res.getRights().add(Scheme.factoryScheme((String) right.get("rights"), (String) right.get("rightsUri")));
-        });
-
-        ArrayList<Map<String, Object>> subjects = (ArrayList<Map<String, Object>>) result.get("subjects"); //subjects=[{subject=Energieeinsparung, subjectScheme=gnd, classificationCode=4014700-9}, {subject=Klima?nderung, subjectScheme=gnd, classificationCode=4164199-1}, {subject=Globale Umweltprobleme, subjectScheme=bk, classificationCode=(id=106416790)43.47}, {subjectScheme=linsearch(mapping), classificationCode=rest}]
-        subjects.forEach(subject -> {
-            Scheme subjectScheme = Scheme.factoryScheme((String) subject.get("subjectScheme"), (String) subject.get("classificatiocCode"));
-            res.getSubjects().add(Subject.factorySubject((String) subject.get("subject"), null, (String) subject.get("lang"), subjectScheme));
-        });
-
-        ArrayList<Map<String, Object>> contributors = (ArrayList<Map<String, Object>>) result.get("contributors");//contributors=[{name=TIB-Technische Informationsbibliothek Universit?tsbibliothek Hannover, nameType=Organizational, affiliation=[], contributorType=HostingInstitution, nameIdentifiers=[]}, {name=Technische Informationsbibliothek (TIB), affiliation=[], contributorType=DataManager, nameIdentifiers=[]}, {name=Sack, Martin, nameType=Personal, givenName=Martin, familyName=Sack, affiliation=[], contributorType=Other, nameIdentifiers=[]}]
-        contributors.forEach(contributor -> {
-            ArrayList<String> affiliationNames = new ArrayList<String>();
-            ArrayList<Map<String, Object>> affiliation = (ArrayList<Map<String, Object>>) contributor.get("affiliation");
-            affiliation.forEach(a -> {
-                affiliationNames.add((String) a.get("name"));
-            });
-            Agent agent = Agent.factoryAgent((contributor.get("givenName") == null) ? (String) contributor.get("name") : (String) contributor.get("givenName"), (String) contributor.get("familyName"), affiliationNames.toArray(new String[]{}));
-            Contributor.TYPE type = Contributor.TYPE.OTHER;
-            for (Contributor.TYPE t : Contributor.TYPE.values()) {
-                if (t.getValue().equals((String) contributor.get("contributorType"))) {
-                    type = t;
-                    break;
-                }
-            }
-            res.getContributors().add(Contributor.factoryContributor(agent, type));
-        });
-        
+        }
+
+        //rightsList=[{rights=KITopen License, rightsUri=https://publikationen.bibliothek.kit.edu/kitopen-lizenz}]
+        for (Rights right : list(result.rightsList)) {
+            res.getRights().add(Scheme.factoryScheme(right.rights, right.rightsUri));
+        }
+
+        //subjects=[{subject=Energieeinsparung, subjectScheme=gnd, classificationCode=4014700-9}, {subjectScheme=linsearch(mapping), classificationCode=rest}]
+        for (SubjectElement subject : list(result.subjects)) {
+            Scheme subjectScheme = Scheme.factoryScheme(subject.subjectScheme, subject.classificationCode);
+            res.getSubjects().add(Subject.factorySubject(subject.subject, null, subject.lang, subjectScheme));
+        }
+
+        //contributors=[{name=Sack, Martin, nameType=Personal, givenName=Martin, familyName=Sack, affiliation=[], contributorType=Other, nameIdentifiers=[]}]
+        for (ContributorElement contributor : list(result.contributors)) {
+            res.getContributors().add(Contributor.factoryContributor(contributor.toAgent(), CONTRIBUTOR_TYPES.get(contributor.contributorType, Contributor.TYPE.OTHER)));
+        }
+
         res.getAcls().add(new AclEntry(AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL, PERMISSION.READ));
-        
+
         return res;
     }
 
+    /**
+     * Parse a date of the form 'yyyy-MM-dd' or 'yyyy' as start of the day in
+     * UTC.
+     *
+     * @return The instant or null if the date cannot be parsed.
+     */
+    private static Instant parseDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            if (date.length() == 4) {
+                return Year.parse(date).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            }
+            return LocalDate.parse(date, DateTimeFormatter.ISO_LOCAL_DATE).atStartOfDay(ZoneOffset.UTC).toInstant();
+        } catch (DateTimeException ex) {
+            LOGGER.trace("Ignoring unsupported date {}.", date);
+            return null;
+        }
+    }
+
+    private static <T> List<T> list(List<T> values) {
+        return (values != null) ? values : List.of();
+    }
+
+    /**
+     * Mapped properties of a DataCite record. Properties not declared here are
+     * skipped while parsing.
+     */
+    private static class DataCiteRecord {
+
+        public String doi;
+        public String url;
+        public String publisher;
+        //number or string
+        public String publicationYear;
+        public String language;
+        public String version;
+        public List<String> sizes;
+        public List<String> formats;
+        public Types types;
+        public List<Creator> creators;
+        public List<TitleElement> titles;
+        public List<IdentifierElement> identifiers;
+        public List<RelatedIdentifierElement> relatedIdentifiers;
+        public List<DescriptionElement> descriptions;
+        public List<DateElement> dates;
+        public List<Rights> rightsList;
+        public List<SubjectElement> subjects;
+        public List<ContributorElement> contributors;
+    }
+
+    private static class Types {
+
+        public String resourceType;
+        public String resourceTypeGeneral;
+    }
+
+    private static class Creator {
+
+        public String name;
+        public String givenName;
+        public String familyName;
+        public List<Affiliation> affiliation;
+
+        Agent toAgent() {
+            String[] affiliationNames = list(affiliation).stream().map(a -> a.name).toArray(String[]::new);
+            return Agent.factoryAgent((givenName == null) ? name : givenName, familyName, affiliationNames);
+        }
+    }
+
+    private static class ContributorElement extends Creator {
+
+        public String contributorType;
+    }
+
+    private static class Affiliation {
+
+        public String name;
+
+        /**
+         * Affiliations may also be provided as plain names.
+         */
+        @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+        static Affiliation of(String name) {
+            Affiliation affiliation = new Affiliation();
+            affiliation.name = name;
+            return affiliation;
+        }
+
+        Affiliation() {
+        }
+    }
+
+    private static class TitleElement {
+
+        public String title;
+        public String titleType;
+        public String lang;
+    }
+
+    private static class IdentifierElement {
+
+        public String identifier;
+        public String identifierType;
+    }
+
+    private static class RelatedIdentifierElement {
+
+        public String relatedIdentifier;
+        public String relatedIdentifierType;
+        public String relationType;
+    }
+
+    private static class DescriptionElement {
+
+        public String description;
+        public String descriptionType;
+        public String lang;
+    }
+
+    private static class DateElement {
+
+        public String date;
+        public String dateType;
+    }
+
+    private static class Rights {
+
+        public String rights;
+        public String rightsUri;
+    }
+
+    private static class SubjectElement {
+
+        public String subject;
+        public String subjectScheme;
+        public String classificationCode;
+        public String lang;
+    }
+
     public static void main(String[] args) throws Exception {
         String input = ("{\n"
                 + "  \"id\": \"https://doi.org/10.5281/zenodo.4456786\",\n"
@@ -513,8 +579,6 @@ public class DataCiteMessageConverter implements HttpMessageConverter {
 
         //collection of funny dois
         //https://doi.org/10.25991/vrhga.2019.20.3.001 (russian)
-        String text = org.apache.commons.codec.binary.StringUtils.newStringUtf8(input.getBytes());
-
-        new DataCiteMessageConverter().parseDatacite(text);
+        System.out.println(new DataCiteMessageConverter().parseDatacite(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))));
     }
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.web.converter;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Lookup of enum constants by their external value, e.g., 'IsSupplementTo'
+ * for RelatedIdentifier.RELATION_TYPES.IS_SUPPLEMENT_TO, built once per enum
+ * instead of scanning all constants per lookup. Values are matched ignoring
+ * their case, as DataCite and Zenodo use different spellings.
+ *
+ * @author jejkal
+ */
+final class EnumLookup<E extends Enum<E>> {
+
+    private final Map<String, E> constants = new HashMap<>();
+
+    private EnumLookup(Class<E> type, Function<E, String> valueFunction) {
+        for (E constant : type.getEnumConstants()) {
+            String value = valueFunction.apply(constant);
+            if (value != null) {
+                constants.putIfAbsent(value.toLowerCase(Locale.ROOT), constant);
+            }
+        }
+    }
+
+    /**
+     * Create a lookup for all constants of the provided enum.
+     *
+     * @param type The enum type.
+     * @param valueFunction Function returning the external value of a
+     * constant.
+     *
+     * @return The lookup.
+     */
+    static <E extends Enum<E>> EnumLookup<E> of(Class<E> type, Function<E, String> valueFunction) {
+        return new EnumLookup<>(type, valueFunction);
+    }
+
+    /**
+     * Get the constant with the provided external value.
+     *
+     * @param value The external value, which may be null.
+     * @param defaultValue The value returned if no constant matches.
+     *
+     * @return The matching constant or the default value.
+     */
+    E get(String value, E defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        return constants.getOrDefault(value.toLowerCase(Locale.ROOT), defaultValue);
+    }
+}
@@ -4,8 +4,11 @@
  */
 package edu.kit.datamanager.repo.web.converter;
 
-import com.nimbusds.jose.shaded.gson.internal.LinkedTreeMap;
-import com.nimbusds.jose.util.JSONObjectUtils;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import edu.kit.datamanager.entities.Identifier;
 import edu.kit.datamanager.entities.PERMISSION;
 import edu.kit.datamanager.repo.domain.Agent;
@@ -19,19 +22,13 @@ import edu.kit.datamanager.repo.domain.Subject;
 import edu.kit.datamanager.repo.domain.Title;
 import edu.kit.datamanager.repo.domain.acl.AclEntry;
 import edu.kit.datamanager.util.AuthenticationHelper;
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.temporal.ChronoField;
-import java.time.temporal.TemporalField;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpInputMessage;
@@ -49,7 +46,18 @@ import org.springframework.stereotype.Component;
 @Component
 public class ZenodoMessageConverter implements HttpMessageConverter {
 
-    private Logger LOGGER = LoggerFactory.getLogger(ZenodoMessageConverter.class);
+    private final static Logger LOGGER = LoggerFactory.getLogger(ZenodoMessageConverter.class);
+
+    private static final Pattern NAME_SEPARATOR = Pattern.compile("[\\s,]+");
+
+    private static final ObjectReader READER = new ObjectMapper().
+            disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).
+            readerFor(ZenodoRecord.class);
+
+    private static final EnumLookup<ResourceType.TYPE_GENERAL> RESOURCE_TYPES = EnumLookup.of(ResourceType.TYPE_GENERAL.class, ResourceType.TYPE_GENERAL::getValue);
+    private static final EnumLookup<Identifier.IDENTIFIER_TYPE> IDENTIFIER_TYPES = EnumLookup.of(Identifier.IDENTIFIER_TYPE.class, Identifier.IDENTIFIER_TYPE::getValue);
+    private static final EnumLookup<RelatedIdentifier.RELATION_TYPES> RELATION_TYPES = EnumLookup.of(RelatedIdentifier.RELATION_TYPES.class, RelatedIdentifier.RELATION_TYPES::getValue);
+    private static final EnumLookup<Contributor.TYPE> CONTRIBUTOR_TYPES = EnumLookup.of(Contributor.TYPE.class, Contributor.TYPE::getValue);
 
     @Override
     public boolean canRead(Class arg0, MediaType arg1) {
@@ -74,13 +82,10 @@ public class ZenodoMessageConverter implements HttpMessageConverter {
     @Override
     public Object read(Class arg0, HttpInputMessage arg1) throws IOException, HttpMessageNotReadableException {
         LOGGER.trace("Reading HttpInputMessage for transformation.");
-        try (InputStreamReader reader = new InputStreamReader(arg1.getBody(), "UTF-8")) {
-            String data = new BufferedReader(reader).lines().collect(Collectors.joining("\n"));
-            try {
-                return parseZenodo(data);
-            } catch (Exception e) {
-                throw new HttpMessageNotReadableException("Unable to parse Zenodo input.");
-            }
+        try (InputStream in = arg1.getBody()) {
+            return parseZenodo(in);
+        } catch (JsonProcessingException | RuntimeException e) {
+            throw new HttpMessageNotReadableException("Unable to parse Zenodo input.", e, arg1);
         }
     }
 
@@ -89,48 +94,37 @@ public class ZenodoMessageConverter implements HttpMessageConverter {
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
-    private DataResource parseZenodo(String input) throws Exception {
-        Map<String, Object> result = JSONObjectUtils.parse(input);
-        result = (Map<String, Object>) result.get("metadata");
-        //String doi = (String) result.get("doi");//doi=10.5281/zenodo.7651129 
-        DataResource res = DataResource.factoryDataResourceWithDoi((String) result.get("doi"));
-
-        res.getDescriptions().add(Description.factoryDescription((String) result.get("description"), Description.TYPE.ABSTRACT));
-
-        ArrayList<Map<String, Object>> contributors = (ArrayList<Map<String, Object>>) result.get("contributors");//contributors=[{name=TIB-Technische Informationsbibliothek Universit?tsbibliothek Hannover, nameType=Organizational, affiliation=[], contributorType=HostingInstitution, nameIdentifiers=[]}, {name=Technische Informationsbibliothek (TIB), affiliation=[], contributorType=DataManager, nameIdentifiers=[]}, {name=Sack, Martin, nameType=Personal, givenName=Martin, familyName=Sack, affiliation=[], contributorType=Other, nameIdentifiers=[]}]
-        if (contributors != null) {
-            contributors.forEach(contributor -> {
-                ArrayList<String> affiliationNames = new ArrayList<String>();
-                if (contributor.containsKey("affiliation")) {
-                    affiliationNames.add((String) contributor.get("affiliation"));
-                }
-
-                String name = (String) contributor.get("name");
-                String[] nameSplit = name.split("[\\s,]+");
-                Agent agent = Agent.factoryAgent(nameSplit[0], nameSplit[1], affiliationNames.toArray(new String[]{}));
-                Contributor.TYPE type = Contributor.TYPE.OTHER;
-                for (Contributor.TYPE t : Contributor.TYPE.values()) {
-                    if (t.getValue().equals((String) contributor.get("type"))) {
-                        type = t;
-                        break;
-                    }
-                }
-                res.getContributors().add(Contributor.factoryContributor(agent, type));
-            });
+    /**
+     * Parse a Zenodo record from the provided stream. The record is bound
+     * while being parsed, i.e., without reading the entire input first. Only
+     * the 'metadata' element is mapped, all other properties, e.g., 'files'
+     * or 'stats', are skipped.
+     */
+    private DataResource parseZenodo(InputStream input) throws IOException {
+        ZenodoRecord record = READER.readValue(input);
+        if (record.metadata == null) {
+            throw new IllegalArgumentException("Zenodo record contains no metadata.");
         }
-        res.getTitles().add(Title.factoryTitle((String) result.get("title")));
-        res.setLanguage((String) result.get("language"));
+        Metadata result = record.metadata;
+        //doi=10.5281/zenodo.7651129 
+        DataResource res = DataResource.factoryDataResourceWithDoi(result.doi);
 
-        res.setVersion((String) result.get("version"));
-        //todo: take only year, format is yyyy-mm-dd
-        String pubDate = (String) result.get("publication_date");
+        res.getDescriptions().add(Description.factoryDescription(result.description, Description.TYPE.ABSTRACT));
 
-        String pubYear = Integer.toString(LocalDate.now().getYear());
-        if (pubDate != null) {
-            if (pubDate.indexOf("-") > 0) {
-                pubYear = pubDate.substring(0, pubDate.indexOf("-"));
-            }
+        //contributors=[{name=Doe, John, affiliation=KIT, type=DataManager}]
+        for (Person contributor : list(result.contributors)) {
+            String[] nameSplit = splitName(contributor.name);
+            Agent agent = Agent.factoryAgent(nameSplit[0], nameSplit[1], contributor.getAffiliations());
+            res.getContributors().add(Contributor.factoryContributor(agent, CONTRIBUTOR_TYPES.get(contributor.type, Contributor.TYPE.OTHER)));
+        }
+        res.getTitles().add(Title.factoryTitle(result.title));
+        res.setLanguage(result.language);
 
+        res.setVersion(result.version);
+        //format is yyyy-mm-dd, take only year
+        String pubDate = result.publication_date;
+        if (pubDate != null) {
+            String pubYear = (pubDate.indexOf('-') > 0) ? pubDate.substring(0, pubDate.indexOf('-')) : pubDate;
             try {
                 Integer.parseInt(pubYear);
                 res.setPublicationYear(pubYear);
@@ -139,81 +133,135 @@ public class ZenodoMessageConverter implements HttpMessageConverter {
             }
         }
 
-        ArrayList<Map<String, Object>> creators = (ArrayList<Map<String, Object>>) result.get("creators");//creators=[{name=Karlsruhe, nameType=Organizational, affiliation=[], nameIdentifiers=[{schemeUri=https://d-nb.info/gnd/, nameIdentifier=4029713-5, nameIdentifierScheme=GND}]}]
-        if (creators != null) {
-            creators.forEach(creator -> {
-                ArrayList<String> affiliationNames = new ArrayList<String>();
-                if (creator.containsKey("affiliation")) {
-                    affiliationNames.add((String) creator.get("affiliation"));
-                }
-
-                String name = (String) creator.get("name");
-                String[] nameSplit = name.split("[\\s,]+");
-                Agent agent = Agent.factoryAgent(nameSplit[1].trim(), nameSplit[0].trim(), affiliationNames.toArray(new String[]{}));
-                res.getCreators().add(agent);
-            });
+        //creators=[{name=Limaye Dnyanesh, affiliation=Department of Epidemiology, Helmholtz Centre for Infection Research}]
+        for (Person creator : list(result.creators)) {
+            String[] nameSplit = splitName(creator.name);
+            res.getCreators().add(Agent.factoryAgent(nameSplit[1], nameSplit[0], creator.getAffiliations()));
         }
-        Map<String, Object> resourceType = (Map<String, Object>) result.get("resource_type");//types={ris=RPRT, bibtex=article, citeproc=article-journal, schemaOrg=ScholarlyArticle, resourceType=Miscellaneous, resourceTypeGeneral=Text}
-        if (resourceType != null) {
-            ResourceType.TYPE_GENERAL typeGeneral = ResourceType.TYPE_GENERAL.OTHER;
-            for (ResourceType.TYPE_GENERAL type : ResourceType.TYPE_GENERAL.values()) {
-                if (type.getValue().equals((String) resourceType.get("type"))) {
-                    typeGeneral = type;
-                    break;
-                }
-            }
-            res.setResourceType(ResourceType.createResourceType((String) resourceType.get("Title"), typeGeneral));
+
+        //resource_type={title=Dataset, type=dataset}
+        if (result.resource_type != null) {
+            res.setResourceType(ResourceType.createResourceType(result.resource_type.title, RESOURCE_TYPES.get(result.resource_type.type, ResourceType.TYPE_GENERAL.OTHER)));
         } else {
             res.setResourceType(ResourceType.createResourceType("unknown", ResourceType.TYPE_GENERAL.OTHER));
         }
 
-        ArrayList<Map<String, Object>> relatedIdentifiers = (ArrayList<Map<String, Object>>) result.get("related_identifiers");//relatedIdentifiers=[{relationType=IsSupplementTo, relatedIdentifier=https://github.com/Chilipp/de-messaging-python-presentation-20210122/tree/v1.0, relatedIdentifierType=URL}, {relationType=IsVersionOf, relatedIdentifier=10.5281/zenodo.4456786, relatedIdentifierType=DOI}]
-        if (relatedIdentifiers != null) {
-            relatedIdentifiers.forEach(identifier -> {
-                RelatedIdentifier.RELATION_TYPES relationType = null;
-                for (RelatedIdentifier.RELATION_TYPES t : RelatedIdentifier.RELATION_TYPES.values()) {
-                    if (t.getValue().equals((String) identifier.get("relation"))) {
-                        relationType = t;
-                        break;
-                    }
-                }
-
-                Identifier.IDENTIFIER_TYPE identifierType = Identifier.IDENTIFIER_TYPE.OTHER;
-                for (Identifier.IDENTIFIER_TYPE t : Identifier.IDENTIFIER_TYPE.values()) {
-                    if (t.getValue().equals((String) identifier.get("scheme"))) {
-                        identifierType = t;
-                        break;
-                    }
-                }
-                RelatedIdentifier relId = RelatedIdentifier.factoryRelatedIdentifier(relationType, (String) identifier.get("identifier"), null, null);
-                relId.setIdentifierType(identifierType);
-                res.getRelatedIdentifiers().add(relId);
-            });
+        //related_identifiers=[{relation=isSupplementTo, identifier=https://github.com/..., scheme=url}]
+        for (RelatedIdentifierElement identifier : list(result.related_identifiers)) {
+            RelatedIdentifier relId = RelatedIdentifier.factoryRelatedIdentifier(RELATION_TYPES.get(identifier.relation, null), identifier.identifier, null, null);
+            relId.setIdentifierType(IDENTIFIER_TYPES.get(identifier.scheme, Identifier.IDENTIFIER_TYPE.OTHER));
+            res.getRelatedIdentifiers().add(relId);
         }
 
-        LinkedTreeMap<String, Object> rights = (LinkedTreeMap<String, Object>) result.get("license");//[{rights=KITopen License, rightsUri=https://publikationen.bibliothek.kit.edu/kitopen-lizenz}]
-        if (rights != null) {
-            res.getRights().add(Scheme.factoryScheme((String) rights.get("id"), ""));
+        //license={id=CC0-1.0}
+        if (result.license != null) {
+            res.getRights().add(Scheme.factoryScheme(result.license.id, ""));
         }
 
-        ArrayList<String> keywords = (ArrayList<String>) result.get("keywords"); //subjects=[{subject=Energieeinsparung, subjectScheme=gnd, classificationCode=4014700-9}, {subject=Klima?nderung, subjectScheme=gnd, classificationCode=4164199-1}, {subject=Globale Umweltprobleme, subjectScheme=bk, classificationCode=(id=106416790)43.47}, {subjectScheme=linsearch(mapping), classificationCode=rest}]
-        if (keywords != null) {
-            keywords.forEach(keyword -> {
-                res.getSubjects().add(Subject.factorySubject(keyword, null, null, null));
-            });
+        //keywords=[self-medication, questionnaires, survey]
+        for (String keyword : list(result.keywords)) {
+            res.getSubjects().add(Subject.factorySubject(keyword, null, null, null));
         }
 
-        ArrayList<Map<String, Object>> communities = (ArrayList<Map<String, Object>>) result.get("communities");//[{rights=KITopen License, rightsUri=https://publikationen.bibliothek.kit.edu/kitopen-lizenz}]
-        if (communities != null) {
-            communities.forEach(community -> {
-                res.getSubjects().add(Subject.factorySubject((String) community.get("id"), null, null, null));
-            });
+        //communities=[{id=zenodo}]
+        for (Community community : list(result.communities)) {
+            res.getSubjects().add(Subject.factorySubject(community.id, null, null, null));
         }
         res.getAcls().add(new AclEntry(AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL, PERMISSION.READ));
 
         return res;
     }
 
+    /**
+     * Split a name of the form 'Family, Given' or 'Family Given' into its
+     * first and second part. The second part is null if the name consists of
+     * a single part only.
+     */
+    private static String[] splitName(String name) {
+        if (name == null) {
+            return new String[]{null, null};
+        }
+        String[] nameSplit = NAME_SEPARATOR.split(name.trim(), 2);
+        return new String[]{nameSplit[0], (nameSplit.length > 1) ? nameSplit[1] : null};
+    }
+
+    private static <T> List<T> list(List<T> values) {
+        return (values != null) ? values : List.of();
+    }
+
+    /**
+     * Mapped properties of a Zenodo record. Properties not declared here are
+     * skipped while parsing.
+     */
+    private static class ZenodoRecord {
+
+        public Metadata metadata;
+    }
+
+    private static class Metadata {
+
+        public String doi;
+        public String title;
+        public String description;
+        public String language;
+        public String version;
+        public String publication_date;
+        public List<Person> creators;
+        public List<Person> contributors;
+        public ResourceTypeElement resource_type;
+        public List<RelatedIdentifierElement> related_identifiers;
+        public License license;
+        public List<String> keywords;
+        public List<Community> communities;
+    }
+
+    private static class Person {
+
+        public String name;
+        public String affiliation;
+        public String type;
+
+        String[] getAffiliations() {
+            return (affiliation != null) ? new String[]{affiliation} : new String[0];
+        }
+    }
+
+    private static class ResourceTypeElement {
+
+        public String title;
+        public String type;
+    }
+
+    private static class RelatedIdentifierElement {
+
+        public String identifier;
+        public String relation;
+        public String scheme;
+    }
+
+    private static class License {
+
+        public String id;
+
+        /**
+         * Licenses may also be provided as plain identifiers.
+         */
+        @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+        static License of(String id) {
+            License license = new License();
+            license.id = id;
+            return license;
+        }
+
+        License() {
+        }
+    }
+
+    private static class Community {
+
+        public String id;
+    }
+
     public static void main(String[] args) throws Exception {
         String input = ("{\n"
                 + "    \"conceptrecid\": \"632990\",\n"
@@ -307,8 +355,6 @@ public class ZenodoMessageConverter implements HttpMessageConverter {
 
         //collection of funny dois
         //https://doi.org/10.25991/vrhga.2019.20.3.001 (russian)
-        String text = org.apache.commons.codec.binary.StringUtils.newStringUtf8(input.getBytes());
-
-        System.out.println(new ZenodoMessageConverter().parseZenodo(text));
+        System.out.println(new ZenodoMessageConverter().parseZenodo(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))));
     }
 }
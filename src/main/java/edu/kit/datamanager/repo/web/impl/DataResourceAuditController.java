@@ -36,7 +36,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -91,7 +90,7 @@ public class DataResourceAuditController implements IDataResourceAuditController
         LOGGER.trace("Performing getContentAuditInformation({}, {}).", resourceIdentifier, null);
         Function<String, String> getById;
         getById = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(DataResourceController.class).getContentMetadata(t, null, null, pgbl, request, response, uriBuilder)).toString();
+            return DataResourceController.CONTENT_LINK.expand(t);
         };
         String path = ContentDataUtils.getContentPathFromRequest(request);
         //check resource and permission
@@ -137,7 +136,7 @@ public class DataResourceAuditController implements IDataResourceAuditController
         LOGGER.trace("Performing getAuditInformation({}, {}).", resourceIdentifier, pgbl);
         Function<String, String> getById;
         getById = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(DataResourceController.class).getById(t, null, request, response)).toString();
+            return DataResourceController.RESOURCE_LINK.expand(t);
         };
         Optional<String> auditInformation = DataResourceUtils.getAuditInformation(repositoryProperties, resourceIdentifier, pgbl, getById);
 
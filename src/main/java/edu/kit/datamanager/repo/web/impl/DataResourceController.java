@@ -15,15 +15,22 @@
  */
 package edu.kit.datamanager.repo.web.impl;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.github.fge.jsonpatch.JsonPatch;
 import edu.kit.datamanager.entities.PERMISSION;
 import edu.kit.datamanager.entities.RepoUserRole;
+import edu.kit.datamanager.exceptions.BadArgumentException;
 import edu.kit.datamanager.exceptions.CustomInternalServerError;
+import edu.kit.datamanager.exceptions.ResourceAlreadyExistException;
+import edu.kit.datamanager.exceptions.ResourceNotFoundException;
 import edu.kit.datamanager.repo.configuration.ApplicationProperties;
 import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
-import edu.kit.datamanager.repo.dao.IContentInformationDao;
-import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.dao.DataResourceSpecifications;
+import edu.kit.datamanager.repo.dao.IContentInformationLookupDao;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -31,41 +38,74 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import edu.kit.datamanager.repo.domain.BulkCreateResult;
 import edu.kit.datamanager.repo.domain.ContentInformation;
 import edu.kit.datamanager.repo.domain.DataResource;
 import edu.kit.datamanager.repo.domain.TabulatorLocalPagination;
-import edu.kit.datamanager.repo.elastic.DataResourceRepository;
-import edu.kit.datamanager.repo.elastic.ElasticWrapper;
+import edu.kit.datamanager.repo.domain.OutboxEvent;
+import edu.kit.datamanager.repo.domain.UploadPart;
+import edu.kit.datamanager.repo.domain.UploadSession;
 import edu.kit.datamanager.repo.service.IContentInformationService;
+import edu.kit.datamanager.repo.service.impl.AsyncDownloadService;
+import edu.kit.datamanager.repo.service.impl.BulkResourceService;
+import edu.kit.datamanager.repo.service.impl.ConditionalRequestService;
+import edu.kit.datamanager.repo.service.impl.DataResourceCache;
+import edu.kit.datamanager.repo.service.impl.DataResourceStreamService;
+import edu.kit.datamanager.repo.service.impl.OutboxService;
+import edu.kit.datamanager.repo.service.impl.ResourceCountCache;
+import edu.kit.datamanager.repo.service.impl.UploadSessionService;
 import edu.kit.datamanager.repo.util.ContentDataUtils;
+import edu.kit.datamanager.repo.util.ContentRangeUtils;
 import edu.kit.datamanager.repo.util.DataResourceUtils;
 import edu.kit.datamanager.repo.util.EntityUtils;
+import edu.kit.datamanager.repo.util.KeysetCursor;
+import edu.kit.datamanager.repo.util.LinkTemplate;
+import edu.kit.datamanager.repo.util.StreamingMultipartFile;
+import edu.kit.datamanager.repo.util.TabulatorQuery;
 import edu.kit.datamanager.repo.web.IDataResourceController;
 import edu.kit.datamanager.service.IAuditService;
 import edu.kit.datamanager.util.AuthenticationHelper;
 import edu.kit.datamanager.util.ControllerUtils;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
 import java.util.function.Function;
 import org.apache.http.client.utils.URIBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
 /**
@@ -80,24 +120,42 @@ public class DataResourceController implements IDataResourceController {
 
     public static final String VERSION_HEADER = "Resource-Version";
     public static final String CONTENT_RANGE_HEADER = "Content-Range";
+    private static final String EXPORT_TIMEOUT_INTERCEPTOR = DataResourceController.class.getName() + ".exportTimeout";
     // private final JsonResult json = JsonResult.instance();
     private final Logger LOGGER = LoggerFactory.getLogger(DataResourceController.class);
 
+    //links to resources and content, resolved once from the request mappings
+    static final LinkTemplate RESOURCE_LINK = LinkTemplate.forMethod(DataResourceController.class, "getById");
+    static final LinkTemplate CONTENT_LINK = LinkTemplate.forMethod(DataResourceController.class, "getContentMetadata");
+
     private final IContentInformationService contentInformationService;
 
     @Autowired
     private final ApplicationProperties applicationProperties;
 
-    @Autowired
-    private IDataResourceDao dataResourceDao;
-    @Autowired
-    private IContentInformationDao contentInformationDao;
-
     private final IAuditService<DataResource> auditService;
     private final IAuditService<ContentInformation> contentAuditService;
     private final RepoBaseConfiguration repositoryProperties;
     @Autowired
-    private Optional<DataResourceRepository> dataResourceRepository;
+    private OutboxService outboxService;
+    @Autowired
+    private UploadSessionService uploadSessionService;
+    @Autowired
+    private BulkResourceService bulkResourceService;
+    @Autowired
+    private DataResourceStreamService dataResourceStreamService;
+    @Autowired
+    private ConditionalRequestService conditionalRequestService;
+    @Autowired
+    private DataResourceCache dataResourceCache;
+    @Autowired
+    private ResourceCountCache resourceCountCache;
+    @Autowired
+    private AsyncDownloadService asyncDownloadService;
+    @Autowired
+    private IContentInformationLookupDao contentInformationLookupDao;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     /**
      * Default constructor.
@@ -121,39 +179,25 @@ public class DataResourceController implements IDataResourceController {
             final HttpServletResponse response) {
 
         LOGGER.trace("Creating resource with record '{}'.", resource);
-        Function<String, String> getById;
-        getById = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).getById(t, 1l, request, response)).toString();
-        };
 
         LOGGER.trace("Removing user-provided @Ids from resource.");
         EntityUtils.removeIds(resource);
 
-        DataResource result = DataResourceUtils.createResource(repositoryProperties, resource);
-        try {
-            LOGGER.trace("Creating controller link for resource identifier {}.", result.getId());
-            //do some hacking in order to properly escape the resource identifier
-            //if escaping in beforehand, WebMvcLinkBuilder will escape again, which invalidated the link
-            String uriLink = getById.apply("WorkaroundPlaceholder");
-            //replace placeholder with escaped identifier in order to ensure single-escaping
-            uriLink = uriLink.replaceFirst("WorkaroundPlaceholder", URLEncoder.encode(result.getId(), "UTF-8"));
-            // remove version flag if version is nor supported
-            if (!applicationProperties.isAuditEnabled()) {
-                // Remove path parameter version
-                int qmIndex = uriLink.lastIndexOf("?");
-                if (qmIndex > 0) {
-                    uriLink = uriLink.substring(0, qmIndex);
-                }
-            }
-
-            indexResource(resource.getId(), false);
-
-            LOGGER.trace("Created resource link is: {}", uriLink);
-            return ResponseEntity.created(URI.create(uriLink)).eTag("\"" + result.getEtag() + "\"").header(VERSION_HEADER, Long.toString(1l)).body(result);
-        } catch (UnsupportedEncodingException ex) {
-            LOGGER.error("Failed to encode resource identifier " + result.getId() + ".", ex);
-            throw new CustomInternalServerError("Failed to decode resource identifier " + result.getId() + ", but resource has been created.");
+        DataResource result = outboxService.execute(() -> {
+            DataResource created = DataResourceUtils.createResource(repositoryProperties, resource);
+            recordChange(created.getId(), OutboxEvent.ACTION.CREATE, false);
+            return created;
+        });
+        LOGGER.trace("Creating controller link for resource identifier {}.", result.getId());
+        //the template escapes the identifier exactly once, e.g., slashes contained in PIDs
+        String uriLink = RESOURCE_LINK.expand(result.getId());
+        // only add version flag if versioning is supported
+        if (applicationProperties.isAuditEnabled()) {
+            uriLink = LinkTemplate.appendQueryParameter(uriLink, "version", 1l);
         }
+
+        LOGGER.trace("Created resource link is: {}", uriLink);
+        return ResponseEntity.created(URI.create(uriLink)).eTag("\"" + result.getEtag() + "\"").header(VERSION_HEADER, Long.toString(1l)).body(result);
     }
 
     @Override
@@ -162,10 +206,31 @@ public class DataResourceController implements IDataResourceController {
             final WebRequest request,
             final HttpServletResponse response) {
         LOGGER.trace("Get resource by id '{}' and version '{}'.", identifier, version);
+        if (version == null && isConditionalRequest(request)) {
+            ConditionalRequestService.ResourceValidator validator = conditionalRequestService.getValidator(identifier);
+            if (validator != null && checkNotModified(validator.getEtag(), validator.getLastUpdate(), request)) {
+                LOGGER.trace("Resource with id {} not modified.", identifier);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, conditionalRequestService.getCacheControl(validator.isPublicResource()).getHeaderValue());
+                return null;
+            }
+        }
         Function<String, String> getById = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).getById(t, version, request, response)).toString();
+            return LinkTemplate.appendQueryParameter(RESOURCE_LINK.expand(t), "version", version);
         };
-        return DataResourceUtils.readResource(repositoryProperties, identifier, version, getById);
+        ResponseEntity<DataResource> result = DataResourceUtils.readResource(repositoryProperties, identifier, version, getById);
+        DataResource resource = result.getBody();
+        if (version != null || resource == null) {
+            return result;
+        }
+        dataResourceCache.refresh(resource);
+        ConditionalRequestService.ResourceValidator validator = conditionalRequestService.remember(resource);
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(result.getHeaders());
+        headers.setCacheControl(conditionalRequestService.getCacheControl(validator.isPublicResource()));
+        if (resource.getLastUpdate() != null) {
+            headers.setLastModified(resource.getLastUpdate());
+        }
+        return new ResponseEntity<>(resource, headers, result.getStatusCode());
     }
 
     @Override
@@ -187,6 +252,109 @@ public class DataResourceController implements IDataResourceController {
         return findByExample(null, lastUpdateFrom, lastUpdateUntil, pgbl, request, response, uriBuilder);
     }
 
+    @Override
+    public ResponseEntity<List<DataResource>> findAllByCursor(@RequestParam(name = "cursor") final String cursor,
+            @RequestParam(name = "from", required = false) final Instant lastUpdateFrom,
+            @RequestParam(name = "until", required = false) final Instant lastUpdateUntil,
+            @RequestParam(name = "size", defaultValue = "20") final int size,
+            @RequestParam(name = "count", defaultValue = "false") final boolean count,
+            final WebRequest request,
+            final HttpServletResponse response) {
+        LOGGER.trace("Find resources from '{}' until '{}' after cursor '{}'", lastUpdateFrom, lastUpdateUntil, cursor);
+        return readCursorPage(null, cursor, lastUpdateFrom, lastUpdateUntil, size, count, response);
+    }
+
+    @Override
+    public ResponseEntity<List<DataResource>> findByExampleByCursor(@RequestBody final DataResource example,
+            @RequestParam(name = "cursor") final String cursor,
+            @RequestParam(name = "from", required = false) final Instant lastUpdateFrom,
+            @RequestParam(name = "until", required = false) final Instant lastUpdateUntil,
+            @RequestParam(name = "size", defaultValue = "20") final int size,
+            @RequestParam(name = "count", defaultValue = "false") final boolean count,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder) {
+        LOGGER.trace("Find resources by example '{}' from '{}' until '{}' after cursor '{}'", example, lastUpdateFrom, lastUpdateUntil, cursor);
+        return readCursorPage(example, cursor, lastUpdateFrom, lastUpdateUntil, size, count, response);
+    }
+
+    private ResponseEntity<List<DataResource>> readCursorPage(DataResource example, String cursor, Instant lastUpdateFrom, Instant lastUpdateUntil, int size, boolean count, HttpServletResponse response) {
+        int pageSize = ControllerUtils.checkPaginationInformation(PageRequest.of(0, size)).getPageSize();
+        Specification<DataResource> specification = DataResourceSpecifications.isVisibleTo(AuthenticationHelper.getAuthorizationIdentities(),
+                AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.toString())).
+                and(DataResourceSpecifications.lastUpdateBetween(lastUpdateFrom, lastUpdateUntil)).
+                and(DataResourceSpecifications.matchesExample(example));
+        //read one additional element to determine whether there is a next page
+        List<DataResource> result = dataResourceStreamService.readPage(specification, KeysetCursor.decode(cursor), pageSize + 1);
+        if (count) {
+            response.addHeader(CONTENT_RANGE_HEADER, "*/" + dataResourceStreamService.count(specification));
+        }
+        return ResponseEntity.ok().body(toCursorPage(result, pageSize, response));
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamAll(@RequestParam(name = "from", required = false) final Instant lastUpdateFrom,
+            @RequestParam(name = "until", required = false) final Instant lastUpdateUntil,
+            final WebRequest request,
+            final HttpServletResponse response) {
+        LOGGER.trace("Stream all resources from '{}' until '{}'", lastUpdateFrom, lastUpdateUntil);
+        Specification<DataResource> specification = DataResourceSpecifications.isVisibleTo(AuthenticationHelper.getAuthorizationIdentities(),
+                AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.toString())).
+                and(DataResourceSpecifications.lastUpdateBetween(lastUpdateFrom, lastUpdateUntil));
+        setExportTimeout(request);
+        StreamingResponseBody body = (out) -> {
+            ObjectWriter writer = objectMapper.writerFor(DataResource.class);
+            dataResourceStreamService.stream(specification, (resource) -> writeLine(writer, out, resource));
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamByExample(@RequestBody final DataResource example,
+            @RequestParam(name = "from", required = false) final Instant lastUpdateFrom,
+            @RequestParam(name = "until", required = false) final Instant lastUpdateUntil,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder) {
+        LOGGER.trace("Stream resources by example '{}' from '{}' until '{}'", example, lastUpdateFrom, lastUpdateUntil);
+        Specification<DataResource> specification = DataResourceSpecifications.isVisibleTo(AuthenticationHelper.getAuthorizationIdentities(),
+                AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.toString())).
+                and(DataResourceSpecifications.lastUpdateBetween(lastUpdateFrom, lastUpdateUntil)).
+                and(DataResourceSpecifications.matchesExample(example));
+        setExportTimeout(request);
+        StreamingResponseBody body = (out) -> {
+            ObjectWriter writer = objectMapper.writerFor(DataResource.class);
+            dataResourceStreamService.stream(specification, (resource) -> writeLine(writer, out, resource));
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Override
+    public ResponseEntity<List<BulkCreateResult>> createBulk(final WebRequest request,
+            final HttpServletResponse response) {
+        LOGGER.trace("Creating resources in bulk.");
+        int maxItems = applicationProperties.getBulkMaxItems();
+        List<DataResource> resources = new ArrayList<>();
+        //read all items before creating any resource in order to fail early on invalid input, the number of items
+        //is limited as they are kept in memory until all of them were read
+        try (MappingIterator<DataResource> iterator = objectMapper.readerFor(DataResource.class).readValues(request.getNativeRequest(HttpServletRequest.class).getInputStream())) {
+            while (iterator.hasNextValue()) {
+                if (resources.size() == maxItems) {
+                    LOGGER.error("Bulk request exceeds the maximum of {} resource(s).", maxItems);
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Bulk requests may contain at most " + maxItems + " resource(s).");
+                }
+                resources.add(iterator.nextValue());
+            }
+        } catch (IOException | RuntimeJsonMappingException ex) {
+            LOGGER.error("Unable to read resources from request body.", ex);
+            throw new BadArgumentException("Unable to read resources from request body. " + ex.getMessage());
+        }
+        LOGGER.trace("Creating {} resource(s).", resources.size());
+        return ResponseEntity.ok(bulkResourceService.createAll(resources.iterator()));
+    }
+
     @Override
     public ResponseEntity<TabulatorLocalPagination> findAllForTabulator(@RequestParam(name = "from", required = false) final Instant lastUpdateFrom,
             @RequestParam(name = "until", required = false) final Instant lastUpdateUntil,
@@ -194,16 +362,27 @@ public class DataResourceController implements IDataResourceController {
             final WebRequest request,
             final HttpServletResponse response,
             final UriComponentsBuilder uriBuilder) {
+        TabulatorQuery tabulatorQuery = TabulatorQuery.parse(request.getParameterMap());
         //change from 1-based to 0-based index as required by tabulator
         int startPage = pgbl.getPageNumber() - 1;
         startPage = startPage < 0 ? 0 : startPage;
-        PageRequest pr = PageRequest.of(startPage, pgbl.getPageSize(), pgbl.getSort());
-        Page<DataResource> page = DataResourceUtils.readAllResourcesFilteredByExample(repositoryProperties, null, lastUpdateFrom, lastUpdateUntil, pr, response, uriBuilder);
         PageRequest pageRequest = ControllerUtils.checkPaginationInformation(pgbl);
+        PageRequest pr = PageRequest.of(startPage, pageRequest.getPageSize(), tabulatorQuery.isSorted() ? tabulatorQuery.getSort() : pgbl.getSort());
+
+        List<String> sids = AuthenticationHelper.getAuthorizationIdentities();
+        boolean isAdministrator = AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.toString());
+        Specification<DataResource> specification = DataResourceSpecifications.isVisibleTo(sids, isAdministrator).
+                and(DataResourceSpecifications.lastUpdateBetween(lastUpdateFrom, lastUpdateUntil)).
+                and(tabulatorQuery.toSpecification());
+        List<DataResource> content = dataResourceStreamService.readPage(specification, pr);
+        //the total only depends on the filter and on the caller's identities, but not on the requested page
+        String countKey = (isAdministrator ? "*" : String.join(",", new TreeSet<>(sids))) + "|" + lastUpdateFrom + "|" + lastUpdateUntil + "|" + tabulatorQuery.getFilterKey();
+        long total = resourceCountCache.count(countKey, () -> dataResourceStreamService.count(specification));
+        Page<DataResource> page = new PageImpl<>(content, pr, total);
+
         response.addHeader(CONTENT_RANGE_HEADER, ControllerUtils.getContentRangeHeader(page.getNumber(), pageRequest.getPageSize(), page.getTotalElements()));
         TabulatorLocalPagination tabulatorLocalPagination = TabulatorLocalPagination.builder()
                 .lastPage(page.getTotalPages())
-                //.data(DataResourceUtils.filterResources(page.getContent()))
                 .data(page.getContent())
                 .build();
         return ResponseEntity.ok().body(tabulatorLocalPagination);
@@ -234,13 +413,15 @@ public class DataResourceController implements IDataResourceController {
             final HttpServletResponse response) {
         LOGGER.trace("Patch resource with id '{}': Patch '{}'", identifier, patch);
         Function<String, String> patchDataResource = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).patch(t, patch, request, response)).toString();
+            return RESOURCE_LINK.expand(t);
         };
         //String path = ContentDataUtils.getContentPathFromRequest(request);
         String eTag = ControllerUtils.getEtagFromHeader(request);
-        DataResourceUtils.patchResource(repositoryProperties, identifier, patch, eTag, patchDataResource);
-
-        indexResource(identifier, true);
+        outboxService.execute(() -> {
+            DataResourceUtils.patchResource(repositoryProperties, identifier, patch, eTag, patchDataResource);
+            outboxService.recordMetadataChange(identifier);
+            return null;
+        });
 
         long currentVersion = auditService.getCurrentVersion(identifier);
         if (currentVersion > 0) {
@@ -268,11 +449,13 @@ public class DataResourceController implements IDataResourceController {
         LOGGER.trace("Update resource with id '{}': new resource: '{}'", identifier, newResource);
         Function<String, String> putWithId;
         putWithId = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).put(t, newResource, request, response)).toString();
+            return RESOURCE_LINK.expand(t);
         };
-        DataResource result = DataResourceUtils.updateResource(repositoryProperties, identifier, newResource, request, putWithId);
-
-        indexResource(identifier, true);
+        DataResource result = outboxService.execute(() -> {
+            DataResource updated = DataResourceUtils.updateResource(repositoryProperties, identifier, newResource, request, putWithId);
+            outboxService.recordMetadataChange(updated.getId());
+            return updated;
+        });
 
         long currentVersion = repositoryProperties.getAuditService().getCurrentVersion(result.getId());
 
@@ -301,11 +484,13 @@ public class DataResourceController implements IDataResourceController {
             final HttpServletResponse response) {
         LOGGER.trace("Delete resource with id '{}'", identifier);
         Function<String, String> getById = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).getById(t, 1l, request, response)).toString();
+            return LinkTemplate.appendQueryParameter(RESOURCE_LINK.expand(t), "version", 1l);
         };
-        DataResourceUtils.deleteResource(repositoryProperties, identifier, request, getById);
-
-        unindexResource(identifier);
+        outboxService.execute(() -> {
+            DataResourceUtils.deleteResource(repositoryProperties, identifier, request, getById);
+            recordChange(identifier, OutboxEvent.ACTION.DELETE, false);
+            return null;
+        });
 
         return ResponseEntity.noContent().build();
     }
@@ -328,7 +513,7 @@ public class DataResourceController implements IDataResourceController {
             final UriComponentsBuilder uriBuilder) {
         LOGGER.trace("Create content for resource with id '{}'. Force: '{}'", identifier, force);
         Function<String, String> createContent = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).createContent(t, file, contentInformation, force, request, response, uriBuilder)).toString();
+            return CONTENT_LINK.expand(t);
         };
         DataResource resource = DataResourceUtils.getResourceByIdentifierOrRedirect(repositoryProperties, identifier, null, createContent);
         String path = ContentDataUtils.getContentPathFromRequest(request);
@@ -345,41 +530,182 @@ public class DataResourceController implements IDataResourceController {
                 return ResponseEntity.badRequest().body("Invalid ContentInformation metadata provided.");
             }
         }
-        ContentInformation result = ContentDataUtils.addFile(repositoryProperties, resource, file, path, info, force, createContent);
+        final ContentInformation contentMetadata = info;
+        ContentInformation result = outboxService.execute(() -> {
+            ContentInformation added = ContentDataUtils.addFile(repositoryProperties, resource, file, path, contentMetadata, force, createContent);
+            outboxService.recordContentChange(resource.getId(), added.getRelativePath());
+            return added;
+        });
 
-        URI link = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).getContentMetadata(resource.getId(), null, 1l, null, request, response, uriBuilder)).toUri();
+        return createdContentResponse(resource, result, path, request, response, uriBuilder);
+    }
 
-        URIBuilder builder = new URIBuilder(link);
-        builder.setPath(builder.getPath().replace("**", path));
-        URI resourceUri = null;
+    @Override
+    public ResponseEntity createContentPid(@PathVariable(value = "prefix") final String prefix,
+            @PathVariable(value = "suffix") final String suffix,
+            @RequestPart(name = "file", required = false) MultipartFile file,
+            @RequestPart(name = "metadata", required = false) final MultipartFile contentInformation,
+            @RequestParam(name = "force", defaultValue = "false") boolean force,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder) {
+        return createContent(prefix + "/" + suffix, file, contentInformation, force, request, response, uriBuilder);
+    }
 
-        try {
-            resourceUri = builder.build();
-        } catch (URISyntaxException ex) {
-            LOGGER.error("Failed to create location URI for path " + path + ". However, resource should be created.", ex);
-            throw new CustomInternalServerError("Resource creation successful, but unable to create resource linkfor path " + path + ".");
+    @Override
+    public ResponseEntity streamContent(@PathVariable(value = "id") final String identifier,
+            @RequestParam(name = "force", defaultValue = "false") boolean force,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder) {
+        LOGGER.trace("Stream content for resource with id '{}'. Force: '{}'", identifier, force);
+        Function<String, String> streamContent = (t) -> {
+            return CONTENT_LINK.expand(t);
+        };
+        DataResource resource = DataResourceUtils.getResourceByIdentifierOrRedirect(repositoryProperties, identifier, null, streamContent);
+        String path = ContentDataUtils.getContentPathFromRequest(request);
+        if (path.isEmpty() || path.endsWith("/")) {
+            throw new BadArgumentException("Streamed uploads must address a single file, not a collection.");
         }
 
-        indexResource(identifier, true);
+        final StreamingMultipartFile file;
+        try {
+            file = StreamingMultipartFile.fromRequest(request.getNativeRequest(HttpServletRequest.class), path);
+        } catch (IOException ex) {
+            LOGGER.error("Unable to access request body.", ex);
+            throw new CustomInternalServerError("Unable to access request body.");
+        }
 
-        long currentVersion = contentAuditService.getCurrentVersion(Long.toString(result.getId()));
-        if (currentVersion > 0) {
-            return ResponseEntity.created(resourceUri).header(VERSION_HEADER, Long.toString(currentVersion)).eTag("\"" + result.getEtag() + "\"").build();
-        } else {
-            return ResponseEntity.created(resourceUri).eTag("\"" + result.getEtag() + "\"").build();
+        //on a digest mismatch, reading the end of the stream fails and the content is not added
+        ContentInformation result;
+        try {
+            result = outboxService.execute(() -> {
+                ContentInformation added = ContentDataUtils.addFile(repositoryProperties, resource, file, path, null, force, streamContent);
+                outboxService.recordContentChange(resource.getId(), added.getRelativePath());
+                return added;
+            });
+        } catch (RuntimeException ex) {
+            if (file.isDigestMismatch()) {
+                LOGGER.warn("Content digest mismatch for path {} of resource {}. Upload discarded.", path, resource.getId());
+                throw new BadArgumentException("Content digest mismatch. The uploaded content has been discarded.");
+            }
+            throw ex;
         }
+
+        return createdContentResponse(resource, result, path, request, response, uriBuilder);
     }
 
     @Override
-    public ResponseEntity createContentPid(@PathVariable(value = "prefix") final String prefix,
+    public ResponseEntity streamContentPid(@PathVariable(value = "prefix") final String prefix,
             @PathVariable(value = "suffix") final String suffix,
-            @RequestPart(name = "file", required = false) MultipartFile file,
-            @RequestPart(name = "metadata", required = false) final MultipartFile contentInformation,
             @RequestParam(name = "force", defaultValue = "false") boolean force,
             final WebRequest request,
             final HttpServletResponse response,
             final UriComponentsBuilder uriBuilder) {
-        return createContent(prefix + "/" + suffix, file, contentInformation, force, request, response, uriBuilder);
+        return streamContent(prefix + "/" + suffix, force, request, response, uriBuilder);
+    }
+
+    @Override
+    public ResponseEntity<UploadSession> initiateUpload(@PathVariable(value = "id") final String identifier,
+            @RequestParam(name = "force", defaultValue = "false") boolean force,
+            @RequestParam(name = "contentType", required = false) final String contentType,
+            final WebRequest request,
+            final HttpServletResponse response) {
+        String path = ContentDataUtils.getContentPathFromRequest(request);
+        LOGGER.trace("Initiate upload for path '{}' of resource with id '{}'. Force: '{}'", path, identifier, force);
+        DataResource resource = DataResourceUtils.getResourceByIdentifierOrRedirect(repositoryProperties, identifier, null, (t) -> {
+            return CONTENT_LINK.expand(t);
+        });
+        DataResourceUtils.performPermissionCheck(resource, PERMISSION.WRITE);
+        if (path.isEmpty() || path.endsWith("/")) {
+            throw new BadArgumentException("Uploads must address a single file, not a collection.");
+        }
+        if (!force) {
+            //fail early instead of after uploading all parts
+            try {
+                contentInformationService.getContentInformation(resource.getId(), path, null);
+                throw new ResourceAlreadyExistException("There is already content at path " + path + ". Use force=true to overwrite.");
+            } catch (ResourceNotFoundException ex) {
+                LOGGER.trace("No content found at path {}. Continue with upload.", path);
+            }
+        }
+        UploadSession session = uploadSessionService.initiate(resource.getId(), path, contentType, force);
+        return ResponseEntity.status(HttpStatus.CREATED).body(session);
+    }
+
+    @Override
+    public ResponseEntity<UploadPart> uploadPart(@PathVariable(value = "id") final String identifier,
+            @RequestParam(name = "uploadId") final String uploadId,
+            @RequestParam(name = "partNumber") final int partNumber,
+            final WebRequest request,
+            final HttpServletResponse response) {
+        String path = ContentDataUtils.getContentPathFromRequest(request);
+        LOGGER.trace("Upload part {} of upload '{}' for resource with id '{}'.", partNumber, uploadId, identifier);
+        UploadSession session = getUploadSession(identifier, uploadId, path);
+        UploadPart part;
+        try {
+            part = uploadSessionService.uploadPart(session, partNumber, StreamingMultipartFile.fromRequest(request.getNativeRequest(HttpServletRequest.class), path));
+        } catch (IOException ex) {
+            LOGGER.error("Unable to access request body.", ex);
+            throw new CustomInternalServerError("Unable to access request body.");
+        }
+        return ResponseEntity.ok().eTag("\"" + part.getChecksum() + "\"").body(part);
+    }
+
+    @Override
+    public ResponseEntity<UploadSession> listUploadParts(@PathVariable(value = "id") final String identifier,
+            @RequestParam(name = "uploadId") final String uploadId,
+            final WebRequest request,
+            final HttpServletResponse response) {
+        String path = ContentDataUtils.getContentPathFromRequest(request);
+        UploadSession session = getUploadSession(identifier, uploadId, path);
+        session.setParts(uploadSessionService.listParts(session));
+        return ResponseEntity.ok().body(session);
+    }
+
+    @Override
+    public ResponseEntity completeUpload(@PathVariable(value = "id") final String identifier,
+            @RequestParam(name = "uploadId") final String uploadId,
+            @RequestBody(required = false) final List<UploadPart> parts,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder) {
+        String path = ContentDataUtils.getContentPathFromRequest(request);
+        LOGGER.trace("Complete upload '{}' for path '{}' of resource with id '{}'.", uploadId, path, identifier);
+        Function<String, String> completeUpload = (t) -> {
+            return LinkTemplate.appendQueryParameter(CONTENT_LINK.expand(t), "uploadId", uploadId);
+        };
+        DataResource resource = DataResourceUtils.getResourceByIdentifierOrRedirect(repositoryProperties, identifier, null, completeUpload);
+        UploadSession session = uploadSessionService.getSession(uploadId, resource.getId(), path);
+        List<UploadPart> staged = uploadSessionService.validateParts(session, parts);
+        long size = staged.stream().mapToLong(UploadPart::getSize).sum();
+        String contentType = session.getContentType() != null ? session.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+
+        ContentInformation result;
+        try (InputStream assembled = uploadSessionService.openAssembledStream(session, staged)) {
+            StreamingMultipartFile file = new StreamingMultipartFile(path.substring(path.lastIndexOf('/') + 1), contentType, size, assembled);
+            result = outboxService.execute(() -> {
+                ContentInformation added = ContentDataUtils.addFile(repositoryProperties, resource, file, path, null, session.isForce(), completeUpload);
+                outboxService.recordContentChange(resource.getId(), added.getRelativePath());
+                return added;
+            });
+        } catch (IOException | UncheckedIOException ex) {
+            LOGGER.error("Failed to assemble upload " + uploadId + ".", ex);
+            throw new CustomInternalServerError("Failed to assemble upload " + uploadId + ".");
+        }
+        uploadSessionService.remove(session);
+        return createdContentResponse(resource, result, path, request, response, uriBuilder);
+    }
+
+    @Override
+    public ResponseEntity abortUpload(@PathVariable(value = "id") final String identifier,
+            @RequestParam(name = "uploadId") final String uploadId,
+            final WebRequest request,
+            final HttpServletResponse response) {
+        String path = ContentDataUtils.getContentPathFromRequest(request);
+        LOGGER.trace("Abort upload '{}' for resource with id '{}'.", uploadId, identifier);
+        uploadSessionService.remove(getUploadSession(identifier, uploadId, path));
+        return ResponseEntity.noContent().build();
     }
 
     @Override
@@ -391,33 +717,91 @@ public class DataResourceController implements IDataResourceController {
             final HttpServletResponse response,
             final UriComponentsBuilder uriBuilder) {
         LOGGER.trace("Get content metadata for resource with id '{}' and version '{}'", identifier, version);
+        String path = ContentDataUtils.getContentPathFromRequest(request);
+        boolean singleElement = !path.isEmpty() && !path.endsWith("/");
+        if (singleElement && version == null && isConditionalRequest(request)) {
+            ConditionalRequestService.ResourceValidator validator = conditionalRequestService.getValidator(identifier);
+            String contentEtag = (validator != null) ? conditionalRequestService.getContentEtag(validator, path) : null;
+            if (contentEtag != null && checkNotModified(contentEtag, null, request)) {
+                LOGGER.trace("Content metadata of resource with id {} at path {} not modified.", identifier, path);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, conditionalRequestService.getCacheControl(validator.isPublicResource()).getHeaderValue());
+                return null;
+            }
+        }
 
         Function<String, String> getContentMetadata = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).getContentMetadata(t, tag, version, pgbl, request, response, uriBuilder)).toString();
+            String link = LinkTemplate.appendQueryParameter(CONTENT_LINK.expand(t), "tag", tag);
+            return LinkTemplate.appendQueryParameter(link, "version", version);
         };
         //check resource and permission
-        DataResource resource = DataResourceUtils.getResourceByIdentifierOrRedirect(repositoryProperties, identifier, null, getContentMetadata);
-        String path = ContentDataUtils.getContentPathFromRequest(request);
+        DataResource resource = getCachedResource(identifier, getContentMetadata);
 
         List<ContentInformation> result = ContentDataUtils.readFiles(repositoryProperties, resource, path, tag, version, pgbl, getContentMetadata);
 
-        if (path.endsWith("/") || path.length() == 0) {
+        if (!singleElement) {
             LOGGER.trace("Obtained {} content information result(s).", result.size());
             return ResponseEntity.ok().body(fixContentInformation(result, version));
         } else {
             LOGGER.trace("Obtained single content information result.");
             ContentInformation contentInformation = result.get(0);
+            if (version == null) {
+                conditionalRequestService.rememberContent(resource, contentInformation);
+            }
+            CacheControl cacheControl = conditionalRequestService.getCacheControl(ConditionalRequestService.isPublic(resource));
 
             long currentVersion = contentAuditService.getCurrentVersion(Long.toString(contentInformation.getId()));
             if (currentVersion > 0) {
-                return ResponseEntity.ok().eTag("\"" + contentInformation.getEtag() + "\"").header(VERSION_HEADER, Long.toString(currentVersion)).body(fixContentInformation(contentInformation, version));
+                return ResponseEntity.ok().eTag("\"" + contentInformation.getEtag() + "\"").cacheControl(cacheControl).header(VERSION_HEADER, Long.toString(currentVersion)).body(fixContentInformation(contentInformation, version));
             } else {
-                return ResponseEntity.ok().eTag("\"" + contentInformation.getEtag() + "\"").body(fixContentInformation(contentInformation, version));
+                return ResponseEntity.ok().eTag("\"" + contentInformation.getEtag() + "\"").cacheControl(cacheControl).body(fixContentInformation(contentInformation, version));
             }
         }
 
     }
 
+    @Override
+    public ResponseEntity<List<ContentInformation>> getContentMetadataByCursor(@PathVariable(value = "id") final String identifier,
+            @RequestParam(name = "cursor") final String cursor,
+            @RequestParam(name = "tag", required = false) final String tag,
+            @RequestParam(name = "size", defaultValue = "20") final int size,
+            @RequestParam(name = "count", defaultValue = "false") final boolean count,
+            final WebRequest request,
+            final HttpServletResponse response) {
+        LOGGER.trace("Get content metadata for resource with id '{}' after cursor '{}'", identifier, cursor);
+        DataResource resource = getCachedResource(identifier, (t) -> {
+            String link = LinkTemplate.appendQueryParameter(CONTENT_LINK.expand(t), "cursor", cursor);
+            link = LinkTemplate.appendQueryParameter(link, "tag", tag);
+            link = LinkTemplate.appendQueryParameter(link, "size", size);
+            return LinkTemplate.appendQueryParameter(link, "count", count);
+        });
+        DataResourceUtils.performPermissionCheck(resource, PERMISSION.READ);
+        String path = ContentDataUtils.getContentPathFromRequest(request);
+        if (!path.isEmpty() && !path.endsWith("/")) {
+            throw new BadArgumentException("Cursor-based pagination is only supported for collections, i.e., paths ending with a slash.");
+        }
+        int pageSize = ControllerUtils.checkPaginationInformation(PageRequest.of(0, size)).getPageSize();
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Long lastId;
+        try {
+            lastId = after != null ? Long.valueOf(after.getId()) : -1l;
+        } catch (NumberFormatException ex) {
+            throw new BadArgumentException("Invalid cursor " + cursor + ".");
+        }
+        String pathPattern = path.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        //read one additional element to determine whether there is a next page
+        List<ContentInformation> result = (tag == null)
+                ? contentInformationLookupDao.findNextPageByPath(resource.getId(), pathPattern, lastId, PageRequest.of(0, pageSize + 1))
+                : contentInformationLookupDao.findNextPageByPathAndTag(resource.getId(), pathPattern, tag, lastId, PageRequest.of(0, pageSize + 1));
+        if (result.size() > pageSize) {
+            result = new ArrayList<>(result.subList(0, pageSize));
+            addNextLink(response, new KeysetCursor(null, Long.toString(result.get(pageSize - 1).getId())));
+        }
+        if (count) {
+            response.addHeader(CONTENT_RANGE_HEADER, "*/" + contentInformationLookupDao.countByResourceIdAndPath(resource.getId(), pathPattern));
+        }
+        return ResponseEntity.ok().body(fixContentInformation(result, null));
+    }
+
     @Override
     public ResponseEntity getContentMetadataPid(@PathVariable(value = "prefix") final String prefix,
             @PathVariable(value = "suffix") final String suffix,
@@ -451,13 +835,15 @@ public class DataResourceController implements IDataResourceController {
             final WebRequest request,
             final HttpServletResponse response) {
         Function<String, String> patchContentMetadata = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).patchContentMetadata(t, patch, request, response)).toString();
+            return CONTENT_LINK.expand(t);
         };
         String path = ContentDataUtils.getContentPathFromRequest(request);
         String eTag = ControllerUtils.getEtagFromHeader(request);
-        ContentInformation toUpdate = ContentDataUtils.patchContentInformation(repositoryProperties, identifier, path, patch, eTag, patchContentMetadata);
-
-        indexResource(identifier, true);
+        ContentInformation toUpdate = outboxService.execute(() -> {
+            ContentInformation patched = ContentDataUtils.patchContentInformation(repositoryProperties, identifier, path, patch, eTag, patchContentMetadata);
+            outboxService.recordContentChange(patched.getParentResource().getId(), patched.getRelativePath());
+            return patched;
+        });
 
         long currentVersion = contentAuditService.getCurrentVersion(Long.toString(toUpdate.getId()));
         if (currentVersion > 0) {
@@ -486,14 +872,93 @@ public class DataResourceController implements IDataResourceController {
         String path = ContentDataUtils.getContentPathFromRequest(request);
         LOGGER.trace("Path: '{}'", path);
         String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
-        DataResource resource = DataResourceUtils.getResourceByIdentifierOrRedirect(repositoryProperties, identifier, null, (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).getContentMetadata(t, null, 1l, null, request, response, uriBuilder)).toString();
+        DataResource resource = getCachedResource(identifier, (t) -> {
+            return LinkTemplate.appendQueryParameter(CONTENT_LINK.expand(t), "version", 1l);
         });
         DataResourceUtils.performPermissionCheck(resource, PERMISSION.READ);
         LOGGER.debug("Access to resource with identifier {} granted. Continue with content access.", resource.getId());
+        //current local files are served with range support, versions, collections, remote content and
+        //content not matching the Accept header are delivered by the content information service
+        if (version == null && !path.isEmpty() && !path.endsWith("/")) {
+            ContentInformation info = getLocalContent(resource, path);
+            if (info != null && isAcceptable(acceptHeader, info.getMediaType())) {
+                Path localFile = Paths.get(URI.create(info.getContentUri()));
+                LOGGER.trace("Serving local file {} with range support.", localFile);
+                try {
+                    ContentRangeUtils.FileTransfer fileTransfer = asyncDownloadService.isEnabled() ? asyncDownloadService::transfer : ContentRangeUtils::transfer;
+                    ContentRangeUtils.serveFile(localFile, info.getMediaType(), info.getEtag(), request.getNativeRequest(HttpServletRequest.class), response, fileTransfer);
+                } catch (IOException ex) {
+                    LOGGER.error("Failed to serve content from file " + localFile + ".", ex);
+                    throw new CustomInternalServerError("Failed to read content from repository.");
+                }
+                return;
+            }
+        }
         contentInformationService.read(resource, path, version, acceptHeader, response);
     }
 
+    /**
+     * Resolve a resource for read access to its content. The resource is
+     * taken from the DataResourceCache if possible and must not be modified.
+     *
+     * @param identifier The resource identifier.
+     * @param redirect The function creating the redirect link if the resource
+     * was found via an alternate identifier.
+     *
+     * @return The resource.
+     */
+    private DataResource getCachedResource(String identifier, Function<String, String> redirect) {
+        return dataResourceCache.get(identifier, () -> DataResourceUtils.getResourceByIdentifierOrRedirect(repositoryProperties, identifier, null, redirect));
+    }
+
+    /**
+     * Check whether the provided Accept header admits the media type of local
+     * content. If not, the request is passed on to the content information
+     * service, which applies its own content negotiation.
+     *
+     * @param acceptHeader The Accept header or null.
+     * @param mediaType The media type of the content or null.
+     *
+     * @return TRUE if the content can be served directly.
+     */
+    private boolean isAcceptable(String acceptHeader, String mediaType) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return true;
+        }
+        try {
+            MediaType type = MediaType.parseMediaType((mediaType != null) ? mediaType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            return MediaType.parseMediaTypes(acceptHeader).stream().anyMatch(accepted -> accepted.isCompatibleWith(type));
+        } catch (InvalidMediaTypeException ex) {
+            LOGGER.trace("Unable to evaluate Accept header '{}' for media type {}.", acceptHeader, mediaType);
+            return false;
+        }
+    }
+
+    /**
+     * Get the content information at the provided path, if the content is
+     * stored in a local file which exists. For all other content, e.g., remote
+     * content or collections, null is returned and the content information
+     * service takes care of delivering the content.
+     *
+     * @param resource The parent resource.
+     * @param path The relative path of the content.
+     *
+     * @return The content information or null.
+     */
+    private ContentInformation getLocalContent(DataResource resource, String path) {
+        try {
+            ContentInformation info = contentInformationService.getContentInformation(resource.getId(), path, null);
+            if (info.getContentUri() == null || !info.getContentUri().startsWith("file:")) {
+                return null;
+            }
+            Path file = Paths.get(URI.create(info.getContentUri()));
+            return Files.isRegularFile(file) && Files.isReadable(file) ? info : null;
+        } catch (ResourceNotFoundException | IllegalArgumentException ex) {
+            LOGGER.trace("No local file found for path {}.", path);
+            return null;
+        }
+    }
+
     @Override
     public void getContentPid(@PathVariable(value = "prefix") final String prefix,
             @PathVariable(value = "suffix") final String suffix,
@@ -512,11 +977,13 @@ public class DataResourceController implements IDataResourceController {
         String path = ContentDataUtils.getContentPathFromRequest(request);
         String eTag = ControllerUtils.getEtagFromHeader(request);
         Function<String, String> deleteContent = (t) -> {
-            return WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).deleteContent(t, request, response)).toString();
+            return CONTENT_LINK.expand(t);
         };
-        ContentDataUtils.deleteFile(repositoryProperties, identifier, path, eTag, deleteContent);
-
-        indexResource(identifier, true);
+        outboxService.execute(() -> {
+            ContentDataUtils.deleteFile(repositoryProperties, identifier, path, eTag, deleteContent);
+            outboxService.recordContentChange(identifier, path);
+            return null;
+        });
 
         return ResponseEntity.noContent().build();
     }
@@ -530,70 +997,144 @@ public class DataResourceController implements IDataResourceController {
     }
 
     private ContentInformation fixContentInformation(ContentInformation resource, Long version) {
+        return fixContentInformation(resource, version, applicationProperties.isAuditEnabled(), LinkTemplate.getBaseUri());
+    }
+
+    private List<ContentInformation> fixContentInformation(List<ContentInformation> resources, Long version) {
+        return fixContentInformation(resources, version, applicationProperties.isAuditEnabled());
+    }
+
+    /**
+     * Hide all attributes but the id from the parent data resource in all
+     * content information entities and replace URIs of local files by links to
+     * the content. Package-visible for benchmarking.
+     *
+     * @param resources The content information entities.
+     * @param version The requested version or null.
+     * @param versioned TRUE if versioning is enabled and the version should be
+     * part of content links.
+     *
+     * @return The modified content information entities.
+     */
+    static List<ContentInformation> fixContentInformation(List<ContentInformation> resources, Long version, boolean versioned) {
+        String baseUri = LinkTemplate.getBaseUri();
+        resources.forEach((resource) -> {
+            fixContentInformation(resource, version, versioned, baseUri);
+        });
+        return resources;
+    }
+
+    private static ContentInformation fixContentInformation(ContentInformation resource, Long version, boolean versioned, String baseUri) {
         //hide all attributes but the id from the parent data resource in the content information entity
         String id = resource.getParentResource().getId();
         resource.setParentResource(DataResource.factoryNewDataResource(id));
         // fix content URI if URI points to a local file
         if (resource.getContentUri() != null && resource.getContentUri().startsWith("file:/")) {
-            Long fileVersion = version != null ? version : 1l;
-            String contentUri = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(this.getClass()).getContentMetadata(id, null, fileVersion, null, null, null, null)).toString();
-            contentUri = contentUri.replaceAll("\\*\\*", resource.getRelativePath());
-            if ((version == null) || !applicationProperties.isAuditEnabled()) {
-                // Remove path parameter version
-                int qmIndex = contentUri.lastIndexOf("?");
-                if (qmIndex > 0) {
-                    contentUri = contentUri.substring(0, qmIndex);
-
-                }
+            String contentUri = CONTENT_LINK.expand(baseUri, id).replace("**", resource.getRelativePath());
+            if ((version != null) && versioned) {
+                contentUri = LinkTemplate.appendQueryParameter(contentUri, "version", version);
             }
             resource.setContentUri(contentUri);
         }
         return resource;
     }
 
-    private List<ContentInformation> fixContentInformation(List<ContentInformation> resources, Long version) {
-        //hide all attributes but the id from the parent data resource in all content information entities
-        resources.forEach((resource) -> {
-            fixContentInformation(resource, version);
+    private UploadSession getUploadSession(String identifier, String uploadId, String path) {
+        DataResource resource = DataResourceUtils.getResourceByIdentifierOrRedirect(repositoryProperties, identifier, null, (t) -> {
+            return LinkTemplate.appendQueryParameter(CONTENT_LINK.expand(t), "uploadId", uploadId);
         });
-        return resources;
+        return uploadSessionService.getSession(uploadId, resource.getId(), path);
     }
 
-    private void indexResource(
-            String identifier,
-            boolean includeContent) {
-        if (dataResourceRepository.isPresent()) {
-            LOGGER.trace("Indexing data resource {} {} content information.", identifier, (includeContent ? "with" : "without"));
-            Optional<DataResource> resource = dataResourceDao.findById(identifier);
-            ElasticWrapper wrapper;
-
-            if (includeContent) {
-                LOGGER.trace("Reading content information for resource {}.", identifier);
-                Page<ContentInformation> page = contentInformationDao.findByParentResource(resource.get(), PageRequest.of(0, Integer.MAX_VALUE));
-                List<ContentInformation> infoList = page.toList();
-                LOGGER.trace("Obtained {} content information element(s). Shortening resource to reference.", infoList.size());
-                infoList.forEach(info -> {
-                    DataResource res = DataResource.factoryNewDataResource(info.getParentResource().getId());
-                    info.setParentResource(res);
-                });
-                LOGGER.trace("Creating Elastic wrapper with data resource and content information.");
-                wrapper = new ElasticWrapper(resource.get(), infoList);
+    private List<DataResource> toCursorPage(List<DataResource> result, int pageSize, HttpServletResponse response) {
+        if (result.size() <= pageSize) {
+            return result;
+        }
+        List<DataResource> page = new ArrayList<>(result.subList(0, pageSize));
+        DataResource last = page.get(pageSize - 1);
+        addNextLink(response, new KeysetCursor(last.getLastUpdate(), last.getId()));
+        return page;
+    }
 
-            } else {
-                LOGGER.trace("Creating Elastic wrapper with data resource.");
-                wrapper = new ElasticWrapper(resource.get());
+    private void addNextLink(HttpServletResponse response, KeysetCursor next) {
+        String link = ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam("cursor", next.encode()).replaceQueryParam("count").build().toUriString();
+        response.addHeader(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+    }
+
+    private boolean isConditionalRequest(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    private boolean checkNotModified(String etag, Instant lastModified, WebRequest request) {
+        if (etag == null && request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            //If-None-Match takes precedence over If-Modified-Since but cannot be evaluated without ETag
+            return false;
+        }
+        return request.checkNotModified((etag != null) ? "\"" + etag + "\"" : null, (lastModified != null) ? lastModified.toEpochMilli() : -1);
+    }
+
+    /**
+     * Apply 'repo.export.timeoutMs' to the asynchronous processing of a
+     * streamed response instead of the default async request timeout, which
+     * still applies to all other asynchronous requests. The timeout must be
+     * set before asynchronous processing is started, which happens after the
+     * handler method has returned.
+     *
+     * @param request The current request.
+     */
+    private void setExportTimeout(WebRequest request) {
+        long timeout = applicationProperties.getExportTimeout();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(EXPORT_TIMEOUT_INTERCEPTOR, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+                if (asyncRequest instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(timeout);
+                }
             }
-            LOGGER.trace("Indexing Elastic wrapper.");
-            dataResourceRepository.get().save(wrapper);
-        } else {
-            LOGGER.trace("No Elastic repository found. Skipping indexing of resource.");
+        });
+    }
+
+    private void writeLine(ObjectWriter writer, OutputStream out, DataResource resource) {
+        try {
+            out.write(writer.writeValueAsBytes(resource));
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
         }
     }
 
-    private void unindexResource(
-            String id) {
-        if (dataResourceRepository.isPresent()) {
-            dataResourceRepository.get().deleteById(id);
+    private ResponseEntity createdContentResponse(DataResource resource,
+            ContentInformation result,
+            String path,
+            final WebRequest request,
+            final HttpServletResponse response,
+            final UriComponentsBuilder uriBuilder) {
+        URI link = URI.create(LinkTemplate.appendQueryParameter(CONTENT_LINK.expand(resource.getId()), "version", 1l));
+
+        URIBuilder builder = new URIBuilder(link);
+        builder.setPath(builder.getPath().replace("**", path));
+        URI resourceUri = null;
+
+        try {
+            resourceUri = builder.build();
+        } catch (URISyntaxException ex) {
+            LOGGER.error("Failed to create location URI for path " + path + ". However, resource should be created.", ex);
+            throw new CustomInternalServerError("Resource creation successful, but unable to create resource linkfor path " + path + ".");
         }
+
+        long currentVersion = contentAuditService.getCurrentVersion(Long.toString(result.getId()));
+        if (currentVersion > 0) {
+            return ResponseEntity.created(resourceUri).header(VERSION_HEADER, Long.toString(currentVersion)).eTag("\"" + result.getEtag() + "\"").build();
+        } else {
+            return ResponseEntity.created(resourceUri).eTag("\"" + result.getEtag() + "\"").build();
+        }
+    }
+
+    private void recordChange(
+            String identifier,
+            OutboxEvent.ACTION action,
+            boolean includeContent) {
+        LOGGER.trace("Recording {} of data resource {} {} content information.", action, identifier, (includeContent ? "with" : "without"));
+        outboxService.record(identifier, action, includeContent);
     }
 }
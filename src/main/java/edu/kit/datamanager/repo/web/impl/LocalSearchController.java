@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.web.impl;
+
+import edu.kit.datamanager.entities.RepoUserRole;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.search.LocalSearchIndex;
+import edu.kit.datamanager.repo.search.LocalSearchResult;
+import static edu.kit.datamanager.repo.web.impl.DataResourceController.CONTENT_RANGE_HEADER;
+import edu.kit.datamanager.repo.web.ILocalSearchController;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import edu.kit.datamanager.util.ControllerUtils;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Controller for searching resources using the embedded local search index.
+ *
+ * @author jejkal
+ */
+@Controller
+@RequestMapping(value = "/api/v1/search")
+@Schema(description = "Local Search")
+@ConditionalOnProperty(prefix = "repo.search.local", name = "enabled", havingValue = "true")
+public class LocalSearchController implements ILocalSearchController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalSearchController.class);
+
+    private final LocalSearchIndex localSearchIndex;
+    private final IDataResourceDao dataResourceDao;
+
+    public LocalSearchController(LocalSearchIndex localSearchIndex, IDataResourceDao dataResourceDao) {
+        this.localSearchIndex = localSearchIndex;
+        this.dataResourceDao = dataResourceDao;
+    }
+
+    @Override
+    public ResponseEntity<List<DataResource>> search(@RequestParam(name = "query", required = false) final String query,
+            final Pageable pgbl,
+            final WebRequest request,
+            final HttpServletResponse response) {
+        PageRequest pageRequest = ControllerUtils.checkPaginationInformation(pgbl);
+        LOGGER.trace("Searching local index for '{}' with page {}.", query, pageRequest);
+        LocalSearchResult result = localSearchIndex.search(query,
+                AuthenticationHelper.getAuthorizationIdentities(),
+                AuthenticationHelper.hasAuthority(RepoUserRole.ADMINISTRATOR.toString()),
+                pageRequest.getPageNumber(),
+                pageRequest.getPageSize());
+
+        //keep the order of the search result
+        Map<String, DataResource> resources = dataResourceDao.findAllById(result.getResourceIds()).stream().collect(Collectors.toMap(DataResource::getId, Function.identity()));
+        List<DataResource> hits = new ArrayList<>();
+        result.getResourceIds().stream().filter(resources::containsKey).forEach(id -> hits.add(resources.get(id)));
+
+        response.addHeader(CONTENT_RANGE_HEADER, ControllerUtils.getContentRangeHeader(pageRequest.getPageNumber(), pageRequest.getPageSize(), result.getTotalHits()));
+        return ResponseEntity.ok().body(hits);
+    }
+}
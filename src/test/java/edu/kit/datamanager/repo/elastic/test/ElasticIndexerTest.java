@@ -0,0 +1,192 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic.test;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.dao.IReindexJobDao;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.ReindexJob;
+import edu.kit.datamanager.repo.elastic.DataResourceRepository;
+import edu.kit.datamanager.repo.elastic.ElasticIndexer;
+import edu.kit.datamanager.repo.elastic.ElasticWrapper;
+import edu.kit.datamanager.repo.elastic.ElasticWrapperBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ *
+ * @author jejkal
+ */
+public class ElasticIndexerTest {
+
+    private DataResourceRepository dataResourceRepository;
+    private ElasticsearchOperations elasticsearchOperations;
+    private ElasticWrapperBuilder wrapperBuilder;
+    private ApplicationProperties applicationProperties;
+    private IReindexJobDao reindexJobDao;
+    private ElasticIndexer indexer;
+
+    @Before
+    public void setUp() {
+        dataResourceRepository = Mockito.mock(DataResourceRepository.class);
+        elasticsearchOperations = Mockito.mock(ElasticsearchOperations.class);
+
+        wrapperBuilder = Mockito.mock(ElasticWrapperBuilder.class);
+        Mockito.when(wrapperBuilder.build(ArgumentMatchers.any(DataResource.class), ArgumentMatchers.anyBoolean(), ArgumentMatchers.any())).thenAnswer(invocation -> Mockito.mock(ElasticWrapper.class));
+        //metadata can be updated partially, changed content requires a full operation
+        Mockito.when(wrapperBuilder.buildPartialUpdate(ArgumentMatchers.any(DataResource.class), ArgumentMatchers.anyBoolean(), ArgumentMatchers.<Set<String>>any())).thenAnswer(invocation -> {
+            Set<String> paths = invocation.getArgument(2);
+            return paths.isEmpty() ? Optional.of(Mockito.mock(UpdateQuery.class)) : Optional.empty();
+        });
+
+        applicationProperties = Mockito.mock(ApplicationProperties.class);
+        Mockito.when(applicationProperties.isIndexingAsync()).thenReturn(true);
+        Mockito.when(applicationProperties.getIndexingFlushInterval()).thenReturn(60000l);
+        Mockito.when(applicationProperties.getIndexingBatchSize()).thenReturn(1);
+        Mockito.when(applicationProperties.getIndexingQueueCapacity()).thenReturn(100);
+        Mockito.when(applicationProperties.getIndexingMaxRetries()).thenReturn(3);
+        Mockito.when(applicationProperties.getIndexingRetryBackoff()).thenReturn(60000l);
+
+        IDataResourceDao dataResourceDao = Mockito.mock(IDataResourceDao.class);
+        Mockito.when(dataResourceDao.findById(ArgumentMatchers.anyString())).thenAnswer(invocation -> Optional.of(DataResource.factoryNewDataResource(invocation.getArgument(0))));
+
+        reindexJobDao = Mockito.mock(IReindexJobDao.class);
+        Mockito.when(reindexJobDao.findFirstByStatusOrderByIdDesc(ReindexJob.STATUS.RUNNING)).thenReturn(Optional.empty());
+
+        indexer = new ElasticIndexer(Optional.of(dataResourceRepository), Optional.of(elasticsearchOperations), dataResourceDao, reindexJobDao,
+                wrapperBuilder, applicationProperties, Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testOperationsAreCoalescedPerResource() {
+        //a large batch size prevents flushing before shutdown
+        Mockito.when(applicationProperties.getIndexingBatchSize()).thenReturn(10);
+
+        indexer.index("1", false);
+        indexer.index("1", true);
+        indexer.updateMetadata("2");
+        indexer.updateMetadata("2");
+        Assert.assertEquals(2, indexer.getQueueSize());
+        indexer.shutdown();
+
+        //a single full operation including content for '1' and a single partial update for '2'
+        Mockito.verify(wrapperBuilder, Mockito.times(1)).build(ArgumentMatchers.any(DataResource.class), ArgumentMatchers.anyBoolean(), ArgumentMatchers.any());
+        Mockito.verify(wrapperBuilder).build(ArgumentMatchers.any(DataResource.class), ArgumentMatchers.eq(true), ArgumentMatchers.any());
+        Mockito.verify(wrapperBuilder, Mockito.times(1)).buildPartialUpdate(ArgumentMatchers.any(DataResource.class), ArgumentMatchers.anyBoolean(), ArgumentMatchers.<Set<String>>any());
+        Mockito.verify(elasticsearchOperations, Mockito.times(1)).bulkUpdate(ArgumentMatchers.anyList(), ArgumentMatchers.<IndexCoordinates>any());
+        Mockito.verify(dataResourceRepository, Mockito.times(1)).saveAll(ArgumentMatchers.anyIterable());
+    }
+
+    @Test
+    public void testChangesAreWrittenToShadowIndexOfRunningJob() {
+        //the job may have been started by another instance, it is only known from the database
+        ReindexJob job = ReindexJob.factoryReindexJob("baserepo", "baserepo-20250101120000", 1);
+        Mockito.when(reindexJobDao.findFirstByStatusOrderByIdDesc(ReindexJob.STATUS.RUNNING)).thenReturn(Optional.of(job));
+
+        indexer.updateMetadata("1");
+        indexer.unindex("2");
+        indexer.shutdown();
+
+        //partial updates cannot be mirrored, so the metadata update is applied as full operation
+        Mockito.verify(elasticsearchOperations, Mockito.never()).bulkUpdate(ArgumentMatchers.anyList(), ArgumentMatchers.<IndexCoordinates>any());
+        Mockito.verify(dataResourceRepository).saveAll(ArgumentMatchers.anyIterable());
+        Mockito.verify(elasticsearchOperations).save(ArgumentMatchers.anyIterable(), ArgumentMatchers.eq(IndexCoordinates.of("baserepo-20250101120000")));
+        Mockito.verify(elasticsearchOperations).delete("2", IndexCoordinates.of("baserepo-20250101120000"));
+    }
+
+    @Test
+    public void testFailedOperationIsRetried() {
+        Mockito.when(applicationProperties.getIndexingRetryBackoff()).thenReturn(0l);
+        Mockito.when(dataResourceRepository.saveAll(ArgumentMatchers.anyIterable())).
+                thenThrow(new IllegalStateException("Elastic not available")).
+                thenReturn(List.of());
+
+        indexer.index("1", false);
+        indexer.shutdown();
+
+        Mockito.verify(dataResourceRepository, Mockito.times(2)).saveAll(ArgumentMatchers.anyIterable());
+        Assert.assertEquals(0, indexer.getQueueSize());
+    }
+
+    @Test
+    public void testFailedOperationIsDroppedAfterMaxRetries() {
+        Mockito.when(applicationProperties.getIndexingRetryBackoff()).thenReturn(0l);
+        Mockito.when(applicationProperties.getIndexingMaxRetries()).thenReturn(1);
+        Mockito.when(dataResourceRepository.saveAll(ArgumentMatchers.anyIterable())).thenThrow(new IllegalStateException("Elastic not available"));
+
+        indexer.index("1", false);
+        indexer.shutdown();
+
+        //initial attempt and a single retry
+        Mockito.verify(dataResourceRepository, Mockito.times(2)).saveAll(ArgumentMatchers.anyIterable());
+        Assert.assertEquals(0, indexer.getQueueSize());
+    }
+
+    @Test
+    public void testChangingResourceReachesMaxRetries() {
+        Mockito.when(applicationProperties.getIndexingRetryBackoff()).thenReturn(0l);
+        Mockito.when(applicationProperties.getIndexingMaxRetries()).thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+        Mockito.when(dataResourceRepository.saveAll(ArgumentMatchers.anyIterable())).thenAnswer(invocation -> {
+            //the resource is changed again during the first three failing attempts
+            if (calls.incrementAndGet() <= 3) {
+                indexer.index("1", false);
+            }
+            throw new IllegalStateException("Elastic not available");
+        });
+
+        indexer.index("1", false);
+        indexer.shutdown();
+
+        //merging newer operations keeps the number of attempts, such that each operation gives up after a single retry
+        Assert.assertEquals(4, calls.get());
+        Assert.assertEquals(0, indexer.getQueueSize());
+    }
+
+    @Test
+    public void testFailedPartialOperationIsMergedIntoQueuedPartialOperation() {
+        AtomicInteger calls = new AtomicInteger();
+        Mockito.when(dataResourceRepository.saveAll(ArgumentMatchers.anyIterable())).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                //another partial operation is queued while the first one is failing
+                indexer.updateMetadata("1");
+                throw new IllegalStateException("Elastic not available");
+            }
+            return List.of();
+        });
+
+        indexer.updateContent("1", "file1.txt");
+        indexer.shutdown();
+
+        //the content change must not be lost, so the retry is a full operation including content
+        Mockito.verify(wrapperBuilder, Mockito.times(2)).build(ArgumentMatchers.any(DataResource.class), ArgumentMatchers.eq(true), ArgumentMatchers.any());
+        Mockito.verify(elasticsearchOperations, Mockito.never()).bulkUpdate(ArgumentMatchers.anyList(), ArgumentMatchers.any(IndexCoordinates.class));
+        Assert.assertEquals(0, indexer.getQueueSize());
+    }
+}
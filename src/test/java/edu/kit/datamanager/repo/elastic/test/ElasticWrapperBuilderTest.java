@@ -0,0 +1,123 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic.test;
+
+import edu.kit.datamanager.entities.PERMISSION;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IContentInformationLookupDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.dao.IReindexJobDao;
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.acl.AclEntry;
+import edu.kit.datamanager.repo.elastic.ContentInformationRepository;
+import edu.kit.datamanager.repo.elastic.DataResourceRepository;
+import edu.kit.datamanager.repo.elastic.ElasticContentWrapper;
+import edu.kit.datamanager.repo.elastic.ElasticIndexer;
+import edu.kit.datamanager.repo.elastic.ElasticWrapperBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ *
+ * @author jejkal
+ */
+public class ElasticWrapperBuilderTest {
+
+    private static final IndexCoordinates CONTENT_INDEX = IndexCoordinates.of("baserepo-content");
+
+    private ElasticsearchOperations elasticsearchOperations;
+    private ContentInformationRepository contentInformationRepository;
+    private ElasticWrapperBuilder wrapperBuilder;
+    private DataResource resource;
+    private ElasticIndexer indexer;
+
+    @Before
+    public void setUp() {
+        resource = DataResource.factoryNewDataResource("1");
+        resource.getAcls().add(new AclEntry("owner", PERMISSION.ADMINISTRATE));
+        resource.getAcls().add(new AclEntry("reader", PERMISSION.READ));
+
+        elasticsearchOperations = Mockito.mock(ElasticsearchOperations.class);
+        Mockito.when(elasticsearchOperations.getIndexCoordinatesFor(ElasticContentWrapper.class)).thenReturn(CONTENT_INDEX);
+        contentInformationRepository = Mockito.mock(ContentInformationRepository.class);
+        Mockito.when(contentInformationRepository.countByResourceId("1")).thenReturn(3l);
+
+        //three content elements exceed the maximum of two embedded elements
+        IContentInformationLookupDao contentInformationLookupDao = Mockito.mock(IContentInformationLookupDao.class);
+        Mockito.when(contentInformationLookupDao.countByResourceId("1")).thenReturn(3l);
+        Mockito.when(contentInformationLookupDao.findNextPage(ArgumentMatchers.eq("1"), ArgumentMatchers.anyLong(), ArgumentMatchers.any(Pageable.class))).thenAnswer(invocation -> {
+            List<ContentInformation> page = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                ContentInformation info = ContentInformation.createContentInformation("file" + i + ".txt");
+                info.setId((long) i);
+                page.add(info);
+            }
+            return page;
+        });
+
+        ApplicationProperties applicationProperties = Mockito.mock(ApplicationProperties.class);
+        Mockito.when(applicationProperties.getIndexingMaxEmbeddedContent()).thenReturn(2);
+        Mockito.when(applicationProperties.isIndexingContentDocuments()).thenReturn(true);
+        Mockito.when(applicationProperties.getIndexingContentPageSize()).thenReturn(10);
+
+        wrapperBuilder = new ElasticWrapperBuilder(contentInformationLookupDao, Optional.of(contentInformationRepository), applicationProperties, Optional.of(elasticsearchOperations));
+        ReflectionTestUtils.setField(wrapperBuilder, "entityManager", Mockito.mock(EntityManager.class));
+
+        IDataResourceDao dataResourceDao = Mockito.mock(IDataResourceDao.class);
+        Mockito.when(dataResourceDao.findById("1")).thenAnswer(invocation -> Optional.of(resource));
+        indexer = new ElasticIndexer(Optional.of(Mockito.mock(DataResourceRepository.class)), Optional.of(elasticsearchOperations), dataResourceDao, Mockito.mock(IReindexJobDao.class),
+                wrapperBuilder, applicationProperties, Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void testMetadataChangeWithContentDocumentsRequiresFullOperation() {
+        Assert.assertTrue(wrapperBuilder.buildPartialUpdate(resource, true, Set.of()).isEmpty());
+    }
+
+    @Test
+    public void testRevokedAclIsRemovedFromContentDocuments() {
+        resource.getAcls().removeIf(entry -> "reader".equals(entry.getSid()));
+        indexer.updateMetadata("1");
+
+        //the content documents are rewritten with the read permissions of the changed resource
+        Mockito.verify(contentInformationRepository).deleteByResourceId("1");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ElasticContentWrapper>> documents = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(elasticsearchOperations).save(documents.capture(), ArgumentMatchers.eq(CONTENT_INDEX));
+        Assert.assertEquals(3, documents.getValue().size());
+        documents.getValue().forEach(document -> {
+            Assert.assertTrue(document.getRead().contains("owner"));
+            Assert.assertFalse(document.getRead().contains("reader"));
+        });
+        Mockito.verify(elasticsearchOperations, Mockito.never()).bulkUpdate(ArgumentMatchers.anyList(), ArgumentMatchers.<IndexCoordinates>any());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic.test;
+
+import edu.kit.datamanager.repo.elastic.IndexOperation;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author jejkal
+ */
+public class IndexOperationTest {
+
+    @Test
+    public void testMergeIndexOperations() {
+        IndexOperation op = new IndexOperation("1", IndexOperation.Type.INDEX, false);
+        long submitted = op.getSubmitted();
+        op.merge(new IndexOperation("1", IndexOperation.Type.INDEX, true));
+        Assert.assertEquals(IndexOperation.Type.INDEX, op.getType());
+        //content must be included if any merged operation requested it
+        Assert.assertTrue(op.isIncludeContent());
+        op.merge(new IndexOperation("1", IndexOperation.Type.INDEX, false));
+        Assert.assertTrue(op.isIncludeContent());
+        //first submission time is kept for lag measurement
+        Assert.assertEquals(submitted, op.getSubmitted());
+    }
+
+    @Test
+    public void testDeleteSupersedesIndex() {
+        IndexOperation op = new IndexOperation("1", IndexOperation.Type.INDEX, true);
+        op.merge(new IndexOperation("1", IndexOperation.Type.DELETE, false));
+        Assert.assertEquals(IndexOperation.Type.DELETE, op.getType());
+        Assert.assertFalse(op.isIncludeContent());
+    }
+
+    @Test
+    public void testMergeKeepsRetryState() {
+        long notBefore = System.currentTimeMillis() + 10000;
+        IndexOperation op = new IndexOperation("1", IndexOperation.Type.INDEX, true);
+        op.setAttempts(3);
+        op.setNotBefore(notBefore);
+        op.merge(new IndexOperation("1", IndexOperation.Type.INDEX, false));
+        Assert.assertEquals(3, op.getAttempts());
+        Assert.assertEquals(notBefore, op.getNotBefore());
+
+        //the same applies if a failed operation is merged with a newer one
+        IndexOperation newer = new IndexOperation("1", IndexOperation.Type.INDEX, false);
+        newer.setAttempts(1);
+        newer.setNotBefore(notBefore + 1000);
+        op.merge(newer);
+        Assert.assertEquals(3, op.getAttempts());
+        Assert.assertEquals(notBefore + 1000, op.getNotBefore());
+    }
+
+    @Test
+    public void testMergePartialOperations() {
+        IndexOperation op = IndexOperation.metadataUpdate("1");
+        op.merge(IndexOperation.contentUpdate("1", "file1.txt"));
+        op.merge(IndexOperation.contentUpdate("1", "file2.txt"));
+        Assert.assertTrue(op.isPartial());
+        Assert.assertTrue(op.isMetadataChanged());
+        Assert.assertEquals(2, op.getContentPaths().size());
+        Assert.assertTrue(op.getContentPaths().contains("file1.txt"));
+    }
+
+    @Test
+    public void testFullOperationSupersedesPartialOperation() {
+        IndexOperation op = IndexOperation.contentUpdate("1", "file1.txt");
+        op.merge(new IndexOperation("1", IndexOperation.Type.INDEX, false));
+        Assert.assertFalse(op.isPartial());
+        //content was changed, therefore it must be part of the full operation
+        Assert.assertTrue(op.isIncludeContent());
+        Assert.assertTrue(op.getContentPaths().isEmpty());
+
+        op = new IndexOperation("1", IndexOperation.Type.INDEX, false);
+        op.merge(IndexOperation.metadataUpdate("1"));
+        Assert.assertFalse(op.isPartial());
+        Assert.assertFalse(op.isIncludeContent());
+    }
+
+    @Test
+    public void testTooManyContentPathsResultInFullOperation() {
+        IndexOperation op = IndexOperation.contentUpdate("1", "file0.txt");
+        for (int i = 1; i <= IndexOperation.MAX_CONTENT_PATHS; i++) {
+            op.merge(IndexOperation.contentUpdate("1", "file" + i + ".txt"));
+        }
+        Assert.assertFalse(op.isPartial());
+        Assert.assertTrue(op.isIncludeContent());
+    }
+
+    @Test
+    public void testPartialOperationAfterDelete() {
+        IndexOperation op = new IndexOperation("1", IndexOperation.Type.DELETE, false);
+        op.merge(IndexOperation.metadataUpdate("1"));
+        Assert.assertEquals(IndexOperation.Type.INDEX, op.getType());
+        Assert.assertTrue(op.isPartial());
+        Assert.assertTrue(op.isMetadataChanged());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.elastic.test;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.dao.IDataResourceLookupDao;
+import edu.kit.datamanager.repo.dao.IReindexJobDao;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.ReindexJob;
+import edu.kit.datamanager.repo.elastic.ElasticWrapper;
+import edu.kit.datamanager.repo.elastic.ElasticWrapperBuilder;
+import edu.kit.datamanager.repo.elastic.ReindexService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ *
+ * @author jejkal
+ */
+public class ReindexServiceTest {
+
+    private ElasticsearchOperations elasticsearchOperations;
+    private IndexOperations indexOperations;
+    private IReindexJobDao reindexJobDao;
+    private ReindexService reindexService;
+
+    @Before
+    public void setUp() {
+        elasticsearchOperations = Mockito.mock(ElasticsearchOperations.class);
+        indexOperations = Mockito.mock(IndexOperations.class);
+        Mockito.when(elasticsearchOperations.getIndexCoordinatesFor(ElasticWrapper.class)).thenReturn(IndexCoordinates.of("baserepo"));
+        Mockito.when(elasticsearchOperations.indexOps(ArgumentMatchers.any(IndexCoordinates.class))).thenReturn(indexOperations);
+        Mockito.when(elasticsearchOperations.indexOps(ArgumentMatchers.<Class<?>>any())).thenReturn(Mockito.mock(IndexOperations.class));
+
+        ElasticWrapperBuilder wrapperBuilder = Mockito.mock(ElasticWrapperBuilder.class);
+        Mockito.when(wrapperBuilder.build(ArgumentMatchers.any(DataResource.class), ArgumentMatchers.anyBoolean(), ArgumentMatchers.any())).thenAnswer(invocation -> Mockito.mock(ElasticWrapper.class));
+
+        IDataResourceDao dataResourceDao = Mockito.mock(IDataResourceDao.class);
+        Mockito.when(dataResourceDao.findById(ArgumentMatchers.anyString())).thenAnswer(invocation -> Optional.of(DataResource.factoryNewDataResource(invocation.getArgument(0))));
+
+        IDataResourceLookupDao dataResourceLookupDao = Mockito.mock(IDataResourceLookupDao.class);
+        Mockito.when(dataResourceLookupDao.countAll()).thenReturn(3l);
+        Mockito.when(dataResourceLookupDao.findNextIds(ArgumentMatchers.eq(""), ArgumentMatchers.any(Pageable.class))).thenReturn(List.of("a", "b", "c"));
+        Mockito.when(dataResourceLookupDao.findNextIds(ArgumentMatchers.eq("c"), ArgumentMatchers.any(Pageable.class))).thenReturn(List.of());
+
+        reindexJobDao = Mockito.mock(IReindexJobDao.class);
+        Mockito.when(reindexJobDao.save(ArgumentMatchers.any(ReindexJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ApplicationProperties applicationProperties = Mockito.mock(ApplicationProperties.class);
+        Mockito.when(applicationProperties.getReindexWorkers()).thenReturn(1);
+        Mockito.when(applicationProperties.getReindexBatchSize()).thenReturn(10);
+
+        reindexService = new ReindexService(elasticsearchOperations, wrapperBuilder,
+                dataResourceDao, dataResourceLookupDao, reindexJobDao, applicationProperties, Mockito.mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    public void testFailedResourcesAreRetried() throws Exception {
+        Mockito.when(elasticsearchOperations.save(ArgumentMatchers.anyIterable(), ArgumentMatchers.any(IndexCoordinates.class)))
+                .thenThrow(bulkFailure("b"))
+                .thenReturn(List.of());
+
+        ReindexJob job = runJob();
+        Assert.assertEquals(ReindexJob.STATUS.COMPLETED, job.getStatus());
+        Assert.assertEquals(3, job.getProcessed());
+        Assert.assertEquals(0, job.getFailed());
+        Mockito.verify(indexOperations).alias(ArgumentMatchers.any());
+        Mockito.verify(indexOperations, Mockito.never()).delete();
+    }
+
+    @Test
+    public void testRetriedResourcesAreCountedOnce() throws Exception {
+        Mockito.when(elasticsearchOperations.save(ArgumentMatchers.anyIterable(), ArgumentMatchers.any(IndexCoordinates.class)))
+                .thenThrow(bulkFailure("a", "b"))
+                .thenThrow(bulkFailure("b"));
+
+        ReindexJob job = runJob();
+        Assert.assertEquals(ReindexJob.STATUS.FAILED, job.getStatus());
+        //'c' is indexed in the first and 'a' in the second attempt, 'b' is never indexed
+        Assert.assertEquals(2, job.getProcessed());
+        Assert.assertEquals(1, job.getFailed());
+        Assert.assertEquals(3, job.getProcessed() + job.getFailed());
+    }
+
+    @Test
+    public void testPartialBatchFailureKeepsAlias() throws Exception {
+        Mockito.when(elasticsearchOperations.save(ArgumentMatchers.anyIterable(), ArgumentMatchers.any(IndexCoordinates.class)))
+                .thenThrow(bulkFailure("b"));
+
+        ReindexJob job = runJob();
+        Assert.assertEquals(ReindexJob.STATUS.FAILED, job.getStatus());
+        Assert.assertEquals(2, job.getProcessed());
+        Assert.assertEquals(1, job.getFailed());
+        Assert.assertNotNull(job.getLastError());
+        //the alias must not be swapped to the incomplete index, which is removed instead
+        Mockito.verify(indexOperations, Mockito.never()).alias(ArgumentMatchers.any());
+        Mockito.verify(indexOperations).delete();
+    }
+
+    @Test
+    public void testResumedJobRetriesPersistedFailures() throws Exception {
+        //the job was interrupted after all batches, but before resource 'b' was retried
+        ReindexJob interrupted = ReindexJob.factoryReindexJob("baserepo", "baserepo-20250101120000", 3);
+        interrupted.setId(1l);
+        interrupted.setLastResourceId("c");
+        interrupted.setProcessed(2);
+        interrupted.getFailedIds().add("b");
+        interrupted.setFailed(1);
+        Mockito.when(reindexJobDao.findFirstByStatusOrderByIdDesc(ReindexJob.STATUS.RUNNING)).thenReturn(Optional.of(interrupted));
+        Mockito.when(elasticsearchOperations.save(ArgumentMatchers.anyIterable(), ArgumentMatchers.any(IndexCoordinates.class))).thenReturn(List.of());
+
+        reindexService.resumeInterruptedJob();
+        ReindexJob job = awaitJob();
+        Assert.assertEquals(ReindexJob.STATUS.COMPLETED, job.getStatus());
+        Assert.assertEquals(3, job.getProcessed());
+        Assert.assertEquals(0, job.getFailed());
+        Assert.assertTrue(job.getFailedIds().isEmpty());
+        Mockito.verify(indexOperations).alias(ArgumentMatchers.any());
+    }
+
+    private ReindexJob runJob() throws InterruptedException {
+        Assert.assertTrue(reindexService.start().isPresent());
+        return awaitJob();
+    }
+
+    private ReindexJob awaitJob() throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10000;
+        while (reindexService.isRunning() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        Assert.assertFalse(reindexService.isRunning());
+        return reindexService.getJob().get();
+    }
+
+    private BulkFailureException bulkFailure(String... failedIds) {
+        BulkFailureException ex = Mockito.mock(BulkFailureException.class);
+        Map<String, Object> failed = new HashMap<>();
+        for (String id : failedIds) {
+            failed.put(id, null);
+        }
+        Mockito.doReturn(Collections.unmodifiableMap(failed)).when(ex).getFailedDocuments();
+        return ex;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.search.test;
+
+import edu.kit.datamanager.entities.PERMISSION;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IContentInformationLookupDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.dao.IDataResourceLookupDao;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Description;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.domain.acl.AclEntry;
+import edu.kit.datamanager.repo.search.LocalSearchIndex;
+import edu.kit.datamanager.repo.search.LocalSearchResult;
+import edu.kit.datamanager.repo.search.ResourceIndexEvent;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ *
+ * @author jejkal
+ */
+public class LocalSearchIndexTest {
+
+    private LocalSearchIndex index;
+    private IDataResourceDao dataResourceDao;
+    private IContentInformationLookupDao contentInformationLookupDao;
+
+    @Before
+    public void setUp() throws Exception {
+        ApplicationProperties properties = Mockito.mock(ApplicationProperties.class);
+        Mockito.when(properties.getLocalSearchPath()).thenReturn(Files.createTempDirectory("local-search").toString());
+        dataResourceDao = Mockito.mock(IDataResourceDao.class);
+        contentInformationLookupDao = Mockito.mock(IContentInformationLookupDao.class);
+        index = new LocalSearchIndex(properties,
+                dataResourceDao,
+                Mockito.mock(IDataResourceLookupDao.class),
+                contentInformationLookupDao,
+                Mockito.mock(PlatformTransactionManager.class));
+        index.init();
+    }
+
+    @After
+    public void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    public void testSearchWithAclFiltering() throws Exception {
+        DataResource resource = DataResource.factoryNewDataResource("res1");
+        resource.setState(DataResource.State.VOLATILE);
+        resource.getTitles().add(Title.factoryTitle("Climate observations", Title.TYPE.OTHER));
+        resource.getDescriptions().add(Description.factoryDescription("Measurements of the atmosphere", Description.TYPE.OTHER, "en"));
+        resource.getAcls().add(new AclEntry("owner", PERMISSION.ADMINISTRATE));
+        resource.getAcls().add(new AclEntry("reader", PERMISSION.READ));
+        Mockito.when(dataResourceDao.findById("res1")).thenReturn(Optional.of(resource));
+        List<Object[]> paths = new ArrayList<>();
+        paths.add(new Object[]{1l, "data/temperature.nc"});
+        Mockito.when(contentInformationLookupDao.findNextRelativePaths(ArgumentMatchers.eq("res1"), ArgumentMatchers.anyLong(), ArgumentMatchers.any())).thenReturn(paths);
+
+        index.onResourceIndexEvent(new ResourceIndexEvent("res1", false));
+        waitForHits("climate", 1);
+
+        Assert.assertEquals(1, index.search("atmosphere", List.of("reader"), false, 0, 10).getTotalHits());
+        Assert.assertEquals(1, index.search("path:temperature.nc", List.of("reader"), false, 0, 10).getTotalHits());
+        Assert.assertEquals(0, index.search("climate", List.of("someoneElse"), false, 0, 10).getTotalHits());
+        Assert.assertEquals(1, index.search("climate", List.of("someoneElse"), true, 0, 10).getTotalHits());
+
+        //revoked resources are only visible to sids with ADMINISTRATE permissions
+        resource.setState(DataResource.State.REVOKED);
+        index.onResourceIndexEvent(new ResourceIndexEvent("res1", false));
+        waitForHits("climate", 1, "owner");
+        Assert.assertEquals(0, index.search("climate", List.of("reader"), false, 0, 10).getTotalHits());
+
+        index.onResourceIndexEvent(new ResourceIndexEvent("res1", true));
+        waitForHits("climate", 0);
+    }
+
+    private void waitForHits(String query, long expected) throws InterruptedException {
+        waitForHits(query, expected, "reader");
+    }
+
+    private void waitForHits(String query, long expected, String sid) throws InterruptedException {
+        LocalSearchResult result = null;
+        for (int i = 0; i < 50; i++) {
+            result = index.search(query, List.of(sid), false, 0, 10);
+            if (result.getTotalHits() == expected) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        Assert.assertEquals(expected, result.getTotalHits());
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.test;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.service.impl.AsyncDownloadService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ *
+ * @author jejkal
+ */
+public class AsyncDownloadServiceTest {
+
+    private Path file;
+    private byte[] content;
+    private ApplicationProperties properties;
+    private AsyncDownloadService service;
+
+    @Before
+    public void setUp() throws Exception {
+        content = new byte[4000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file = Files.createTempFile("asyncDownload", ".bin");
+        Files.write(file, content);
+        properties = Mockito.mock(ApplicationProperties.class);
+        Mockito.when(properties.isDownloadAsyncEnabled()).thenReturn(true);
+        Mockito.when(properties.getDownloadMaxTransfers()).thenReturn(1);
+        Mockito.when(properties.getDownloadChunkSize()).thenReturn(1024);
+        Mockito.when(properties.getDownloadTimeout()).thenReturn(0l);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (service != null) {
+            service.shutdown();
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testTransferRange() throws Exception {
+        service = new AsyncDownloadService(properties, new SimpleMeterRegistry());
+        Transfer transfer = new Transfer();
+        service.transfer(file, 100, 3000, transfer.request, transfer.response);
+        Assert.assertEquals(1, service.getActiveTransfers());
+
+        //without configured timeout, the container must not abort the transfer
+        Mockito.verify(transfer.context).setTimeout(0);
+        transfer.listener().onWritePossible();
+        Mockito.verify(transfer.context).complete();
+        Assert.assertArrayEquals(Arrays.copyOfRange(content, 100, 3100), transfer.body.toByteArray());
+        Assert.assertEquals(0, service.getActiveTransfers());
+    }
+
+    @Test
+    public void testMaxTransfers() throws Exception {
+        service = new AsyncDownloadService(properties, new SimpleMeterRegistry());
+        Transfer first = new Transfer();
+        service.transfer(file, 0, content.length, first.request, first.response);
+
+        Transfer second = new Transfer();
+        service.transfer(file, 0, content.length, second.request, second.response);
+        Mockito.verify(second.response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        Mockito.verify(second.request, Mockito.never()).startAsync(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        //permit is released after the first transfer is finished
+        first.listener().onWritePossible();
+        Transfer third = new Transfer();
+        service.transfer(file, 0, content.length, third.request, third.response);
+        Mockito.verify(third.request).startAsync(third.request, third.response);
+    }
+
+    @Test
+    public void testBandwidthLimit() throws Exception {
+        Mockito.when(properties.getDownloadBandwidthLimit()).thenReturn(2000l);
+        service = new AsyncDownloadService(properties, new SimpleMeterRegistry());
+        Transfer transfer = new Transfer();
+        long start = System.nanoTime();
+        service.transfer(file, 0, content.length, transfer.request, transfer.response);
+        transfer.listener().onWritePossible();
+        //only the first second worth of data is sent immediately, the rest is throttled
+        Assert.assertTrue(transfer.body.size() <= 2000);
+
+        Mockito.verify(transfer.context, Mockito.timeout(5000)).complete();
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+        Assert.assertArrayEquals(content, transfer.body.toByteArray());
+    }
+
+    @Test
+    public void testThrottledTransferOutlastsTimeout() throws Exception {
+        Mockito.when(properties.getDownloadBandwidthLimit()).thenReturn(2000l);
+        Mockito.when(properties.getDownloadTimeout()).thenReturn(500l);
+        service = new AsyncDownloadService(properties, new SimpleMeterRegistry());
+        Transfer transfer = new Transfer();
+        long start = System.nanoTime();
+        service.transfer(file, 0, content.length, transfer.request, transfer.response);
+        transfer.listener().onWritePossible();
+        Mockito.verify(transfer.context, Mockito.timeout(5000)).complete();
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        //the transfer takes longer than the configured timeout, which is extended by the throttled duration
+        ArgumentCaptor<Long> timeout = ArgumentCaptor.forClass(Long.class);
+        Mockito.verify(transfer.context).setTimeout(timeout.capture());
+        Assert.assertTrue(duration > 500);
+        Assert.assertEquals(2500l, timeout.getValue().longValue());
+        Assert.assertTrue(duration < timeout.getValue());
+        Assert.assertArrayEquals(content, transfer.body.toByteArray());
+    }
+
+    @Test
+    public void testFallbackWithoutAsyncSupport() throws Exception {
+        service = new AsyncDownloadService(properties, new SimpleMeterRegistry());
+        Transfer transfer = new Transfer();
+        Mockito.when(transfer.request.isAsyncSupported()).thenReturn(false);
+        service.transfer(file, 0, content.length, transfer.request, transfer.response);
+        Mockito.verify(transfer.request, Mockito.never()).startAsync(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Assert.assertEquals(0, service.getActiveTransfers());
+    }
+
+    /**
+     * Mocked request and response collecting the response body in memory.
+     * The output stream is always ready.
+     */
+    private static class Transfer {
+
+        final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        final HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        final AsyncContext context = Mockito.mock(AsyncContext.class);
+        final ServletOutputStream out = Mockito.mock(ServletOutputStream.class);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        Transfer() throws Exception {
+            Mockito.when(request.isAsyncSupported()).thenReturn(true);
+            Mockito.when(request.startAsync(request, response)).thenReturn(context);
+            Mockito.when(response.getOutputStream()).thenReturn(out);
+            Mockito.when(out.isReady()).thenReturn(true);
+            Mockito.doAnswer(invocation -> {
+                body.write(invocation.getArgument(0, byte[].class), invocation.getArgument(1, Integer.class), invocation.getArgument(2, Integer.class));
+                return null;
+            }).when(out).write(ArgumentMatchers.any(byte[].class), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt());
+        }
+
+        WriteListener listener() {
+            ArgumentCaptor<WriteListener> captor = ArgumentCaptor.forClass(WriteListener.class);
+            Mockito.verify(out).setWriteListener(captor.capture());
+            return captor.getValue();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.test;
+
+import edu.kit.datamanager.repo.service.impl.CacheInvalidationService;
+import edu.kit.datamanager.repo.service.impl.ConditionalRequestService;
+import edu.kit.datamanager.repo.service.impl.DataResourceCache;
+import edu.kit.datamanager.repo.service.impl.LocalCacheInvalidationBus;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ *
+ * @author jejkal
+ */
+public class CacheInvalidationServiceTest {
+
+    private LocalCacheInvalidationBus bus;
+    private ConditionalRequestService validators1;
+    private DataResourceCache resources1;
+    private ConditionalRequestService validators2;
+    private DataResourceCache resources2;
+    private CacheInvalidationService node1;
+
+    @Before
+    public void setUp() {
+        //two instances sharing one bus
+        bus = new LocalCacheInvalidationBus();
+        validators1 = Mockito.mock(ConditionalRequestService.class);
+        resources1 = Mockito.mock(DataResourceCache.class);
+        validators2 = Mockito.mock(ConditionalRequestService.class);
+        resources2 = Mockito.mock(DataResourceCache.class);
+        node1 = new CacheInvalidationService(validators1, resources1, bus);
+        new CacheInvalidationService(validators2, resources2, bus);
+    }
+
+    @Test
+    public void testInvalidationIsBroadcasted() {
+        node1.invalidateAll(List.of("res1", "res2"));
+        Mockito.verify(resources1, Mockito.atLeastOnce()).invalidate("res1");
+        Mockito.verify(validators1, Mockito.atLeastOnce()).invalidate("res2");
+        Mockito.verify(resources2).invalidate("res1");
+        Mockito.verify(resources2).invalidate("res2");
+        Mockito.verify(validators2).invalidate("res1");
+        Mockito.verify(validators2).invalidate("res2");
+    }
+
+    @Test
+    public void testLocalInvalidationIsNotBroadcasted() {
+        node1.invalidateLocally(List.of("res1"));
+        Mockito.verify(resources1).invalidate("res1");
+        Mockito.verifyNoInteractions(resources2, validators2);
+    }
+
+    @Test
+    public void testBroadcastAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            node1.invalidate("res1");
+            Mockito.verify(resources1).invalidate("res1");
+            Mockito.verifyNoInteractions(resources2, validators2);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            Mockito.verify(resources2).invalidate("res1");
+            Mockito.verify(validators2).invalidate("res1");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.test;
+
+import edu.kit.datamanager.entities.PERMISSION;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.domain.ContentInformation;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.acl.AclEntry;
+import edu.kit.datamanager.repo.service.impl.ConditionalRequestService;
+import edu.kit.datamanager.util.AuthenticationHelper;
+import java.time.Instant;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ *
+ * @author jejkal
+ */
+public class ConditionalRequestServiceTest {
+
+    private ApplicationProperties properties;
+    private ConditionalRequestService service;
+    private DataResource resource;
+
+    @Before
+    public void setUp() {
+        properties = Mockito.mock(ApplicationProperties.class);
+        Mockito.when(properties.getValidatorCacheSize()).thenReturn(2);
+        Mockito.when(properties.getContentValidatorTtl()).thenReturn(60l);
+        Mockito.when(properties.getHttpPublicMaxAge()).thenReturn(30l);
+        service = new ConditionalRequestService(properties);
+        resource = createResource("res1");
+    }
+
+    private DataResource createResource(String id) {
+        DataResource result = DataResource.factoryNewDataResource(id);
+        result.setState(DataResource.State.VOLATILE);
+        result.setLastUpdate(Instant.parse("2025-01-01T10:00:00Z"));
+        result.getAcls().add(new AclEntry("owner", PERMISSION.ADMINISTRATE));
+        return result;
+    }
+
+    @Test
+    public void testValidatorIsKeptWhileUnchanged() {
+        ConditionalRequestService.ResourceValidator remembered = service.remember(resource);
+        Assert.assertEquals(resource.getEtag(), remembered.getEtag());
+
+        ConditionalRequestService.ResourceValidator validator = service.validate("res1", resource.getLastUpdate());
+        Assert.assertSame(remembered, validator);
+        Assert.assertSame(remembered, service.remember(resource));
+    }
+
+    @Test
+    public void testValidatorIsDroppedAfterUpdate() {
+        service.remember(resource);
+        Instant updated = resource.getLastUpdate().plusSeconds(1);
+
+        ConditionalRequestService.ResourceValidator validator = service.validate("res1", updated);
+        Assert.assertNull(validator.getEtag());
+        Assert.assertEquals(updated, validator.getLastUpdate());
+        //outdated validator was removed, even the old update time is not accepted any longer
+        Assert.assertNull(service.validate("res1", resource.getLastUpdate()).getEtag());
+    }
+
+    @Test
+    public void testInvalidate() {
+        service.remember(resource);
+        service.invalidate("res1");
+        Assert.assertNull(service.validate("res1", resource.getLastUpdate()).getEtag());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        service.remember(resource);
+        service.remember(createResource("res2"));
+        service.remember(createResource("res3"));
+        Assert.assertNull(service.validate("res1", resource.getLastUpdate()).getEtag());
+        Assert.assertNotNull(service.validate("res3", resource.getLastUpdate()).getEtag());
+    }
+
+    @Test
+    public void testResourceWithoutLastUpdateIsNotCached() {
+        resource.setLastUpdate(null);
+        Assert.assertEquals(resource.getEtag(), service.remember(resource).getEtag());
+        Assert.assertNull(service.validate("res1", Instant.now()).getEtag());
+    }
+
+    @Test
+    public void testContentEtag() {
+        ContentInformation info = ContentInformation.createContentInformation("folder/file.txt");
+        Assert.assertNull(service.getContentEtag(service.validate("res1", resource.getLastUpdate()), "folder/file.txt"));
+
+        ConditionalRequestService.ResourceValidator validator = service.rememberContent(resource, info);
+        Assert.assertNull(validator.getEtag());
+        Assert.assertEquals(info.getEtag(), service.getContentEtag(service.validate("res1", resource.getLastUpdate()), "folder/file.txt"));
+        Assert.assertNull(service.getContentEtag(validator, "folder/other.txt"));
+
+        //content validators survive delivering the unchanged resource itself
+        validator = service.remember(resource);
+        Assert.assertEquals(resource.getEtag(), validator.getEtag());
+        Assert.assertEquals(info.getEtag(), service.getContentEtag(validator, "folder/file.txt"));
+
+        Mockito.when(properties.getContentValidatorTtl()).thenReturn(-1l);
+        Assert.assertNull(service.getContentEtag(validator, "folder/file.txt"));
+    }
+
+    @Test
+    public void testPublicResource() {
+        Assert.assertFalse(ConditionalRequestService.isPublic(resource));
+        Assert.assertEquals("no-cache, private", service.getCacheControl(false).getHeaderValue());
+
+        resource.getAcls().add(new AclEntry(AuthenticationHelper.ANONYMOUS_USER_PRINCIPAL, PERMISSION.READ));
+        Assert.assertTrue(ConditionalRequestService.isPublic(resource));
+        Assert.assertTrue(service.remember(resource).isPublicResource());
+        Assert.assertEquals("max-age=30, public", service.getCacheControl(true).getHeaderValue());
+
+        resource.setState(DataResource.State.REVOKED);
+        Assert.assertFalse(ConditionalRequestService.isPublic(resource));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import edu.kit.datamanager.entities.PERMISSION;
+import edu.kit.datamanager.exceptions.ResourceNotFoundException;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.domain.acl.AclEntry;
+import edu.kit.datamanager.repo.service.impl.DataResourceCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ *
+ * @author jejkal
+ */
+public class DataResourceCacheTest {
+
+    private ApplicationProperties properties;
+    private SimpleMeterRegistry registry;
+    private DataResourceCache cache;
+    private DataResource resource;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        properties = Mockito.mock(ApplicationProperties.class);
+        Mockito.when(properties.getResourceCacheSize()).thenReturn(100l);
+        Mockito.when(properties.getResourceCacheTtl()).thenReturn(60l);
+        registry = new SimpleMeterRegistry();
+        cache = new DataResourceCache(properties, new ObjectMapper().registerModule(new JavaTimeModule()), registry);
+        resource = DataResource.factoryNewDataResource("res1");
+        resource.setState(DataResource.State.VOLATILE);
+        resource.setLastUpdate(Instant.parse("2025-01-01T10:00:00Z"));
+        resource.getTitles().add(Title.factoryTitle("Title", Title.TYPE.OTHER));
+        resource.getAcls().add(new AclEntry("owner", PERMISSION.ADMINISTRATE));
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<DataResource> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return resource;
+        };
+    }
+
+    @Test
+    public void testReadThrough() {
+        DataResource first = cache.get("res1", loader());
+        DataResource second = cache.get("res1", loader());
+        Assert.assertEquals(1, loads.get());
+        Assert.assertNotSame(resource, first);
+        Assert.assertSame(first, second);
+        Assert.assertEquals("res1", second.getId());
+        Assert.assertEquals(1, second.getAcls().size());
+        Assert.assertEquals(DataResource.State.VOLATILE, second.getState());
+
+        Assert.assertEquals(1.0, registry.get("cache.gets").tag("cache", "dataresources").tag("result", "hit").functionCounter().count(), 0.0);
+        Assert.assertEquals(1.0, registry.get("cache.gets").tag("cache", "dataresources").tag("result", "miss").functionCounter().count(), 0.0);
+    }
+
+    @Test
+    public void testAlias() {
+        cache.get("doi", loader());
+        cache.get("res1", loader());
+        cache.get("doi", loader());
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testInvalidate() {
+        cache.get("doi", loader());
+        cache.invalidate("res1");
+        cache.get("res1", loader());
+        cache.get("doi", loader());
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testRefresh() {
+        cache.get("res1", loader());
+        cache.refresh(resource);
+        cache.get("res1", loader());
+        Assert.assertEquals(1, loads.get());
+
+        resource.getTitles().add(Title.factoryTitle("Other title", Title.TYPE.OTHER));
+        cache.refresh(resource);
+        DataResource reloaded = cache.get("res1", loader());
+        Assert.assertEquals(2, loads.get());
+        Assert.assertEquals(2, reloaded.getTitles().size());
+    }
+
+    @Test
+    public void testNotFoundIsNotCached() {
+        Supplier<DataResource> failing = () -> {
+            loads.incrementAndGet();
+            throw new ResourceNotFoundException("Not found.");
+        };
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.get("res1", failing);
+                Assert.fail("ResourceNotFoundException expected.");
+            } catch (ResourceNotFoundException ex) {
+                //expected
+            }
+        }
+        Assert.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testDisabled() {
+        Mockito.when(properties.getResourceCacheSize()).thenReturn(0l);
+        cache = new DataResourceCache(properties, new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+        Assert.assertSame(resource, cache.get("res1", loader()));
+        Assert.assertSame(resource, cache.get("res1", loader()));
+        Assert.assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.test;
+
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.configuration.HibernateCacheConfiguration;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.service.ICacheInvalidationBus;
+import edu.kit.datamanager.repo.service.impl.ConditionalRequestService;
+import edu.kit.datamanager.repo.service.impl.HibernateCacheEvictor;
+import edu.kit.datamanager.repo.service.impl.LocalCacheInvalidationBus;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ *
+ * @author jejkal
+ */
+public class HibernateCacheEvictorTest {
+
+    private EntityManagerFactory entityManagerFactory;
+    private Cache cache;
+    private ApplicationProperties applicationProperties;
+
+    @Before
+    public void setUp() {
+        cache = Mockito.mock(Cache.class);
+        SessionFactory sessionFactory = Mockito.mock(SessionFactory.class);
+        Mockito.when(sessionFactory.getCache()).thenReturn(cache);
+        entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+        Mockito.when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        applicationProperties = Mockito.mock(ApplicationProperties.class);
+    }
+
+    @Test
+    public void testDefaultRegions() {
+        HibernateCacheEvictor evictor = new HibernateCacheEvictor(entityManagerFactory, applicationProperties, new LocalCacheInvalidationBus());
+        evictor.evict(List.of("res1"));
+        for (String collection : HibernateCacheConfiguration.DEFAULT_COLLECTIONS) {
+            Mockito.verify(cache).evictCollectionData(collection, "res1");
+        }
+        for (String entity : HibernateCacheConfiguration.DEFAULT_ENTITIES) {
+            Mockito.verify(cache).evictEntityData(entity);
+        }
+        Mockito.verify(cache).evictQueryRegion(ConditionalRequestService.LOOKUP_CACHE_REGION);
+    }
+
+    @Test
+    public void testConfiguredRegions() {
+        Mockito.when(applicationProperties.getHibernateCacheEntities()).thenReturn(new String[]{Title.class.getName()});
+        Mockito.when(applicationProperties.getHibernateCacheCollections()).thenReturn(new String[]{DataResource.class.getName() + ".titles"});
+        HibernateCacheEvictor evictor = new HibernateCacheEvictor(entityManagerFactory, applicationProperties, new LocalCacheInvalidationBus());
+        evictor.evict(List.of("res1", "res2"));
+        Mockito.verify(cache).evictCollectionData(DataResource.class.getName() + ".titles", "res1");
+        Mockito.verify(cache).evictCollectionData(DataResource.class.getName() + ".titles", "res2");
+        Mockito.verify(cache, Mockito.times(1)).evictEntityData(ArgumentMatchers.anyString());
+        Mockito.verify(cache).evictEntityData(Title.class.getName());
+    }
+
+    @Test
+    public void testSubscribeOnlyToDistributedBus() {
+        LocalCacheInvalidationBus localBus = new LocalCacheInvalidationBus();
+        new HibernateCacheEvictor(entityManagerFactory, applicationProperties, localBus);
+        localBus.publish(List.of("res1"));
+        Mockito.verifyNoInteractions(cache);
+
+        ICacheInvalidationBus distributedBus = Mockito.mock(ICacheInvalidationBus.class);
+        Mockito.when(distributedBus.isDistributed()).thenReturn(true);
+        new HibernateCacheEvictor(entityManagerFactory, applicationProperties, distributedBus);
+        Mockito.verify(distributedBus).subscribe(ArgumentMatchers.<Consumer<Collection<String>>>any());
+    }
+}
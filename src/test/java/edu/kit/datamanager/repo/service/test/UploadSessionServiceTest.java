@@ -0,0 +1,160 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.service.test;
+
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IUploadSessionDao;
+import edu.kit.datamanager.repo.domain.UploadPart;
+import edu.kit.datamanager.repo.domain.UploadSession;
+import edu.kit.datamanager.repo.service.impl.UploadSessionService;
+import edu.kit.datamanager.repo.util.StreamingMultipartFile;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ *
+ * @author jejkal
+ */
+public class UploadSessionServiceTest {
+
+    private UploadSessionService service;
+    private IUploadSessionDao dao;
+    private Path basepath;
+    private UploadSession session;
+
+    @Before
+    public void setUp() throws Exception {
+        basepath = Files.createTempDirectory("upload-test");
+        ApplicationProperties properties = Mockito.mock(ApplicationProperties.class);
+        Mockito.when(properties.getBasepath()).thenReturn(basepath.toUri().toURL());
+        Mockito.when(properties.getUploadMaxParts()).thenReturn(10);
+        Mockito.when(properties.getUploadExpirationHours()).thenReturn(24);
+        dao = Mockito.mock(IUploadSessionDao.class);
+        service = new UploadSessionService(dao, properties);
+        session = UploadSession.factoryUploadSession("1", "folder/file.bin", null, false, "user");
+        Files.createDirectories(basepath.resolve(UploadSessionService.STAGING_FOLDER).resolve(session.getId()));
+    }
+
+    private UploadPart upload(int partNumber, String data) {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        return service.uploadPart(session, partNumber, new StreamingMultipartFile("file.bin", "application/octet-stream", bytes.length, new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testUploadAndAssembleParts() throws Exception {
+        //upload out of order and replace one part
+        upload(3, "ghi");
+        upload(1, "xxx");
+        upload(2, "def");
+        UploadPart first = upload(1, "abc");
+        Assert.assertEquals(3, first.getSize());
+        Assert.assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", first.getChecksum());
+
+        List<UploadPart> parts = service.listParts(session);
+        Assert.assertEquals(3, parts.size());
+        Assert.assertEquals(1, parts.get(0).getPartNumber());
+        Assert.assertEquals(3, parts.get(2).getPartNumber());
+
+        List<UploadPart> staged = service.validateParts(session, List.of(new UploadPart(1, 3, first.getChecksum())));
+        try (InputStream in = service.openAssembledStream(session, staged)) {
+            Assert.assertEquals("abcdefghi", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        Mockito.verify(dao, Mockito.times(4)).touch(ArgumentMatchers.eq(session.getId()), ArgumentMatchers.any(Instant.class));
+    }
+
+    @Test
+    public void testConcurrentUploadsOfSamePart() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UploadPart>> uploads = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String data = "part content " + i;
+                uploads.add(executor.submit(() -> upload(1, data)));
+            }
+            for (Future<UploadPart> upload : uploads) {
+                upload.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        //the staged checksum must belong to the staged part, no temporary files are left
+        UploadPart part = service.listParts(session).get(0);
+        try (InputStream in = service.openAssembledStream(session, List.of(part))) {
+            byte[] content = in.readAllBytes();
+            Assert.assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)), part.getChecksum());
+        }
+        try (Stream<Path> files = Files.list(basepath.resolve(UploadSessionService.STAGING_FOLDER).resolve(session.getId()))) {
+            Assert.assertEquals(2, files.count());
+        }
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testMissingPart() {
+        upload(1, "abc");
+        upload(3, "ghi");
+        service.validateParts(session, null);
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testChecksumMismatch() {
+        upload(1, "abc");
+        service.validateParts(session, List.of(new UploadPart(1, 3, "0000")));
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testInvalidPartNumber() {
+        upload(11, "abc");
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testNoParts() {
+        service.validateParts(session, null);
+    }
+
+    @Test
+    public void testRemove() {
+        upload(1, "abc");
+        service.remove(session);
+        Assert.assertFalse(Files.exists(basepath.resolve(UploadSessionService.STAGING_FOLDER).resolve(session.getId())));
+        Mockito.verify(dao).deleteById(session.getId());
+    }
+
+    @Test
+    public void testRemoveExpiredSessions() {
+        Mockito.when(dao.findByLastUpdateBefore(ArgumentMatchers.any(Instant.class))).thenReturn(List.of(session));
+        service.removeExpiredSessions();
+        Mockito.verify(dao).deleteById(session.getId());
+    }
+}
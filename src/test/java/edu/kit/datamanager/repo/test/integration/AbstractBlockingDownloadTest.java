@@ -0,0 +1,177 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test.integration;
+
+import edu.kit.datamanager.entities.PERMISSION;
+import edu.kit.datamanager.entities.RepoUserRole;
+import edu.kit.datamanager.repo.configuration.RepoBaseConfiguration;
+import edu.kit.datamanager.repo.dao.IAllIdentifiersDao;
+import edu.kit.datamanager.repo.dao.IContentInformationDao;
+import edu.kit.datamanager.repo.dao.IDataResourceDao;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Title;
+import edu.kit.datamanager.repo.domain.acl.AclEntry;
+import edu.kit.datamanager.repo.service.IDataResourceService;
+import edu.kit.datamanager.repo.service.impl.DataResourceService;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.junit.Assert;
+import org.junit.Before;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Base class for load tests with downloads blocking their request thread.
+ * Many clients start downloading a file larger than the socket buffers and
+ * stop reading until all downloads have started. Sendfile is disabled, as it
+ * would hand over the transfer to the poller and free the request thread,
+ * such that the file is written by the request thread itself.
+ *
+ * @author jejkal
+ */
+public abstract class AbstractBlockingDownloadTest {
+
+    protected static final int CLIENTS = 32;
+    protected static final int FILE_SIZE = 32 * 1024 * 1024;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private IDataResourceDao dataResourceDao;
+    @Autowired
+    private IDataResourceService dataResourceService;
+    @Autowired
+    private IContentInformationDao contentInformationDao;
+    @Autowired
+    private IAllIdentifiersDao allIdentifiersDao;
+    @Autowired
+    private RepoBaseConfiguration repositoryConfig;
+
+    private String userToken;
+    private DataResource resource;
+
+    /**
+     * Configuration disabling sendfile for all connectors of the embedded
+     * Tomcat.
+     */
+    @TestConfiguration
+    public static class DisableSendfileConfiguration {
+
+        @Bean
+        public TomcatConnectorCustomizer disableSendfile() {
+            return connector -> {
+                if (connector.getProtocolHandler() instanceof AbstractHttp11Protocol<?> protocol) {
+                    protocol.setUseSendfile(false);
+                }
+            };
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        contentInformationDao.deleteAll();
+        dataResourceDao.deleteAll();
+        allIdentifiersDao.deleteAll();
+
+        userToken = edu.kit.datamanager.util.JwtBuilder.createUserToken("user", RepoUserRole.USER).
+                addSimpleClaim("email", "thomas.jejkal@kit.edu").
+                addSimpleClaim("loginFailures", 0).
+                addSimpleClaim("active", true).
+                addSimpleClaim("locked", false).
+                getCompactToken(repositoryConfig.getJwtSecret());
+
+        resource = DataResource.factoryNewDataResource("blockingDownloadResource");
+        resource.getTitles().add(Title.factoryTitle("Large download", Title.TYPE.OTHER));
+        resource.getAcls().add(new AclEntry("user", PERMISSION.ADMINISTRATE));
+        resource.setState(DataResource.State.VOLATILE);
+        resource = dataResourceDao.save(resource);
+        ((DataResourceService) dataResourceService).saveIdentifiers(resource);
+
+        MockMultipartFile file = new MockMultipartFile("file", "large.bin", "application/octet-stream", new byte[FILE_SIZE]);
+        this.mockMvc.perform(multipart("/api/v1/dataresources/" + resource.getId() + "/data/large.bin").file(file).header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andExpect(status().isCreated());
+    }
+
+    /**
+     * Start all downloads, wait until either all downloads are in progress or
+     * the timeout has elapsed, then let all clients read their downloads
+     * completely.
+     *
+     * @param timeout The time to wait for all downloads to be in progress.
+     * @param unit The unit of the timeout.
+     *
+     * @return The number of downloads which were in progress concurrently.
+     *
+     * @throws Exception If a download fails.
+     */
+    protected int runDownloads(long timeout, TimeUnit unit) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/dataresources/" + resource.getId() + "/data/large.bin")).
+                header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken).GET().build();
+        CountDownLatch started = new CountDownLatch(CLIENTS);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> downloads = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                downloads.add(clients.submit(() -> {
+                    HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                    Assert.assertEquals(200, response.statusCode());
+                    try (InputStream in = response.body()) {
+                        long read = (in.read() >= 0) ? 1 : 0;
+                        //stop reading until all downloads are in progress
+                        started.countDown();
+                        release.await();
+                        byte[] buffer = new byte[64 * 1024];
+                        int count;
+                        while ((count = in.read(buffer)) >= 0) {
+                            read += count;
+                        }
+                        return read;
+                    }
+                }));
+            }
+            started.await(timeout, unit);
+            int concurrent = (int) (CLIENTS - started.getCount());
+            release.countDown();
+            for (Future<Long> download : downloads) {
+                Assert.assertEquals(FILE_SIZE, (long) download.get(120, TimeUnit.SECONDS));
+            }
+            return concurrent;
+        }
+    }
+}
@@ -55,13 +55,18 @@ import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import jakarta.persistence.EntityManagerFactory;
 import org.hamcrest.Matchers;
 import static org.hamcrest.Matchers.equalTo;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.javers.core.Javers;
 import org.junit.Assert;
 import org.junit.Before;
@@ -86,11 +91,14 @@ import org.springframework.test.context.transaction.TransactionalTestExecutionLi
 import org.springframework.test.context.web.ServletTestExecutionListener;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.util.UriComponentsBuilder;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -126,6 +134,8 @@ public class DataResourceControllerTest {
     private IContentInformationDao contentInformationDao;
     @Autowired
     private IAllIdentifiersDao allIdentifiersDao;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     private IAuditService<ContentInformation> contentInformationAuditService;
 
@@ -275,6 +285,142 @@ public class DataResourceControllerTest {
                 "Bearer " + guestToken)).andDo(print()).andExpect(status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$").isEmpty());
     }
 
+    @Test
+    public void testGetDataResourcesByCursor() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/api/v1/dataresources/").param("cursor", "").param("size", "3").param("count", "true").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andDo(print()).andExpect(status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(3))).
+                andExpect(header().string("Content-Range", "*/4")).andReturn();
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        Assert.assertNotNull(link);
+        Assert.assertTrue(link.endsWith("rel=\"next\""));
+        String next = link.substring(1, link.indexOf(">"));
+        String cursor = UriComponentsBuilder.fromUriString(next).build().getQueryParams().getFirst("cursor");
+
+        this.mockMvc.perform(get("/api/v1/dataresources/").param("cursor", cursor).param("size", "3").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andDo(print()).andExpect(status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(1))).
+                andExpect(header().doesNotExist(HttpHeaders.LINK)).andExpect(header().doesNotExist("Content-Range"));
+    }
+
+    @Test
+    public void testGetDataResourcesByInvalidCursor() throws Exception {
+        this.mockMvc.perform(get("/api/v1/dataresources/").param("cursor", "invalid").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andDo(print()).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetDataResourcesForTabulatorWithFilter() throws Exception {
+        this.mockMvc.perform(get("/api/v1/dataresources/").accept("application/tabulator+json").param("page", "1").param("size", "10").
+                param("filter[0][field]", "state").param("filter[0][type]", "=").param("filter[0][value]", "FIXED").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andDo(print()).andExpect(status().isOk()).andExpect(jsonPath("$.last_page", equalTo(1))).
+                andExpect(jsonPath("$.data", Matchers.hasSize(1))).andExpect(jsonPath("$.data[0].id", equalTo(fixedResource.getId())));
+
+        this.mockMvc.perform(get("/api/v1/dataresources/").accept("application/tabulator+json").param("page", "1").param("size", "2").
+                param("filter[0][field]", "title").param("filter[0][type]", "like").param("filter[0][value]", "tit").
+                param("sort[0][field]", "id").param("sort[0][dir]", "desc").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andDo(print()).andExpect(status().isOk()).andExpect(jsonPath("$.last_page", equalTo(2))).
+                andExpect(jsonPath("$.data", Matchers.hasSize(2)));
+
+        //sample resource and fixed resource are visible for user
+        this.mockMvc.perform(get("/api/v1/dataresources/").accept("application/tabulator+json").param("page", "1").param("size", "10").
+                param("filter[0][field]", "publisher").param("filter[0][type]", "starts").param("filter[0][value]", "m").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andDo(print()).andExpect(status().isOk()).andExpect(jsonPath("$.data", Matchers.hasSize(2)));
+
+        this.mockMvc.perform(get("/api/v1/dataresources/").accept("application/tabulator+json").
+                param("filter[0][field]", "acls").param("filter[0][value]", "admin").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andDo(print()).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testListingStatementCountIndependentOfPageSize() throws Exception {
+        //use uniform resources only, such that each page requires the same associations to be loaded
+        contentInformationDao.deleteAll();
+        dataResourceDao.deleteAll();
+        allIdentifiersDao.deleteAll();
+        for (int i = 0; i < 10; i++) {
+            DataResource resource = DataResource.factoryNewDataResource("listingResource" + i);
+            resource.setState(DataResource.State.VOLATILE);
+            resource.getDescriptions().add(Description.factoryDescription("This is a description", Description.TYPE.OTHER, "en"));
+            resource.getTitles().add(Title.factoryTitle("Title " + i, Title.TYPE.OTHER));
+            resource.getCreators().add(Agent.factoryAgent("John", "Doe", new String[]{"KIT"}));
+            resource.getContributors().add(Contributor.factoryContributor(Agent.factoryAgent("Jane", "Doe", new String[]{"KIT"}), Contributor.TYPE.DATA_MANAGER));
+            resource.getDates().add(Date.factoryDate(Instant.now().truncatedTo(ChronoUnit.MILLIS), Date.DATE_TYPE.CREATED));
+            resource.getSubjects().add(Subject.factorySubject("testing", "uri", "en", Scheme.factoryScheme("id", "uri")));
+            resource.setResourceType(ResourceType.createResourceType("photo", ResourceType.TYPE_GENERAL.IMAGE));
+            resource.setPublisher("me");
+            resource.setPublicationYear("2018");
+            resource.getAcls().add(new AclEntry("admin", PERMISSION.ADMINISTRATE));
+            resource.getAcls().add(new AclEntry("user", PERMISSION.READ));
+            resource = dataResourceDao.save(resource);
+            ((DataResourceService) dataResourceService).saveIdentifiers(resource);
+        }
+        DataResource example = new DataResource();
+        example.setState(null);
+        example.setPublicationYear("2018");
+        String exampleJson = createObjectMapper().writeValueAsString(example);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            for (String token : new String[]{adminToken, userToken}) {
+                long smallPage = countStatements(statistics, get("/api/v1/dataresources/").param("page", "0").param("size", "2").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+                long largePage = countStatements(statistics, get("/api/v1/dataresources/").param("page", "0").param("size", "10").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+                Assert.assertEquals(smallPage, largePage);
+
+                smallPage = countStatements(statistics, post("/api/v1/dataresources/search").contentType(MediaType.APPLICATION_JSON).content(exampleJson).param("page", "0").param("size", "2").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+                largePage = countStatements(statistics, post("/api/v1/dataresources/search").contentType(MediaType.APPLICATION_JSON).content(exampleJson).param("page", "0").param("size", "10").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+                Assert.assertEquals(smallPage, largePage);
+
+                smallPage = countStatements(statistics, get("/api/v1/dataresources/").accept("application/tabulator+json").param("page", "1").param("size", "2").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+                largePage = countStatements(statistics, get("/api/v1/dataresources/").accept("application/tabulator+json").param("page", "1").param("size", "10").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+                Assert.assertEquals(smallPage, largePage);
+            }
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    /**
+     * Perform the provided request twice and return the number of SQL
+     * statements of the second request, such that one-time initializations
+     * are not counted.
+     */
+    private long countStatements(Statistics statistics, MockHttpServletRequestBuilder request) throws Exception {
+        this.mockMvc.perform(request).andExpect(status().isOk());
+        statistics.clear();
+        this.mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void testStreamDataResources() throws Exception {
+        MvcResult result = this.mockMvc.perform(get("/api/v1/dataresources/").accept("application/x-ndjson").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andExpect(request().asyncStarted()).andReturn();
+        String body = this.mockMvc.perform(asyncDispatch(result)).andDo(print()).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        Assert.assertEquals(4, body.lines().count());
+
+        result = this.mockMvc.perform(get("/api/v1/dataresources/").accept("application/x-ndjson").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + guestToken)).andExpect(request().asyncStarted()).andReturn();
+        body = this.mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        Assert.assertEquals(0, body.lines().count());
+    }
+
+    @Test
+    public void testStreamDataResourcesByExampleAsUser() throws Exception {
+        DataResource example = new DataResource();
+        example.setState(null);
+        example.setPublicationYear("2018");
+        ObjectMapper mapper = createObjectMapper();
+
+        MvcResult result = this.mockMvc.perform(post("/api/v1/dataresources/search").contentType(MediaType.APPLICATION_JSON).accept("application/x-ndjson").content(mapper.writeValueAsString(example)).header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andExpect(request().asyncStarted()).andReturn();
+        String body = this.mockMvc.perform(asyncDispatch(result)).andDo(print()).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        Assert.assertEquals(2, body.lines().count());
+        for (String line : body.lines().toList()) {
+            Assert.assertEquals("2018", mapper.readValue(line, DataResource.class).getPublicationYear());
+        }
+    }
+
     @Test
     public void testFindDataResourcesByExampleAsUser() throws Exception {
         DataResource example = new DataResource();
@@ -286,6 +432,26 @@ public class DataResourceControllerTest {
                 "Bearer " + userToken)).andDo(print()).andExpect(status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(2)));
     }
 
+    @Test
+    public void testFindDataResourcesByExampleByCursorAsUser() throws Exception {
+        DataResource example = new DataResource();
+        example.setState(null);
+        example.setPublicationYear("2018");
+        ObjectMapper mapper = createObjectMapper();
+
+        MvcResult result = this.mockMvc.perform(post("/api/v1/dataresources/search").contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(example)).param("cursor", "").param("size", "1").param("count", "true").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andDo(print()).andExpect(status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(1))).
+                andExpect(MockMvcResultMatchers.jsonPath("$[0].publicationYear", equalTo("2018"))).andExpect(header().string("Content-Range", "*/2")).andReturn();
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        Assert.assertNotNull(link);
+        String next = link.substring(1, link.indexOf(">"));
+        String cursor = UriComponentsBuilder.fromUriString(next).build().getQueryParams().getFirst("cursor");
+
+        this.mockMvc.perform(post("/api/v1/dataresources/search").contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(example)).param("cursor", cursor).param("size", "1").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andDo(print()).andExpect(status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(1))).
+                andExpect(MockMvcResultMatchers.jsonPath("$[0].publicationYear", equalTo("2018"))).andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
     @Test
     public void testFindDataResourcesByExampleWithCreatorAsUser() throws Exception {
         DataResource example = new DataResource();
@@ -333,6 +499,56 @@ public class DataResourceControllerTest {
 
     }
 
+    @Test
+    public void testFindByExampleAndByCursorMatchSameResources() throws Exception {
+        //multiple titles, at least one of them must match
+        DataResource example = new DataResource();
+        example.setState(null);
+        example.getTitles().add(Title.factoryTitle("Title", Title.TYPE.OTHER));
+        example.getTitles().add(Title.factoryTitle("Unknown", Title.TYPE.OTHER));
+        assertSameResultsByExample(example, 2);
+
+        //creator given name only and given name together with family name
+        example.getTitles().clear();
+        example.getCreators().add(Agent.factoryAgent("Johanna", null));
+        assertSameResultsByExample(example, 1);
+        example.getCreators().clear();
+        example.getCreators().add(Agent.factoryAgent("John", "Doe"));
+        assertSameResultsByExample(example, 2);
+
+        //resource type general and resource type value
+        example.getCreators().clear();
+        example.setResourceType(ResourceType.createResourceType(null, ResourceType.TYPE_GENERAL.IMAGE));
+        assertSameResultsByExample(example, 1);
+        example.setResourceType(ResourceType.createResourceType("photo", null));
+        assertSameResultsByExample(example, 1);
+        example.setResourceType(ResourceType.createResourceType("photo", ResourceType.TYPE_GENERAL.TEXT));
+        assertSameResultsByExample(example, 0);
+    }
+
+    /**
+     * Search by example using offset pagination and using keyset pagination
+     * and check that both return the same resources.
+     */
+    private void assertSameResultsByExample(DataResource example, int expectedCount) throws Exception {
+        ObjectMapper mapper = createObjectMapper();
+        String byPage = this.mockMvc.perform(post("/api/v1/dataresources/search").contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(example)).param("page", "0").param("size", "100").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andDo(print()).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        String byCursor = this.mockMvc.perform(post("/api/v1/dataresources/search").contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(example)).param("cursor", "").param("size", "100").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andDo(print()).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        Set<String> expected = new HashSet<>();
+        for (DataResource resource : mapper.readValue(byPage, DataResource[].class)) {
+            expected.add(resource.getId());
+        }
+        Set<String> actual = new HashSet<>();
+        for (DataResource resource : mapper.readValue(byCursor, DataResource[].class)) {
+            actual.add(resource.getId());
+        }
+        Assert.assertEquals(expectedCount, expected.size());
+        Assert.assertEquals(expected, actual);
+    }
+
     @Test
     public void testFindUsingUnsupportedField() throws Exception {
         DataResource example = new DataResource();
@@ -420,6 +636,43 @@ public class DataResourceControllerTest {
                 "Bearer " + adminToken)).andDo(print()).andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testGetDataResourceByIdWithConditionalRequest() throws Exception {
+        DataResource resource = new DataResource();
+        resource.getTitles().add(Title.factoryTitle("Created Resource", Title.TYPE.OTHER));
+        resource.getCreators().add(Agent.factoryAgent("John", "Doe", new String[]{"KIT"}));
+        resource.setResourceType(ResourceType.createResourceType("autogenerated", ResourceType.TYPE_GENERAL.DATASET));
+        ObjectMapper mapper = createObjectMapper();
+
+        String location = this.mockMvc.perform(post("/api/v1/dataresources/").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).contentType("application/json").content(mapper.writeValueAsString(resource))).andExpect(status().isCreated()).andReturn().getResponse().getHeader("Location");
+        String resourceId = location.substring(location.lastIndexOf("/") + 1);
+        resourceId = resourceId.substring(0, resourceId.indexOf("?"));
+
+        MvcResult result = this.mockMvc.perform(get("/api/v1/dataresources/" + resourceId).header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andDo(print()).andExpect(status().isOk()).andExpect(header().exists(HttpHeaders.LAST_MODIFIED)).
+                andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private")).andReturn();
+        String etag = result.getResponse().getHeader("ETag");
+        String lastModified = result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        this.mockMvc.perform(get("/api/v1/dataresources/" + resourceId).header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).header(HttpHeaders.IF_NONE_MATCH, etag)).andDo(print()).andExpect(status().isNotModified()).
+                andExpect(header().string("ETag", etag)).andExpect(content().string(""));
+        this.mockMvc.perform(get("/api/v1/dataresources/" + resourceId).header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified)).andDo(print()).andExpect(status().isNotModified());
+        //no 304 for callers without access
+        this.mockMvc.perform(get("/api/v1/dataresources/" + resourceId).header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + guestToken).header(HttpHeaders.IF_NONE_MATCH, etag)).andDo(print()).andExpect(status().isForbidden());
+
+        String patch = "[{\"op\": \"replace\",\"path\": \"/publicationYear\",\"value\": \"1900\"}]";
+        this.mockMvc.perform(patch("/api/v1/dataresources/" + resourceId).header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).header("If-Match", etag).contentType("application/json-patch+json").content(patch)).andDo(print()).andExpect(status().isNoContent());
+
+        this.mockMvc.perform(get("/api/v1/dataresources/" + resourceId).header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).header(HttpHeaders.IF_NONE_MATCH, etag)).andDo(print()).andExpect(status().isOk()).
+                andExpect(MockMvcResultMatchers.jsonPath("$.publicationYear").value("1900"));
+    }
+
     @Test
     public void testGetRevokedDataResourceByIdWithAdminRole() throws Exception {
         this.mockMvc.perform(get("/api/v1/dataresources/" + revokedResource.getId()).header(HttpHeaders.AUTHORIZATION,
@@ -498,6 +751,75 @@ public class DataResourceControllerTest {
                 "Bearer " + userToken).contentType("application/json").content(mapper.writeValueAsString(result))).andExpect(status().isConflict());
     }
 
+    @Test
+    public void testCreateResourcesInBulk() throws Exception {
+        ObjectMapper mapper = createObjectMapper();
+        List<DataResource> resources = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            DataResource resource = DataResource.factoryNewDataResource(i < 2 ? "bulk_resource_1" : "bulk_resource_2");
+            resource.getTitles().add(Title.factoryTitle("Bulk Resource " + i, Title.TYPE.OTHER));
+            resource.setResourceType(ResourceType.createResourceType("bulk"));
+            resources.add(resource);
+        }
+
+        this.mockMvc.perform(post("/api/v1/dataresources/bulk").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).contentType("application/json").content(mapper.writeValueAsString(resources))).andDo(print()).andExpect(status().isOk()).
+                andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3)).
+                andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value(201)).
+                andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value("bulk_resource_1")).
+                andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value(409)).
+                andExpect(MockMvcResultMatchers.jsonPath("$[2].status").value(201));
+
+        this.mockMvc.perform(get("/api/v1/dataresources/bulk_resource_2").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andExpect(status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("$.titles[0].value").value("Bulk Resource 2"));
+    }
+
+    @Test
+    public void testCreateResourcesInBulkFromNdjson() throws Exception {
+        ObjectMapper mapper = createObjectMapper();
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 2; i++) {
+            DataResource resource = new DataResource();
+            resource.getTitles().add(Title.factoryTitle("NDJSON Resource " + i, Title.TYPE.OTHER));
+            resource.setResourceType(ResourceType.createResourceType("bulk"));
+            body.append(mapper.writeValueAsString(resource)).append("\n");
+        }
+
+        this.mockMvc.perform(post("/api/v1/dataresources/bulk").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).contentType("application/x-ndjson").content(body.toString())).andDo(print()).andExpect(status().isOk()).
+                andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2)).
+                andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value(201)).
+                andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value(201));
+    }
+
+    @Test
+    public void testCreateTooManyResourcesInBulk() throws Exception {
+        ObjectMapper mapper = createObjectMapper();
+        StringBuilder body = new StringBuilder();
+        //limited to 10 resources via application-test.properties
+        for (int i = 0; i < 11; i++) {
+            DataResource resource = new DataResource();
+            resource.getTitles().add(Title.factoryTitle("Too Many " + i, Title.TYPE.OTHER));
+            resource.setResourceType(ResourceType.createResourceType("bulk"));
+            body.append(mapper.writeValueAsString(resource)).append("\n");
+        }
+
+        String total = this.mockMvc.perform(get("/api/v1/dataresources/").param("cursor", "").param("count", "true").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andExpect(status().isOk()).andReturn().getResponse().getHeader("Content-Range");
+
+        this.mockMvc.perform(post("/api/v1/dataresources/bulk").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).contentType("application/x-ndjson").content(body.toString())).andDo(print()).andExpect(status().isPayloadTooLarge());
+        //no resource is created if the request is rejected
+        this.mockMvc.perform(get("/api/v1/dataresources/").param("cursor", "").param("count", "true").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + adminToken)).andExpect(status().isOk()).andExpect(header().string("Content-Range", total));
+    }
+
+    @Test
+    public void testCreateResourcesInBulkWithInvalidBody() throws Exception {
+        this.mockMvc.perform(post("/api/v1/dataresources/bulk").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).contentType("application/json").content("[{\"titles\":")).andDo(print()).andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testCreateResourceWithAlternateIdentifier() throws Exception {
         DataResource resource = new DataResource();
@@ -1080,6 +1402,41 @@ public class DataResourceControllerTest {
                 "Bearer " + userToken).header(HttpHeaders.ACCEPT, "application/vnd.datamanager.content-information+json")).andDo(print()).andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testUploadPartWithoutPartNumber() throws Exception {
+        //a part upload lacking the part number must not be stored as regular content
+        this.mockMvc.perform(put("/api/v1/dataresources/" + sampleResource.getId() + "/data/part.bin").param("uploadId", "123").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).contentType("application/octet-stream").content("part content".getBytes())).andDo(print()).andExpect(status().isBadRequest());
+
+        this.mockMvc.perform(get("/api/v1/dataresources/" + sampleResource.getId() + "/data/part.bin").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).header(HttpHeaders.ACCEPT, "application/vnd.datamanager.content-information+json")).andDo(print()).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testDownloadLocalFileMatchesRegularRead() throws Exception {
+        Path temp = Files.createTempFile("testDownloadLocalFile", "test");
+        Files.writeString(temp, "0123456789");
+        MockMultipartFile fstmp = new MockMultipartFile("file", "local.txt", "multipart/form-data", Files.newInputStream(temp));
+        this.mockMvc.perform(multipart("/api/v1/dataresources/" + sampleResource.getId() + "/data/local.txt").file(fstmp).header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andDo(print()).andExpect(status().isCreated());
+
+        //requesting a version is always handled by the content information service
+        MockHttpServletResponse regular = this.mockMvc.perform(get("/api/v1/dataresources/" + sampleResource.getId() + "/data/local.txt").param("version", "1").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andDo(print()).andExpect(status().isOk()).andReturn().getResponse();
+        MockHttpServletResponse local = this.mockMvc.perform(get("/api/v1/dataresources/" + sampleResource.getId() + "/data/local.txt").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken)).andDo(print()).andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes")).andReturn().getResponse();
+
+        Assert.assertEquals(regular.getContentAsString(), local.getContentAsString());
+        for (String name : regular.getHeaderNames()) {
+            Assert.assertEquals("Header " + name + " differs.", regular.getHeaders(name), local.getHeaders(name));
+        }
+
+        //content negotiation is left to the content information service if the content type is not accepted
+        MockHttpServletResponse notAccepted = this.mockMvc.perform(get("/api/v1/dataresources/" + sampleResource.getId() + "/data/local.txt").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + userToken).header(HttpHeaders.ACCEPT, "application/zip")).andDo(print()).andReturn().getResponse();
+        Assert.assertNull(notAccepted.getHeader(HttpHeaders.ACCEPT_RANGES));
+    }
+
     @Test
     public void testUploadFileWithoutPermissions() throws Exception {
         Path temp = Files.createTempFile("testUploadFileWithoutPermissions", "test");
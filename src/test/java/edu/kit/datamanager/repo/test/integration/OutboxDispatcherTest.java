@@ -0,0 +1,241 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test.integration;
+
+import edu.kit.datamanager.entities.messaging.DataResourceMessage;
+import edu.kit.datamanager.repo.configuration.ApplicationProperties;
+import edu.kit.datamanager.repo.dao.IOutboxEventDao;
+import edu.kit.datamanager.repo.domain.OutboxEvent;
+import edu.kit.datamanager.repo.elastic.ElasticIndexer;
+import edu.kit.datamanager.repo.elastic.IndexOperation;
+import edu.kit.datamanager.repo.service.impl.OutboxDispatcher;
+import edu.kit.datamanager.service.IMessagingService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.test.context.support.WithSecurityContextTestExecutionListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.support.DirtiesContextTestExecutionListener;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.test.context.web.ServletTestExecutionListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tests of the OutboxDispatcher against the in-memory H2 database. The
+ * dispatcher is created manually with mocked indexer and messaging service,
+ * as the outbox is disabled in the test configuration.
+ *
+ * @author jejkal
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestExecutionListeners(listeners = {ServletTestExecutionListener.class,
+    DependencyInjectionTestExecutionListener.class,
+    DirtiesContextTestExecutionListener.class,
+    TransactionalTestExecutionListener.class,
+    WithSecurityContextTestExecutionListener.class})
+@ActiveProfiles("test")
+public class OutboxDispatcherTest {
+
+    @Autowired
+    private IOutboxEventDao outboxEventDao;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private ElasticIndexer elasticIndexer;
+    private IMessagingService messagingService;
+    private OutboxDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        outboxEventDao.deleteAll();
+        elasticIndexer = Mockito.mock(ElasticIndexer.class);
+        messagingService = Mockito.mock(IMessagingService.class);
+        ApplicationProperties applicationProperties = Mockito.mock(ApplicationProperties.class);
+        Mockito.when(applicationProperties.getOutboxBatchSize()).thenReturn(10);
+        Mockito.when(applicationProperties.getOutboxRetryBackoff()).thenReturn(60000l);
+        Mockito.when(applicationProperties.getOutboxMaxAttempts()).thenReturn(3);
+        dispatcher = new OutboxDispatcher(outboxEventDao, elasticIndexer, Optional.of(messagingService), applicationProperties,
+                transactionManager, Mockito.mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    public void testDeliveredEventsAreDeleted() {
+        record("a", null);
+        record("b", null);
+
+        dispatcher.dispatch();
+
+        Assert.assertEquals(0, outboxEventDao.count());
+        Mockito.verify(elasticIndexer).processImmediately(ArgumentMatchers.anyList());
+        Assert.assertEquals(List.of("a", "b"), sentMessages(2));
+    }
+
+    @Test
+    public void testLockedEventsAreSkipped() {
+        OutboxEvent locked = record("a", null);
+        record("b", null);
+
+        //lock the first event as another dispatcher would do, the second one must still be delivered
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.find(OutboxEvent.class, locked.getId(), LockModeType.PESSIMISTIC_WRITE);
+            CompletableFuture.runAsync(dispatcher::dispatch).join();
+        });
+
+        List<OutboxEvent> remaining = outboxEventDao.findAll();
+        Assert.assertEquals(1, remaining.size());
+        Assert.assertEquals(locked.getId(), remaining.get(0).getId());
+        Assert.assertEquals(0, remaining.get(0).getAttempts());
+        Assert.assertEquals(List.of("b"), sentMessages(1));
+    }
+
+    @Test
+    public void testEventsOfResourceInBackoffAreHeldBack() {
+        OutboxEvent backoff = record("a", Instant.now().plus(1, ChronoUnit.HOURS));
+        OutboxEvent next = record("a", null);
+        record("b", null);
+
+        dispatcher.dispatch();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<IndexOperation>> operations = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(elasticIndexer).processImmediately(operations.capture());
+        Assert.assertEquals(1, operations.getValue().size());
+        Assert.assertEquals("b", operations.getValue().get(0).getResourceId());
+        Assert.assertEquals(List.of("b"), sentMessages(1));
+
+        //the newer event of the same resource is untouched and remains queued behind the failed one
+        List<OutboxEvent> remaining = outboxEventDao.findAll();
+        Assert.assertEquals(2, remaining.size());
+        Assert.assertTrue(remaining.stream().allMatch(event -> event.isIndexPending() && event.isMessagePending()));
+        Assert.assertEquals(0, outboxEventDao.findById(next.getId()).get().getAttempts());
+        Assert.assertTrue(outboxEventDao.findById(backoff.getId()).isPresent());
+    }
+
+    @Test
+    public void testFailedMessageIsRetried() {
+        OutboxEvent failing = record("a", null);
+        OutboxEvent next = record("a", null);
+        record("b", null);
+        Mockito.doThrow(new IllegalStateException("Broker not available")).doNothing().when(messagingService).send(ArgumentMatchers.any());
+
+        dispatcher.dispatch();
+
+        //no further message is sent for 'a' after the first failure, 'b' is delivered
+        Assert.assertEquals(List.of("a", "b"), sentMessages(2));
+        Assert.assertEquals(2, outboxEventDao.count());
+        OutboxEvent failed = outboxEventDao.findById(failing.getId()).get();
+        Assert.assertFalse(failed.isIndexPending());
+        Assert.assertTrue(failed.isMessagePending());
+        Assert.assertEquals(1, failed.getAttempts());
+        Assert.assertTrue(failed.getNextAttempt().isAfter(Instant.now()));
+        Assert.assertEquals("Broker not available", failed.getLastError());
+        Assert.assertTrue(outboxEventDao.findById(next.getId()).get().isMessagePending());
+
+        //nothing is delivered during backoff
+        dispatcher.dispatch();
+        Assert.assertEquals(2, outboxEventDao.count());
+
+        //after backoff, only the messages are sent again as indexing has already succeeded
+        outboxEventDao.findAll().forEach(event -> {
+            event.setNextAttempt(Instant.now().minusSeconds(1));
+            outboxEventDao.save(event);
+        });
+        dispatcher.dispatch();
+
+        Assert.assertEquals(0, outboxEventDao.count());
+        Mockito.verify(elasticIndexer, Mockito.times(1)).processImmediately(ArgumentMatchers.anyList());
+        Assert.assertEquals(List.of("a", "b", "a", "a"), sentMessages(4));
+    }
+
+    @Test
+    public void testEventsInBackoffDoNotBlockBatch() {
+        //a full batch of events in backoff must not starve newer events of other resources
+        for (int i = 0; i < 10; i++) {
+            record("backoff" + i, Instant.now().plus(1, ChronoUnit.HOURS));
+        }
+        record("b", null);
+
+        dispatcher.dispatch();
+
+        Assert.assertEquals(List.of("b"), sentMessages(1));
+        Assert.assertEquals(10, outboxEventDao.count());
+        Assert.assertTrue(outboxEventDao.findAll().stream().allMatch(event -> event.getResourceId().startsWith("backoff") && event.getAttempts() == 0));
+    }
+
+    @Test
+    public void testPoisonEventIsDeadLettered() {
+        OutboxEvent poison = record("a", null);
+        Mockito.doThrow(new IllegalStateException("Broker not available")).when(messagingService).send(ArgumentMatchers.any());
+
+        for (int i = 0; i < 3; i++) {
+            dispatcher.dispatch();
+            OutboxEvent event = outboxEventDao.findById(poison.getId()).get();
+            event.setNextAttempt(Instant.now().minusSeconds(1));
+            outboxEventDao.save(event);
+        }
+
+        OutboxEvent deadLetter = outboxEventDao.findById(poison.getId()).get();
+        Assert.assertEquals(3, deadLetter.getAttempts());
+        Assert.assertTrue(deadLetter.isDeadLetter());
+
+        //the dead letter is kept but neither retried nor holding back later events of the resource
+        Mockito.reset(messagingService);
+        OutboxEvent next = record("a", null);
+        dispatcher.dispatch();
+
+        Assert.assertEquals(List.of("a"), sentMessages(1));
+        Assert.assertFalse(outboxEventDao.findById(next.getId()).isPresent());
+        Assert.assertEquals(3, outboxEventDao.findById(poison.getId()).get().getAttempts());
+    }
+
+    private OutboxEvent record(String resourceId, Instant nextAttempt) {
+        OutboxEvent event = OutboxEvent.factoryOutboxEvent(resourceId, OutboxEvent.ACTION.UPDATE, false, "user");
+        if (nextAttempt != null) {
+            event.setNextAttempt(nextAttempt);
+        }
+        return outboxEventDao.save(event);
+    }
+
+    private List<String> sentMessages(int expected) {
+        ArgumentCaptor<DataResourceMessage> messages = ArgumentCaptor.forClass(DataResourceMessage.class);
+        Mockito.verify(messagingService, Mockito.times(expected)).send(messages.capture());
+        return messages.getAllValues().stream().map(DataResourceMessage::getEntityId).toList();
+    }
+}
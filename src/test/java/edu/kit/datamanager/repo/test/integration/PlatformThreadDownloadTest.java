@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test.integration;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithSecurityContextTestExecutionListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.support.DirtiesContextTestExecutionListener;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.test.context.web.ServletTestExecutionListener;
+
+/**
+ * Control case for VirtualThreadDownloadTest. With a fixed pool of platform
+ * threads smaller than the number of clients, each blocked download occupies
+ * one thread, such that no more downloads than threads can be in progress at
+ * the same time. The remaining downloads are served after the first ones have
+ * finished.
+ *
+ * @author jejkal
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Import(AbstractBlockingDownloadTest.DisableSendfileConfiguration.class)
+@TestExecutionListeners(listeners = {ServletTestExecutionListener.class,
+    DependencyInjectionTestExecutionListener.class,
+    DirtiesContextTestExecutionListener.class,
+    TransactionalTestExecutionListener.class,
+    WithSecurityContextTestExecutionListener.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.threads.virtual.enabled=false", "server.tomcat.threads.max=4", "repo.download.async.enabled=false"})
+public class PlatformThreadDownloadTest extends AbstractBlockingDownloadTest {
+
+    private static final int THREADS = 4;
+
+    @Test
+    public void testThreadPoolSaturatedBySlowDownloads() throws Exception {
+        int concurrent = runDownloads(10, TimeUnit.SECONDS);
+        Assert.assertTrue("Expected at most " + THREADS + " concurrent downloads, but " + concurrent + " were in progress.", concurrent <= THREADS);
+        Assert.assertTrue("Expected the thread pool to be saturated.", concurrent > 0);
+    }
+}
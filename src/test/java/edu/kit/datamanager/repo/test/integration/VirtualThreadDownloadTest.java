@@ -0,0 +1,61 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.test.integration;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithSecurityContextTestExecutionListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
+import org.springframework.test.context.support.DirtiesContextTestExecutionListener;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.test.context.web.ServletTestExecutionListener;
+
+/**
+ * Load test for downloads while requests are executed on virtual threads.
+ * Although Tomcat is limited to fewer threads than there are clients, all
+ * downloads are in progress at the same time. See PlatformThreadDownloadTest
+ * for the same workload on a fixed pool of platform threads.
+ *
+ * @author jejkal
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Import(AbstractBlockingDownloadTest.DisableSendfileConfiguration.class)
+@TestExecutionListeners(listeners = {ServletTestExecutionListener.class,
+    DependencyInjectionTestExecutionListener.class,
+    DirtiesContextTestExecutionListener.class,
+    TransactionalTestExecutionListener.class,
+    WithSecurityContextTestExecutionListener.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.threads.virtual.enabled=true", "server.tomcat.threads.max=4", "repo.download.async.enabled=false"})
+public class VirtualThreadDownloadTest extends AbstractBlockingDownloadTest {
+
+    @Test
+    public void testConcurrentSlowDownloads() throws Exception {
+        int concurrent = runDownloads(60, TimeUnit.SECONDS);
+        Assert.assertEquals("Only " + concurrent + " of " + CLIENTS + " downloads were processed concurrently.", CLIENTS, concurrent);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util.test;
+
+import edu.kit.datamanager.repo.util.ContentRangeUtils;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ *
+ * @author jejkal
+ */
+public class ContentRangeUtilsTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("rangeTest", ".txt");
+        Files.writeString(file, "0123456789abcdefghij");
+    }
+
+    @Test
+    public void testFullDownload() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ContentRangeUtils.serveFile(file, "text/plain", "etag1", request, response);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        Assert.assertEquals("\"etag1\"", response.getHeader(HttpHeaders.ETAG));
+        Assert.assertEquals(20, response.getContentLengthLong());
+        Assert.assertEquals("0123456789abcdefghij", response.getContentAsString());
+    }
+
+    @Test
+    public void testSingleRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ContentRangeUtils.serveFile(file, "text/plain", "etag1", request, response);
+        Assert.assertEquals(206, response.getStatus());
+        Assert.assertEquals("bytes 5-9/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        Assert.assertEquals("56789", response.getContentAsString());
+
+        //suffix range
+        request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        response = new MockHttpServletResponse();
+        ContentRangeUtils.serveFile(file, "text/plain", "etag1", request, response);
+        Assert.assertEquals(206, response.getStatus());
+        Assert.assertEquals("bytes 17-19/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        Assert.assertEquals("hij", response.getContentAsString());
+    }
+
+    @Test
+    public void testMultipleRanges() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1,10-11");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ContentRangeUtils.serveFile(file, "text/plain", "etag1", request, response);
+        Assert.assertEquals(206, response.getStatus());
+        Assert.assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String body = response.getContentAsString(StandardCharsets.US_ASCII);
+        Assert.assertTrue(body.contains("Content-Range: bytes 0-1/20\r\n\r\n01"));
+        Assert.assertTrue(body.contains("Content-Range: bytes 10-11/20\r\n\r\nab"));
+        Assert.assertEquals(body.length(), response.getContentLengthLong());
+    }
+
+    @Test
+    public void testUnsatisfiableRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-200");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ContentRangeUtils.serveFile(file, "text/plain", "etag1", request, response);
+        Assert.assertEquals(416, response.getStatus());
+        Assert.assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void testIfRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"etag1\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ContentRangeUtils.serveFile(file, "text/plain", "etag1", request, response);
+        Assert.assertEquals(206, response.getStatus());
+
+        //changed entity, the entire file must be returned
+        request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"oldEtag\"");
+        response = new MockHttpServletResponse();
+        ContentRangeUtils.serveFile(file, "text/plain", "etag1", request, response);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("0123456789abcdefghij", response.getContentAsString());
+    }
+
+    @Test
+    public void testSendfile() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(ContentRangeUtils.SENDFILE_SUPPORT_ATTRIBUTE, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ContentRangeUtils.serveFile(file, "text/plain", "etag1", request, response);
+        Assert.assertEquals(206, response.getStatus());
+        Assert.assertEquals(file.toAbsolutePath().toString(), request.getAttribute(ContentRangeUtils.SENDFILE_FILENAME_ATTRIBUTE));
+        Assert.assertEquals(5l, request.getAttribute(ContentRangeUtils.SENDFILE_START_ATTRIBUTE));
+        Assert.assertEquals(10l, request.getAttribute(ContentRangeUtils.SENDFILE_END_ATTRIBUTE));
+        Assert.assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
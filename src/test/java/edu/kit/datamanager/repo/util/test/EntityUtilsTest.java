@@ -22,6 +22,12 @@ import edu.kit.datamanager.repo.domain.Point;
 import edu.kit.datamanager.repo.domain.ResourceType;
 import edu.kit.datamanager.repo.domain.Title;
 import edu.kit.datamanager.repo.util.EntityUtils;
+import jakarta.persistence.Id;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -78,4 +84,64 @@ public class EntityUtilsTest {
         Assert.assertNull(info.getId());
     }
 
+    @Test
+    public void testRemoveIdsFromListsAndMaps() {
+        Parent parent = new Parent();
+        parent.id = 1l;
+        parent.name = "parent";
+        Child first = new Child(2l);
+        first.nested = new Child(3l);
+        parent.children.add(first);
+        parent.linkedChildren.add(new Child(4l));
+        parent.childMap.put("child", new Child(5l));
+
+        EntityUtils.removeIds(parent);
+
+        //inherited @Id should be null
+        Assert.assertNull(parent.id);
+        Assert.assertEquals("parent", parent.name);
+        //@Id of list elements and nested attributes should be null
+        Assert.assertNull(parent.children.get(0).id);
+        Assert.assertNull(parent.children.get(0).nested.id);
+        Assert.assertNull(parent.linkedChildren.getFirst().id);
+        //@Id of map values should be null
+        Assert.assertNull(parent.childMap.get("child").id);
+    }
+
+    @Test
+    public void testRemoveIdsFromCollection() {
+        List<Title> titles = new ArrayList<>();
+        Title t = Title.factoryTitle("title");
+        t.setId(1l);
+        titles.add(t);
+        titles.add(null);
+
+        EntityUtils.removeIds(titles);
+        Assert.assertNull(titles.get(0).getId());
+    }
+
+    private static class Base {
+
+        @Id
+        Long id;
+    }
+
+    private static class Parent extends Base {
+
+        String name;
+        List<Child> children = new ArrayList<>();
+        LinkedList<Child> linkedChildren = new LinkedList<>();
+        Map<String, Child> childMap = new HashMap<>();
+    }
+
+    private static class Child {
+
+        @Id
+        Long id;
+        Child nested;
+
+        Child(Long id) {
+            this.id = id;
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util.test;
+
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import edu.kit.datamanager.repo.util.KeysetCursor;
+import java.time.Instant;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author jejkal
+ */
+public class KeysetCursorTest {
+
+    @Test
+    public void testEncodeDecode() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2025-01-02T03:04:05.123456789Z"), "resource|1");
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+        Assert.assertEquals(cursor, decoded);
+    }
+
+    @Test
+    public void testEncodeDecodeWithoutTimestamp() {
+        KeysetCursor cursor = new KeysetCursor(null, "42");
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+        Assert.assertNull(decoded.getLastUpdate());
+        Assert.assertEquals("42", decoded.getId());
+    }
+
+    @Test
+    public void testEmptyCursor() {
+        Assert.assertNull(KeysetCursor.decode(""));
+        Assert.assertNull(KeysetCursor.decode(null));
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testInvalidCursor() {
+        KeysetCursor.decode("not a cursor");
+    }
+
+    @Test
+    public void testIsBefore() {
+        Instant now = Instant.now();
+        KeysetCursor cursor = new KeysetCursor(now, "b");
+        Assert.assertTrue(cursor.isBefore(now.plusMillis(1), "a"));
+        Assert.assertTrue(cursor.isBefore(now, "c"));
+        Assert.assertFalse(cursor.isBefore(now, "b"));
+        Assert.assertFalse(cursor.isBefore(now, "a"));
+        Assert.assertFalse(cursor.isBefore(now.minusMillis(1), "z"));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util.test;
+
+import edu.kit.datamanager.repo.util.LinkTemplate;
+import edu.kit.datamanager.repo.web.impl.DataResourceController;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ *
+ * @author jejkal
+ */
+public class LinkTemplateTest {
+
+    @Before
+    public void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", "/api/v1/dataresources/")));
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testTemplateFromRequestMapping() {
+        LinkTemplate resourceLink = LinkTemplate.forMethod(DataResourceController.class, "getById");
+        Assert.assertEquals("/api/v1/dataresources/{id}", resourceLink.toString());
+        LinkTemplate contentLink = LinkTemplate.forMethod(DataResourceController.class, "getContentMetadata");
+        Assert.assertEquals("/api/v1/dataresources/{id}/data/**", contentLink.toString());
+    }
+
+    @Test
+    public void testSameLinkAsWebMvcLinkBuilder() {
+        String id = "6a7a1c1e-56a5-4b71-a8d9-fb5c3d2e8f11";
+        String expected = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(DataResourceController.class).getContentMetadata(id, null, 1l, null, null, null, null)).toString();
+        LinkTemplate contentLink = LinkTemplate.forMethod(DataResourceController.class, "getContentMetadata");
+        Assert.assertEquals(expected, LinkTemplate.appendQueryParameter(contentLink.expand(id), "version", 1l));
+
+        expected = WebMvcLinkBuilder.linkTo(WebMvcLinkBuilder.methodOn(DataResourceController.class).getById(id, null, null, null)).toString();
+        Assert.assertEquals(expected, LinkTemplate.forMethod(DataResourceController.class, "getById").expand(id));
+    }
+
+    @Test
+    public void testExpand() {
+        LinkTemplate template = LinkTemplate.of("/api/v1/dataresources/{id}/data/**");
+        Assert.assertEquals("http://localhost/api/v1/dataresources/12.123%2F123/data/**", template.expand("12.123/123"));
+        Assert.assertEquals("https://example.org/api/v1/dataresources/a%20b/data/**", template.expand("https://example.org", "a b"));
+        Assert.assertEquals("http://localhost/api/v1/dataresources/1/data/**?version=2&tag=a%26b",
+                LinkTemplate.appendQueryParameter(LinkTemplate.appendQueryParameter(template.expand(1), "version", 2l), "tag", "a&b"));
+        Assert.assertEquals("http://localhost/api/v1/dataresources/1/data/**", LinkTemplate.appendQueryParameter(template.expand(1), "version", null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingValue() {
+        LinkTemplate.of("/api/v1/dataresources/{id}").expand();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownMethod() {
+        LinkTemplate.forMethod(DataResourceController.class, "unknown");
+    }
+}
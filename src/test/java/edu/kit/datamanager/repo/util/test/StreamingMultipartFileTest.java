@@ -0,0 +1,127 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util.test;
+
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import edu.kit.datamanager.repo.util.StreamingMultipartFile;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ *
+ * @author jejkal
+ */
+public class StreamingMultipartFileTest {
+
+    private static final byte[] DATA = "Streamed content".getBytes(StandardCharsets.UTF_8);
+
+    private MockHttpServletRequest createRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/v1/dataresources/1/data/folder/file.txt");
+        request.setContent(DATA);
+        request.setContentType("text/plain");
+        return request;
+    }
+
+    private String digest(String algorithm, byte[] data) throws Exception {
+        return Base64.getEncoder().encodeToString(MessageDigest.getInstance(algorithm).digest(data));
+    }
+
+    @Test
+    public void testStreamWithoutDigest() throws Exception {
+        StreamingMultipartFile file = StreamingMultipartFile.fromRequest(createRequest(), "folder/file.txt");
+        Assert.assertEquals("file.txt", file.getOriginalFilename());
+        Assert.assertEquals("text/plain", file.getContentType());
+        Assert.assertEquals(DATA.length, file.getSize());
+        try (InputStream in = file.getInputStream()) {
+            Assert.assertArrayEquals(DATA, in.readAllBytes());
+        }
+        Assert.assertTrue(file.isDigestValid());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStreamReadTwice() throws Exception {
+        StreamingMultipartFile file = StreamingMultipartFile.fromRequest(createRequest(), "file.txt");
+        file.getInputStream();
+        file.getInputStream();
+    }
+
+    @Test
+    public void testValidDigest() throws Exception {
+        MockHttpServletRequest request = createRequest();
+        request.addHeader(StreamingMultipartFile.CONTENT_DIGEST_HEADER, "sha-256=:" + digest("SHA-256", DATA) + ":");
+        StreamingMultipartFile file = StreamingMultipartFile.fromRequest(request, "file.txt");
+        Path target = Files.createTempFile("streamTest", ".txt");
+        file.transferTo(target);
+        Assert.assertArrayEquals(DATA, Files.readAllBytes(target));
+        Assert.assertTrue(file.isDigestValid());
+    }
+
+    @Test
+    public void testPreferredDigest() throws Exception {
+        MockHttpServletRequest request = createRequest();
+        request.addHeader(StreamingMultipartFile.CONTENT_DIGEST_HEADER, "sha-256=:" + digest("SHA-256", "other".getBytes()) + ":, sha-512=:" + digest("SHA-512", DATA) + ":");
+        StreamingMultipartFile file = StreamingMultipartFile.fromRequest(request, "file.txt");
+        file.getBytes();
+        Assert.assertTrue(file.isDigestValid());
+    }
+
+    @Test
+    public void testDigestMismatch() throws Exception {
+        MockHttpServletRequest request = createRequest();
+        request.addHeader(StreamingMultipartFile.CONTENT_DIGEST_HEADER, "sha-256=:" + digest("SHA-256", "other".getBytes()) + ":");
+        StreamingMultipartFile file = StreamingMultipartFile.fromRequest(request, "file.txt");
+        Path target = Files.createTempFile("streamTest", ".txt");
+        try {
+            file.transferTo(target);
+            Assert.fail("Reading the end of the stream should fail on a digest mismatch.");
+        } catch (IOException ex) {
+            //expected, consumers abort before committing the upload
+        }
+        Assert.assertTrue(file.isDigestMismatch());
+        Assert.assertFalse(file.isDigestValid());
+    }
+
+    @Test
+    public void testNoMismatchBeforeEndOfStream() throws Exception {
+        MockHttpServletRequest request = createRequest();
+        request.addHeader(StreamingMultipartFile.CONTENT_DIGEST_HEADER, "sha-256=:" + digest("SHA-256", "other".getBytes()) + ":");
+        StreamingMultipartFile file = StreamingMultipartFile.fromRequest(request, "file.txt");
+        file.getInputStream().read(new byte[4]);
+        Assert.assertFalse(file.isDigestMismatch());
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testUnsupportedDigest() throws Exception {
+        MockHttpServletRequest request = createRequest();
+        request.addHeader(StreamingMultipartFile.CONTENT_DIGEST_HEADER, "md5=:" + digest("MD5", DATA) + ":");
+        StreamingMultipartFile.fromRequest(request, "file.txt");
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testMalformedDigest() throws Exception {
+        MockHttpServletRequest request = createRequest();
+        request.addHeader(StreamingMultipartFile.CONTENT_DIGEST_HEADER, "sha-256=abc");
+        StreamingMultipartFile.fromRequest(request, "file.txt");
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.util.test;
+
+import edu.kit.datamanager.exceptions.BadArgumentException;
+import edu.kit.datamanager.repo.util.TabulatorQuery;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.data.domain.Sort;
+
+/**
+ *
+ * @author jejkal
+ */
+public class TabulatorQueryTest {
+
+    @Test
+    public void testParseFiltersAndSorters() {
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("page", new String[]{"1"});
+        parameters.put("filter[0][field]", new String[]{"publisher"});
+        parameters.put("filter[0][type]", new String[]{"starts"});
+        parameters.put("filter[0][value]", new String[]{"KIT"});
+        parameters.put("filter[1][field]", new String[]{"lastUpdate"});
+        parameters.put("filter[1][type]", new String[]{">="});
+        parameters.put("filter[1][value]", new String[]{"2025-01-01T00:00:00Z"});
+        parameters.put("sort[0][field]", new String[]{"lastUpdate"});
+        parameters.put("sort[0][dir]", new String[]{"desc"});
+        parameters.put("sort[1][field]", new String[]{"publisher"});
+        parameters.put("sort[1][dir]", new String[]{"asc"});
+
+        TabulatorQuery query = TabulatorQuery.parse(parameters);
+        Assert.assertTrue(query.isSorted());
+        Assert.assertEquals(Sort.by(Sort.Order.desc("lastUpdate"), Sort.Order.asc("publisher")), query.getSort());
+        Assert.assertEquals("lastUpdate>=2025-01-01T00:00:00Z&publisherstartsKIT", query.getFilterKey());
+        Assert.assertNotNull(query.toSpecification());
+    }
+
+    @Test
+    public void testEmptyFilterIsIgnored() {
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("filter[0][field]", new String[]{"title"});
+        parameters.put("filter[0][type]", new String[]{"like"});
+        parameters.put("filter[0][value]", new String[]{""});
+
+        TabulatorQuery query = TabulatorQuery.parse(parameters);
+        Assert.assertFalse(query.isSorted());
+        Assert.assertEquals("", query.getFilterKey());
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testUnsupportedField() {
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("filter[0][field]", new String[]{"acls"});
+        parameters.put("filter[0][value]", new String[]{"admin"});
+        TabulatorQuery.parse(parameters);
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testUnsupportedType() {
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("filter[0][field]", new String[]{"publisher"});
+        parameters.put("filter[0][type]", new String[]{"regex"});
+        parameters.put("filter[0][value]", new String[]{".*"});
+        TabulatorQuery.parse(parameters);
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testInvalidValue() {
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("filter[0][field]", new String[]{"state"});
+        parameters.put("filter[0][value]", new String[]{"UNKNOWN"});
+        TabulatorQuery.parse(parameters);
+    }
+
+    @Test(expected = BadArgumentException.class)
+    public void testSortByCollection() {
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("sort[0][field]", new String[]{"title"});
+        TabulatorQuery.parse(parameters);
+    }
+}
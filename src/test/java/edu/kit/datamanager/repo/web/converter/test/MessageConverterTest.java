@@ -0,0 +1,116 @@
+/*
+ * Copyright 2025 Karlsruhe Institute of Technology.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.kit.datamanager.repo.web.converter.test;
+
+import edu.kit.datamanager.entities.Identifier;
+import edu.kit.datamanager.repo.domain.Agent;
+import edu.kit.datamanager.repo.domain.DataResource;
+import edu.kit.datamanager.repo.domain.Date;
+import edu.kit.datamanager.repo.domain.RelatedIdentifier;
+import edu.kit.datamanager.repo.domain.ResourceType;
+import edu.kit.datamanager.repo.web.converter.DataCiteMessageConverter;
+import edu.kit.datamanager.repo.web.converter.ZenodoMessageConverter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+/**
+ *
+ * @author jejkal
+ */
+public class MessageConverterTest {
+
+    private static final String DATACITE_RECORD = "{\"doi\": \"10.5281/ZENODO.4456786\","
+            + "\"url\": \"https://zenodo.org/record/4456786\","
+            + "\"types\": {\"resourceType\": \"Presentation\", \"resourceTypeGeneral\": \"Text\"},"
+            + "\"creators\": [{\"name\": \"Sommer, Philipp S.\", \"givenName\": \"Philipp S.\", \"familyName\": \"Sommer\", \"affiliation\": [{\"name\": \"HZG\"}, \"GFZ\"]}],"
+            + "\"titles\": [{\"title\": \"Distributed data analysis\"}],"
+            + "\"publisher\": \"Zenodo\","
+            + "\"container\": {\"nested\": [1, 2, {\"deep\": true}]},"
+            + "\"subjects\": [{\"subject\": \"helmholtz\"}],"
+            + "\"dates\": [{\"date\": \"2021-01-22\", \"dateType\": \"Issued\"}, {\"date\": \"unknown\", \"dateType\": \"Issued\"}],"
+            + "\"publicationYear\": 2021,"
+            + "\"version\": \"v1.0\","
+            + "\"rightsList\": [{\"rights\": \"Open Access\", \"rightsUri\": \"info:eu-repo/semantics/openAccess\"}],"
+            + "\"descriptions\": [{\"description\": \"A common challenge\", \"descriptionType\": \"Abstract\"}],"
+            + "\"relatedIdentifiers\": [{\"relationType\": \"IsSupplementTo\", \"relatedIdentifier\": \"10.5281/zenodo.4456787\", \"relatedIdentifierType\": \"DOI\"}]}";
+
+    private static final String ZENODO_RECORD = "{\"id\": 50325,"
+            + "\"files\": [{\"key\": \"data.xlsb\", \"size\": 44405}],"
+            + "\"metadata\": {\"creators\": [{\"affiliation\": \"HZI\", \"name\": \"Limaye Dnyanesh\"}, {\"name\": \"Organization\"}],"
+            + "\"description\": \"Data sets for a review\","
+            + "\"doi\": \"10.5281/zenodo.50325\","
+            + "\"keywords\": [\"self-medication\"],"
+            + "\"license\": \"CC0-1.0\","
+            + "\"publication_date\": \"2016-04-23\","
+            + "\"related_identifiers\": [{\"identifier\": \"https://example.org\", \"relation\": \"isSupplementTo\", \"scheme\": \"url\"}],"
+            + "\"resource_type\": {\"title\": \"Dataset\", \"type\": \"dataset\"},"
+            + "\"title\": \"Data set for survey questionnaires\"},"
+            + "\"stats\": {\"downloads\": 151.0}}";
+
+    @Test
+    public void testReadDataCite() throws Exception {
+        DataResource resource = (DataResource) new DataCiteMessageConverter().read(DataResource.class, new MockHttpInputMessage(DATACITE_RECORD.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals("Zenodo", resource.getPublisher());
+        Assert.assertEquals("2021", resource.getPublicationYear());
+        Assert.assertEquals(ResourceType.TYPE_GENERAL.TEXT, resource.getResourceType().getTypeGeneral());
+
+        Agent creator = resource.getCreators().iterator().next();
+        Assert.assertEquals("Philipp S.", creator.getGivenName());
+        Assert.assertEquals("Sommer", creator.getFamilyName());
+
+        Assert.assertEquals("Distributed data analysis", resource.getTitles().iterator().next().getValue());
+        Assert.assertEquals("A common challenge", resource.getDescriptions().iterator().next().getDescription());
+
+        RelatedIdentifier related = resource.getRelatedIdentifiers().iterator().next();
+        Assert.assertEquals(Identifier.IDENTIFIER_TYPE.DOI, related.getIdentifierType());
+
+        //unparsable dates are skipped
+        Assert.assertEquals(1, resource.getDates().size());
+        Date date = resource.getDates().iterator().next();
+        Assert.assertEquals(Date.DATE_TYPE.ISSUED, date.getType());
+        Assert.assertEquals(Instant.parse("2021-01-22T00:00:00Z"), date.getValue());
+    }
+
+    @Test
+    public void testReadZenodo() throws Exception {
+        DataResource resource = (DataResource) new ZenodoMessageConverter().read(DataResource.class, new MockHttpInputMessage(ZENODO_RECORD.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals("2016", resource.getPublicationYear());
+        Assert.assertEquals("Data set for survey questionnaires", resource.getTitles().iterator().next().getValue());
+        //lookup of enum values ignores the case
+        Assert.assertEquals(ResourceType.TYPE_GENERAL.DATASET, resource.getResourceType().getTypeGeneral());
+        Assert.assertEquals("Dataset", resource.getResourceType().getValue());
+        RelatedIdentifier related = resource.getRelatedIdentifiers().iterator().next();
+        Assert.assertEquals(Identifier.IDENTIFIER_TYPE.URL, related.getIdentifierType());
+
+        Assert.assertEquals(2, resource.getCreators().size());
+        Assert.assertEquals(1, resource.getRights().size());
+        Assert.assertEquals(1, resource.getSubjects().size());
+    }
+
+    @Test(expected = HttpMessageNotReadableException.class)
+    public void testReadInvalidDataCite() throws Exception {
+        new DataCiteMessageConverter().read(DataResource.class, new MockHttpInputMessage("{\"doi\": ".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test(expected = HttpMessageNotReadableException.class)
+    public void testReadZenodoWithoutMetadata() throws Exception {
+        new ZenodoMessageConverter().read(DataResource.class, new MockHttpInputMessage("{\"id\": 1}".getBytes(StandardCharsets.UTF_8)));
+    }
+}